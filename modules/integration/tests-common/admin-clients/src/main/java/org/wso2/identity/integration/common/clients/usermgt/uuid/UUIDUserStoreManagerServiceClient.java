@@ -18,15 +18,19 @@ package org.wso2.identity.integration.common.clients.usermgt.uuid;
 
 import org.apache.axis2.AxisFault;
 import org.wso2.carbon.identity.test.integration.service.stub.AuthenticationResultDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.BatchResultDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.ClaimDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.ClaimValue;
 import org.wso2.carbon.identity.test.integration.service.stub.ConditionDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.LoginIdentifierDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.NewUserDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.PermissionDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.UUIDUserStoreManagerServiceStub;
 import org.wso2.carbon.identity.test.integration.service.stub.UUIDUserStoreManagerServiceUserStoreExceptionException;
 import org.wso2.carbon.identity.test.integration.service.stub.UniqueIDUserClaimSearchEntryDAO;
+import org.wso2.carbon.identity.test.integration.service.stub.UserClaimValuesDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.UserDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.UserPageDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.UserRoleListDTO;
 import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.identity.integration.common.clients.AuthenticateStub;
@@ -257,4 +261,39 @@ public class UUIDUserStoreManagerServiceClient {
 
         uuidUserStoreManagerServiceStub.updateRoleListOfUserWithID(userID, deletedRoles, newRoles);
     }
+
+    public BatchResultDTO[] addUsersWithID(NewUserDTO[] users, String profileName) throws RemoteException,
+            UUIDUserStoreManagerServiceUserStoreExceptionException {
+
+        return uuidUserStoreManagerServiceStub.addUsersWithID(users, profileName);
+    }
+
+    public BatchResultDTO[] setUsersClaimValuesWithID(UserClaimValuesDTO[] users, String profileName)
+            throws RemoteException, UUIDUserStoreManagerServiceUserStoreExceptionException {
+
+        return uuidUserStoreManagerServiceStub.setUsersClaimValuesWithID(users, profileName);
+    }
+
+    public BatchResultDTO[] deleteUsersWithID(String[] userIDs) throws RemoteException,
+            UUIDUserStoreManagerServiceUserStoreExceptionException {
+
+        return uuidUserStoreManagerServiceStub.deleteUsersWithID(userIDs);
+    }
+
+    public UserPageDTO openUserCursorWithID(String filter, int pageSize) throws RemoteException,
+            UUIDUserStoreManagerServiceUserStoreExceptionException {
+
+        return uuidUserStoreManagerServiceStub.openUserCursorWithID(filter, pageSize);
+    }
+
+    public UserPageDTO getNextUserPageWithID(String cursorId) throws RemoteException,
+            UUIDUserStoreManagerServiceUserStoreExceptionException {
+
+        return uuidUserStoreManagerServiceStub.getNextUserPageWithID(cursorId);
+    }
+
+    public void closeUserCursorWithID(String cursorId) throws RemoteException {
+
+        uuidUserStoreManagerServiceStub.closeUserCursorWithID(cursorId);
+    }
 }
@@ -42,6 +42,7 @@ public class ISIntegrationTest {
     public static final String TENANTED_URL_PATH_SPECIFIER = "/t/";
     public static final String KEYSTORE_TYPE = "PKCS12";
     public static final String KEYSTORE_NAME = "wso2carbon.p12";
+    public static final String PARALLEL_EXECUTION_PROPERTY = "is.tests.parallel";
     private static final String PRODUCT_GROUP_PORT_HTTPS = "https";
 
     protected Log log = LogFactory.getLog(getClass());
@@ -54,13 +55,46 @@ public class ISIntegrationTest {
     protected ContextUrls identityContextUrls;
     private static String jdbcClassName = "org.wso2.carbon.user.core.jdbc.JDBCUserStoreManager";
     protected LoginLogoutClient loginLogoutClient;
+    private static volatile IsolatedTenantProvider isolatedTenantProvider;
+
+    /**
+     * Registers the provider used to give each test class its own tenant when the suite runs test classes in
+     * parallel. Only tests initialized with {@link TestUserMode#TENANT_ADMIN} are moved to the isolated tenant.
+     *
+     * @param provider Isolated tenant provider, or null to use the tenants defined in automation.xml.
+     */
+    public static void setIsolatedTenantProvider(IsolatedTenantProvider provider) {
+
+        isolatedTenantProvider = provider;
+    }
+
+    /**
+     * Checks whether the suite runs test classes in parallel.
+     *
+     * @return True if the parallel execution system property is set to true.
+     */
+    public static boolean isParallelExecution() {
+
+        return Boolean.getBoolean(PARALLEL_EXECUTION_PROPERTY);
+    }
+
+    /**
+     * Checks whether this test has been initialized in the tenant created for its class.
+     *
+     * @return True if the test was initialized in an isolated tenant, false if it was initialized in a tenant defined
+     * in automation.xml or has not been initialized yet.
+     */
+    public boolean isInitializedInIsolatedTenant() {
+
+        return isServer instanceof IsolatedTenantAutomationContext;
+    }
 
     protected void init() throws Exception {
         init(TestUserMode.SUPER_TENANT_ADMIN);
     }
 
     protected void init(TestUserMode userMode) throws Exception {
-        isServer = new AutomationContext("IDENTITY", userMode);
+        isServer = createAutomationContext(userMode);
         backendURL = isServer.getContextUrls().getBackEndUrl();
         serverURL = backendURL.replace("services/", "");
         loginLogoutClient = new LoginLogoutClient(isServer);
@@ -70,6 +104,15 @@ public class ISIntegrationTest {
         userInfo = tenantInfo.getContextUser();
     }
 
+    private AutomationContext createAutomationContext(TestUserMode userMode) throws Exception {
+
+        IsolatedTenantProvider provider = isolatedTenantProvider;
+        if (provider != null && userMode == TestUserMode.TENANT_ADMIN) {
+            return new IsolatedTenantAutomationContext("IDENTITY", userMode, provider.getIsolatedTenant(getClass()));
+        }
+        return new AutomationContext("IDENTITY", userMode);
+    }
+
     protected void init(String instance, String domainKey, String userKey) throws Exception {
         isServer = new AutomationContext("IDENTITY", instance, domainKey, userKey);
         loginLogoutClient = new LoginLogoutClient(isServer);
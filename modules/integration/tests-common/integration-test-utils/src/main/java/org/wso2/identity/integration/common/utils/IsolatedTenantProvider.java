@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.common.utils;
+
+import org.wso2.carbon.automation.engine.context.beans.Tenant;
+
+/**
+ * Provides a dedicated tenant for each test class when the integration suite runs test classes in parallel.
+ * Registered through {@link ISIntegrationTest#setIsolatedTenantProvider(IsolatedTenantProvider)}.
+ */
+public interface IsolatedTenantProvider {
+
+    /**
+     * Returns the tenant reserved for the given test class, creating it on the first call.
+     *
+     * @param testClass Test class requesting the tenant.
+     * @return Tenant with the tenant admin set as both the tenant admin and the context user.
+     * @throws Exception If the tenant could not be created.
+     */
+    Tenant getIsolatedTenant(Class<?> testClass) throws Exception;
+}
@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.jacoco;
+
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Caches the analysis of archives on disk, so archives that did not change between runs, such as most of the
+ * plugins of the distribution, are not analyzed again.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the archive content. The coverage of a class is computed from the class
+ * and its execution data, so an entry also keeps a digest of the execution data of the classes of the archive and is
+ * only used while that digest matches. The coverage is restored into implementations of the public analysis
+ * interfaces of JaCoCo, so the cache does not depend on the internal classes of JaCoCo. An entry written by another
+ * JaCoCo version is not used, as the analysis of a class can differ between versions, so the class is analyzed again.
+ */
+class AnalysisCache {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final String ENTRY_EXTENSION = ".coverage";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final File cacheDirectory;
+
+    AnalysisCache(File cacheDirectory) {
+
+        if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new RuntimeException("Failed to create cache directory: " + cacheDirectory.getAbsolutePath());
+        }
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Compute the key of an archive from its content.
+     *
+     * @param archiveFile - Archive file
+     * @return - Hex encoded SHA-256 digest of the archive
+     * @throws IOException - Throws if the archive could not be read
+     */
+    String hash(File archiveFile) throws IOException {
+
+        MessageDigest digest = newDigest();
+        byte[] buf = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = new FileInputStream(archiveFile)) {
+            int len;
+            while ((len = inputStream.read(buf)) > 0) {
+                digest.update(buf, 0, len);
+            }
+        }
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Get the cached coverage of the classes of an archive.
+     *
+     * @param archiveHash        - Key of the archive
+     * @param executionDataStore - Execution data of the current run
+     * @return - Coverage of the classes, or null if there is no entry for the archive, the entry is unreadable or the
+     * execution data of the classes changed since the entry was written
+     */
+    List<IClassCoverage> get(String archiveHash, ExecutionDataStore executionDataStore) {
+
+        File entry = new File(cacheDirectory, archiveHash + ENTRY_EXTENSION);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+            if (in.readInt() != FORMAT_VERSION || !JaCoCo.VERSION.equals(in.readUTF())) {
+                return null;
+            }
+            byte[] executionDataDigest = new byte[in.readInt()];
+            in.readFully(executionDataDigest);
+            int classCount = in.readInt();
+            List<IClassCoverage> classes = new ArrayList<>(classCount);
+            for (int i = 0; i < classCount; i++) {
+                classes.add(readClass(in));
+            }
+            if (!Arrays.equals(executionDataDigest, digestExecutionData(classes, executionDataStore))) {
+                return null;
+            }
+            return classes;
+        } catch (IOException e) {
+            // An unreadable entry, such as one left behind by an interrupted run, is analyzed again.
+            return null;
+        }
+    }
+
+    /**
+     * Cache the coverage of the classes of an archive. The entry is written to a temporary file first and moved in
+     * place, so concurrent runs never read a partially written entry.
+     *
+     * @param archiveHash        - Key of the archive
+     * @param classes            - Coverage of the classes of the archive
+     * @param executionDataStore - Execution data the coverage was computed from
+     * @throws IOException - Throws if the entry could not be written
+     */
+    void put(String archiveHash, List<IClassCoverage> classes, ExecutionDataStore executionDataStore)
+            throws IOException {
+
+        Path tempEntry = Files.createTempFile(cacheDirectory.toPath(), archiveHash, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempEntry)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(JaCoCo.VERSION);
+                byte[] executionDataDigest = digestExecutionData(classes, executionDataStore);
+                out.writeInt(executionDataDigest.length);
+                out.write(executionDataDigest);
+                out.writeInt(classes.size());
+                for (IClassCoverage classCoverage : classes) {
+                    writeClass(out, classCoverage);
+                }
+            }
+            Files.move(tempEntry, new File(cacheDirectory, archiveHash + ENTRY_EXTENSION).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempEntry);
+        }
+    }
+
+    /**
+     * Digest the execution data the analysis of the given classes depends on: the probes of every class, or whether
+     * the execution data has a class with the same name but a different id.
+     */
+    private static byte[] digestExecutionData(List<IClassCoverage> classes, ExecutionDataStore executionDataStore) {
+
+        MessageDigest digest = newDigest();
+        for (IClassCoverage classCoverage : classes) {
+            digest.update(classCoverage.getName().getBytes(StandardCharsets.UTF_8));
+            ExecutionData executionData = executionDataStore.get(classCoverage.getId());
+            if (executionData != null) {
+                digest.update((byte) 1);
+                for (boolean probe : executionData.getProbes()) {
+                    digest.update((byte) (probe ? 1 : 0));
+                }
+            } else {
+                digest.update((byte) (executionDataStore.contains(classCoverage.getName()) ? 2 : 3));
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void writeClass(DataOutputStream out, IClassCoverage classCoverage) throws IOException {
+
+        out.writeUTF(classCoverage.getName());
+        out.writeLong(classCoverage.getId());
+        out.writeBoolean(classCoverage.isNoMatch());
+        writeNullableString(out, classCoverage.getSignature());
+        writeNullableString(out, classCoverage.getSuperName());
+        writeNullableString(out, classCoverage.getSourceFileName());
+        String[] interfaceNames = classCoverage.getInterfaceNames();
+        out.writeInt(interfaceNames != null ? interfaceNames.length : -1);
+        if (interfaceNames != null) {
+            for (String interfaceName : interfaceNames) {
+                out.writeUTF(interfaceName);
+            }
+        }
+
+        Collection<IMethodCoverage> methods = classCoverage.getMethods();
+        out.writeInt(methods.size());
+        for (IMethodCoverage method : methods) {
+            out.writeUTF(method.getName());
+            out.writeUTF(method.getDesc());
+            writeNullableString(out, method.getSignature());
+            writeCounter(out, method.getInstructionCounter());
+            writeCounter(out, method.getBranchCounter());
+            writeCounter(out, method.getComplexityCounter());
+            writeCounter(out, method.getMethodCounter());
+            List<Integer> lineNumbers = new ArrayList<>();
+            if (method.getFirstLine() != ISourceNode.UNKNOWN_LINE) {
+                for (int lineNumber = method.getFirstLine(); lineNumber <= method.getLastLine(); lineNumber++) {
+                    if (method.getLine(lineNumber).getInstructionCounter().getTotalCount() > 0) {
+                        lineNumbers.add(lineNumber);
+                    }
+                }
+            }
+            out.writeInt(lineNumbers.size());
+            for (int lineNumber : lineNumbers) {
+                ILine line = method.getLine(lineNumber);
+                out.writeInt(lineNumber);
+                writeCounter(out, line.getInstructionCounter());
+                writeCounter(out, line.getBranchCounter());
+            }
+        }
+    }
+
+    private static IClassCoverage readClass(DataInputStream in) throws IOException {
+
+        CachedClassCoverage classCoverage = new CachedClassCoverage(in.readUTF(), in.readLong(), in.readBoolean());
+        classCoverage.signature = readNullableString(in);
+        classCoverage.superName = readNullableString(in);
+        classCoverage.sourceFileName = readNullableString(in);
+        int interfaceCount = in.readInt();
+        if (interfaceCount >= 0) {
+            classCoverage.interfaceNames = new String[interfaceCount];
+            for (int i = 0; i < interfaceCount; i++) {
+                classCoverage.interfaceNames[i] = in.readUTF();
+            }
+        }
+
+        int methodCount = in.readInt();
+        for (int i = 0; i < methodCount; i++) {
+            CachedMethodCoverage method = new CachedMethodCoverage(in.readUTF(), in.readUTF(),
+                    readNullableString(in));
+            // The lines give the line counter, the method totals also cover instructions without line numbers.
+            method.instructionCounter = readCounter(in);
+            method.branchCounter = readCounter(in);
+            method.complexityCounter = readCounter(in);
+            method.methodCounter = readCounter(in);
+            int lineCount = in.readInt();
+            for (int j = 0; j < lineCount; j++) {
+                int lineNumber = in.readInt();
+                method.incrementLine(lineNumber, readCounter(in), readCounter(in));
+            }
+            classCoverage.addMethod(method);
+        }
+        return classCoverage;
+    }
+
+    private static void writeCounter(DataOutputStream out, ICounter counter) throws IOException {
+
+        out.writeInt(counter.getMissedCount());
+        out.writeInt(counter.getCoveredCount());
+    }
+
+    private static CachedCounter readCounter(DataInputStream in) throws IOException {
+
+        int missed = in.readInt();
+        int covered = in.readInt();
+        return new CachedCounter(missed, covered);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static MessageDigest newDigest() {
+
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Counter restored from the cache.
+     */
+    private static class CachedCounter implements ICounter {
+
+        private static final CachedCounter ZERO = new CachedCounter(0, 0);
+        private static final CachedCounter MISSED = new CachedCounter(1, 0);
+        private static final CachedCounter COVERED = new CachedCounter(0, 1);
+
+        private final int missed;
+        private final int covered;
+
+        CachedCounter(int missed, int covered) {
+
+            this.missed = missed;
+            this.covered = covered;
+        }
+
+        CachedCounter add(ICounter counter) {
+
+            return new CachedCounter(missed + counter.getMissedCount(), covered + counter.getCoveredCount());
+        }
+
+        @Override
+        public double getValue(CounterValue value) {
+
+            switch (value) {
+                case TOTALCOUNT:
+                    return getTotalCount();
+                case MISSEDCOUNT:
+                    return getMissedCount();
+                case COVEREDCOUNT:
+                    return getCoveredCount();
+                case MISSEDRATIO:
+                    return getMissedRatio();
+                case COVEREDRATIO:
+                    return getCoveredRatio();
+                default:
+                    throw new IllegalArgumentException("Unknown counter value: " + value);
+            }
+        }
+
+        @Override
+        public int getTotalCount() {
+
+            return missed + covered;
+        }
+
+        @Override
+        public int getCoveredCount() {
+
+            return covered;
+        }
+
+        @Override
+        public int getMissedCount() {
+
+            return missed;
+        }
+
+        @Override
+        public double getCoveredRatio() {
+
+            return (double) covered / (missed + covered);
+        }
+
+        @Override
+        public double getMissedRatio() {
+
+            return (double) missed / (missed + covered);
+        }
+
+        @Override
+        public int getStatus() {
+
+            int status = covered > 0 ? FULLY_COVERED : EMPTY;
+            if (missed > 0) {
+                status |= NOT_COVERED;
+            }
+            return status;
+        }
+    }
+
+    /**
+     * Line restored from the cache.
+     */
+    private static class CachedLine implements ILine {
+
+        private static final CachedLine EMPTY = new CachedLine(CachedCounter.ZERO, CachedCounter.ZERO);
+
+        private final CachedCounter instructionCounter;
+        private final CachedCounter branchCounter;
+
+        CachedLine(CachedCounter instructionCounter, CachedCounter branchCounter) {
+
+            this.instructionCounter = instructionCounter;
+            this.branchCounter = branchCounter;
+        }
+
+        CachedLine add(ILine line) {
+
+            return new CachedLine(instructionCounter.add(line.getInstructionCounter()),
+                    branchCounter.add(line.getBranchCounter()));
+        }
+
+        @Override
+        public ICounter getInstructionCounter() {
+
+            return instructionCounter;
+        }
+
+        @Override
+        public ICounter getBranchCounter() {
+
+            return branchCounter;
+        }
+
+        @Override
+        public int getStatus() {
+
+            return instructionCounter.getStatus() | branchCounter.getStatus();
+        }
+    }
+
+    /**
+     * Method or class restored from the cache. The line counter is derived from the lines the way JaCoCo does: a line
+     * is covered when at least one of its instructions is covered.
+     */
+    private abstract static class CachedSourceNode implements ISourceNode {
+
+        private final ElementType elementType;
+        private final String name;
+        private final TreeMap<Integer, CachedLine> lines = new TreeMap<>();
+        private int missedLines;
+        private int coveredLines;
+        CachedCounter instructionCounter = CachedCounter.ZERO;
+        CachedCounter branchCounter = CachedCounter.ZERO;
+        CachedCounter complexityCounter = CachedCounter.ZERO;
+        CachedCounter methodCounter = CachedCounter.ZERO;
+        CachedCounter classCounter = CachedCounter.ZERO;
+
+        CachedSourceNode(ElementType elementType, String name) {
+
+            this.elementType = elementType;
+            this.name = name;
+        }
+
+        void incrementLine(int lineNumber, CachedCounter instructions, CachedCounter branches) {
+
+            CachedLine line = new CachedLine(instructions, branches);
+            CachedLine previous = lines.get(lineNumber);
+            if (previous != null) {
+                countLine(previous, -1);
+                line = previous.add(line);
+            }
+            lines.put(lineNumber, line);
+            countLine(line, 1);
+        }
+
+        Map<Integer, CachedLine> getLines() {
+
+            return lines;
+        }
+
+        private void countLine(ILine line, int delta) {
+
+            ICounter instructions = line.getInstructionCounter();
+            if (instructions.getTotalCount() == 0) {
+                return;
+            }
+            if (instructions.getCoveredCount() == 0) {
+                missedLines += delta;
+            } else {
+                coveredLines += delta;
+            }
+        }
+
+        @Override
+        public ElementType getElementType() {
+
+            return elementType;
+        }
+
+        @Override
+        public String getName() {
+
+            return name;
+        }
+
+        @Override
+        public ICounter getInstructionCounter() {
+
+            return instructionCounter;
+        }
+
+        @Override
+        public ICounter getBranchCounter() {
+
+            return branchCounter;
+        }
+
+        @Override
+        public ICounter getLineCounter() {
+
+            return new CachedCounter(missedLines, coveredLines);
+        }
+
+        @Override
+        public ICounter getComplexityCounter() {
+
+            return complexityCounter;
+        }
+
+        @Override
+        public ICounter getMethodCounter() {
+
+            return methodCounter;
+        }
+
+        @Override
+        public ICounter getClassCounter() {
+
+            return classCounter;
+        }
+
+        @Override
+        public ICounter getCounter(CounterEntity entity) {
+
+            switch (entity) {
+                case INSTRUCTION:
+                    return getInstructionCounter();
+                case BRANCH:
+                    return getBranchCounter();
+                case LINE:
+                    return getLineCounter();
+                case COMPLEXITY:
+                    return getComplexityCounter();
+                case METHOD:
+                    return getMethodCounter();
+                case CLASS:
+                    return getClassCounter();
+                default:
+                    throw new IllegalArgumentException("Unknown counter entity: " + entity);
+            }
+        }
+
+        @Override
+        public boolean containsCode() {
+
+            return instructionCounter.getTotalCount() != 0;
+        }
+
+        @Override
+        public ICoverageNode getPlainCopy() {
+
+            CoverageNodeImpl copy = new CoverageNodeImpl(elementType, name);
+            copy.increment(this);
+            return copy;
+        }
+
+        @Override
+        public int getFirstLine() {
+
+            return lines.isEmpty() ? UNKNOWN_LINE : lines.firstKey();
+        }
+
+        @Override
+        public int getLastLine() {
+
+            return lines.isEmpty() ? UNKNOWN_LINE : lines.lastKey();
+        }
+
+        @Override
+        public ILine getLine(int nr) {
+
+            CachedLine line = lines.get(nr);
+            return line != null ? line : CachedLine.EMPTY;
+        }
+    }
+
+    /**
+     * Method coverage restored from the cache. The counters of the method are set as they were analyzed, since the
+     * complexity can not be derived from the line counters alone.
+     */
+    private static class CachedMethodCoverage extends CachedSourceNode implements IMethodCoverage {
+
+        private final String desc;
+        private final String signature;
+
+        CachedMethodCoverage(String name, String desc, String signature) {
+
+            super(ElementType.METHOD, name);
+            this.desc = desc;
+            this.signature = signature;
+        }
+
+        @Override
+        public String getDesc() {
+
+            return desc;
+        }
+
+        @Override
+        public String getSignature() {
+
+            return signature;
+        }
+    }
+
+    /**
+     * Class coverage restored from the cache. Like the class coverage of JaCoCo, it sums up the counters and lines of
+     * its methods and is covered when at least one of its methods is covered.
+     */
+    private static class CachedClassCoverage extends CachedSourceNode implements IClassCoverage {
+
+        private final long id;
+        private final boolean noMatch;
+        private final List<IMethodCoverage> methods = new ArrayList<>();
+        private String signature;
+        private String superName;
+        private String[] interfaceNames;
+        private String sourceFileName;
+
+        CachedClassCoverage(String name, long id, boolean noMatch) {
+
+            super(ElementType.CLASS, name);
+            this.id = id;
+            this.noMatch = noMatch;
+        }
+
+        void addMethod(CachedMethodCoverage method) {
+
+            methods.add(method);
+            instructionCounter = instructionCounter.add(method.getInstructionCounter());
+            branchCounter = branchCounter.add(method.getBranchCounter());
+            complexityCounter = complexityCounter.add(method.getComplexityCounter());
+            methodCounter = methodCounter.add(method.getMethodCounter());
+            for (Map.Entry<Integer, CachedLine> line : method.getLines().entrySet()) {
+                incrementLine(line.getKey(), line.getValue().instructionCounter, line.getValue().branchCounter);
+            }
+            classCounter = methodCounter.getCoveredCount() > 0 ? CachedCounter.COVERED : CachedCounter.MISSED;
+        }
+
+        @Override
+        public long getId() {
+
+            return id;
+        }
+
+        @Override
+        public boolean isNoMatch() {
+
+            return noMatch;
+        }
+
+        @Override
+        public String getSignature() {
+
+            return signature;
+        }
+
+        @Override
+        public String getSuperName() {
+
+            return superName;
+        }
+
+        @Override
+        public String[] getInterfaceNames() {
+
+            return interfaceNames;
+        }
+
+        @Override
+        public String getPackageName() {
+
+            int separator = getName().lastIndexOf('/');
+            return separator == -1 ? "" : getName().substring(0, separator);
+        }
+
+        @Override
+        public String getSourceFileName() {
+
+            return sourceFileName;
+        }
+
+        @Override
+        public Collection<IMethodCoverage> getMethods() {
+
+            return methods;
+        }
+    }
+}
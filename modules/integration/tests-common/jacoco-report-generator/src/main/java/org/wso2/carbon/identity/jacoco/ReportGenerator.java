@@ -18,43 +18,55 @@
 
 package org.wso2.carbon.identity.jacoco;
 
-import org.codehaus.plexus.util.DirectoryScanner;
-import org.codehaus.plexus.util.FileUtils;
 import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.tools.ExecFileLoader;
 import org.jacoco.report.DirectorySourceFileLocator;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.xml.XMLFormatter;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 /**
- * This will create an XML report projects based on a single execution data store called jacoco.exec.
+ * This will create an XML report for the classes in the given directories based on one or more execution data
+ * files, such as jacoco.exec. The execution data files are merged, and the archives are analyzed in parallel
+ * straight from the archive without extracting them.
  */
 public class ReportGenerator {
 
-    private static final String CLASS_FILE_PATTERN = "**/*.class";
-    private static final int BUFFER_SIZE = 1024;
-    private static final String INVALID_EXTENSION_ERROR = "Invalid extension: %s is invalid";
-    private static final String EXTRACTION_ERROR = "Error on archive extraction";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String JAR_FILE_EXTENSION = ".jar";
+    private static final String WAR_FILE_EXTENSION = ".war";
+    private static final String EXECUTION_DATA_FILE_SEPARATOR = ",";
+    private static final String CACHE_DIRECTORY_OPTION = "--cache-dir";
+    private static final String PARALLELISM_OPTION = "--parallelism";
+    private static final String USAGE = "Usage: java -jar ReportGenerator.jar [" + CACHE_DIRECTORY_OPTION +
+            " <cacheDirectory>] [" + PARALLELISM_OPTION + " <threads>] " +
+            "<executionDataFile1>[,<executionDataFile2>...] <classDirectory1> [<classDirectory2> ...]";
 
     private final String title;
-    private final File executionDataFile;
+    private final List<File> executionDataFiles;
     private final Set<File> classDirectories;
     private final File xmlReport;
-    private final File tempDirectory;
+    private final AnalysisCache analysisCache;
+    private final int parallelism;
 
     private ExecFileLoader execFileLoader;
 
@@ -62,31 +74,66 @@ public class ReportGenerator {
      * Starts the report generation process
      *
      * @param args Arguments to the report generation.
-     *             <executionDataFile> <classDirectory1> [<classDirectory2> ...]
+     *             [--cache-dir <cacheDirectory>] [--parallelism <threads>]
+     *             <executionDataFile1>[,<executionDataFile2>...] <classDirectory1> [<classDirectory2> ...]
      * @throws IOException
      */
     public static void main(final String[] args) throws IOException {
 
-        if (args.length < 2) {
-            System.err.println("Usage: java -jar ReportGenerator.jar <executionDataFile> <classDirectory1> " +
-                    "[<classDirectory2> ...]");
-            System.exit(1);
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        File cacheDirectory = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        while (!arguments.isEmpty() && arguments.get(0).startsWith("--")) {
+            String option = arguments.remove(0);
+            if (arguments.isEmpty()) {
+                exitWithUsage("Missing value of the option " + option);
+            }
+            String value = arguments.remove(0);
+            if (CACHE_DIRECTORY_OPTION.equals(option)) {
+                cacheDirectory = new File(value);
+            } else if (PARALLELISM_OPTION.equals(option)) {
+                try {
+                    parallelism = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    exitWithUsage("Invalid value of the option " + option + ": " + value);
+                }
+            } else {
+                exitWithUsage("Unknown option: " + option);
+            }
+        }
+        if (arguments.size() < 2) {
+            exitWithUsage(null);
         }
 
-        File executionDataFile = new File(args[0]);
+        List<File> executionDataFiles = new ArrayList<>();
+        for (String executionDataFile : arguments.get(0).split(EXECUTION_DATA_FILE_SEPARATOR)) {
+            if (!executionDataFile.trim().isEmpty()) {
+                executionDataFiles.add(new File(executionDataFile.trim()));
+            }
+        }
         Set<File> classDirectories = new HashSet<>();
-        for (int i = 1; i < args.length; i++) {
-            classDirectories.add(new File(args[i]));
+        for (int i = 1; i < arguments.size(); i++) {
+            classDirectories.add(new File(arguments.get(i)));
         }
 
         try {
-            final ReportGenerator generator = new ReportGenerator(executionDataFile, classDirectories);
+            final ReportGenerator generator = new ReportGenerator(executionDataFiles, classDirectories,
+                    cacheDirectory, parallelism);
             generator.create();
         } catch (Exception e) {
             System.err.println("Error while creating report: " + e.getMessage());
         }
     }
 
+    private static void exitWithUsage(String error) {
+
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+
     /**
      * Create a new generator based for the given project.
      *
@@ -95,11 +142,40 @@ public class ReportGenerator {
      */
     public ReportGenerator(File executionDataFile, Set<File> classDirectories) {
 
+        this(Collections.singletonList(executionDataFile), classDirectories, null,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new generator that merges the given execution data files and analyzes the archives in parallel.
+     *
+     * @param executionDataFiles the execution data files to merge
+     * @param classDirectories   the set of class directories
+     * @param cacheDirectory     directory to cache the analysis of the archives in, or null to analyze every
+     *                           archive on every run
+     * @param parallelism        number of archives analyzed in parallel
+     */
+    public ReportGenerator(List<File> executionDataFiles, Set<File> classDirectories, File cacheDirectory,
+                           int parallelism) {
+
+        this(executionDataFiles, classDirectories, cacheDirectory, parallelism, new File("./report/jacoco.xml"));
+    }
+
+    ReportGenerator(List<File> executionDataFiles, Set<File> classDirectories, File cacheDirectory, int parallelism,
+                    File xmlReport) {
+
+        if (executionDataFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one execution data file is required");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
         this.title = "Jacoco Coverage Report";
-        this.executionDataFile = executionDataFile;
+        this.executionDataFiles = executionDataFiles;
         this.classDirectories = classDirectories;
-        this.xmlReport = new File("./report/jacoco.xml");
-        this.tempDirectory = new File("./tmp");
+        this.xmlReport = xmlReport;
+        this.analysisCache = cacheDirectory != null ? new AnalysisCache(cacheDirectory) : null;
+        this.parallelism = parallelism;
 
         // Create report directory if it does not exist
         File reportDir = this.xmlReport.getParentFile();
@@ -109,19 +185,17 @@ public class ReportGenerator {
     }
 
     /**
-     * Create the report based on the jacoco.exec file.
+     * Create the report based on the execution data files.
      *
      * @throws IOException - Throws if report creation fails
      */
     public void create() throws IOException {
 
-        // Read the jacoco.exec file. Multiple data files could be merged at this point
+        // Read the execution data files. The loader merges the data of every file it loads.
         loadExecutionData();
 
-        // Run the structure analyzer on a single class folder to build up the coverage model. The process would be
-        // similar if your classes were in a jar file. Typically, you would create a bundle for each class folder and
-        // each jar you want in your report. If you have more than one bundle you will need to add a grouping node to
-        // your report.
+        // Run the structure analyzer on every archive and class folder to build up the coverage model. The archives
+        // are analyzed in parallel, each with its own analyzer, and the classes are merged into a single bundle.
         final IBundleCoverage bundleCoverage = analyzeStructure();
 
         createReport(bundleCoverage);
@@ -130,46 +204,49 @@ public class ReportGenerator {
     private void loadExecutionData() throws IOException {
 
         execFileLoader = new ExecFileLoader();
-        execFileLoader.load(executionDataFile);
+        for (File executionDataFile : executionDataFiles) {
+            execFileLoader.load(executionDataFile);
+        }
     }
 
     private IBundleCoverage analyzeStructure() throws IOException {
 
-        final CoverageBuilder coverageBuilder = new CoverageBuilder();
-        final Analyzer analyzer = new Analyzer(execFileLoader.getExecutionDataStore(), coverageBuilder);
-
         List<File> jarFilesToAnalyze = new ArrayList<>();
         List<File> classFilesToAnalyze = new ArrayList<>();
 
         for (File classDirectory : classDirectories) {
             // Jar files to analyze
-            File[] files =
-                    classDirectory.listFiles((dir, name)
-                            -> name.startsWith("org.wso2.carbon") && !name.contains(".stub_"));
+            File[] files = classDirectory.listFiles((dir, name) -> isAnalyzedArchive(name));
             if (files != null) {
                 jarFilesToAnalyze.addAll(Arrays.asList(files));
             }
 
             // Class files to analyze
-            files = classDirectory.listFiles((dir, name) -> name.endsWith(".class"));
+            files = classDirectory.listFiles((dir, name) -> name.endsWith(CLASS_FILE_EXTENSION));
             if (files != null) {
                 classFilesToAnalyze.addAll(Arrays.asList(files));
             }
         }
+        // The classes are added to the bundle in the same order on every run, whatever order the archives finish in.
+        Collections.sort(jarFilesToAnalyze);
 
-        String[] includes = {CLASS_FILE_PATTERN};
-        String[] excludes = {"-*.stub*", "-*.stub_", "-*.stub_4.0.0", "-*.stub-"};
-
-        for (final File jarFile : jarFilesToAnalyze) {
-            String extractedDir = extractJarFile(jarFile.getAbsolutePath(), tempDirectory);
-            String[] classFiles = scanDirectory(extractedDir, includes, excludes);
-
-            for (String classFile : classFiles) {
-                analyzer.analyzeAll(new File(extractedDir + File.separator + classFile));
+        final CoverageBuilder coverageBuilder = new CoverageBuilder();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<IClassCoverage>>> archiveAnalyses = new ArrayList<>();
+            for (final File jarFile : jarFilesToAnalyze) {
+                archiveAnalyses.add(pool.submit(() -> analyzeArchive(jarFile)));
             }
-            FileUtils.forceDelete(new File(extractedDir));
+            for (ForkJoinTask<List<IClassCoverage>> archiveAnalysis : archiveAnalyses) {
+                for (IClassCoverage classCoverage : getArchiveAnalysis(archiveAnalysis)) {
+                    coverageBuilder.visitCoverage(classCoverage);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
         }
 
+        final Analyzer analyzer = new Analyzer(execFileLoader.getExecutionDataStore(), coverageBuilder);
         for (final File classFile : classFilesToAnalyze) {
             analyzer.analyzeAll(classFile);
         }
@@ -177,6 +254,96 @@ public class ReportGenerator {
         return coverageBuilder.getBundle(title);
     }
 
+    private static List<IClassCoverage> getArchiveAnalysis(ForkJoinTask<List<IClassCoverage>> archiveAnalysis)
+            throws IOException {
+
+        try {
+            return archiveAnalysis.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analyzing the archives", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error while analyzing the archives", e.getCause());
+        }
+    }
+
+    /**
+     * Analyze the classes of a jar or war file, reusing the cached analysis if neither the archive nor the execution
+     * data of its classes changed since it was cached.
+     *
+     * @param archiveFile - Jar or war file
+     * @return - Coverage of the classes in the archive
+     * @throws IOException - Throws if the archive could not be read
+     */
+    private List<IClassCoverage> analyzeArchive(File archiveFile) throws IOException {
+
+        if (analysisCache == null) {
+            return analyzeArchiveEntries(archiveFile);
+        }
+        String archiveHash = analysisCache.hash(archiveFile);
+        List<IClassCoverage> classes = analysisCache.get(archiveHash, execFileLoader.getExecutionDataStore());
+        if (classes == null) {
+            classes = analyzeArchiveEntries(archiveFile);
+            analysisCache.put(archiveHash, classes, execFileLoader.getExecutionDataStore());
+        }
+        return classes;
+    }
+
+    /**
+     * Check whether an archive is analyzed, either in a class directory or nested in another archive, such as a jar
+     * in the WEB-INF/lib directory of a war.
+     *
+     * @param name - File name of the archive
+     * @return - True if the classes of the archive are analyzed
+     */
+    private static boolean isAnalyzedArchive(String name) {
+
+        return name.startsWith("org.wso2.carbon") && !name.contains(".stub_") &&
+                (name.endsWith(JAR_FILE_EXTENSION) || name.endsWith(WAR_FILE_EXTENSION));
+    }
+
+    /**
+     * Analyze the class files of a jar or war file while reading it, including those of the analyzed archives nested
+     * in it.
+     *
+     * @param archiveFile - Jar or war file
+     * @return - Coverage of the classes in the archive
+     * @throws IOException - Throws if the archive could not be read
+     */
+    private List<IClassCoverage> analyzeArchiveEntries(File archiveFile) throws IOException {
+
+        List<IClassCoverage> classes = new ArrayList<>();
+        // Analyzers are not thread safe, so every archive gets its own analyzer.
+        Analyzer analyzer = new Analyzer(execFileLoader.getExecutionDataStore(), classes::add);
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(
+                new FileInputStream(archiveFile)))) {
+            analyzeZipEntries(analyzer, zipInputStream, archiveFile.getName());
+        } catch (IOException e) {
+            throw new IOException("Could not analyze the file " + archiveFile.getName(), e);
+        }
+        return classes;
+    }
+
+    private static void analyzeZipEntries(Analyzer analyzer, ZipInputStream zipInputStream, String location)
+            throws IOException {
+
+        ZipEntry zipEntry;
+        while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+            String entryName = zipEntry.getName();
+            if (!zipEntry.isDirectory() && entryName.endsWith(CLASS_FILE_EXTENSION)) {
+                analyzer.analyzeClass(zipInputStream, location + "@" + entryName);
+            } else if (!zipEntry.isDirectory() &&
+                    isAnalyzedArchive(entryName.substring(entryName.lastIndexOf('/') + 1))) {
+                // The nested stream is not closed, as closing it would close the stream of the enclosing archive.
+                analyzeZipEntries(analyzer, new ZipInputStream(zipInputStream), location + "@" + entryName);
+            }
+            zipInputStream.closeEntry();
+        }
+    }
+
     /**
      * Create a concrete report visitor based on some supplied configuration. In this case we use the defaults.
      * @param bundleCoverage - Bundle coverage
@@ -202,87 +369,4 @@ public class ReportGenerator {
             visitor.visitEnd();
         }
     }
-
-    /**
-     * Extract jar files given at jar file path
-     *
-     * @param jarFilePath - Jar file path
-     * @param tempDir     - Temporary directory to extract jar file
-     * @return - Jar file extracted directory.
-     * @throws IOException - Throws if jar extraction fails
-     */
-    private String extractJarFile(String jarFilePath, File tempDir) throws IOException {
-
-        if (!jarFilePath.endsWith(".war") && !jarFilePath.endsWith(".jar")) {
-            throw new IllegalArgumentException(String.format(INVALID_EXTENSION_ERROR, jarFilePath));
-        }
-
-        String jarFileName = new File(jarFilePath).getName();
-        String tempExtractedDir = new File(tempDir, jarFileName.substring(0, jarFileName.lastIndexOf('.'))).getPath();
-
-        try {
-            extractFile(jarFilePath, tempExtractedDir);
-        } catch (IOException e) {
-            throw new IOException("Could not extract the file " + jarFileName, e);
-        }
-        return tempExtractedDir;
-    }
-
-    /**
-     * Scan given directory for include and exclude patterns.
-     *
-     * @param jarExtractedDir - Path to check for given include/exclude pattern
-     * @param includes        - Include pattern array
-     * @param excludes        - Exclude class pattern array
-     * @return - Included files
-     */
-    private String[] scanDirectory(String jarExtractedDir, String[] includes, String[] excludes) {
-
-        DirectoryScanner ds = new DirectoryScanner();
-
-        ds.setIncludes(includes);
-        ds.setExcludes(excludes);
-        ds.setBasedir(new File(jarExtractedDir));
-        ds.setCaseSensitive(true);
-
-        ds.scan();
-        return ds.getIncludedFiles();
-    }
-
-    /**
-     * Extract the given archive file to the given directory
-     *
-     * @param sourceFilePath - Path to the archive file
-     * @param extractedDir   - Path to the directory to extract the archive file
-     * @throws IOException - Throws if extraction fails
-     */
-    private void extractFile(String sourceFilePath, String extractedDir) throws IOException {
-
-        byte[] buf = new byte[BUFFER_SIZE];
-        try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(sourceFilePath))) {
-            ZipEntry zipEntry;
-            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
-                File newFile = new File(extractedDir, zipEntry.getName());
-                if (zipEntry.isDirectory()) {
-                    if (!newFile.isDirectory() && !newFile.mkdirs()) {
-                        throw new IOException("Failed to create directory " + newFile);
-                    }
-                } else {
-                    File parent = newFile.getParentFile();
-                    if (!parent.isDirectory() && !parent.mkdirs()) {
-                        throw new IOException("Failed to create directory " + parent);
-                    }
-                    try (FileOutputStream fos = new FileOutputStream(newFile)) {
-                        int len;
-                        while ((len = zipInputStream.read(buf)) > 0) {
-                            fos.write(buf, 0, len);
-                        }
-                    }
-                }
-                zipInputStream.closeEntry();
-            }
-        } catch (IOException e) {
-            throw new IOException(EXTRACTION_ERROR, e);
-        }
-    }
 }
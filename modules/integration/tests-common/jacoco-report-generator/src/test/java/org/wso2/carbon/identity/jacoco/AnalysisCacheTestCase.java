@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.jacoco;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests that the coverage restored from {@link AnalysisCache} is the same, node by node, as the coverage analyzed
+ * from the archives, and that {@link ReportGenerator} writes the same report with and without the cache.
+ */
+public class AnalysisCacheTestCase {
+
+    private static final String NESTED_CLASS = "org/wso2/carbon/identity/jacoco/AnalysisCache";
+    private static final String THIRD_PARTY_CLASS = "org/wso2/carbon/identity/jacoco/AnalysisCacheTestCase";
+
+    private File workDirectory;
+    private File executionDataFile;
+    private File classDirectory;
+    private ExecutionDataStore executionDataStore;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        workDirectory = Files.createTempDirectory("analysis-cache").toFile();
+        byte[] sampleClass = readClass(Sample.class);
+
+        // Run an instrumented copy of the sample, so that its classes are partly covered.
+        IRuntime runtime = new LoggerRuntime();
+        byte[] instrumentedClass = new Instrumenter(runtime).instrument(sampleClass, Sample.class.getName());
+        RuntimeData runtimeData = new RuntimeData();
+        runtime.startup(runtimeData);
+        try {
+            Class<?> instrumented = new InstrumentedClassLoader(Sample.class.getName(), instrumentedClass)
+                    .loadClass(Sample.class.getName());
+            ((Runnable) instrumented.getDeclaredConstructor().newInstance()).run();
+        } finally {
+            executionDataStore = new ExecutionDataStore();
+            SessionInfoStore sessionInfoStore = new SessionInfoStore();
+            runtimeData.collect(executionDataStore, sessionInfoStore, false);
+            runtime.shutdown();
+            executionDataFile = new File(workDirectory, "jacoco.exec");
+            try (OutputStream out = new FileOutputStream(executionDataFile)) {
+                ExecutionDataWriter writer = new ExecutionDataWriter(out);
+                sessionInfoStore.accept(writer);
+                executionDataStore.accept(writer);
+            }
+        }
+
+        // A jar with the sample, and a war with a class, an analyzed jar and a third party jar.
+        classDirectory = new File(workDirectory, "classes");
+        Assert.assertTrue(classDirectory.mkdirs());
+        Map<String, byte[]> jarEntries = new LinkedHashMap<>();
+        jarEntries.put(entryName(Sample.class), sampleClass);
+        Files.write(new File(classDirectory, "org.wso2.carbon.sample.jar").toPath(), createArchive(jarEntries));
+
+        Map<String, byte[]> nestedJarEntries = Collections.singletonMap(entryName(AnalysisCache.class),
+                readClass(AnalysisCache.class));
+        Map<String, byte[]> thirdPartyJarEntries = Collections.singletonMap(entryName(AnalysisCacheTestCase.class),
+                readClass(AnalysisCacheTestCase.class));
+        Map<String, byte[]> warEntries = new LinkedHashMap<>();
+        warEntries.put("WEB-INF/classes/" + entryName(ReportGenerator.class), readClass(ReportGenerator.class));
+        warEntries.put("WEB-INF/lib/org.wso2.carbon.nested.jar", createArchive(nestedJarEntries));
+        warEntries.put("WEB-INF/lib/third-party-1.0.jar", createArchive(thirdPartyJarEntries));
+        Files.write(new File(classDirectory, "org.wso2.carbon.sample.war").toPath(), createArchive(warEntries));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(workDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test(description = "Restore the same coverage, node by node, as the analysis of the archives.")
+    public void testRestoredCoverage() throws IOException {
+
+        AnalysisCache analysisCache = new AnalysisCache(new File(workDirectory, "restored-cache"));
+        for (File archive : listArchives()) {
+            List<IClassCoverage> analyzed = analyze(archive);
+            Assert.assertFalse(analyzed.isEmpty(), "No classes analyzed in " + archive.getName());
+            String archiveHash = analysisCache.hash(archive);
+            Assert.assertNull(analysisCache.get(archiveHash, executionDataStore));
+
+            analysisCache.put(archiveHash, analyzed, executionDataStore);
+            List<IClassCoverage> restored = analysisCache.get(archiveHash, executionDataStore);
+
+            Assert.assertNotNull(restored, "The analysis of " + archive.getName() + " was not cached.");
+            assertBundle(createBundle(restored), createBundle(analyzed));
+        }
+    }
+
+    @Test(description = "Do not restore the coverage once the execution data of the classes changed.")
+    public void testChangedExecutionData() throws IOException {
+
+        AnalysisCache analysisCache = new AnalysisCache(new File(workDirectory, "changed-cache"));
+        File archive = new File(classDirectory, "org.wso2.carbon.sample.jar");
+        String archiveHash = analysisCache.hash(archive);
+        analysisCache.put(archiveHash, analyze(archive), executionDataStore);
+
+        Assert.assertNotNull(analysisCache.get(archiveHash, executionDataStore));
+        Assert.assertNull(analysisCache.get(archiveHash, new ExecutionDataStore()));
+    }
+
+    @Test(description = "Write the same report with and without the cache.")
+    public void testReportWithCache() throws IOException {
+
+        File cacheDirectory = new File(workDirectory, "report-cache");
+        String withoutCache = createReport(null, "without-cache.xml");
+        String cacheWritten = createReport(cacheDirectory, "cache-written.xml");
+        File[] cacheEntries = cacheDirectory.listFiles((dir, name) -> name.endsWith(".coverage"));
+        Assert.assertNotNull(cacheEntries);
+        Assert.assertEquals(cacheEntries.length, 2, "Unexpected cache entries " + Arrays.toString(cacheEntries));
+        String cacheRead = createReport(cacheDirectory, "cache-read.xml");
+
+        Assert.assertEquals(cacheWritten, withoutCache);
+        Assert.assertEquals(cacheRead, withoutCache);
+    }
+
+    @Test(description = "Analyze the classes of the analyzed archives nested in a war, and only those.")
+    public void testNestedArchives() throws IOException {
+
+        String report = createReport(null, "nested.xml");
+
+        Assert.assertTrue(report.contains("<class name=\"" + NESTED_CLASS + "\""),
+                "The class of the nested archive is not in the report.");
+        Assert.assertFalse(report.contains("<class name=\"" + THIRD_PARTY_CLASS + "\""),
+                "The class of the third party archive is in the report.");
+    }
+
+    private List<File> listArchives() {
+
+        File[] archives = classDirectory.listFiles();
+        Assert.assertNotNull(archives);
+        Arrays.sort(archives);
+        return Arrays.asList(archives);
+    }
+
+    private List<IClassCoverage> analyze(File archive) throws IOException {
+
+        List<IClassCoverage> classes = new ArrayList<>();
+        new Analyzer(executionDataStore, classes::add).analyzeAll(archive);
+        return classes;
+    }
+
+    private String createReport(File cacheDirectory, String reportName) throws IOException {
+
+        File xmlReport = new File(workDirectory, reportName);
+        new ReportGenerator(Collections.singletonList(executionDataFile), Collections.singleton(classDirectory),
+                cacheDirectory, 2, xmlReport).create();
+        return new String(Files.readAllBytes(xmlReport.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static IBundleCoverage createBundle(List<IClassCoverage> classes) {
+
+        CoverageBuilder coverageBuilder = new CoverageBuilder();
+        classes.forEach(coverageBuilder::visitCoverage);
+        return coverageBuilder.getBundle("bundle");
+    }
+
+    private static void assertBundle(IBundleCoverage actual, IBundleCoverage expected) {
+
+        assertNode(actual, expected);
+        Map<String, IPackageCoverage> actualPackages = byName(actual.getPackages(), IPackageCoverage::getName);
+        Map<String, IPackageCoverage> expectedPackages = byName(expected.getPackages(), IPackageCoverage::getName);
+        Assert.assertEquals(actualPackages.keySet(), expectedPackages.keySet());
+        for (String packageName : expectedPackages.keySet()) {
+            IPackageCoverage actualPackage = actualPackages.get(packageName);
+            IPackageCoverage expectedPackage = expectedPackages.get(packageName);
+            assertNode(actualPackage, expectedPackage);
+
+            Map<String, ISourceFileCoverage> actualSourceFiles = byName(actualPackage.getSourceFiles(),
+                    ISourceFileCoverage::getName);
+            Map<String, ISourceFileCoverage> expectedSourceFiles = byName(expectedPackage.getSourceFiles(),
+                    ISourceFileCoverage::getName);
+            Assert.assertEquals(actualSourceFiles.keySet(), expectedSourceFiles.keySet());
+            for (String sourceFileName : expectedSourceFiles.keySet()) {
+                assertSourceNode(actualSourceFiles.get(sourceFileName), expectedSourceFiles.get(sourceFileName));
+            }
+
+            Map<String, IClassCoverage> actualClasses = byName(actualPackage.getClasses(), IClassCoverage::getName);
+            Map<String, IClassCoverage> expectedClasses = byName(expectedPackage.getClasses(),
+                    IClassCoverage::getName);
+            Assert.assertEquals(actualClasses.keySet(), expectedClasses.keySet());
+            for (String className : expectedClasses.keySet()) {
+                assertClass(actualClasses.get(className), expectedClasses.get(className));
+            }
+        }
+    }
+
+    private static void assertClass(IClassCoverage actual, IClassCoverage expected) {
+
+        String node = "class " + expected.getName();
+        assertSourceNode(actual, expected);
+        Assert.assertEquals(actual.getId(), expected.getId(), node);
+        Assert.assertEquals(actual.isNoMatch(), expected.isNoMatch(), node);
+        Assert.assertEquals(actual.getSignature(), expected.getSignature(), node);
+        Assert.assertEquals(actual.getSuperName(), expected.getSuperName(), node);
+        Assert.assertEquals(actual.getInterfaceNames(), expected.getInterfaceNames(), node);
+        Assert.assertEquals(actual.getPackageName(), expected.getPackageName(), node);
+        Assert.assertEquals(actual.getSourceFileName(), expected.getSourceFileName(), node);
+
+        Function<IMethodCoverage, String> methodKey = method -> method.getName() + method.getDesc();
+        Map<String, IMethodCoverage> actualMethods = byName(actual.getMethods(), methodKey);
+        Map<String, IMethodCoverage> expectedMethods = byName(expected.getMethods(), methodKey);
+        Assert.assertEquals(actualMethods.keySet(), expectedMethods.keySet(), node);
+        for (String method : expectedMethods.keySet()) {
+            assertSourceNode(actualMethods.get(method), expectedMethods.get(method));
+            Assert.assertEquals(actualMethods.get(method).getSignature(), expectedMethods.get(method).getSignature(),
+                    node + " " + method);
+        }
+    }
+
+    private static void assertSourceNode(ISourceNode actual, ISourceNode expected) {
+
+        String node = expected.getElementType() + " " + expected.getName();
+        assertNode(actual, expected);
+        Assert.assertEquals(actual.getFirstLine(), expected.getFirstLine(), node);
+        Assert.assertEquals(actual.getLastLine(), expected.getLastLine(), node);
+        if (expected.getFirstLine() == ISourceNode.UNKNOWN_LINE) {
+            return;
+        }
+        for (int lineNumber = expected.getFirstLine(); lineNumber <= expected.getLastLine(); lineNumber++) {
+            ILine actualLine = actual.getLine(lineNumber);
+            ILine expectedLine = expected.getLine(lineNumber);
+            String line = node + " line " + lineNumber;
+            assertCounter(actualLine.getInstructionCounter(), expectedLine.getInstructionCounter(), line);
+            assertCounter(actualLine.getBranchCounter(), expectedLine.getBranchCounter(), line);
+            Assert.assertEquals(actualLine.getStatus(), expectedLine.getStatus(), line);
+        }
+    }
+
+    private static void assertNode(ICoverageNode actual, ICoverageNode expected) {
+
+        String node = expected.getElementType() + " " + expected.getName();
+        Assert.assertEquals(actual.getElementType(), expected.getElementType(), node);
+        Assert.assertEquals(actual.getName(), expected.getName(), node);
+        Assert.assertEquals(actual.containsCode(), expected.containsCode(), node);
+        for (ICoverageNode.CounterEntity entity : ICoverageNode.CounterEntity.values()) {
+            assertCounter(actual.getCounter(entity), expected.getCounter(entity), node + " " + entity);
+        }
+    }
+
+    private static void assertCounter(ICounter actual, ICounter expected, String message) {
+
+        Assert.assertEquals(actual.getMissedCount(), expected.getMissedCount(), message);
+        Assert.assertEquals(actual.getCoveredCount(), expected.getCoveredCount(), message);
+        Assert.assertEquals(actual.getStatus(), expected.getStatus(), message);
+    }
+
+    private static <T> Map<String, T> byName(Collection<T> nodes, Function<T, String> name) {
+
+        Map<String, T> nodesByName = nodes.stream().collect(Collectors.toMap(name, Function.identity(),
+                (first, second) -> {
+                    throw new AssertionError("Duplicate node " + name.apply(first));
+                }, TreeMap::new));
+        Assert.assertEquals(nodesByName.size(), nodes.size());
+        return nodesByName;
+    }
+
+    private static String entryName(Class<?> type) {
+
+        return type.getName().replace('.', '/') + ".class";
+    }
+
+    private static byte[] readClass(Class<?> type) throws IOException {
+
+        try (InputStream inputStream = type.getResourceAsStream("/" + entryName(type))) {
+            Assert.assertNotNull(inputStream, "Class file of " + type.getName() + " not found.");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int len;
+            while ((len = inputStream.read(buf)) > 0) {
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] createArchive(Map<String, byte[]> entries) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+                zipOutputStream.write(entry.getValue());
+                zipOutputStream.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Loads the instrumented copy of a class, and every other class from the parent class loader.
+     */
+    private static class InstrumentedClassLoader extends ClassLoader {
+
+        private final String name;
+        private final byte[] classBytes;
+
+        InstrumentedClassLoader(String name, byte[] classBytes) {
+
+            super(AnalysisCacheTestCase.class.getClassLoader());
+            this.name = name;
+            this.classBytes = classBytes;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+
+            if (!name.equals(className)) {
+                return super.loadClass(className, resolve);
+            }
+            Class<?> loaded = findLoadedClass(className);
+            return loaded != null ? loaded : defineClass(className, classBytes, 0, classBytes.length);
+        }
+    }
+
+    /**
+     * Sample with fully covered, partly covered and missed lines, branches and methods.
+     */
+    public static class Sample implements Runnable {
+
+        private int total;
+
+        @Override
+        public void run() {
+
+            for (int value = 0; value < 3; value++) {
+                total += classify(value);
+            }
+            try {
+                total += divide(total, 0);
+            } catch (ArithmeticException e) {
+                total = -total;
+            }
+            IntUnaryOperator square = value -> value * value;
+            total = square.applyAsInt(total);
+        }
+
+        private int classify(int value) {
+
+            if (value == 0) {
+                return 0;
+            }
+            return value % 2 == 0 ? 1 : value > 100 ? 3 : 2;
+        }
+
+        private int divide(int dividend, int divisor) {
+
+            int quotient = dividend / divisor; total++;
+            return quotient;
+        }
+
+        private int neverCalled(Set<String> values) {
+
+            switch (values.size()) {
+                case 0:
+                    return 0;
+                case 1:
+                    return values.iterator().next().length();
+                default:
+                    return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.apps.test.container;
+
+import java.util.StringJoiner;
+
+/**
+ * Cypress spec result class. Holds the outcome and the duration of a single spec file.
+ */
+public class CypressSpecResult {
+
+    private final String spec;
+
+    private final long durationMillis;
+
+    private final int numberOfTests;
+
+    private final int numberOfPassingTests;
+
+    private final int numberOfFailingTests;
+
+    public CypressSpecResult(String spec, long durationMillis, int numberOfTests, int numberOfPassingTests,
+                             int numberOfFailingTests) {
+
+        this.spec = spec;
+        this.durationMillis = durationMillis;
+        this.numberOfTests = numberOfTests;
+        this.numberOfPassingTests = numberOfPassingTests;
+        this.numberOfFailingTests = numberOfFailingTests;
+    }
+
+    public String getSpec() {
+
+        return spec;
+    }
+
+    public long getDurationMillis() {
+
+        return durationMillis;
+    }
+
+    public int getNumberOfTests() {
+
+        return numberOfTests;
+    }
+
+    public int getNumberOfPassedTests() {
+
+        return numberOfPassingTests;
+    }
+
+    public int getNumberOfFailedTests() {
+
+        return numberOfFailingTests;
+    }
+
+    @Override
+    public String toString() {
+
+        return new StringJoiner(", ", CypressSpecResult.class.getSimpleName() + "[", "]")
+                .add("spec='" + spec + "'")
+                .add("durationMillis=" + durationMillis)
+                .add("tests=" + numberOfTests)
+                .add("passes=" + numberOfPassingTests)
+                .add("failures=" + numberOfFailingTests)
+                .toString();
+    }
+}
@@ -29,6 +29,8 @@ public final class CypressTestConstants {
 
     public static final String MOCHA_RESULTS_DIR = "output/results";
 
+    public static final String FAIL_FAST_PROPERTY = "cypress.failFast";
+
     private CypressTestConstants() {
 
     }
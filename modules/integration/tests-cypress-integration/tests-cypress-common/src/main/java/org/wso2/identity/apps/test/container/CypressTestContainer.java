@@ -33,6 +33,8 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Cypress Integration Test Utils.
@@ -43,6 +45,12 @@ public class CypressTestContainer {
 
     private static final Log LOG = LogFactory.getLog(CypressTestContainer.class);
 
+    private volatile String runnerPid;
+
+    private Path watchedReportsPath;
+
+    private CypressTestResults watchedResults;
+
     private CypressTestContainer() {
 
     }
@@ -99,29 +107,69 @@ public class CypressTestContainer {
      */
     public void runTestSuite(Path scriptPath) throws IOException, CypressContainerException, InterruptedException {
 
+        runTestSuite(scriptPath, null, false);
+    }
+
+    /**
+     * Execute the identity apps cypress test suite, aggregating the results of the specs while the suite runs.
+     *
+     * @param scriptPath  Path of the script to run the test suite.
+     * @param reportsPath Path the Mochawesome reports of the suite are written to. Null to aggregate the results
+     *                    only when the suite is over.
+     * @param failFast    Whether the suite should be stopped as soon as a spec has a failing test.
+     * @throws IOException When character encoding is not supported.
+     */
+    public void runTestSuite(Path scriptPath, Path reportsPath, boolean failFast)
+            throws IOException, CypressContainerException, InterruptedException {
+
         if (!Files.exists(scriptPath)) {
             throw new CypressContainerException("Script `" + scriptPath.toAbsolutePath().toString() +
                     "` does not exists!");
         }
 
+        watchedReportsPath = null;
+        watchedResults = null;
         Process process;
         if (System.getProperty("os.name").startsWith("Windows")) {
             // TODO run bat file.
             LOG.warn("Skipped the cypress integration test run.");
             return;
         } else {
-            process = new ProcessBuilder("/bin/bash", scriptPath.toAbsolutePath().toString()).start();
+            // The runner prints its process id first and replaces itself with the script, so the script and the
+            // Cypress processes it starts can be stopped on a failure.
+            process = new ProcessBuilder("/bin/bash", "-c", "echo $$; exec /bin/bash \"$0\"",
+                    scriptPath.toAbsolutePath().toString()).start();
+        }
+
+        MochawesomeResultsWatcher resultsWatcher = null;
+        if (reportsPath != null) {
+            resultsWatcher = new MochawesomeResultsWatcher(reportsPath, failFast ? specResult -> {
+                LOG.error("Stopping the Cypress test suite since " + specResult.getSpec() + " has failing tests.");
+                destroyProcessTree(process);
+            } : null);
+            resultsWatcher.start();
         }
 
         try (BufferedReader r = new BufferedReader(
                 new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8.name()))) {
-            String line;
+            String line = r.readLine();
+            if (line != null) {
+                runnerPid = line.trim();
+            }
             while ((line = r.readLine()) != null) {
                 LOG.info(line);
             }
         }
 
         process.waitFor();
+        synchronized (this) {
+            // The process id may be reused once the runner has exited.
+            runnerPid = null;
+        }
+        if (resultsWatcher != null) {
+            watchedResults = resultsWatcher.finish();
+            watchedReportsPath = reportsPath;
+        }
     }
 
     /**
@@ -132,8 +180,13 @@ public class CypressTestContainer {
      */
     public void endTestSuite(Path reportsPath) throws CypressContainerException, IOException {
 
-        CypressTestUtils testUtils = new CypressTestUtils().withMochawesomeReportsAt(reportsPath);
-        CypressTestResults testResults = testUtils.getTestResults();
+        CypressTestResults testResults;
+        if (watchedResults != null && reportsPath.equals(watchedReportsPath)) {
+            testResults = watchedResults;
+        } else {
+            CypressTestUtils testUtils = new CypressTestUtils().withMochawesomeReportsAt(reportsPath);
+            testResults = testUtils.getTestResults();
+        }
 
         if (testResults.getNumberOfFailedTests() > 0) {
             LOG.error(testResults);
@@ -142,4 +195,59 @@ public class CypressTestContainer {
 
         LOG.info("All specs have passed!!!" + testResults);
     }
+
+    /**
+     * Stop the test suite runner and every process it started, such as Cypress and the browser.
+     */
+    private synchronized void destroyProcessTree(Process process) {
+
+        // Only a runner that has not exited is stopped, as the process id of an exited runner may have been reused.
+        if (!process.isAlive()) {
+            return;
+        }
+        if (StringUtils.isNumeric(runnerPid) && StringUtils.isNotEmpty(runnerPid)) {
+            List<String> pids = new ArrayList<>();
+            collectProcessTree(runnerPid, pids);
+            for (String pid : pids) {
+                try {
+                    new ProcessBuilder("kill", "-TERM", pid).start().waitFor();
+                } catch (IOException e) {
+                    LOG.warn("Failed to stop process " + pid, e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        process.destroy();
+    }
+
+    /**
+     * Collect the given process and its descendants, parents first.
+     */
+    private void collectProcessTree(String pid, List<String> pids) {
+
+        pids.add(pid);
+        try {
+            Process pgrep = new ProcessBuilder("pgrep", "-P", pid).start();
+            List<String> children = new ArrayList<>();
+            try (BufferedReader r = new BufferedReader(
+                    new InputStreamReader(pgrep.getInputStream(), StandardCharsets.UTF_8.name()))) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (StringUtils.isNotBlank(line)) {
+                        children.add(line.trim());
+                    }
+                }
+            }
+            pgrep.waitFor();
+            for (String child : children) {
+                collectProcessTree(child, pids);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to find the child processes of " + pid, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -19,7 +19,9 @@
 package org.wso2.identity.apps.test.container;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Cypress test results class.
@@ -34,6 +36,8 @@ public class CypressTestResults {
 
     private List<CypressTestSuite> suites = new ArrayList<>();
 
+    private List<CypressSpecResult> specResults = new ArrayList<>();
+
     public int getNumberOfTests() {
 
         return numberOfTests;
@@ -89,6 +93,30 @@ public class CypressTestResults {
         this.suites.addAll(suites);
     }
 
+    public List<CypressSpecResult> getSpecResults() {
+
+        return specResults;
+    }
+
+    public void addSpecResult(CypressSpecResult specResult) {
+
+        specResults.add(specResult);
+    }
+
+    /**
+     * Get the specs that took the longest to run.
+     *
+     * @param count Maximum number of specs to return.
+     * @return the slowest specs, slowest first.
+     */
+    public List<CypressSpecResult> getSlowestSpecs(int count) {
+
+        return specResults.stream()
+                .sorted(Comparator.comparingLong(CypressSpecResult::getDurationMillis).reversed())
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public String toString() {
 
@@ -39,7 +39,8 @@ import java.util.List;
  */
 public class MochawesomeResultsStrategy implements TestResultsStrategy {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
     private final Path jsonReportsPath;
 
@@ -60,14 +61,11 @@ public class MochawesomeResultsStrategy implements TestResultsStrategy {
     public CypressTestResults gatherTestResults() throws IOException {
 
         CypressTestResults results = new CypressTestResults();
-        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
         try (DirectoryStream<Path> paths = Files.newDirectoryStream(jsonReportsPath, "*.json")) {
             for (Path path : paths) {
                 try {
-                    MochawesomeSpecRunReport specRunReport = objectMapper.readValue(path.toFile(),
-                            MochawesomeSpecRunReport.class);
-                    specRunReport.fillInTestResults(results);
+                    readSpecRunReport(path).fillInTestResults(results, path);
                 } catch (JsonMappingException e) {
                     LOG.warn("No test results were found in the report file:" + " " + path);
                 }
@@ -83,8 +81,20 @@ public class MochawesomeResultsStrategy implements TestResultsStrategy {
         return jsonReportsPath;
     }
 
+    /**
+     * Read the Mochawesome report of a single spec.
+     *
+     * @param path Path of the JSON report.
+     * @return the spec run report.
+     * @throws IOException When the report could not be read or parsed.
+     */
+    MochawesomeSpecRunReport readSpecRunReport(Path path) throws IOException {
+
+        return objectMapper.readValue(path.toFile(), MochawesomeSpecRunReport.class);
+    }
+
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class MochawesomeSpecRunReport {
+    static class MochawesomeSpecRunReport {
 
         private Stats stats;
 
@@ -110,12 +120,27 @@ public class MochawesomeResultsStrategy implements TestResultsStrategy {
             this.results = results;
         }
 
-        public void fillInTestResults(CypressTestResults results) {
+        /**
+         * Add the results of the spec to the given results.
+         *
+         * @param results Results to add to.
+         * @param path    Path of the report, used as the spec name if the report does not name the spec file.
+         * @return the result of the spec.
+         */
+        public CypressSpecResult fillInTestResults(CypressTestResults results, Path path) {
 
             results.addNumberOfTests(stats.getTests());
             results.addNumberOfPassingTests(stats.getPasses());
             results.addNumberOfFailingTests(stats.getFailures());
 
+            String spec = path.getFileName().toString();
+            if (getResults() != null && !getResults().isEmpty() && getResults().get(0).getFile() != null) {
+                spec = getResults().get(0).getFile();
+            }
+            CypressSpecResult specResult = new CypressSpecResult(spec, stats.getDuration(), stats.getTests(),
+                    stats.getPasses(), stats.getFailures());
+            results.addSpecResult(specResult);
+
             for (Result result : getResults()) {
                 List<Suite> suites = result.getSuites();
 
@@ -132,6 +157,8 @@ public class MochawesomeResultsStrategy implements TestResultsStrategy {
 
                 results.addSuites(cypressTestSuites);
             }
+
+            return specResult;
         }
 
         @JsonIgnoreProperties(ignoreUnknown = true)
@@ -143,6 +170,8 @@ public class MochawesomeResultsStrategy implements TestResultsStrategy {
 
             private int failures;
 
+            private long duration;
+
             public int getTests() {
 
                 return tests;
@@ -172,13 +201,35 @@ public class MochawesomeResultsStrategy implements TestResultsStrategy {
 
                 this.failures = failures;
             }
+
+            public long getDuration() {
+
+                return duration;
+            }
+
+            public void setDuration(long duration) {
+
+                this.duration = duration;
+            }
         }
 
         @JsonIgnoreProperties(ignoreUnknown = true)
         private static class Result {
 
+            private String file;
+
             private List<Suite> suites;
 
+            public String getFile() {
+
+                return file;
+            }
+
+            public void setFile(String file) {
+
+                this.file = file;
+            }
+
             public List<Suite> getSuites() {
 
                 return suites;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.apps.test.container;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates the Mochawesome reports of a Cypress run while the run is in progress. The reports directory is polled
+ * and every spec report is parsed as soon as it is complete, so the outcome and the duration of each spec are logged
+ * when the spec finishes instead of after the whole run.
+ * <p>
+ * Reports that were already in the directory when the watcher started are left out. When the run is over, the
+ * duration of every spec is written to {@code spec-durations.csv} in the reports directory, so the duration of the
+ * console and My Account flows can be tracked across builds.
+ */
+public class MochawesomeResultsWatcher {
+
+    private static final Log LOG = LogFactory.getLog(MochawesomeResultsWatcher.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 2000;
+
+    private static final int NUMBER_OF_SLOWEST_SPECS = 10;
+
+    private static final String SPEC_DURATIONS_FILE = "spec-durations.csv";
+
+    private final Path jsonReportsPath;
+
+    private final Consumer<CypressSpecResult> failureListener;
+
+    private final MochawesomeResultsStrategy resultsStrategy;
+
+    private final CypressTestResults results = new CypressTestResults();
+
+    private final Map<Path, FileTime> earlierReports = new HashMap<>();
+
+    private final Set<Path> processedReports = new HashSet<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mochawesome-results-watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean failureReported;
+
+    /**
+     * Create a watcher for the given reports directory.
+     *
+     * @param jsonReportsPath Directory the Mochawesome JSON reports are written to.
+     * @param failureListener Called once, with the first spec that has a failing test, so the run can be stopped
+     *                        early. Not called for the reports read by {@link #finish()}, as the run is over by
+     *                        then. Null if the run should not be stopped on failures.
+     */
+    public MochawesomeResultsWatcher(Path jsonReportsPath, Consumer<CypressSpecResult> failureListener) {
+
+        this.jsonReportsPath = jsonReportsPath;
+        this.failureListener = failureListener;
+        this.resultsStrategy = new MochawesomeResultsStrategy(jsonReportsPath);
+    }
+
+    /**
+     * Start watching the reports directory.
+     *
+     * @throws IOException When the reports that are already in the directory could not be listed.
+     */
+    public synchronized void start() throws IOException {
+
+        if (Files.isDirectory(jsonReportsPath)) {
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(jsonReportsPath, "*.json")) {
+                for (Path path : paths) {
+                    earlierReports.put(path, Files.getLastModifiedTime(path));
+                }
+            }
+        }
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                scan(false);
+            } catch (IOException | RuntimeException e) {
+                // Polling stops on an uncaught exception, the reports left are read when the run is over.
+                LOG.warn("Failed to read the Cypress test reports at " + jsonReportsPath, e);
+            }
+        }, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop watching, read the reports written since the last poll and write the spec durations.
+     *
+     * @return the results of the specs that ran while the watcher was running.
+     * @throws IOException When the reports could not be read or the spec durations could not be written.
+     */
+    public synchronized CypressTestResults finish() throws IOException {
+
+        executor.shutdownNow();
+        scan(true);
+
+        if (!results.getSpecResults().isEmpty()) {
+            LOG.info("Slowest Cypress specs:");
+            for (CypressSpecResult specResult : results.getSlowestSpecs(NUMBER_OF_SLOWEST_SPECS)) {
+                LOG.info(String.format("  %s: %.1f s", specResult.getSpec(),
+                        specResult.getDurationMillis() / 1000.0));
+            }
+            writeSpecDurations();
+        }
+        return results;
+    }
+
+    private synchronized void scan(boolean finalScan) throws IOException {
+
+        if (!Files.isDirectory(jsonReportsPath)) {
+            return;
+        }
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(jsonReportsPath, "*.json")) {
+            for (Path path : paths) {
+                if (processedReports.contains(path) ||
+                        Files.getLastModifiedTime(path).equals(earlierReports.get(path))) {
+                    continue;
+                }
+                CypressSpecResult specResult;
+                try {
+                    specResult = resultsStrategy.readSpecRunReport(path).fillInTestResults(results, path);
+                } catch (JsonProcessingException e) {
+                    // The report is still being written, unless the run is over.
+                    if (finalScan) {
+                        LOG.warn("No test results were found in the report file: " + path);
+                        processedReports.add(path);
+                    }
+                    continue;
+                }
+                processedReports.add(path);
+                onSpecFinished(specResult, !finalScan);
+            }
+        }
+    }
+
+    private void onSpecFinished(CypressSpecResult specResult, boolean runInProgress) {
+
+        String summary = String.format("Cypress spec %s finished in %.1f s. Tests: %d, passing: %d, failing: %d",
+                specResult.getSpec(), specResult.getDurationMillis() / 1000.0, specResult.getNumberOfTests(),
+                specResult.getNumberOfPassedTests(), specResult.getNumberOfFailedTests());
+        if (specResult.getNumberOfFailedTests() == 0) {
+            LOG.info(summary);
+            return;
+        }
+        LOG.error(summary);
+        if (failureListener != null && runInProgress && !failureReported) {
+            failureReported = true;
+            failureListener.accept(specResult);
+        }
+    }
+
+    private void writeSpecDurations() throws IOException {
+
+        Path specDurationsPath = jsonReportsPath.resolve(SPEC_DURATIONS_FILE);
+        try (Writer writer = Files.newBufferedWriter(specDurationsPath, StandardCharsets.UTF_8);
+             PrintWriter printWriter = new PrintWriter(writer)) {
+            printWriter.println("spec,duration_ms,tests,passes,failures");
+            for (CypressSpecResult specResult : results.getSpecResults()) {
+                printWriter.println(String.format("\"%s\",%d,%d,%d,%d", specResult.getSpec().replace("\"", "\"\""),
+                        specResult.getDurationMillis(), specResult.getNumberOfTests(),
+                        specResult.getNumberOfPassedTests(), specResult.getNumberOfFailedTests()));
+            }
+        }
+        LOG.info("Wrote the Cypress spec durations to " + specDurationsPath);
+    }
+}
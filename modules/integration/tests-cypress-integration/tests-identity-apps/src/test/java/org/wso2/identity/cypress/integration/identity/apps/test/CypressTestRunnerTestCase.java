@@ -65,7 +65,8 @@ public class CypressTestRunnerTestCase extends ISIntegrationUITest {
                 CypressTestConstants.EnvironmentConfigElements.SERVER_URL, serverUrl);
 
         try {
-            cypressTestContainer.runTestSuite(scriptPath);
+            cypressTestContainer.runTestSuite(scriptPath, reportsPath,
+                    Boolean.getBoolean(CypressTestConstants.FAIL_FAST_PROPERTY));
         } catch (InterruptedException e) {
             throw new CypressContainerException("An error occurred while running the Cypress test suite. " +
                     e.getMessage());
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.actions.mockserver;
+
+/**
+ * Behaviour of the mocked external service of an action: the latency distribution of its responses and the share of
+ * requests answered with an error status, a connection reset or a response that only arrives after the given timeout.
+ * Latencies and timeouts are in milliseconds and rates are fractions between 0 and 1.
+ */
+public class ActionEndpointProfile {
+
+    /**
+     * Latency distributions supported by the mock server.
+     */
+    public enum LatencyType {
+        NONE, FIXED, UNIFORM, LOG_NORMAL
+    }
+
+    private final String name;
+    private final LatencyType latencyType;
+    private final int fixedDelay;
+    private final int uniformLowerDelay;
+    private final int uniformUpperDelay;
+    private final double logNormalMedianDelay;
+    private final double logNormalSigma;
+    private final double errorRate;
+    private final int errorStatusCode;
+    private final double connectionResetRate;
+    private final double timeoutRate;
+    private final int timeout;
+
+    private ActionEndpointProfile(Builder builder) {
+
+        this.name = builder.name;
+        this.latencyType = builder.latencyType;
+        this.fixedDelay = builder.fixedDelay;
+        this.uniformLowerDelay = builder.uniformLowerDelay;
+        this.uniformUpperDelay = builder.uniformUpperDelay;
+        this.logNormalMedianDelay = builder.logNormalMedianDelay;
+        this.logNormalSigma = builder.logNormalSigma;
+        this.errorRate = builder.errorRate;
+        this.errorStatusCode = builder.errorStatusCode;
+        this.connectionResetRate = builder.connectionResetRate;
+        this.timeoutRate = builder.timeoutRate;
+        this.timeout = builder.timeout;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public LatencyType getLatencyType() {
+
+        return latencyType;
+    }
+
+    public int getFixedDelay() {
+
+        return fixedDelay;
+    }
+
+    public int getUniformLowerDelay() {
+
+        return uniformLowerDelay;
+    }
+
+    public int getUniformUpperDelay() {
+
+        return uniformUpperDelay;
+    }
+
+    public double getLogNormalMedianDelay() {
+
+        return logNormalMedianDelay;
+    }
+
+    public double getLogNormalSigma() {
+
+        return logNormalSigma;
+    }
+
+    public double getErrorRate() {
+
+        return errorRate;
+    }
+
+    public int getErrorStatusCode() {
+
+        return errorStatusCode;
+    }
+
+    public double getConnectionResetRate() {
+
+        return connectionResetRate;
+    }
+
+    public double getTimeoutRate() {
+
+        return timeoutRate;
+    }
+
+    public int getTimeout() {
+
+        return timeout;
+    }
+
+    /**
+     * Whether any share of the requests should fail.
+     *
+     * @return True if an error, connection reset or timeout rate is set.
+     */
+    public boolean hasFaults() {
+
+        return errorRate > 0 || connectionResetRate > 0 || timeoutRate > 0;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ActionEndpointProfile{" +
+                "name='" + name + '\'' +
+                ", latencyType=" + latencyType +
+                ", errorRate=" + errorRate +
+                ", connectionResetRate=" + connectionResetRate +
+                ", timeoutRate=" + timeoutRate +
+                '}';
+    }
+
+    /**
+     * Builder of {@link ActionEndpointProfile}.
+     */
+    public static class Builder {
+
+        private final String name;
+        private LatencyType latencyType = LatencyType.NONE;
+        private int fixedDelay;
+        private int uniformLowerDelay;
+        private int uniformUpperDelay;
+        private double logNormalMedianDelay;
+        private double logNormalSigma;
+        private double errorRate;
+        private int errorStatusCode = 500;
+        private double connectionResetRate;
+        private double timeoutRate;
+        private int timeout;
+
+        public Builder(String name) {
+
+            this.name = name;
+        }
+
+        public Builder fixedDelay(int delay) {
+
+            this.latencyType = LatencyType.FIXED;
+            this.fixedDelay = delay;
+            return this;
+        }
+
+        public Builder uniformDelay(int lowerDelay, int upperDelay) {
+
+            this.latencyType = LatencyType.UNIFORM;
+            this.uniformLowerDelay = lowerDelay;
+            this.uniformUpperDelay = upperDelay;
+            return this;
+        }
+
+        public Builder logNormalDelay(double medianDelay, double sigma) {
+
+            this.latencyType = LatencyType.LOG_NORMAL;
+            this.logNormalMedianDelay = medianDelay;
+            this.logNormalSigma = sigma;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate, int errorStatusCode) {
+
+            this.errorRate = errorRate;
+            this.errorStatusCode = errorStatusCode;
+            return this;
+        }
+
+        public Builder connectionResetRate(double connectionResetRate) {
+
+            this.connectionResetRate = connectionResetRate;
+            return this;
+        }
+
+        public Builder timeoutRate(double timeoutRate, int timeout) {
+
+            this.timeoutRate = timeoutRate;
+            this.timeout = timeout;
+            return this;
+        }
+
+        public ActionEndpointProfile build() {
+
+            if (errorRate + connectionResetRate + timeoutRate > 1) {
+                throw new IllegalArgumentException("The fault rates of " + name + " add up to more than 1.");
+            }
+            return new ActionEndpointProfile(this);
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.wso2.identity.integration.test.actions.mockserver;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import org.apache.commons.lang.StringUtils;
@@ -35,14 +36,44 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
  * Provides a mock server using WireMock for testing purposes.
  * This class starts a mock server on a specified port and sets up predefined
  * responses for POST requests to simulate various operations relation to action execution.
+ * Stubs created with an {@link ActionEndpointProfile} add latency and inject faults into the responses.
  */
 public class ActionsMockServer {
 
+    public static final int DEFAULT_PORT = 8587;
+
+    private final int port;
+    private final int responseThreads;
     private WireMockServer wireMockServer;
 
+    public ActionsMockServer() {
+
+        this(DEFAULT_PORT, 0);
+    }
+
+    /**
+     * Create a mock server that serves the delayed responses asynchronously, so that injected latency does not hold
+     * the request threads of the server.
+     *
+     * @param port            Port of the server.
+     * @param responseThreads Number of threads sending the delayed responses. Responses are sent on the request
+     *                        threads if zero.
+     */
+    public ActionsMockServer(int port, int responseThreads) {
+
+        this.port = port;
+        this.responseThreads = responseThreads;
+    }
+
     public void startServer() {
 
-        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8587));
+        WireMockConfiguration configuration = WireMockConfiguration.wireMockConfig()
+                .port(port)
+                .extensions(new FaultInjectionTransformer());
+        if (responseThreads > 0) {
+            configuration.asynchronousResponseEnabled(true).asynchronousResponseThreads(responseThreads);
+        }
+        wireMockServer = new WireMockServer(configuration);
         wireMockServer.start();
     }
 
@@ -75,6 +106,52 @@ public class ActionsMockServer {
                         .withBody(responseBody)));
     }
 
+    /**
+     * Set up a stub that answers with the given response after a delay drawn from the latency distribution of the
+     * profile, and fails the share of requests given by its fault rates.
+     *
+     * @param url          Path of the stubbed endpoint.
+     * @param authMethod   Expected value of the Authorization header.
+     * @param responseBody Response body of successful invocations.
+     * @param profile      Latency and fault profile.
+     */
+    public void setupStub(String url, String authMethod, String responseBody, ActionEndpointProfile profile) {
+
+        ResponseDefinitionBuilder response = aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(responseBody);
+        switch (profile.getLatencyType()) {
+            case FIXED:
+                response.withFixedDelay(profile.getFixedDelay());
+                break;
+            case UNIFORM:
+                response.withUniformRandomDelay(profile.getUniformLowerDelay(), profile.getUniformUpperDelay());
+                break;
+            case LOG_NORMAL:
+                response.withLogNormalRandomDelay(profile.getLogNormalMedianDelay(), profile.getLogNormalSigma());
+                break;
+            default:
+                break;
+        }
+        if (profile.hasFaults()) {
+            response.withTransformers(FaultInjectionTransformer.NAME)
+                    .withTransformerParameters(FaultInjectionTransformer.getParameters(profile));
+        }
+
+        wireMockServer.stubFor(post(urlEqualTo(url))
+                .withHeader("Authorization", matching(authMethod))
+                .willReturn(response));
+    }
+
+    /**
+     * Remove all stubs and the journal of received requests.
+     */
+    public void resetStubs() {
+
+        wireMockServer.resetAll();
+    }
+
     public String getReceivedRequestPayload(String url) {
 
         List<LoggedRequest> requestList = wireMockServer.findAll(postRequestedFor(urlEqualTo(url)));
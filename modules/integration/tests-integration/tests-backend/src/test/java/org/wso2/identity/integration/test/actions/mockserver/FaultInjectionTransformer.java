@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.actions.mockserver;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * WireMock transformer that replaces the stubbed response of a share of the requests with a fault. It is only applied
+ * to stubs created with an {@link ActionEndpointProfile} that has fault rates.
+ */
+class FaultInjectionTransformer implements ResponseDefinitionTransformerV2 {
+
+    static final String NAME = "action-fault-injection";
+
+    private static final String CONNECTION_RESET_RATE = "connectionResetRate";
+    private static final String TIMEOUT_RATE = "timeoutRate";
+    private static final String TIMEOUT = "timeout";
+    private static final String ERROR_RATE = "errorRate";
+    private static final String ERROR_STATUS_CODE = "errorStatusCode";
+    private static final String ERROR_RESPONSE_BODY = "{\"actionStatus\":\"ERROR\",\"errorMessage\":\"server_error\"," +
+            "\"errorDescription\":\"Injected failure.\"}";
+
+    static Map<String, Object> getParameters(ActionEndpointProfile profile) {
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(CONNECTION_RESET_RATE, profile.getConnectionResetRate());
+        parameters.put(TIMEOUT_RATE, profile.getTimeoutRate());
+        parameters.put(TIMEOUT, profile.getTimeout());
+        parameters.put(ERROR_RATE, profile.getErrorRate());
+        parameters.put(ERROR_STATUS_CODE, profile.getErrorStatusCode());
+        return parameters;
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        Parameters parameters = serveEvent.getTransformerParameters();
+        double random = ThreadLocalRandom.current().nextDouble();
+
+        double threshold = getRate(parameters, CONNECTION_RESET_RATE);
+        if (random < threshold) {
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                    .withFault(Fault.CONNECTION_RESET_BY_PEER)
+                    .build();
+        }
+        threshold += getRate(parameters, TIMEOUT_RATE);
+        if (random < threshold) {
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                    .withFixedDelay(parameters.getInt(TIMEOUT))
+                    .build();
+        }
+        threshold += getRate(parameters, ERROR_RATE);
+        if (random < threshold) {
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                    .withStatus(parameters.getInt(ERROR_STATUS_CODE))
+                    .withBody(ERROR_RESPONSE_BODY)
+                    .build();
+        }
+        return responseDefinition;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+
+        return false;
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    private static double getRate(Parameters parameters, String key) {
+
+        Object rate = parameters.get(key);
+        return rate instanceof Number ? ((Number) rate).doubleValue() : 0;
+    }
+}
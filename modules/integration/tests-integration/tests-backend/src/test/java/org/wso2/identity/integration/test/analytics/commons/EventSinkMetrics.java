@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.analytics.commons;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency of the events received by the {@link ThriftServer}. Recording does not take locks, so the
+ * receiver threads are not slowed down by the measurement.
+ * <p>
+ * Every received batch records its size and the time since the previous batch. Every event is counted against its
+ * stream and records its publish lag, which is the receive time minus the event timestamp set by the publisher. The
+ * publisher runs on the same host, so the lag covers the queueing and batching in the data publisher and the
+ * transport. The number of tracked streams is bounded; events of further streams are counted under
+ * {@value #OTHER_STREAMS}.
+ */
+public class EventSinkMetrics {
+
+    public static final String OTHER_STREAMS = "other";
+
+    private static final int DEFAULT_MAX_STREAMS = 32;
+    private static final long MAX_BATCH_SIZE = 100_000;
+    private static final long MAX_INTER_ARRIVAL_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long MAX_PUBLISH_LAG_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final int maxStreams;
+    private final ConcurrentMap<String, StreamMetrics> streams = new ConcurrentHashMap<>();
+    private final ConcurrentHistogram batchSizes = new ConcurrentHistogram(MAX_BATCH_SIZE, SIGNIFICANT_DIGITS);
+    private final ConcurrentHistogram batchInterArrivalMicros = new ConcurrentHistogram(MAX_INTER_ARRIVAL_MICROS,
+            SIGNIFICANT_DIGITS);
+    private final LongAdder eventCount = new LongAdder();
+    private final AtomicLong firstBatchNanos = new AtomicLong();
+    private final AtomicLong lastBatchNanos = new AtomicLong();
+
+    public EventSinkMetrics() {
+
+        this(DEFAULT_MAX_STREAMS);
+    }
+
+    public EventSinkMetrics(int maxStreams) {
+
+        this.maxStreams = maxStreams;
+    }
+
+    /**
+     * Record a received batch of events.
+     *
+     * @param events        Received events.
+     * @param receiveMillis Wall clock time the batch was received at, in milliseconds.
+     * @param receiveNanos  Monotonic time the batch was received at, in nanoseconds.
+     */
+    public void record(List<Event> events, long receiveMillis, long receiveNanos) {
+
+        firstBatchNanos.compareAndSet(0, receiveNanos);
+        long previousBatchNanos = lastBatchNanos.getAndSet(receiveNanos);
+        if (previousBatchNanos != 0) {
+            batchInterArrivalMicros.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(receiveNanos -
+                    previousBatchNanos), MAX_INTER_ARRIVAL_MICROS));
+        }
+        batchSizes.recordValue(clamp(events.size(), MAX_BATCH_SIZE));
+        eventCount.add(events.size());
+
+        for (Event event : events) {
+            StreamMetrics streamMetrics = getStreamMetrics(event.getStreamId());
+            streamMetrics.eventCount.increment();
+            streamMetrics.publishLagMillis.recordValue(clamp(receiveMillis - event.getTimeStamp(),
+                    MAX_PUBLISH_LAG_MILLIS));
+        }
+    }
+
+    /**
+     * Clear the recorded values. Should only be called while no events are received, such as between two runs.
+     */
+    public void reset() {
+
+        streams.clear();
+        batchSizes.reset();
+        batchInterArrivalMicros.reset();
+        eventCount.reset();
+        firstBatchNanos.set(0);
+        lastBatchNanos.set(0);
+    }
+
+    public long getEventCount() {
+
+        return eventCount.sum();
+    }
+
+    public long getBatchCount() {
+
+        return batchSizes.getTotalCount();
+    }
+
+    /**
+     * Events received per second between the first and the last batch.
+     *
+     * @return Throughput, or 0 if fewer than two batches were received.
+     */
+    public double getEventsPerSecond() {
+
+        long elapsedNanos = lastBatchNanos.get() - firstBatchNanos.get();
+        return elapsedNanos > 0 ? getEventCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+
+    public Histogram getBatchSizes() {
+
+        return batchSizes.copy();
+    }
+
+    public Histogram getBatchInterArrivalMicros() {
+
+        return batchInterArrivalMicros.copy();
+    }
+
+    public Map<String, StreamMetrics> getStreams() {
+
+        return Collections.unmodifiableMap(streams);
+    }
+
+    /**
+     * Human readable summary with one line for the batches and one line per stream.
+     *
+     * @return Summary.
+     */
+    public String getSummary() {
+
+        StringBuilder summary = new StringBuilder(String.format(Locale.ENGLISH,
+                "events=%d batches=%d events/s=%.2f batch_size_p50=%d batch_size_max=%d " +
+                        "batch_interval_p50_ms=%.2f batch_interval_p99_ms=%.2f", getEventCount(), getBatchCount(),
+                getEventsPerSecond(), batchSizes.getValueAtPercentile(50), batchSizes.getMaxValue(),
+                batchInterArrivalMicros.getValueAtPercentile(50) / 1000.0,
+                batchInterArrivalMicros.getValueAtPercentile(99) / 1000.0));
+        for (Map.Entry<String, StreamMetrics> stream : streams.entrySet()) {
+            Histogram lag = stream.getValue().publishLagMillis;
+            summary.append(String.format(Locale.ENGLISH, "%n  %s events=%d lag_p50_ms=%d lag_p99_ms=%d lag_max_ms=%d",
+                    stream.getKey(), stream.getValue().getEventCount(), lag.getValueAtPercentile(50),
+                    lag.getValueAtPercentile(99), lag.getMaxValue()));
+        }
+        return summary.toString();
+    }
+
+    private StreamMetrics getStreamMetrics(String streamId) {
+
+        StreamMetrics streamMetrics = streams.get(streamId);
+        if (streamMetrics != null) {
+            return streamMetrics;
+        }
+        // The size check is not atomic with the insert, so a few more streams than the limit may be tracked.
+        String key = streams.size() < maxStreams ? streamId : OTHER_STREAMS;
+        return streams.computeIfAbsent(key, k -> new StreamMetrics());
+    }
+
+    private static long clamp(long value, long max) {
+
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Event count and publish lag of a single stream.
+     */
+    public static class StreamMetrics {
+
+        private final LongAdder eventCount = new LongAdder();
+        private final ConcurrentHistogram publishLagMillis = new ConcurrentHistogram(MAX_PUBLISH_LAG_MILLIS,
+                SIGNIFICANT_DIGITS);
+
+        public long getEventCount() {
+
+            return eventCount.sum();
+        }
+
+        public Histogram getPublishLagMillis() {
+
+            return publishLagMillis.copy();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.analytics.commons;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps received events in memory mapped files instead of the heap, so long runs can preserve every event without
+ * growing the heap of the test JVM. The files are written in segments and deleted on {@link #close()}.
+ * <p>
+ * Each record holds the stream id, the timestamp and the meta, correlation and payload data. Attribute values of the
+ * types used by the databridge, such as strings, numbers and booleans, are kept with their type, so the events can be
+ * read back with {@link #forEachEvent(Consumer)}. Other values are kept as strings. Arbitrary data is not kept.
+ */
+public class MappedEventSpill implements AutoCloseable {
+
+    private static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    private static final int NULL_ARRAY = -1;
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BOOLEAN = 6;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final List<Path> segmentFiles = new ArrayList<>();
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(4096);
+    private MappedByteBuffer currentSegment;
+    private long eventCount;
+    private long bytesWritten;
+
+    public MappedEventSpill(Path directory) {
+
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public MappedEventSpill(Path directory, int segmentBytes) {
+
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Append the events to the spill files.
+     *
+     * @param events Events to append.
+     * @throws IOException If a new segment file could not be created.
+     */
+    public synchronized void write(List<Event> events) throws IOException {
+
+        for (Event event : events) {
+            recordBuffer.clear();
+            encode(event);
+            recordBuffer.flip();
+            int recordLength = recordBuffer.remaining();
+            if (currentSegment == null || currentSegment.remaining() < Integer.BYTES + recordLength) {
+                currentSegment = mapSegment(Math.max(segmentBytes, Integer.BYTES + recordLength));
+            }
+            currentSegment.putInt(recordLength);
+            currentSegment.put(recordBuffer);
+            eventCount++;
+            bytesWritten += Integer.BYTES + recordLength;
+        }
+    }
+
+    /**
+     * Read back the spilled events in the order they were written.
+     *
+     * @param consumer Consumer of the events.
+     */
+    public synchronized void forEachEvent(Consumer<Event> consumer) {
+
+        for (MappedByteBuffer segment : segments) {
+            ByteBuffer reader = segment.duplicate();
+            reader.flip();
+            while (reader.remaining() >= Integer.BYTES) {
+                int recordLength = reader.getInt();
+                ByteBuffer record = reader.slice();
+                record.limit(recordLength);
+                reader.position(reader.position() + recordLength);
+                consumer.accept(decode(record));
+            }
+        }
+    }
+
+    public synchronized long getEventCount() {
+
+        return eventCount;
+    }
+
+    public synchronized long getBytesWritten() {
+
+        return bytesWritten;
+    }
+
+    /**
+     * Drop the spilled events and delete the segment files.
+     *
+     * @throws IOException If a segment file could not be deleted.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        // Mapped buffers are released by the garbage collector, the files can be deleted before that on Linux.
+        segments.clear();
+        currentSegment = null;
+        for (Path segmentFile : segmentFiles) {
+            Files.deleteIfExists(segmentFile);
+        }
+        segmentFiles.clear();
+        eventCount = 0;
+        bytesWritten = 0;
+    }
+
+    private MappedByteBuffer mapSegment(int size) throws IOException {
+
+        Files.createDirectories(directory);
+        Path segmentFile = directory.resolve("events-" + segmentFiles.size() + ".spill");
+        segmentFiles.add(segmentFile);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            segments.add(segment);
+            return segment;
+        }
+    }
+
+    private void encode(Event event) {
+
+        putString(event.getStreamId());
+        ensureCapacity(Long.BYTES);
+        recordBuffer.putLong(event.getTimeStamp());
+        putValues(event.getMetaData());
+        putValues(event.getCorrelationData());
+        putValues(event.getPayloadData());
+    }
+
+    private static Event decode(ByteBuffer record) {
+
+        String streamId = getString(record);
+        long timestamp = record.getLong();
+        return new Event(streamId, timestamp, getValues(record), getValues(record), getValues(record));
+    }
+
+    private void putValues(Object[] values) {
+
+        ensureCapacity(Integer.BYTES);
+        if (values == null) {
+            recordBuffer.putInt(NULL_ARRAY);
+            return;
+        }
+        recordBuffer.putInt(values.length);
+        for (Object value : values) {
+            ensureCapacity(1 + Long.BYTES);
+            if (value == null) {
+                recordBuffer.put(NULL);
+            } else if (value instanceof Integer) {
+                recordBuffer.put(INT).putInt((Integer) value);
+            } else if (value instanceof Long) {
+                recordBuffer.put(LONG).putLong((Long) value);
+            } else if (value instanceof Float) {
+                recordBuffer.put(FLOAT).putFloat((Float) value);
+            } else if (value instanceof Double) {
+                recordBuffer.put(DOUBLE).putDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                recordBuffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+            } else {
+                recordBuffer.put(STRING);
+                putString(value.toString());
+            }
+        }
+    }
+
+    private static Object[] getValues(ByteBuffer record) {
+
+        int length = record.getInt();
+        if (length == NULL_ARRAY) {
+            return null;
+        }
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            byte type = record.get();
+            switch (type) {
+                case INT:
+                    values[i] = record.getInt();
+                    break;
+                case LONG:
+                    values[i] = record.getLong();
+                    break;
+                case FLOAT:
+                    values[i] = record.getFloat();
+                    break;
+                case DOUBLE:
+                    values[i] = record.getDouble();
+                    break;
+                case BOOLEAN:
+                    values[i] = record.get() != 0;
+                    break;
+                case STRING:
+                    values[i] = getString(record);
+                    break;
+                default:
+                    values[i] = null;
+            }
+        }
+        return values;
+    }
+
+    private void putString(String value) {
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(Integer.BYTES + bytes.length);
+        recordBuffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer record) {
+
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int bytes) {
+
+        if (recordBuffer.remaining() >= bytes) {
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(recordBuffer.capacity() * 2,
+                recordBuffer.position() + bytes));
+        recordBuffer.flip();
+        grown.put(recordBuffer);
+        recordBuffer = grown;
+    }
+}
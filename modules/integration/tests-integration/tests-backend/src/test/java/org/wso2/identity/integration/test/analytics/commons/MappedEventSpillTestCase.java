@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.analytics.commons;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests that the events written to a {@link MappedEventSpill} are read back as they were written. No server is
+ * needed.
+ */
+public class MappedEventSpillTestCase {
+
+    private static final String STREAM_ID = "org.wso2.is.analytics.stream.OverallAuthentication:1.0.0";
+
+    private Path directory;
+
+    @BeforeMethod(alwaysRun = true)
+    public void createDirectory() throws IOException {
+
+        directory = Files.createTempDirectory("event-spill-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test(groups = "wso2.is", description = "Read back every value type the spill keeps with its type.")
+    public void testValueTypes() throws IOException {
+
+        Event event = new Event(STREAM_ID, 1700000000123L, new Object[]{42, 42L, 1.5f, 2.25d, true, false},
+                null, new Object[]{"\u00fcser@carbon.super", "", null, new StringBuilder("other")});
+
+        try (MappedEventSpill spill = new MappedEventSpill(directory)) {
+            spill.write(Collections.singletonList(event));
+            List<Event> events = readAll(spill);
+
+            Assert.assertEquals(events.size(), 1);
+            Event spilled = events.get(0);
+            Assert.assertEquals(spilled.getStreamId(), STREAM_ID);
+            Assert.assertEquals(spilled.getTimeStamp(), 1700000000123L);
+            Assert.assertEquals(spilled.getMetaData(), new Object[]{42, 42L, 1.5f, 2.25d, true, false});
+            Assert.assertNull(spilled.getCorrelationData(), "A missing attribute array must stay missing.");
+            // Values of other types are kept as strings.
+            Assert.assertEquals(spilled.getPayloadData(), new Object[]{"\u00fcser@carbon.super", "", null, "other"});
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Read back the events in order across segment files.")
+    public void testSegmentRollover() throws IOException {
+
+        List<Event> written = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            written.add(new Event(STREAM_ID, i, new Object[]{i}, new Object[]{(long) i}, new Object[]{"event-" + i}));
+        }
+        // Larger than the segment size, so it is written to a segment of its own.
+        char[] large = new char[512];
+        Arrays.fill(large, 'x');
+        written.add(25, new Event(STREAM_ID, 25, null, null, new Object[]{new String(large)}));
+
+        try (MappedEventSpill spill = new MappedEventSpill(directory, 128)) {
+            spill.write(written.subList(0, 20));
+            spill.write(written.subList(20, written.size()));
+
+            Assert.assertTrue(countSegmentFiles() > 1, "The events were not written across segments.");
+            Assert.assertEquals(spill.getEventCount(), written.size());
+            List<Event> events = readAll(spill);
+            Assert.assertEquals(events.size(), written.size());
+            for (int i = 0; i < written.size(); i++) {
+                Assert.assertEquals(events.get(i).getTimeStamp(), written.get(i).getTimeStamp());
+                Assert.assertEquals(events.get(i).getPayloadData(), written.get(i).getPayloadData());
+            }
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Delete the segment files on close.")
+    public void testClose() throws IOException {
+
+        MappedEventSpill spill = new MappedEventSpill(directory, 128);
+        spill.write(Collections.singletonList(new Event(STREAM_ID, 0, null, null, new Object[]{"event"})));
+        Assert.assertEquals(countSegmentFiles(), 1);
+
+        spill.close();
+        Assert.assertEquals(countSegmentFiles(), 0);
+        Assert.assertEquals(spill.getEventCount(), 0);
+        Assert.assertTrue(readAll(spill).isEmpty());
+    }
+
+    private static List<Event> readAll(MappedEventSpill spill) {
+
+        List<Event> events = new ArrayList<>();
+        spill.forEachEvent(events::add);
+        return events;
+    }
+
+    private long countSegmentFiles() throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -43,22 +43,30 @@ import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 
+/**
+ * Thrift receiver for the events published by the server. Received events are counted and measured with
+ * {@link EventSinkMetrics}. They can be preserved for assertions either in a heap list or, for load tests, in a
+ * {@link MappedEventSpill}.
+ */
 public class ThriftServer implements Runnable {
 
     private static Log log = LogFactory.getLog(ThriftServer.class);
     private static final String FILE_STREAM_DEFINITION_EXT = ".json";
     private AbstractStreamDefinitionStore streamDefinitionStore = new InMemoryStreamDefinitionStore();
     private ThriftDataReceiver thriftDataReceiver;
-    private boolean eventReceived = false;
-    private AtomicLong msgCount = new AtomicLong(0);
+    private volatile boolean eventReceived = false;
+    private final AtomicLong msgCount = new AtomicLong(0);
+    private final EventSinkMetrics metrics = new EventSinkMetrics();
     private String testCaseResourceFolderName;
     private int listeningPort;
-    private List<Event> preservedEventList = new ArrayList<>();
+    private final List<Event> preservedEventList = Collections.synchronizedList(new ArrayList<>());
     private boolean isPreservingEvents;
+    private MappedEventSpill eventSpill;
 
     public ThriftServer(String testCaseResourceFolderName, int listeningPort, boolean isPreservingEvents) {
 
@@ -67,9 +75,23 @@ public class ThriftServer implements Runnable {
         this.isPreservingEvents = isPreservingEvents;
     }
 
+    /**
+     * Create a server that preserves the received events in memory mapped files instead of the heap.
+     *
+     * @param testCaseResourceFolderName Folder of the stream definitions.
+     * @param listeningPort              Port the receiver listens on.
+     * @param eventSpill                 Spill the received events are written to.
+     */
+    public ThriftServer(String testCaseResourceFolderName, int listeningPort, MappedEventSpill eventSpill) {
+
+        this(testCaseResourceFolderName, listeningPort, false);
+        this.eventSpill = eventSpill;
+    }
+
     public void startServer() throws DataBridgeException, StreamDefinitionStoreException {
 
         msgCount.set(0);
+        metrics.reset();
         start(listeningPort);
     }
 
@@ -130,13 +152,23 @@ public class ThriftServer implements Runnable {
             @Override
             public void receive(List<Event> eventList, Credentials credentials) {
 
-                log.info("eventListSize=" + eventList.size() + " eventList " + eventList + " for username " +
-                        credentials.getUsername());
+                metrics.record(eventList, System.currentTimeMillis(), System.nanoTime());
+                if (log.isDebugEnabled()) {
+                    log.debug("eventListSize=" + eventList.size() + " eventList " + eventList + " for username " +
+                            credentials.getUsername());
+                }
                 eventReceived = true;
                 msgCount.addAndGet(eventList.size());
                 if (isPreservingEvents) {
                     preservedEventList.addAll(eventList);
                 }
+                if (eventSpill != null) {
+                    try {
+                        eventSpill.write(eventList);
+                    } catch (IOException e) {
+                        log.error("Error while spilling " + eventList.size() + " events.", e);
+                    }
+                }
             }
         });
         thriftDataReceiver.start("0.0.0.0");
@@ -169,14 +201,31 @@ public class ThriftServer implements Runnable {
         return msgCount.get();
     }
 
+    /**
+     * Get a snapshot of the preserved events.
+     *
+     * @return Events received since the list was last reset.
+     */
     public List<Event> getPreservedEventList() {
 
-        return preservedEventList;
+        synchronized (preservedEventList) {
+            return new ArrayList<>(preservedEventList);
+        }
     }
 
     public void resetMsgCount() {
 
-        msgCount = new AtomicLong(0);
+        msgCount.set(0);
+    }
+
+    public EventSinkMetrics getMetrics() {
+
+        return metrics;
+    }
+
+    public MappedEventSpill getEventSpill() {
+
+        return eventSpill;
     }
 
     public void resetPreservedEventList() {
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.base;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.automation.engine.context.AutomationContext;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.carbon.automation.engine.context.beans.Tenant;
+import org.wso2.carbon.automation.engine.context.beans.User;
+import org.wso2.identity.integration.common.utils.IsolatedTenantProvider;
+import org.wso2.identity.integration.test.rest.api.server.tenant.management.v1.model.Owner;
+import org.wso2.identity.integration.test.rest.api.server.tenant.management.v1.model.TenantModel;
+import org.wso2.identity.integration.test.restclients.TenantMgtRestClient;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates a tenant for every test class that initializes in tenant admin mode while the suite runs in parallel.
+ * Applications, users, user store domains and other tenant scoped resources created by one class are therefore not
+ * visible to the classes running next to it. Tenants are created through the tenant management REST API with the
+ * super tenant admin and are kept until the server is shut down.
+ */
+public class IsolatedTenantManager implements IsolatedTenantProvider {
+
+    private static final Log LOG = LogFactory.getLog(IsolatedTenantManager.class);
+    private static final String TENANT_DOMAIN_PREFIX = "parallel";
+    private static final String TENANT_DOMAIN_SUFFIX = ".com";
+    private static final String TENANT_ADMIN_USERNAME = "admin";
+    private static final String TENANT_ADMIN_PASSWORD = "Wso2@test";
+
+    private final Map<Class<?>, Tenant> tenants = new HashMap<>();
+    private TenantMgtRestClient tenantMgtRestClient;
+
+    @Override
+    public synchronized Tenant getIsolatedTenant(Class<?> testClass) throws Exception {
+
+        Tenant tenant = tenants.get(testClass);
+        if (tenant == null) {
+            tenant = createTenant(TENANT_DOMAIN_PREFIX + (tenants.size() + 1) + TENANT_DOMAIN_SUFFIX);
+            tenants.put(testClass, tenant);
+            LOG.info("Created tenant " + tenant.getDomain() + " for " + testClass.getName());
+        }
+        return tenant;
+    }
+
+    /**
+     * Close the REST client used to create the tenants.
+     *
+     * @throws IOException If an error occurred while closing the client.
+     */
+    public synchronized void close() throws IOException {
+
+        if (tenantMgtRestClient != null) {
+            tenantMgtRestClient.closeHttpClient();
+            tenantMgtRestClient = null;
+        }
+    }
+
+    private Tenant createTenant(String tenantDomain) throws Exception {
+
+        Owner tenantOwner = new Owner();
+        tenantOwner.setUsername(TENANT_ADMIN_USERNAME);
+        tenantOwner.setPassword(TENANT_ADMIN_PASSWORD);
+        tenantOwner.setEmail(TENANT_ADMIN_USERNAME + "@" + tenantDomain);
+        tenantOwner.setFirstname("FirstName");
+        tenantOwner.setLastname("LastName");
+        tenantOwner.setProvisioningMethod("inline-password");
+
+        TenantModel tenantReqModel = new TenantModel();
+        tenantReqModel.setDomain(tenantDomain);
+        tenantReqModel.addOwnersItem(tenantOwner);
+        addTenant(tenantReqModel);
+
+        User tenantAdmin = new User();
+        tenantAdmin.setUserName(TENANT_ADMIN_USERNAME + "@" + tenantDomain);
+        tenantAdmin.setPassword(TENANT_ADMIN_PASSWORD);
+
+        Tenant tenant = new Tenant();
+        tenant.setDomain(tenantDomain);
+        tenant.setTenantAdmin(tenantAdmin);
+        tenant.setContextUser(tenantAdmin);
+        return tenant;
+    }
+
+    /**
+     * Add the tenant to the server.
+     *
+     * @param tenantModel Tenant to add.
+     * @throws Exception If the tenant could not be added.
+     */
+    protected void addTenant(TenantModel tenantModel) throws Exception {
+
+        getTenantMgtRestClient().addTenant(tenantModel);
+    }
+
+    private TenantMgtRestClient getTenantMgtRestClient() throws Exception {
+
+        // The server is started by the suite listeners, so the client is only created on the first request.
+        if (tenantMgtRestClient == null) {
+            AutomationContext superTenantContext = new AutomationContext("IDENTITY",
+                    TestUserMode.SUPER_TENANT_ADMIN);
+            String serverURL = superTenantContext.getContextUrls().getBackEndUrl().replace("services/", "");
+            tenantMgtRestClient = new TenantMgtRestClient(serverURL, superTenantContext.getContextTenant());
+        }
+        return tenantMgtRestClient;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.beans.Tenant;
+import org.wso2.identity.integration.common.utils.IsolatedTenantProvider;
+import org.wso2.identity.integration.test.rest.api.server.tenant.management.v1.model.Owner;
+import org.wso2.identity.integration.test.rest.api.server.tenant.management.v1.model.TenantModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests the tenants handed out by {@link IsolatedTenantManager} as the {@link IsolatedTenantProvider} of the
+ * parallel suite. Tenants are recorded instead of being added to a server, so no server is needed.
+ */
+public class IsolatedTenantManagerTestCase {
+
+    @Test(groups = "wso2.is", description = "Create a tenant with its admin as the context user.")
+    public void testTenantAdmin() throws Exception {
+
+        RecordingTenantManager tenantManager = new RecordingTenantManager();
+        Tenant tenant = tenantManager.getIsolatedTenant(String.class);
+
+        Assert.assertEquals(tenant.getDomain(), "parallel1.com");
+        Assert.assertEquals(tenant.getTenantAdmin().getUserName(), "admin@parallel1.com");
+        Assert.assertSame(tenant.getContextUser(), tenant.getTenantAdmin());
+
+        Assert.assertEquals(tenantManager.addedTenants.size(), 1);
+        TenantModel addedTenant = tenantManager.addedTenants.get(0);
+        Assert.assertEquals(addedTenant.getDomain(), tenant.getDomain());
+        Assert.assertEquals(addedTenant.getOwners().size(), 1);
+        Owner owner = addedTenant.getOwners().get(0);
+        Assert.assertEquals(owner.getUsername(), "admin");
+        Assert.assertEquals(owner.getPassword(), tenant.getTenantAdmin().getPassword());
+        Assert.assertEquals(owner.getEmail(), "admin@parallel1.com");
+    }
+
+    @Test(groups = "wso2.is", description = "Reuse the tenant of a class and give every other class its own.")
+    public void testTenantPerClass() throws Exception {
+
+        RecordingTenantManager tenantManager = new RecordingTenantManager();
+        Tenant first = tenantManager.getIsolatedTenant(String.class);
+        Tenant second = tenantManager.getIsolatedTenant(Integer.class);
+
+        Assert.assertSame(tenantManager.getIsolatedTenant(String.class), first);
+        Assert.assertSame(tenantManager.getIsolatedTenant(Integer.class), second);
+        Assert.assertNotEquals(second.getDomain(), first.getDomain());
+        Assert.assertEquals(tenantManager.addedTenants.size(), 2);
+    }
+
+    @Test(groups = "wso2.is", description = "Create one tenant per class when the classes ask at the same time.")
+    public void testConcurrentRequests() throws Exception {
+
+        RecordingTenantManager tenantManager = new RecordingTenantManager();
+        List<Class<?>> testClasses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Collections.addAll(testClasses, String.class, Integer.class, Long.class, Double.class);
+        }
+        List<Callable<Tenant>> requests = new ArrayList<>();
+        for (Class<?> testClass : testClasses) {
+            requests.add(() -> tenantManager.getIsolatedTenant(testClass));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Tenant>> tenants;
+        try {
+            tenants = executor.invokeAll(requests);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(tenantManager.addedTenants.size(), 4);
+        for (int i = 0; i < testClasses.size(); i++) {
+            Assert.assertSame(tenants.get(i).get(), tenantManager.getIsolatedTenant(testClasses.get(i)));
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Hand out no tenant when the tenant could not be added.")
+    public void testFailedTenantCreation() throws Exception {
+
+        RecordingTenantManager tenantManager = new RecordingTenantManager();
+        tenantManager.failNextTenant = true;
+        try {
+            tenantManager.getIsolatedTenant(String.class);
+            Assert.fail("The tenant was handed out although it could not be added.");
+        } catch (IllegalStateException e) {
+            // Expected, the next request creates the tenant again.
+        }
+
+        Tenant tenant = tenantManager.getIsolatedTenant(String.class);
+        Assert.assertEquals(tenantManager.addedTenants.size(), 1);
+        Assert.assertEquals(tenantManager.addedTenants.get(0).getDomain(), tenant.getDomain());
+        tenantManager.close();
+    }
+
+    /**
+     * Records the tenants instead of adding them to the server.
+     */
+    private static class RecordingTenantManager extends IsolatedTenantManager {
+
+        private final List<TenantModel> addedTenants = Collections.synchronizedList(new ArrayList<>());
+        private boolean failNextTenant;
+
+        @Override
+        protected void addTenant(TenantModel tenantModel) {
+
+            if (failNextTenant) {
+                failNextTenant = false;
+                throw new IllegalStateException("Tenant " + tenantModel.getDomain() + " could not be added.");
+            }
+            addedTenants.add(tenantModel);
+        }
+    }
+}
@@ -20,10 +20,14 @@ package org.wso2.identity.integration.test.base;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.Timing;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
@@ -35,11 +39,22 @@ import org.wso2.identity.integration.common.utils.ISIntegrationTest;
 import org.wso2.identity.integration.test.util.Utils;
 
 import java.io.FileInputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.KeyStore;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -63,13 +78,46 @@ public class MockOIDCIdentityProvider {
     public static final String MOCK_IDP_LOGOUT_ENDPOINT = "https://localhost:8089/oidc/logout";
     public static final String MOCK_IDP_CLIENT_ID = "mockIdPClientID";
     public static final String MOCK_IDP_CLIENT_SECRET = "mockIdPClientSecret";
+    public static final String LOAD_MODE_SUBJECT_PREFIX = "perffederateduser";
+
+    private static final String DEFAULT_SUBJECT = "61b935a1-1915-4792-8916-99c59d03c54a";
 
     private WireMockServer wireMockServer;
+    private StubMapping tokenStub;
+    private StubMapping authorizeStub;
     private final AtomicReference<String> authorizationCode = new AtomicReference<>();
+    private final AtomicInteger issuedIdTokens = new AtomicInteger();
+    private final Map<String, CompletableFuture<Integer>> tokenRequestMillisByCode = new ConcurrentHashMap<>();
+    private JWSSigner signer;
+    private String keyId;
+    private volatile boolean loadMode;
+    private volatile int loadModeSubjects;
+    private volatile String[] preSignedIdTokens;
 
     public void start() {
 
-        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig()
+        start(WireMockConfiguration.wireMockConfig());
+    }
+
+    /**
+     * Start the mock identity provider for load tests. The responses are sent from a separate pool, so the delay of
+     * the token endpoint does not hold the request threads of the mock, and the requests are not journaled, so
+     * the memory use does not grow with the number of logins. The verify methods are not available in this mode.
+     *
+     * @param threads Number of request threads and of response threads.
+     */
+    public void startForLoad(int threads) {
+
+        start(WireMockConfiguration.wireMockConfig()
+                .containerThreads(threads)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(threads)
+                .disableRequestJournal());
+    }
+
+    private void start(WireMockConfiguration configuration) {
+
+        wireMockServer = new WireMockServer(configuration
                 .httpsPort(8089)
                 .httpDisabled(true)
                 .keystorePath(Paths.get(Utils.getResidentCarbonHome(), "repository", "resources", "security",
@@ -99,6 +147,42 @@ public class MockOIDCIdentityProvider {
                             public String getName() {
                                 return "authz-code-transformer";
                             }
+                        },
+                        new ResponseTransformerV2() {
+                            @Override
+                            public Response transform(Response response, ServeEvent serveEvent) {
+                                if (!loadMode) {
+                                    return response;
+                                }
+                                return Response.Builder.like(response).but()
+                                        .body("{\"access_token\": \"mock_access_token\", \"token_type\": " +
+                                                "\"Bearer\", \"expires_in\": 3600, \"id_token\": \"" +
+                                                nextIdToken() + "\" }")
+                                        .build();
+                            }
+
+                            @Override
+                            public boolean applyGlobally() {
+                                return false;
+                            }
+
+                            @Override
+                            public String getName() {
+                                return "id-token-transformer";
+                            }
+                        },
+                        new ServeEventListener() {
+                            @Override
+                            public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+                                if (loadMode && "/token".equals(serveEvent.getRequest().getUrl())) {
+                                    recordTokenRequest(serveEvent);
+                                }
+                            }
+
+                            @Override
+                            public String getName() {
+                                return "token-timing-listener";
+                            }
                         }));
 
         wireMockServer.start();
@@ -126,22 +210,9 @@ public class MockOIDCIdentityProvider {
                         .withBody("{ \"error\": \"invalid_request\", \"error_description\": " +
                                 "\"Missing required parameter\" }")));
 
-        try {
-            wireMockServer.stubFor(post(urlEqualTo("/token"))
-                    .withRequestBody(containing("grant_type=authorization_code"))
-                    .withRequestBody(containing("code="))
-                    .withRequestBody(containing("redirect_uri="))
-                    .withRequestBody(containing("client_secret="+ MOCK_IDP_CLIENT_SECRET))
-                    .withRequestBody(containing("client_id=" + MOCK_IDP_CLIENT_ID))
-                    .willReturn(aResponse()
-                            .withHeader("Content-Type", "application/json")
-                            .withBody("{\"access_token\": \"mock_access_token\", \"token_type\": \"Bearer\", " +
-                                    "\"expires_in\": 3600, \"id_token\": \"" + buildIdToken() + "\" }")));
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        configureTokenEndpoint(0);
 
-        wireMockServer.stubFor(get(urlPathEqualTo("/authorize"))
+        authorizeStub = wireMockServer.stubFor(get(urlPathEqualTo("/authorize"))
                 .withQueryParam("response_type", matching(".*"))
                 .withQueryParam("redirect_uri", matching(".*"))
                 .withQueryParam("state", matching(".*"))
@@ -166,6 +237,99 @@ public class MockOIDCIdentityProvider {
                                 "{{request.query.post_logout_redirect_uri}}?state={{request.query.state}}")));
     }
 
+    /**
+     * Delay the successful responses of the token endpoint to simulate a slow upstream identity provider. The token
+     * endpoint is called by the server in the back channel, so the delay holds a server request processing thread.
+     *
+     * @param delayMillis Delay in milliseconds. 0 removes the delay.
+     */
+    public void setTokenEndpointDelay(int delayMillis) {
+
+        if (tokenStub != null) {
+            wireMockServer.removeStub(tokenStub);
+        }
+        configureTokenEndpoint(delayMillis);
+    }
+
+    private void configureTokenEndpoint(int delayMillis) {
+
+        try {
+            tokenStub = wireMockServer.stubFor(post(urlEqualTo("/token"))
+                    .withRequestBody(containing("grant_type=authorization_code"))
+                    .withRequestBody(containing("code="))
+                    .withRequestBody(containing("redirect_uri="))
+                    .withRequestBody(containing("client_secret="+ MOCK_IDP_CLIENT_SECRET))
+                    .withRequestBody(containing("client_id=" + MOCK_IDP_CLIENT_ID))
+                    .willReturn(aResponse()
+                            .withTransformers("id-token-transformer")
+                            .withFixedDelay(delayMillis)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("{\"access_token\": \"mock_access_token\", \"token_type\": \"Bearer\", " +
+                                    "\"expires_in\": 3600, \"id_token\": \"" + buildIdToken() + "\" }")));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Switch to the load mode, in which every login gets an authorization code and an ID token of its own. The
+     * subjects of the ID tokens cycle through {@code perffederateduser0} to {@code perffederateduser<subjects - 1>},
+     * so as many federated users are provisioned just in time as there are subjects. The ID tokens are either signed
+     * in advance, one per subject, or signed for every token request, which adds the cost of an RSA signature to the
+     * upstream time of every login.
+     *
+     * @param subjects  Number of distinct subjects.
+     * @param preSigned Whether the ID tokens are signed in advance.
+     * @throws Exception If the signing key could not be loaded or a token could not be signed.
+     */
+    public void enableLoadMode(int subjects, boolean preSigned) throws Exception {
+
+        String[] idTokens = null;
+        if (preSigned) {
+            idTokens = new String[subjects];
+            for (int i = 0; i < subjects; i++) {
+                idTokens[i] = buildIdToken(LOAD_MODE_SUBJECT_PREFIX + i, UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString());
+            }
+        } else {
+            getSigner();
+        }
+        preSignedIdTokens = idTokens;
+        loadModeSubjects = subjects;
+        loadMode = true;
+
+        wireMockServer.removeStub(authorizeStub);
+        authorizeStub = wireMockServer.stubFor(get(urlPathEqualTo("/authorize"))
+                .withQueryParam("client_id", matching(MOCK_IDP_CLIENT_ID))
+                .willReturn(aResponse()
+                        .withTransformers("response-template")
+                        .withStatus(302)
+                        .withHeader("Location", "{{request.query.redirect_uri}}?session_state=mockid&code=" +
+                                "{{randomValue type='UUID'}}&state={{request.query.state}}")));
+    }
+
+    /**
+     * Wait for the token request of an authorization code issued in the load mode to complete, and return the time
+     * the mock identity provider took to answer it, including the token endpoint delay.
+     *
+     * @param code          Authorization code.
+     * @param timeoutMillis Time to wait.
+     * @return Time in milliseconds, or -1 if the token request did not complete in time.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public int awaitTokenRequestMillis(String code, long timeoutMillis) throws InterruptedException {
+
+        CompletableFuture<Integer> tokenRequestMillis =
+                tokenRequestMillisByCode.computeIfAbsent(code, k -> new CompletableFuture<>());
+        try {
+            return tokenRequestMillis.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return -1;
+        } finally {
+            tokenRequestMillisByCode.remove(code);
+        }
+    }
+
     public void verifyForAuthzCodeFlow() {
 
         wireMockServer.verify(postRequestedFor(urlPathEqualTo("/token"))
@@ -179,18 +343,74 @@ public class MockOIDCIdentityProvider {
         wireMockServer.verify(getRequestedFor(urlPathEqualTo("/oidc/logout")));
     }
 
+    private String nextIdToken() {
+
+        int index = Math.floorMod(issuedIdTokens.getAndIncrement(), loadModeSubjects);
+        String[] idTokens = preSignedIdTokens;
+        if (idTokens != null) {
+            return idTokens[index];
+        }
+        try {
+            return buildIdToken(LOAD_MODE_SUBJECT_PREFIX + index, UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void recordTokenRequest(ServeEvent serveEvent) {
+
+        String code = null;
+        for (String parameter : serveEvent.getRequest().getBodyAsString().split("&")) {
+            if (parameter.startsWith("code=")) {
+                try {
+                    code = URLDecoder.decode(parameter.substring("code=".length()), StandardCharsets.UTF_8.name());
+                } catch (UnsupportedEncodingException e) {
+                    return;
+                }
+            }
+        }
+        Timing timing = serveEvent.getTiming();
+        if (code == null || timing == null) {
+            return;
+        }
+        int millis = valueOf(timing.getAddedDelay()) + valueOf(timing.getProcessTime()) +
+                valueOf(timing.getResponseSendTime());
+        tokenRequestMillisByCode.computeIfAbsent(code, k -> new CompletableFuture<>()).complete(millis);
+    }
+
+    private static int valueOf(Integer millis) {
+
+        return millis == null ? 0 : millis;
+    }
+
     private String buildIdToken() throws Exception {
 
-        KeyStore wso2KeyStore = getKeyStoreFromFile(ISIntegrationTest.KEYSTORE_NAME, "wso2carbon",
-                Utils.getResidentCarbonHome());
-        RSAPrivateKey rsaPrivateKey = (RSAPrivateKey) wso2KeyStore.getKey("wso2carbon", "wso2carbon".toCharArray());
+        return buildIdToken(DEFAULT_SUBJECT, "37803fb8-f1f1-4eac-8ed2-5067349664fc",
+                "05759c14-d0bc-414a-931c-b7ffba55b2c3");
+    }
+
+    private synchronized JWSSigner getSigner() throws Exception {
+
+        if (signer == null) {
+            KeyStore wso2KeyStore = getKeyStoreFromFile(ISIntegrationTest.KEYSTORE_NAME, "wso2carbon",
+                    Utils.getResidentCarbonHome());
+            RSAPrivateKey rsaPrivateKey =
+                    (RSAPrivateKey) wso2KeyStore.getKey("wso2carbon", "wso2carbon".toCharArray());
+            keyId = getKeyId(rsaPrivateKey);
+            signer = new RSASSASigner(rsaPrivateKey);
+        }
+        return signer;
+    }
+
+    private String buildIdToken(String subject, String jti, String sid) throws Exception {
 
-        JWSSigner signer = new RSASSASigner(rsaPrivateKey);
+        JWSSigner jwsSigner = getSigner();
 
         // Prepare JWT with claims set
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
                 .issuer("https://localhost:8089/token")
-                .subject("61b935a1-1915-4792-8916-99c59d03c54a")
+                .subject(subject)
                 .audience("LzWfxDK_7LSGxfuL3BlRdXUGEJYa")
                 .claim("azp", "LzWfxDK_7LSGxfuL3BlRdXUGEJYa")
                 .claim("org_id", "10084a8d-113f-4211-a0d5-efe36b082211")
@@ -198,16 +418,15 @@ public class MockOIDCIdentityProvider {
                 .claim("amr", new String[]{"BasicAuthenticator"})
                 .claim("c_hash", "3eh6RwdVWxGQEljI7l9K3g")
                 .claim("at_hash", "zZ5nLASTkVRWrcCelPOHw")
-                .claim("sid", "05759c14-d0bc-414a-931c-b7ffba55b2c3")
-                .claim("jti", "37803fb8-f1f1-4eac-8ed2-5067349664fc")
+                .claim("sid", sid)
+                .claim("jti", jti)
                 .claim("isk", "9ab97ab343161334c9432d117e8da73211949aacce8c5d1c0ba8d6c75e0782c4")
                 .issueTime(new Date())
                 .notBeforeTime(new Date())
                 .build();
 
-        SignedJWT signedJWT = new SignedJWT(
-                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(getKeyId(rsaPrivateKey)).build(), claimsSet);
-        signedJWT.sign(signer);
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyId).build(), claimsSet);
+        signedJWT.sign(jwsSigner);
         return signedJWT.serialize();
     }
 
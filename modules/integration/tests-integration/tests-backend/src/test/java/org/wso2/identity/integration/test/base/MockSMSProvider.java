@@ -29,7 +29,10 @@ import org.wso2.identity.integration.common.utils.ISIntegrationTest;
 import org.wso2.identity.integration.test.util.Utils;
 
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +51,9 @@ public class MockSMSProvider {
 
     private WireMockServer wireMockServer;
     private final AtomicReference<String> otp = new AtomicReference<>();
+    private final Map<String, String> otpByRecipient = new ConcurrentHashMap<>();
+    private volatile BiConsumer<String, String> messageListener;
+    private volatile int responseDelayMillis;
 
     public void start() {
 
@@ -65,8 +71,13 @@ public class MockSMSProvider {
                             public Response transform(Response response, ServeEvent serveEvent) {
 
                                 // Extract the content value from the request body.
-                                String content =
-                                        JsonPath.parse(serveEvent.getRequest().getBodyAsString()).read("$.content");
+                                String body = serveEvent.getRequest().getBodyAsString();
+                                String content = JsonPath.parse(body).read("$.content");
+                                String recipient = JsonPath.parse(body).read("$.to");
+                                BiConsumer<String, String> listener = messageListener;
+                                if (listener != null) {
+                                    listener.accept(recipient, content);
+                                }
 
                                 String regex = "\\b\\d{6}\\b";
 
@@ -77,6 +88,7 @@ public class MockSMSProvider {
                                     String extractedOtp = matcher.group();
                                     // Store the content value for later use.
                                     otp.set(extractedOtp);
+                                    otpByRecipient.put(recipient, extractedOtp);
                                 }
                                 return response;
                             }
@@ -113,6 +125,7 @@ public class MockSMSProvider {
                     .withRequestBody(matchingJsonPath("$.to"))
                     .willReturn(aResponse()
                             .withTransformers("response-template", "otp-transformer")
+                            .withFixedDelay(responseDelayMillis)
                             .withStatus(200)));
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -123,4 +136,39 @@ public class MockSMSProvider {
 
         return otp.get();
     }
+
+    /**
+     * Get the last OTP sent to the given recipient, for tests that send OTPs to several recipients at once.
+     *
+     * @param recipient Mobile number the OTP was sent to.
+     * @return Last OTP sent to the recipient, or null if none was sent.
+     */
+    public String getOTP(String recipient) {
+
+        return otpByRecipient.get(recipient);
+    }
+
+    /**
+     * Set the listener notified of every SMS received, with the recipient and the content, as soon as it arrives.
+     *
+     * @param messageListener Listener, or null to stop notifying.
+     */
+    public void setMessageListener(BiConsumer<String, String> messageListener) {
+
+        this.messageListener = messageListener;
+    }
+
+    /**
+     * Delay the responses to the SMS requests, to simulate a slow SMS provider.
+     *
+     * @param responseDelayMillis Delay of every response in milliseconds.
+     */
+    public void setResponseDelayMillis(int responseDelayMillis) {
+
+        this.responseDelayMillis = responseDelayMillis;
+        if (wireMockServer != null && wireMockServer.isRunning()) {
+            wireMockServer.resetMappings();
+            configureMockEndpoints();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.listeners;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.IExecutionListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.wso2.identity.integration.common.utils.ISIntegrationTest;
+import org.wso2.identity.integration.test.base.IsolatedTenantManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listener that gives each test class its own tenant when the suite is run with -Dis.tests.parallel=true.
+ * <p>
+ * Only tests initialized in tenant admin mode are moved to an isolated tenant, so a factory class that also creates
+ * super tenant instances is listed in two tests of the suite, and the {@code tenant.instances} parameter of each test
+ * selects which of its instances run there: {@code isolated} keeps only the instances initialized in an isolated
+ * tenant, to run them in parallel, and {@code shared} keeps only the others, to run them serially.
+ */
+public class TenantIsolationListener implements IExecutionListener, IMethodInterceptor {
+
+    private static final Log LOG = LogFactory.getLog(TenantIsolationListener.class);
+    private static final String TENANT_INSTANCES_PARAMETER = "tenant.instances";
+    private static final String ISOLATED_INSTANCES = "isolated";
+    private static final String SHARED_INSTANCES = "shared";
+
+    private IsolatedTenantManager isolatedTenantManager;
+
+    @Override
+    public void onExecutionStart() {
+
+        if (ISIntegrationTest.isParallelExecution()) {
+            isolatedTenantManager = new IsolatedTenantManager();
+            ISIntegrationTest.setIsolatedTenantProvider(isolatedTenantManager);
+        }
+    }
+
+    @Override
+    public void onExecutionFinish() {
+
+        if (isolatedTenantManager == null) {
+            return;
+        }
+        ISIntegrationTest.setIsolatedTenantProvider(null);
+        try {
+            isolatedTenantManager.close();
+        } catch (Exception e) {
+            LOG.error("Failed to close the tenant management client.", e);
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+
+        String tenantInstances = context.getCurrentXmlTest().getParameter(TENANT_INSTANCES_PARAMETER);
+        if (!ISIntegrationTest.isParallelExecution() || tenantInstances == null) {
+            return methods;
+        }
+        boolean isolated = ISOLATED_INSTANCES.equals(tenantInstances);
+        if (!isolated && !SHARED_INSTANCES.equals(tenantInstances)) {
+            throw new IllegalArgumentException("Unknown " + TENANT_INSTANCES_PARAMETER + " value " + tenantInstances +
+                    " in " + context.getName() + ".");
+        }
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            Object[] instances = method.getInstances();
+            Object instance = instances.length > 0 ? instances[0] : null;
+            boolean inIsolatedTenant = instance instanceof ISIntegrationTest &&
+                    ((ISIntegrationTest) instance).isInitializedInIsolatedTenant();
+            if (inIsolatedTenant == isolated) {
+                selected.add(method);
+            } else if (isolated) {
+                // Tests initialized after construction cannot be told apart here, so they have to run serially.
+                LOG.warn("Skipping " + method.getMethod().getRealClass().getName() + "." +
+                        method.getMethod().getMethodName() + " in " + context.getName() +
+                        " as it was not initialized in an isolated tenant.");
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.listeners;
+
+import org.testng.Assert;
+import org.testng.IMethodInstance;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.wso2.identity.integration.common.utils.ISIntegrationTest;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the selection of the test instances by {@link TenantIsolationListener} for the tests of the parallel suite.
+ * The instances are not initialized, so no server is needed.
+ */
+public class TenantIsolationListenerTestCase {
+
+    private static final String TENANT_INSTANCES_PARAMETER = "tenant.instances";
+
+    private final TenantIsolationListener listener = new TenantIsolationListener();
+    private final IMethodInstance isolated = createMethodInstance(new TestInstance(true), "isolated");
+    private final IMethodInstance shared = createMethodInstance(new TestInstance(false), "shared");
+    private final IMethodInstance other = createMethodInstance(new Object(), "other");
+    private final List<IMethodInstance> methods = Arrays.asList(isolated, shared, other);
+    private String parallelExecution;
+
+    @BeforeMethod(alwaysRun = true)
+    public void setParallelExecution() {
+
+        parallelExecution = System.getProperty(ISIntegrationTest.PARALLEL_EXECUTION_PROPERTY);
+        System.setProperty(ISIntegrationTest.PARALLEL_EXECUTION_PROPERTY, "true");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreParallelExecution() {
+
+        if (parallelExecution == null) {
+            System.clearProperty(ISIntegrationTest.PARALLEL_EXECUTION_PROPERTY);
+        } else {
+            System.setProperty(ISIntegrationTest.PARALLEL_EXECUTION_PROPERTY, parallelExecution);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Keep only the instances initialized in an isolated tenant.")
+    public void testIsolatedInstances() {
+
+        Assert.assertEquals(listener.intercept(methods, createContext("isolated")),
+                Collections.singletonList(isolated));
+    }
+
+    @Test(groups = "wso2.is", description = "Keep only the instances not initialized in an isolated tenant.")
+    public void testSharedInstances() {
+
+        Assert.assertEquals(listener.intercept(methods, createContext("shared")), Arrays.asList(shared, other));
+    }
+
+    @Test(groups = "wso2.is", description = "Keep every instance of a test without the parameter.")
+    public void testWithoutParameter() {
+
+        Assert.assertEquals(listener.intercept(methods, createContext(null)), methods);
+    }
+
+    @Test(groups = "wso2.is", description = "Keep every instance when the suite does not run in parallel.")
+    public void testSerialExecution() {
+
+        System.clearProperty(ISIntegrationTest.PARALLEL_EXECUTION_PROPERTY);
+        Assert.assertEquals(listener.intercept(methods, createContext("isolated")), methods);
+    }
+
+    @Test(groups = "wso2.is", description = "Reject an unknown value of the parameter.",
+            expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownParameterValue() {
+
+        listener.intercept(methods, createContext("all"));
+    }
+
+    private static ITestContext createContext(String tenantInstances) {
+
+        XmlTest xmlTest = new XmlTest(new XmlSuite());
+        xmlTest.setName("is-tests-parallel");
+        if (tenantInstances != null) {
+            xmlTest.setParameters(Collections.singletonMap(TENANT_INSTANCES_PARAMETER, tenantInstances));
+        }
+        return (ITestContext) Proxy.newProxyInstance(TenantIsolationListenerTestCase.class.getClassLoader(),
+                new Class<?>[]{ITestContext.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCurrentXmlTest":
+                            return xmlTest;
+                        case "getName":
+                            return xmlTest.getName();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static IMethodInstance createMethodInstance(Object instance, String methodName) {
+
+        ITestNGMethod testMethod = (ITestNGMethod) Proxy.newProxyInstance(
+                TenantIsolationListenerTestCase.class.getClassLoader(), new Class<?>[]{ITestNGMethod.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRealClass":
+                            return instance.getClass();
+                        case "getMethodName":
+                            return methodName;
+                        case "getInstances":
+                            return new Object[]{instance};
+                        case "toString":
+                            return methodName;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return (IMethodInstance) Proxy.newProxyInstance(TenantIsolationListenerTestCase.class.getClassLoader(),
+                new Class<?>[]{IMethodInstance.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMethod":
+                            return testMethod;
+                        case "getInstances":
+                            return new Object[]{instance};
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return methodName;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Test instance that reports whether it was initialized in an isolated tenant without being initialized.
+     */
+    private static class TestInstance extends ISIntegrationTest {
+
+        private final boolean initializedInIsolatedTenant;
+
+        TestInstance(boolean initializedInIsolatedTenant) {
+
+            this.initializedInIsolatedTenant = initializedInIsolatedTenant;
+        }
+
+        @Override
+        public boolean isInitializedInIsolatedTenant() {
+
+            return initializedInIsolatedTenant;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.actions;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.actions.mockserver.ActionEndpointProfile;
+import org.wso2.identity.integration.test.actions.mockserver.ActionsMockServer;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.action.management.v1.model.ActionModel;
+import org.wso2.identity.integration.test.rest.api.server.action.management.v1.model.AuthenticationType;
+import org.wso2.identity.integration.test.rest.api.server.action.management.v1.model.Endpoint;
+import org.wso2.identity.integration.test.restclients.ActionsRestClient;
+import org.wso2.identity.integration.test.utils.FileUtils;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how the token endpoint degrades when a pre issue access token action is configured and its external
+ * service is slow or failing. The grants are first measured without an action, then once for every selected
+ * {@link ActionEndpointProfile} served by the {@link ActionsMockServer}.
+ * <p>
+ * Profiles can be selected with {@code -Dperf.actions.profiles=fixed,lognormal,errors}. The latency of the fixed
+ * profile is set with {@code perf.actions.latency_ms} and the delay of the timeout profile with
+ * {@code perf.actions.timeout_ms}, which should be above the read timeout of the action HTTP client of the server.
+ * Errors are expected with the fault profiles, so their runs only fail if no invocation succeeds.
+ */
+public class PreIssueAccessTokenActionLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "pre-issue-access-token-action";
+    private static final String PROFILES = "actions.profiles";
+    private static final String LATENCY = "actions.latency_ms";
+    private static final String TIMEOUT = "actions.timeout_ms";
+    private static final String PRE_ISSUE_ACCESS_TOKEN_API_PATH = "preIssueAccessToken";
+    private static final String MOCK_SERVER_ENDPOINT_RESOURCE_PATH = "/test/action";
+    private static final String EXTERNAL_SERVICE_URI = "http://localhost:" + ActionsMockServer.DEFAULT_PORT +
+            MOCK_SERVER_ENDPOINT_RESOURCE_PATH;
+    private static final String MOCK_SERVER_AUTH_BASIC_USERNAME = "test";
+    private static final String MOCK_SERVER_AUTH_BASIC_PASSWORD = "test";
+    private static final String NO_ACTION = "no_action";
+    private static final String AUTHORIZATION_CODE_PKCE = "authorization_code_pkce_";
+    private static final String AUTHORIZATION_CODE_FLOW = "authorization_code_pkce_flow_";
+
+    private ActionsRestClient actionsRestClient;
+    private ActionsMockServer actionsMockServer;
+    private Map<String, ActionEndpointProfile> profiles;
+    private String actionId;
+    private String responseBody;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        provisionApplications("perf-action-app", Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        actionsRestClient = new ActionsRestClient(serverURL, tenantInfo);
+        profiles = getSelectedProfiles();
+        responseBody = FileUtils.readFileInClassPathAsString(
+                "actions/response/pre-issue-access-token-load-response.json");
+
+        actionsMockServer = new ActionsMockServer(ActionsMockServer.DEFAULT_PORT, loadTestConfig.getConcurrency());
+        actionsMockServer.startServer();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            if (actionId != null) {
+                actionsRestClient.deleteActionType(PRE_ISSUE_ACCESS_TOKEN_API_PATH, actionId);
+            }
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            if (actionsMockServer != null) {
+                actionsMockServer.stopServer();
+            }
+            if (actionsRestClient != null) {
+                actionsRestClient.closeHttpClient();
+            }
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token endpoint without a pre issue access token action.")
+    public void testWithoutAction() throws Exception {
+
+        runGrants(NO_ACTION, loadTestConfig.getMaxErrorRatio());
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token endpoint for each external service profile.",
+            dependsOnMethods = "testWithoutAction", alwaysRun = true)
+    public void testActionProfiles() throws Exception {
+
+        actionId = createPreIssueAccessTokenAction();
+        String authorization = "Basic " + getBase64EncodedString(MOCK_SERVER_AUTH_BASIC_USERNAME,
+                MOCK_SERVER_AUTH_BASIC_PASSWORD);
+
+        for (ActionEndpointProfile profile : profiles.values()) {
+            log.info("Measuring the token endpoint with action endpoint profile " + profile);
+            actionsMockServer.resetStubs();
+            actionsMockServer.setupStub(MOCK_SERVER_ENDPOINT_RESOURCE_PATH, authorization, responseBody, profile);
+            double maxErrorRatio = profile.hasFaults() ? 1 : loadTestConfig.getMaxErrorRatio();
+            runGrants(profile.getName(), maxErrorRatio);
+        }
+    }
+
+    private void runGrants(String suffix, double maxErrorRatio) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS + "_" + suffix,
+                worker -> assertAccessToken(requestToken(getApplication(worker), parameters)), maxErrorRatio);
+        runAuthorizationCodeLoad(AUTHORIZATION_CODE_FLOW + suffix, AUTHORIZATION_CODE_PKCE + suffix,
+                maxErrorRatio);
+    }
+
+    private String createPreIssueAccessTokenAction() throws Exception {
+
+        AuthenticationType authenticationType = new AuthenticationType();
+        authenticationType.setType(AuthenticationType.TypeEnum.BASIC);
+        Map<String, Object> authProperties = new HashMap<>();
+        authProperties.put("username", MOCK_SERVER_AUTH_BASIC_USERNAME);
+        authProperties.put("password", MOCK_SERVER_AUTH_BASIC_PASSWORD);
+        authenticationType.setProperties(authProperties);
+
+        Endpoint endpoint = new Endpoint();
+        endpoint.setUri(EXTERNAL_SERVICE_URI);
+        endpoint.setAuthentication(authenticationType);
+
+        ActionModel actionModel = new ActionModel();
+        actionModel.setName("Access Token Pre Issue Load Test");
+        actionModel.setDescription("Pre issue access token action used by the load test");
+        actionModel.setEndpoint(endpoint);
+
+        return actionsRestClient.createActionType(actionModel, PRE_ISSUE_ACCESS_TOKEN_API_PATH);
+    }
+
+    private static Map<String, ActionEndpointProfile> getSelectedProfiles() {
+
+        int latency = LoadTestConfig.getInt(LATENCY, 50);
+        int timeout = LoadTestConfig.getInt(TIMEOUT, 6000);
+        Map<String, ActionEndpointProfile> available = new LinkedHashMap<>();
+        available.put("fixed", new ActionEndpointProfile.Builder("fixed_" + latency + "ms")
+                .fixedDelay(latency).build());
+        available.put("uniform", new ActionEndpointProfile.Builder("uniform_10_200ms")
+                .uniformDelay(10, 200).build());
+        available.put("lognormal", new ActionEndpointProfile.Builder("lognormal_median_80ms")
+                .logNormalDelay(80, 0.6).build());
+        available.put("errors", new ActionEndpointProfile.Builder("errors_10pct")
+                .fixedDelay(latency).errorRate(0.1, 500).build());
+        available.put("resets", new ActionEndpointProfile.Builder("connection_resets_5pct")
+                .fixedDelay(latency).connectionResetRate(0.05).build());
+        available.put("timeouts", new ActionEndpointProfile.Builder("timeouts_5pct")
+                .fixedDelay(latency).timeoutRate(0.05, timeout).build());
+
+        Map<String, ActionEndpointProfile> selected = new LinkedHashMap<>();
+        for (String profile : LoadTestConfig.getList(PROFILES, available.keySet().toArray(new String[0]))) {
+            ActionEndpointProfile endpointProfile = available.get(profile);
+            if (endpointProfile == null) {
+                throw new IllegalArgumentException("Unknown action endpoint profile: " + profile +
+                        ". Available profiles: " + available.keySet());
+            }
+            selected.put(profile, endpointProfile);
+        }
+        return selected;
+    }
+}
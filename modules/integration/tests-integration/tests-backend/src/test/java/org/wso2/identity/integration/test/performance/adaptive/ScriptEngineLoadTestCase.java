@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.adaptive;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.carbon.identity.application.common.model.idp.xsd.FederatedAuthenticatorConfig;
+import org.wso2.carbon.identity.application.common.model.idp.xsd.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.idp.xsd.IdentityProviderProperty;
+import org.wso2.identity.integration.common.clients.Idp.IdentityProviderMgtServiceClient;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationPatchModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationSequence;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationStep;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.Authenticator;
+import org.wso2.identity.integration.test.rest.api.user.common.model.UserObject;
+import org.wso2.identity.integration.test.restclients.SCIM2RestClient;
+import org.wso2.identity.integration.test.util.AdaptiveAuthenticationDependencyUtil;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+
+/**
+ * Compares the login throughput of the adaptive authentication script engines. The conditional authentication
+ * scripts of the integration tests are set on the applications one after the other, and the logins are measured with
+ * every selected engine after restarting the server with it.
+ * <p>
+ * Every script is measured twice. The first login of every application after the script is changed is reported as
+ * {@code <script>_first_login_<engine>}, as it includes compiling the script, while the logins of the load run that
+ * follows use the cached script and are reported as {@code <script>_login_<engine>}. The heap allocated by the server
+ * per login during the load run is read over JMX and written to {@code script-engine-server.txt} in the report
+ * directory.
+ * <p>
+ * The logins are done by a user without the admin role with {@code acr1} requested, so every script completes in a
+ * single step. The analytics calls of the risk based scripts are answered with a zero risk score by a local receiver.
+ * Engines are selected with {@code -Dperf.script.engines=graaljs,nashorn} and scripts with
+ * {@code -Dperf.script.scripts=acr_role,cookie,claim_assign,risk,risk_payload}. Nashorn is run with OpenJDK Nashorn
+ * on Java 15 and later.
+ */
+public class ScriptEngineLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "script-engine";
+    private static final String ENGINES = "script.engines";
+    private static final String SCRIPT_NAMES = "script.scripts";
+    private static final String GRAALJS = "graaljs";
+    private static final String NASHORN = "nashorn";
+    private static final int DEFAULT_APPLICATION_COUNT = 20;
+    private static final String SCRIPT_LOCATION = "/org/wso2/identity/integration/test/auth/";
+    private static final String ANALYTICS_RECEIVER = "adaptive_authentication.analytics.receiver";
+    private static final String RISK_SCORE_RESPONSE = "{\"event\":{\"riskScore\":0}}";
+    private static final String LOGIN_USER_NAME = "perfScriptEngineUser";
+    private static final String LOGIN_USER_PASSWORD = "PerfScript@123";
+    private static final Map<String, String> SCRIPTS = new LinkedHashMap<>();
+
+    static {
+        SCRIPTS.put("acr_role", "ConditionalAuthenticationTestCase.js");
+        SCRIPTS.put("cookie", "ConditionalAuthenticationHTTPCookieTestCase.js");
+        SCRIPTS.put("claim_assign", "ConditionalAuthenticationClaimAssignTestCase.js");
+        SCRIPTS.put("risk", "RiskBasedLoginScript.js");
+        SCRIPTS.put("risk_payload", "RiskBasedLoginScriptPayload.js");
+    }
+
+    private IdentityProviderMgtServiceClient identityProviderMgtServiceClient;
+    private SCIM2RestClient scim2RestClient;
+    private WireMockServer analyticsReceiver;
+    private String loginUserId;
+    private String previousAnalyticsReceiver;
+    private boolean openJDKNashornEnabled;
+    private final List<NameValuePair> authorizeParameters = new ArrayList<>();
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        provisionApplications("perf-script-app",
+                Collections.singletonList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE),
+                DEFAULT_APPLICATION_COUNT);
+
+        scim2RestClient = new SCIM2RestClient(serverURL, tenantInfo);
+        loginUserId = scim2RestClient.createUser(new UserObject().userName(LOGIN_USER_NAME)
+                .password(LOGIN_USER_PASSWORD));
+        loginUserName = LOGIN_USER_NAME;
+        loginPassword = LOGIN_USER_PASSWORD;
+        authorizeParameters.add(new BasicNameValuePair("acr_values", "acr1"));
+
+        analyticsReceiver = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+        analyticsReceiver.start();
+        analyticsReceiver.stubFor(any(anyUrl()).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(RISK_SCORE_RESPONSE)));
+        identityProviderMgtServiceClient = new IdentityProviderMgtServiceClient(sessionCookie, backendURL);
+        previousAnalyticsReceiver = updateAnalyticsReceiver("http://localhost:" + analyticsReceiver.port());
+        recordServerStatistics();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            // The admin service session does not survive the server restarts.
+            identityProviderMgtServiceClient = new IdentityProviderMgtServiceClient(login(), backendURL);
+            updateAnalyticsReceiver(previousAnalyticsReceiver);
+            scim2RestClient.deleteUser(loginUserId);
+            scim2RestClient.closeHttpClient();
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            if (analyticsReceiver != null) {
+                analyticsReceiver.stop();
+            }
+            // Removing OpenJDK Nashorn restarts the server, so the restored configuration is loaded by that restart.
+            restoreConfiguration(!openJDKNashornEnabled);
+            if (openJDKNashornEnabled) {
+                AdaptiveAuthenticationDependencyUtil.runAdaptiveAuthenticationDependencyScript(true,
+                        getServerConfigurationManager(), log);
+            }
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the logins with each script on each script engine.")
+    public void testScriptEngines() throws Exception {
+
+        List<String> scriptNames = LoadTestConfig.getList(SCRIPT_NAMES, SCRIPTS.keySet().toArray(new String[0]));
+        for (String scriptName : scriptNames) {
+            if (!SCRIPTS.containsKey(scriptName)) {
+                throw new IllegalArgumentException("Unknown script: " + scriptName + ". Available scripts: " +
+                        SCRIPTS.keySet());
+            }
+        }
+
+        for (String engine : LoadTestConfig.getList(ENGINES, GRAALJS, NASHORN)) {
+            String engineConfiguration;
+            if (GRAALJS.equals(engine)) {
+                engineConfiguration = "script_engine_graaljs.toml";
+            } else if (NASHORN.equals(engine)) {
+                engineConfiguration = "script_engine_nashorn.toml";
+                if (Utils.getJavaVersion() >= 15) {
+                    if (!openJDKNashornEnabled) {
+                        AdaptiveAuthenticationDependencyUtil.runAdaptiveAuthenticationDependencyScript(false,
+                                getServerConfigurationManager(), log);
+                        openJDKNashornEnabled = true;
+                    }
+                    engineConfiguration = "script_engine_openjdknashorn.toml";
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown script engine: " + engine + ". Available engines: " +
+                        GRAALJS + ", " + NASHORN);
+            }
+            log.info("Measuring the adaptive authentication scripts with " + engine + ".");
+            applyConfigurationAndRestart(readConfiguration(engineConfiguration));
+
+            for (String scriptName : scriptNames) {
+                runScript(scriptName, engine);
+            }
+        }
+    }
+
+    private void runScript(String scriptName, String engine) throws Exception {
+
+        String script = readScript(SCRIPTS.get(scriptName));
+        for (LoadTestApplication application : applications) {
+            // A unique comment makes the server compile the script again instead of reusing an earlier compilation.
+            updateScript(application, script + "\n// " + UUID.randomUUID());
+        }
+
+        LoadTestResult firstLogins = new LoadTestResult(scriptName + "_first_login_" + engine);
+        long startNanos = System.nanoTime();
+        for (LoadTestApplication application : applications) {
+            long loginStartNanos = System.nanoTime();
+            try {
+                requestAuthorizationCode(getNewSessionClient(0), application, getPKCECodeVerifier(),
+                        authorizeParameters);
+                firstLogins.recordSuccess(loginStartNanos, loginStartNanos, System.nanoTime());
+            } catch (Exception e) {
+                log.warn("First login to " + application.getClientId() + " with " + scriptName + " failed.", e);
+                firstLogins.recordError();
+            }
+        }
+        firstLogins.setMeasuredNanos(System.nanoTime() - startNanos);
+        results.add(firstLogins);
+
+        runLoad(scriptName + "_login_" + engine, worker -> requestAuthorizationCode(getNewSessionClient(worker),
+                getApplication(worker), getPKCECodeVerifier(), authorizeParameters));
+    }
+
+    private void updateScript(LoadTestApplication application, String script) throws Exception {
+
+        restClient.updateApplication(application.getId(), new ApplicationPatchModel()
+                .authenticationSequence(new AuthenticationSequence()
+                        .type(AuthenticationSequence.TypeEnum.USER_DEFINED)
+                        .addStepsItem(new AuthenticationStep()
+                                .id(1)
+                                .addOptionsItem(new Authenticator()
+                                        .idp("LOCAL")
+                                        .authenticator("BasicAuthenticator")))
+                        .script(script)));
+    }
+
+    /**
+     * Point the analytics calls of the scripts to the given receiver.
+     *
+     * @param receiver Receiver URL.
+     * @return Receiver URL that was set before.
+     * @throws Exception If the resident identity provider could not be updated.
+     */
+    private String updateAnalyticsReceiver(String receiver) throws Exception {
+
+        IdentityProvider residentIdentityProvider = identityProviderMgtServiceClient.getResidentIdP();
+        String previousReceiver = null;
+        for (IdentityProviderProperty property : residentIdentityProvider.getIdpProperties()) {
+            if (ANALYTICS_RECEIVER.equalsIgnoreCase(property.getName())) {
+                previousReceiver = property.getValue();
+                property.setValue(receiver);
+            }
+        }
+        // Only the SAML configuration of the resident identity provider can be updated.
+        FederatedAuthenticatorConfig[] authenticatorConfigs =
+                residentIdentityProvider.getFederatedAuthenticatorConfigs();
+        for (FederatedAuthenticatorConfig authenticatorConfig : authenticatorConfigs) {
+            if (!"samlsso".equalsIgnoreCase(authenticatorConfig.getName())) {
+                authenticatorConfigs = (FederatedAuthenticatorConfig[]) ArrayUtils.removeElement(authenticatorConfigs,
+                        authenticatorConfig);
+            }
+        }
+        residentIdentityProvider.setFederatedAuthenticatorConfigs(authenticatorConfigs);
+        identityProviderMgtServiceClient.updateResidentIdP(residentIdentityProvider);
+        return previousReceiver;
+    }
+
+    private static String readScript(String fileName) throws IOException {
+
+        try (InputStream script = ScriptEngineLoadTestCase.class.getResourceAsStream(SCRIPT_LOCATION + fileName)) {
+            if (script == null) {
+                throw new IOException("Script not found: " + SCRIPT_LOCATION + fileName);
+            }
+            return IOUtils.toString(script, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.analytics;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.analytics.commons.EventSinkMetrics;
+import org.wso2.identity.integration.test.analytics.commons.MappedEventSpill;
+import org.wso2.identity.integration.test.analytics.commons.ThriftServer;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the cost of publishing authentication, session and token issuance events on the login and token paths.
+ * The grants are measured with analytics disabled, then again after enabling the analytics publishers against the
+ * {@link ThriftServer} test receiver.
+ * <p>
+ * The receiver metrics, such as the received events per second, the batch sizes and the publish lag per stream, are
+ * written to {@code analytics-publisher-sink.txt} in the report directory. With {@code -Dperf.analytics.spill=true}
+ * the received events are also kept in memory mapped files, to include the cost of preserving them.
+ */
+public class AnalyticsPublisherLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "analytics-publisher";
+    private static final String SPILL = "analytics.spill";
+    private static final String STREAM_DEFINITIONS_FOLDER = "Wso2EventTestCase";
+    private static final int RECEIVER_PORT = 8021;
+    private static final String[] EVENT_PUBLISHERS = {"IsAnalytics-Publisher-wso2event-AuthenticationData.xml",
+            "IsAnalytics-Publisher-wso2event-SessionData.xml",
+            "IsAnalytics-Publisher-wso2event-OauthTokenIssueRefresh.xml"};
+    private static final String DISABLED_SUFFIX = "_analytics_disabled";
+    private static final String ENABLED_SUFFIX = "_analytics_enabled";
+
+    private ThriftServer thriftServer;
+    private MappedEventSpill eventSpill;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        provisionApplications("perf-analytics-app", Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            if (thriftServer != null) {
+                thriftServer.stop();
+            }
+            if (eventSpill != null) {
+                eventSpill.close();
+            }
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the login and token paths with analytics disabled.")
+    public void testAnalyticsDisabled() throws Exception {
+
+        runGrants(DISABLED_SUFFIX);
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the login and token paths while publishing analytics events.",
+            dependsOnMethods = "testAnalyticsDisabled", alwaysRun = true)
+    public void testAnalyticsEnabled() throws Exception {
+
+        if (LoadTestConfig.getBoolean(SPILL, false)) {
+            eventSpill = new MappedEventSpill(Files.createTempDirectory("analytics-spill"));
+            thriftServer = new ThriftServer(STREAM_DEFINITIONS_FOLDER, RECEIVER_PORT, eventSpill);
+        } else {
+            thriftServer = new ThriftServer(STREAM_DEFINITIONS_FOLDER, RECEIVER_PORT, false);
+        }
+        thriftServer.startServer();
+        enableAnalytics();
+        thriftServer.getMetrics().reset();
+
+        runGrants(ENABLED_SUFFIX);
+
+        EventSinkMetrics metrics = thriftServer.getMetrics();
+        log.info("Analytics events received during the load test: " + metrics.getSummary());
+        writeSinkReport(metrics);
+        Assert.assertTrue(metrics.getEventCount() > 0, "No analytics events were received.");
+    }
+
+    private void runGrants(String suffix) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS + suffix,
+                worker -> assertAccessToken(requestToken(getApplication(worker), parameters)));
+        runAuthorizationCodeLoad("authorization_code_pkce_flow" + suffix, "authorization_code_pkce" + suffix,
+                loadTestConfig.getMaxErrorRatio());
+    }
+
+    private void enableAnalytics() throws Exception {
+
+        String carbonHome = Utils.getResidentCarbonHome();
+        String configLocation = getISResourceLocation() + File.separator + "analytics" + File.separator + "config";
+        String eventPublishersLocation = carbonHome + File.separator + "repository" + File.separator + "deployment" +
+                File.separator + "server" + File.separator + "eventpublishers";
+
+        for (String eventPublisher : EVENT_PUBLISHERS) {
+            applyFileWithoutRestart(new File(configLocation + File.separator + eventPublisher),
+                    new File(eventPublishersLocation + File.separator + eventPublisher));
+        }
+        applyConfigurationAndRestart(new String(Files.readAllBytes(Paths.get(configLocation,
+                "analytics_enabled.toml")), StandardCharsets.UTF_8));
+    }
+
+    private void writeSinkReport(EventSinkMetrics metrics) throws Exception {
+
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IllegalStateException("Unable to create the report directory " +
+                    reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                REPORT_NAME + "-sink.txt")), false, StandardCharsets.UTF_8.name())) {
+            report.println(metrics.getSummary());
+            if (eventSpill != null) {
+                report.println("spilled_events=" + eventSpill.getEventCount() + " spilled_bytes=" +
+                        eventSpill.getBytesWritten());
+            }
+            report.println();
+            report.println("Batch size distribution");
+            metrics.getBatchSizes().outputPercentileDistribution(report, 1.0);
+        }
+    }
+}
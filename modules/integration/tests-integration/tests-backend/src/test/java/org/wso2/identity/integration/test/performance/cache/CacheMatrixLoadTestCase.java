@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.cache;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AdvancedApplicationConfiguration;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.InboundProtocols;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SAML2Configuration;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SAML2ServiceProvider;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SAMLResponseSigning;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SingleSignOnProfile;
+import org.wso2.identity.integration.test.utils.CommonConstants;
+import org.wso2.identity.integration.test.utils.DataExtractUtil;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the authorization code, SAML SSO and introspection flows against a matrix of cache configurations, so cache
+ * capacities can be chosen from measurements. Every configuration disables one group of caches, or none, and sets
+ * the capacity of the enabled caches. The server is restarted with each configuration.
+ * <p>
+ * Besides the latencies, the JDBC statements per invocation and the hit ratio of every accessed cache are read from
+ * the server over JMX for the measurement period of every run, and written to {@code cache-matrix-server.txt} in the
+ * report directory. Statements are counted with the Tomcat JDBC pool query report interceptor, which only counts,
+ * so it does not slow down the pools noticeably.
+ * <p>
+ * The working set of the application and token caches is the number of applications, set with
+ * {@code -Dperf.apps}. The matrix is set with {@code -Dperf.cache.capacities=50,500,5000} and
+ * {@code -Dperf.cache.disabled=none,authentication,oauth,saml,application,all}.
+ */
+public class CacheMatrixLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "cache-matrix";
+    private static final String CAPACITIES = "cache.capacities";
+    private static final String DISABLED_GROUPS = "cache.disabled";
+    private static final String NO_GROUP = "none";
+    private static final String ALL_GROUPS = "all";
+    private static final int DEFAULT_APPLICATION_COUNT = 100;
+    private static final String SAML_SSO_ENDPOINT = "https://localhost:" + CommonConstants.IS_DEFAULT_HTTPS_PORT +
+            "/samlsso";
+    private static final String SAML_ACS_URL = "https://localhost/perf/saml/acs";
+    private static final String SAML_RESPONSE = "SAMLResponse";
+    private static final Map<String, List<String>> CACHE_GROUPS = new LinkedHashMap<>();
+
+    static {
+        CACHE_GROUPS.put("authentication", Arrays.asList("app_auth_framework_session_context_cache",
+                "authentication_context_cache", "authentication_request_cache", "authentication_result_cache"));
+        CACHE_GROUPS.put("oauth", Arrays.asList("app_info_cache", "authorization_grant_cache", "oauth_cache",
+                "oauth_scope_cache", "oauth_session_data_cache"));
+        CACHE_GROUPS.put("saml", Arrays.asList("saml_sso_participant_cache", "saml_sso_session_index_cache",
+                "saml_sso_session_data_cache"));
+        CACHE_GROUPS.put("application", Arrays.asList("service_provider_cache", "service_provider_id_cache",
+                "idp_cache_by_auth_property", "idp_cache_by_hri", "idp_cache_by_name"));
+    }
+
+    private final List<String> samlApplicationIds = new ArrayList<>();
+    private final List<String> samlIssuers = new ArrayList<>();
+    private final List<String> accessTokens = new ArrayList<>();
+    private String samlSSOEndpoint;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        provisionApplications("perf-cache-app", Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS), DEFAULT_APPLICATION_COUNT);
+        for (int i = 0; i < applications.size(); i++) {
+            String issuer = "perf-cache-saml-app-" + i;
+            samlApplicationIds.add(restClient.createApplication(getSAMLApplication(issuer)));
+            samlIssuers.add(issuer);
+        }
+        samlSSOEndpoint = getTenantQualifiedURL(SAML_SSO_ENDPOINT, tenantInfo.getDomain());
+        recordServerStatistics();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            for (String samlApplicationId : samlApplicationIds) {
+                deleteApp(samlApplicationId);
+            }
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the flows with each cache configuration of the matrix.")
+    public void testCacheMatrix() throws Exception {
+
+        String baseToml = readConfiguration("cache_matrix.toml");
+        for (String disabledGroup : LoadTestConfig.getList(DISABLED_GROUPS, NO_GROUP, "authentication", "oauth",
+                "saml", "application", ALL_GROUPS)) {
+            if (!NO_GROUP.equals(disabledGroup) && !ALL_GROUPS.equals(disabledGroup) &&
+                    !CACHE_GROUPS.containsKey(disabledGroup)) {
+                throw new IllegalArgumentException("Unknown cache group: " + disabledGroup + ". Available groups: " +
+                        CACHE_GROUPS.keySet());
+            }
+            for (String capacity : LoadTestConfig.getList(CAPACITIES, "50", "500", "5000")) {
+                String configuration = ALL_GROUPS.equals(disabledGroup) ? "all_disabled" :
+                        disabledGroup + "_disabled_capacity_" + capacity;
+                log.info("Measuring the cache configuration " + configuration + ".");
+                applyConfigurationAndRestart(baseToml, getCacheConfiguration(disabledGroup,
+                        Integer.parseInt(capacity)));
+
+                runFlows("_" + configuration);
+                if (ALL_GROUPS.equals(disabledGroup)) {
+                    // The capacity does not matter when every cache is disabled.
+                    break;
+                }
+            }
+        }
+    }
+
+    private void runFlows(String suffix) throws Exception {
+
+        runAuthorizationCodeLoad("authorization_code_pkce_flow" + suffix, "authorization_code_pkce" + suffix,
+                loadTestConfig.getMaxErrorRatio());
+        runLoad("saml_sso_idp_initiated" + suffix, this::runSAMLSSO);
+
+        accessTokens.clear();
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        for (LoadTestApplication application : applications) {
+            accessTokens.add((String) requestToken(application, parameters).get(OAuth2Constant.ACCESS_TOKEN));
+        }
+        runLoad("introspection" + suffix, worker -> {
+            JSONObject introspection = introspectToken(accessTokens.get(
+                    ThreadLocalRandom.current().nextInt(accessTokens.size())));
+            if (!Boolean.TRUE.equals(introspection.get("active"))) {
+                throw new IOException("Introspected token is not active.");
+            }
+        });
+    }
+
+    /**
+     * Log in to one of the SAML applications with IdP initiated SSO and check that the SAML response is returned.
+     *
+     * @param worker Worker index.
+     * @throws Exception If any hop of the flow failed.
+     */
+    private void runSAMLSSO(int worker) throws Exception {
+
+        CloseableHttpClient sessionClient = getNewSessionClient(worker);
+        String issuer = samlIssuers.get(ThreadLocalRandom.current().nextInt(samlIssuers.size()));
+        String location = getForLocation(sessionClient, samlSSOEndpoint + "?spEntityID=" + issuer);
+        String sessionDataKey = DataExtractUtil.getParamFromURIString(location, OAuth2Constant.SESSION_DATA_KEY);
+        if (sessionDataKey == null) {
+            throw new IOException("sessionDataKey not found in the SSO response: " + location);
+        }
+
+        List<NameValuePair> loginParameters = new ArrayList<>();
+        loginParameters.add(new BasicNameValuePair("username", loginUserName));
+        loginParameters.add(new BasicNameValuePair("password", loginPassword));
+        loginParameters.add(new BasicNameValuePair(OAuth2Constant.SESSION_DATA_KEY, sessionDataKey));
+        location = postForLocation(sessionClient, commonAuthEndpoint, loginParameters);
+
+        HttpGet request = new HttpGet(location);
+        request.setHeader("User-Agent", OAuth2Constant.USER_AGENT);
+        try (CloseableHttpResponse response = sessionClient.execute(request)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || !body.contains(SAML_RESPONSE)) {
+                throw new IOException("SAML response not found in the response from " + location + ". Status: " +
+                        response.getStatusLine().getStatusCode());
+            }
+        }
+    }
+
+    private static ApplicationModel getSAMLApplication(String issuer) {
+
+        SAML2ServiceProvider serviceProvider = new SAML2ServiceProvider()
+                .issuer(issuer)
+                .addAssertionConsumerUrl(SAML_ACS_URL)
+                .defaultAssertionConsumerUrl(SAML_ACS_URL)
+                .responseSigning(new SAMLResponseSigning().enabled(false))
+                .singleSignOnProfile(new SingleSignOnProfile().enableIdpInitiatedSingleSignOn(true));
+        return new ApplicationModel()
+                .name(issuer)
+                .inboundProtocolConfiguration(new InboundProtocols()
+                        .saml(new SAML2Configuration().manualConfiguration(serviceProvider)))
+                .advancedConfigurations(new AdvancedApplicationConfiguration().skipLoginConsent(true)
+                        .skipLogoutConsent(true));
+    }
+
+    private static String getCacheConfiguration(String disabledGroup, int capacity) {
+
+        StringBuilder toml = new StringBuilder();
+        for (Map.Entry<String, List<String>> cacheGroup : CACHE_GROUPS.entrySet()) {
+            boolean enabled = !ALL_GROUPS.equals(disabledGroup) && !cacheGroup.getKey().equals(disabledGroup);
+            for (String cache : cacheGroup.getValue()) {
+                toml.append(String.format(Locale.ENGLISH, "%n[cache.%s]%nenable = %b%ncapacity = %d%n", cache,
+                        enabled, capacity));
+            }
+        }
+        return toml.toString();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a task a fixed number of times with a fixed number of workers, every worker starting the next invocation as
+ * soon as its previous one returned. Where {@link LoadGenerator} runs for a fixed duration, this runs work of a known
+ * size, such as creating the data of a load test in parallel or sending a burst of requests.
+ */
+public final class FixedCountRunner {
+
+    private static final Log LOG = LogFactory.getLog(FixedCountRunner.class);
+
+    private FixedCountRunner() {
+
+    }
+
+    /**
+     * One invocation of the task. Throwing marks the invocation as failed, as does an assertion error.
+     */
+    @FunctionalInterface
+    public interface Invocation {
+
+        /**
+         * Execute one invocation.
+         *
+         * @param worker Index of the executing worker, in the range [0, concurrency).
+         * @param index  Index of the invocation, in the range [0, count). Every index is executed once.
+         * @throws Exception If the invocation failed.
+         */
+        void execute(int worker, int index) throws Exception;
+    }
+
+    /**
+     * Run the invocations and record each of them. A failed invocation does not stop the others, the failures are
+     * counted in the result and the first of them is logged.
+     *
+     * @param name        Name of the result.
+     * @param count       Number of invocations.
+     * @param concurrency Number of workers.
+     * @param invocation  Invocation to run.
+     * @return Latencies of the invocations, with the time taken to complete all of them as the measured time.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static LoadTestResult run(String name, int count, int concurrency, Invocation invocation)
+            throws InterruptedException {
+
+        LoadTestResult result = new LoadTestResult(name);
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, count)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "perf-" + name + "-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < Math.min(concurrency, count); i++) {
+            int worker = i;
+            executor.execute(() -> {
+                int index;
+                while (!Thread.currentThread().isInterrupted() && (index = nextIndex.getAndIncrement()) < count) {
+                    long invocationStartNanos = System.nanoTime();
+                    try {
+                        invocation.execute(worker, index);
+                        result.recordSuccess(invocationStartNanos, invocationStartNanos, System.nanoTime());
+                    } catch (Exception | AssertionError e) {
+                        result.recordError();
+                        firstFailure.compareAndSet(null, e);
+                        LOG.debug("Invocation " + index + " of " + name + " failed.", e);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        result.setMeasuredNanos(System.nanoTime() - startNanos);
+
+        if (firstFailure.get() != null) {
+            LOG.warn(result.getErrorCount() + " of " + count + " invocations of " + name + " failed. The first " +
+                    "failure:", firstFailure.get());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tests that {@link FixedCountRunner} runs every invocation once and records the outcome of each. No server is
+ * needed.
+ */
+public class FixedCountRunnerTestCase {
+
+    @Test(groups = "wso2.is", description = "Run every index once, spread across the workers.")
+    public void testEveryIndexOnce() throws InterruptedException {
+
+        AtomicIntegerArray invocations = new AtomicIntegerArray(1000);
+        Set<Integer> workers = ConcurrentHashMap.newKeySet();
+
+        LoadTestResult result = FixedCountRunner.run("every-index", invocations.length(), 8, (worker, index) -> {
+            invocations.incrementAndGet(index);
+            workers.add(worker);
+        });
+
+        for (int i = 0; i < invocations.length(); i++) {
+            Assert.assertEquals(invocations.get(i), 1, "Unexpected invocations of index " + i);
+        }
+        Assert.assertEquals(result.getName(), "every-index");
+        Assert.assertEquals(result.getSuccessCount(), invocations.length());
+        Assert.assertEquals(result.getErrorCount(), 0);
+        Assert.assertTrue(result.getMeasuredNanos() > 0);
+        for (int worker : workers) {
+            Assert.assertTrue(worker >= 0 && worker < 8, "Unexpected worker " + worker);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Count the failed invocations and keep running the others.")
+    public void testFailures() throws InterruptedException {
+
+        LoadTestResult result = FixedCountRunner.run("failures", 100, 4, (worker, index) -> {
+            if (index % 10 == 0) {
+                throw new IOException("Invocation " + index + " failed.");
+            }
+            Assert.assertNotEquals(index % 10, 5, "Invocation " + index + " failed.");
+        });
+
+        Assert.assertEquals(result.getSuccessCount(), 80);
+        Assert.assertEquals(result.getErrorCount(), 20);
+    }
+
+    @Test(groups = "wso2.is", description = "Use no more workers than invocations, and run nothing for no work.")
+    public void testFewerInvocationsThanWorkers() throws InterruptedException {
+
+        Set<Integer> workers = ConcurrentHashMap.newKeySet();
+        LoadTestResult result = FixedCountRunner.run("few", 2, 8, (worker, index) -> workers.add(worker));
+        Assert.assertEquals(result.getSuccessCount(), 2);
+        Assert.assertTrue(workers.stream().allMatch(worker -> worker < 2), "Unexpected workers " + workers);
+
+        result = FixedCountRunner.run("none", 0, 8, (worker, index) -> Assert.fail("Nothing should run."));
+        Assert.assertEquals(result.getSuccessCount() + result.getErrorCount(), 0);
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Reads server side counters over the JMX connector of the server, so a load test can relate its throughput to the
+ * work done by the server.
+ * <p>
+ * JDBC statements are counted with the Tomcat JDBC pool {@code SlowQueryReportJmx} interceptor, which has to be added
+ * to the {@code jdbcInterceptors} of the pools. The interceptor keeps the invocation count of every distinct query
+ * of a pool and the total time spent executing it. The time includes the time a statement waits for the locks it
+ * needs, so lock contention in the database shows up as statement time. Cache hits and misses are read from the
+ * JSR 107 {@code CacheStatistics} MBeans of the caches that expose them. Heap allocation is the sum of the bytes
+ * allocated by the live threads of the server, so allocations of threads that ended in between are not included.
+ * Requests and the time the server spent processing them are read from the Tomcat {@code GlobalRequestProcessor}
+ * MBeans of all connectors, so the server side latency can be compared with the latency seen by the client.
+ * <p>
+ * The resource usage of the server, read for leak detection, is the heap used right after the last garbage
+ * collection of every heap pool, the live threads, the open file descriptors and the entries of every cache. The
+ * entries of a cache are derived from its puts, removals and evictions, so entries that expired without being
+ * evicted are still counted.
+ * <p>
+ * A new connection is opened for every snapshot, so snapshots can be taken across server restarts.
+ */
+public class JmxServerStatistics {
+
+    public static final String JMX_URL = "jmx.url";
+    public static final String QUERY_REPORT_INTERCEPTOR =
+            "org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReportJmx";
+
+    private static final String JMX_URL_FORMAT = "service:jmx:rmi://localhost:%d/jndi/rmi://localhost:%d/jmxrmi";
+    private static final int DEFAULT_RMI_REGISTRY_PORT = 9999;
+    private static final int DEFAULT_RMI_SERVER_PORT = 11111;
+    private static final String QUERY_REPORT_PATTERN = "tomcat.jdbc:type=" + QUERY_REPORT_INTERCEPTOR + ",*";
+    private static final String CACHE_STATISTICS_PATTERN = "*:type=CacheStatistics,*";
+    private static final String THREADING = "java.lang:type=Threading";
+    private static final String REQUEST_PROCESSOR_PATTERN = "Catalina:type=GlobalRequestProcessor,*";
+    private static final String MEMORY_POOL_PATTERN = "java.lang:type=MemoryPool,*";
+    private static final String OPERATING_SYSTEM = "java.lang:type=OperatingSystem";
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    /**
+     * Create a reader for the server with the given port offset. The JMX URL can be overridden with the
+     * {@code perf.jmx.url} property.
+     *
+     * @param portOffset Port offset of the server.
+     * @param username   User the connector authenticates with.
+     * @param password   Password of the user.
+     */
+    public JmxServerStatistics(int portOffset, String username, String password) {
+
+        this.url = LoadTestConfig.getString(JMX_URL, String.format(JMX_URL_FORMAT,
+                DEFAULT_RMI_SERVER_PORT + portOffset, DEFAULT_RMI_REGISTRY_PORT + portOffset));
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Read the current value of the counters.
+     *
+     * @return Snapshot of the counters.
+     * @throws IOException If the server could not be reached or the counters could not be read.
+     */
+    public Snapshot snapshot() throws IOException {
+
+        try (JMXConnector connector = connect()) {
+            MBeanServerConnection connection = connector.getMBeanServerConnection();
+            Map<String, long[]> statementCounts = readStatementCounts(connection);
+            return new Snapshot(statementCounts, readCacheCounts(connection), readThreadAllocatedBytes(connection),
+                    readRequestCounts(connection));
+        } catch (JMException e) {
+            throw new IOException("Unable to read the server statistics from " + url, e);
+        }
+    }
+
+    /**
+     * Read the current resource usage of the server.
+     *
+     * @return Resource usage.
+     * @throws IOException If the server could not be reached or the usage could not be read.
+     */
+    public ResourceUsage readResourceUsage() throws IOException {
+
+        try (JMXConnector connector = connect()) {
+            MBeanServerConnection connection = connector.getMBeanServerConnection();
+            long heapAfterGcBytes = 0;
+            for (ObjectName name : connection.queryNames(new ObjectName(MEMORY_POOL_PATTERN), null)) {
+                CompositeData collectionUsage = (CompositeData) connection.getAttribute(name, "CollectionUsage");
+                // Pools that are not collected, such as the code cache, are not part of the heap.
+                if ("HEAP".equals(String.valueOf(connection.getAttribute(name, "Type"))) && collectionUsage != null) {
+                    heapAfterGcBytes += ((Number) collectionUsage.get("used")).longValue();
+                }
+            }
+            int threadCount = ((Number) connection.getAttribute(new ObjectName(THREADING), "ThreadCount")).intValue();
+            long openFileDescriptors;
+            try {
+                openFileDescriptors = ((Number) connection.getAttribute(new ObjectName(OPERATING_SYSTEM),
+                        "OpenFileDescriptorCount")).longValue();
+            } catch (AttributeNotFoundException e) {
+                // Only available on Unix like systems.
+                openFileDescriptors = -1;
+            }
+            return new ResourceUsage(heapAfterGcBytes, threadCount, openFileDescriptors,
+                    readCacheEntries(connection));
+        } catch (JMException e) {
+            throw new IOException("Unable to read the resource usage from " + url, e);
+        }
+    }
+
+    private JMXConnector connect() throws IOException {
+
+        Map<String, Object> environment = new HashMap<>();
+        environment.put(JMXConnector.CREDENTIALS, new String[]{username, password});
+        return JMXConnectorFactory.connect(new JMXServiceURL(url), environment);
+    }
+
+    private static Map<String, long[]> readStatementCounts(MBeanServerConnection connection)
+            throws IOException, JMException {
+
+        // Invocations and total invocation time in milliseconds of every query.
+        Map<String, long[]> statementCounts = new HashMap<>();
+        for (ObjectName name : connection.queryNames(new ObjectName(QUERY_REPORT_PATTERN), null)) {
+            CompositeData[] queries = (CompositeData[]) connection.getAttribute(name, "SlowQueriesCD");
+            if (queries == null) {
+                continue;
+            }
+            for (CompositeData query : queries) {
+                statementCounts.put(name.getKeyProperty("name") + ":" + query.get("query"), new long[]{
+                        ((Number) query.get("nrOfInvocations")).longValue(),
+                        ((Number) query.get("totalInvocationTime")).longValue()});
+            }
+        }
+        return statementCounts;
+    }
+
+    private static Map<String, CacheCounts> readCacheCounts(MBeanServerConnection connection)
+            throws IOException, JMException {
+
+        Map<String, CacheCounts> cacheCounts = new HashMap<>();
+        for (ObjectName name : connection.queryNames(new ObjectName(CACHE_STATISTICS_PATTERN), null)) {
+            String cacheName = name.getKeyProperty("Cache");
+            if (cacheName == null) {
+                continue;
+            }
+            long hits = ((Number) connection.getAttribute(name, "CacheHits")).longValue();
+            long misses = ((Number) connection.getAttribute(name, "CacheMisses")).longValue();
+            // The same cache is registered once per tenant, so the tenants are added up.
+            cacheCounts.merge(cacheName, new CacheCounts(hits, misses), CacheCounts::plus);
+        }
+        return cacheCounts;
+    }
+
+    private static Map<String, Long> readCacheEntries(MBeanServerConnection connection)
+            throws IOException, JMException {
+
+        Map<String, Long> cacheEntries = new TreeMap<>();
+        for (ObjectName name : connection.queryNames(new ObjectName(CACHE_STATISTICS_PATTERN), null)) {
+            String cacheName = name.getKeyProperty("Cache");
+            if (cacheName == null) {
+                continue;
+            }
+            long entries = ((Number) connection.getAttribute(name, "CachePuts")).longValue() -
+                    ((Number) connection.getAttribute(name, "CacheRemovals")).longValue() -
+                    ((Number) connection.getAttribute(name, "CacheEvictions")).longValue();
+            cacheEntries.merge(cacheName, Math.max(0, entries), Long::sum);
+        }
+        return cacheEntries;
+    }
+
+    private static Map<Long, Long> readThreadAllocatedBytes(MBeanServerConnection connection)
+            throws IOException, JMException {
+
+        ObjectName threading = new ObjectName(THREADING);
+        long[] threadIds = (long[]) connection.getAttribute(threading, "AllThreadIds");
+        long[] allocatedBytes = (long[]) connection.invoke(threading, "getThreadAllocatedBytes",
+                new Object[]{threadIds}, new String[]{long[].class.getName()});
+        Map<Long, Long> threadAllocatedBytes = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            // Threads that ended after the ids were read report -1.
+            if (allocatedBytes[i] >= 0) {
+                threadAllocatedBytes.put(threadIds[i], allocatedBytes[i]);
+            }
+        }
+        return threadAllocatedBytes;
+    }
+
+    private static long[] readRequestCounts(MBeanServerConnection connection) throws IOException, JMException {
+
+        // Requests and total processing time in milliseconds of all connectors.
+        long[] requestCounts = new long[2];
+        for (ObjectName name : connection.queryNames(new ObjectName(REQUEST_PROCESSOR_PATTERN), null)) {
+            requestCounts[0] += ((Number) connection.getAttribute(name, "requestCount")).longValue();
+            requestCounts[1] += ((Number) connection.getAttribute(name, "processingTime")).longValue();
+        }
+        return requestCounts;
+    }
+
+    /**
+     * Counters read at a point in time.
+     */
+    public static class Snapshot {
+
+        private final Map<String, long[]> statementCounts;
+        private final Map<String, CacheCounts> cacheCounts;
+        private final Map<Long, Long> threadAllocatedBytes;
+        private final long[] requestCounts;
+
+        Snapshot(Map<String, long[]> statementCounts, Map<String, CacheCounts> cacheCounts,
+                 Map<Long, Long> threadAllocatedBytes, long[] requestCounts) {
+
+            this.statementCounts = statementCounts;
+            this.cacheCounts = cacheCounts;
+            this.threadAllocatedBytes = threadAllocatedBytes;
+            this.requestCounts = requestCounts;
+        }
+
+        /**
+         * Bytes allocated on the heap of the server since the earlier snapshot. Threads started in between are counted
+         * from zero.
+         *
+         * @param earlier Snapshot taken earlier.
+         * @return Allocated bytes.
+         */
+        public long getAllocatedBytesSince(Snapshot earlier) {
+
+            long allocatedBytes = 0;
+            for (Map.Entry<Long, Long> thread : threadAllocatedBytes.entrySet()) {
+                long previous = earlier.threadAllocatedBytes.getOrDefault(thread.getKey(), 0L);
+                if (thread.getValue() >= previous) {
+                    allocatedBytes += thread.getValue() - previous;
+                }
+            }
+            return allocatedBytes;
+        }
+
+        /**
+         * Number of JDBC statements executed since the earlier snapshot.
+         *
+         * @param earlier Snapshot taken earlier.
+         * @return Executed statements.
+         */
+        public long getStatementsSince(Snapshot earlier) {
+
+            return sumSince(earlier, 0);
+        }
+
+        /**
+         * Milliseconds spent executing JDBC statements since the earlier snapshot, including the time the statements
+         * waited for locks. Statements running in parallel are added up.
+         *
+         * @param earlier Snapshot taken earlier.
+         * @return Statement execution time in milliseconds.
+         */
+        public long getStatementMillisSince(Snapshot earlier) {
+
+            return sumSince(earlier, 1);
+        }
+
+        private long sumSince(Snapshot earlier, int counter) {
+
+            long sum = 0;
+            for (Map.Entry<String, long[]> statementCount : statementCounts.entrySet()) {
+                long current = statementCount.getValue()[counter];
+                long[] previousCounts = earlier.statementCounts.get(statementCount.getKey());
+                // Queries evicted from the report in between start again from zero.
+                long previous = previousCounts != null ? previousCounts[counter] : 0;
+                sum += current >= previous ? current - previous : current;
+            }
+            return sum;
+        }
+
+        /**
+         * Number of HTTP requests the server processed since the earlier snapshot.
+         *
+         * @param earlier Snapshot taken earlier.
+         * @return Processed requests.
+         */
+        public long getRequestsSince(Snapshot earlier) {
+
+            return Math.max(0, requestCounts[0] - earlier.requestCounts[0]);
+        }
+
+        /**
+         * Milliseconds the server spent processing HTTP requests since the earlier snapshot, from the request being
+         * read until the response was written. Requests processed in parallel are added up.
+         *
+         * @param earlier Snapshot taken earlier.
+         * @return Request processing time in milliseconds.
+         */
+        public long getRequestProcessingMillisSince(Snapshot earlier) {
+
+            return Math.max(0, requestCounts[1] - earlier.requestCounts[1]);
+        }
+
+        /**
+         * Hits and misses of every cache that was accessed since the earlier snapshot.
+         *
+         * @param earlier Snapshot taken earlier.
+         * @return Hits and misses by cache name.
+         */
+        public Map<String, CacheCounts> getCacheCountsSince(Snapshot earlier) {
+
+            Map<String, CacheCounts> accessedCaches = new TreeMap<>();
+            for (Map.Entry<String, CacheCounts> cacheCount : cacheCounts.entrySet()) {
+                CacheCounts previous = earlier.cacheCounts.getOrDefault(cacheCount.getKey(), new CacheCounts(0, 0));
+                CacheCounts delta = new CacheCounts(cacheCount.getValue().hits - previous.hits,
+                        cacheCount.getValue().misses - previous.misses);
+                if (delta.hits > 0 || delta.misses > 0) {
+                    accessedCaches.put(cacheCount.getKey(), delta);
+                }
+            }
+            return Collections.unmodifiableMap(accessedCaches);
+        }
+    }
+
+    /**
+     * Resource usage of the server at a point in time.
+     */
+    public static class ResourceUsage {
+
+        private final long heapAfterGcBytes;
+        private final int threadCount;
+        private final long openFileDescriptors;
+        private final Map<String, Long> cacheEntries;
+
+        ResourceUsage(long heapAfterGcBytes, int threadCount, long openFileDescriptors,
+                      Map<String, Long> cacheEntries) {
+
+            this.heapAfterGcBytes = heapAfterGcBytes;
+            this.threadCount = threadCount;
+            this.openFileDescriptors = openFileDescriptors;
+            this.cacheEntries = Collections.unmodifiableMap(cacheEntries);
+        }
+
+        /**
+         * Heap used right after the last garbage collection, so objects that are no longer referenced are not
+         * counted.
+         *
+         * @return Used heap in bytes.
+         */
+        public long getHeapAfterGcBytes() {
+
+            return heapAfterGcBytes;
+        }
+
+        public int getThreadCount() {
+
+            return threadCount;
+        }
+
+        /**
+         * Open file descriptors of the server process, including sockets.
+         *
+         * @return Open file descriptors, or -1 if the platform does not report them.
+         */
+        public long getOpenFileDescriptors() {
+
+            return openFileDescriptors;
+        }
+
+        /**
+         * Entries of every cache, with the tenants of a cache added up.
+         *
+         * @return Entries by cache name.
+         */
+        public Map<String, Long> getCacheEntries() {
+
+            return cacheEntries;
+        }
+    }
+
+    /**
+     * Hits and misses of a cache.
+     */
+    public static class CacheCounts {
+
+        private final long hits;
+        private final long misses;
+
+        public CacheCounts(long hits, long misses) {
+
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        public long getHits() {
+
+            return hits;
+        }
+
+        public long getMisses() {
+
+            return misses;
+        }
+
+        /**
+         * Share of the lookups that were hits.
+         *
+         * @return Hit ratio, or 0 if there were no lookups.
+         */
+        public double getHitRatio() {
+
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0;
+        }
+
+        private CacheCounts plus(CacheCounts other) {
+
+            return new CacheCounts(hits + other.hits, misses + other.misses);
+        }
+    }
+}
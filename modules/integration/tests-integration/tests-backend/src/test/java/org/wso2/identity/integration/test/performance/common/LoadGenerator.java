@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link LoadTask} with a fixed number of workers for a warm-up period followed by a measurement period.
+ * <p>
+ * When the load profile has a target rate, invocation slots are handed out on a fixed schedule shared by all
+ * workers and every latency is measured from its scheduled slot. A worker that falls behind therefore reports the
+ * time its requests spent waiting, instead of silently lowering the offered load. Without a target rate every worker
+ * runs back to back.
+ */
+public class LoadGenerator {
+
+    private static final Log LOG = LogFactory.getLog(LoadGenerator.class);
+    private static final long TERMINATION_GRACE_SECONDS = 60;
+
+    private final LoadTestConfig config;
+    private volatile long measurementStartNanos = Long.MAX_VALUE;
+    private volatile long measurementEndNanos = Long.MIN_VALUE;
+    private volatile MeasurementListener measurementListener;
+
+    public LoadGenerator(LoadTestConfig config) {
+
+        this.config = config;
+    }
+
+    /**
+     * Unit of work executed repeatedly by the workers. Throwing marks the invocation as failed. Assertion errors also
+     * mark the invocation as failed, as the REST clients of the tests assert on the response status.
+     */
+    @FunctionalInterface
+    public interface LoadTask {
+
+        /**
+         * Execute one invocation.
+         *
+         * @param worker Index of the executing worker, in the range [0, concurrency). Tasks can use it to keep
+         *               per worker state such as cookie stores or refresh tokens without synchronization.
+         * @throws Exception If the invocation failed.
+         */
+        void execute(int worker) throws Exception;
+    }
+
+    /**
+     * Callback on the boundaries of the measurement period, used to sample server side counters over the same
+     * period the latencies are measured in. Called from the thread running the load.
+     */
+    public interface MeasurementListener {
+
+        /**
+         * Called when the warm-up of a run is over.
+         *
+         * @param name Name of the measured operation.
+         */
+        void measurementStarted(String name);
+
+        /**
+         * Called when all workers of a run have finished.
+         *
+         * @param name Name of the measured operation.
+         */
+        void measurementEnded(String name);
+    }
+
+    /**
+     * Set the listener notified of the measurement period of the following runs.
+     *
+     * @param measurementListener Listener, or null to remove the current listener.
+     */
+    public void setMeasurementListener(MeasurementListener measurementListener) {
+
+        this.measurementListener = measurementListener;
+    }
+
+    /**
+     * Run the task with the configured load profile.
+     *
+     * @param name Name of the measured operation.
+     * @param task Task to run.
+     * @return Measured latencies and throughput.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public LoadTestResult run(String name, LoadTask task) throws InterruptedException {
+
+        LoadTestResult result = new LoadTestResult(name);
+        int concurrency = config.getConcurrency();
+        long intervalNanos = config.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / config.getRate() : 0;
+        AtomicLong ticket = new AtomicLong();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "perf-" + name + "-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long startNanos = System.nanoTime();
+        long measurementStartNanos = startNanos + config.getWarmupNanos();
+        long endNanos = measurementStartNanos + config.getDurationNanos();
+        this.measurementStartNanos = measurementStartNanos;
+        this.measurementEndNanos = endNanos;
+        LOG.info(String.format("Running %s with %d workers at %s for %ds after a %ds warm-up.", name, concurrency,
+                config.getRate() > 0 ? config.getRate() + " req/s" : "closed-loop",
+                TimeUnit.NANOSECONDS.toSeconds(config.getDurationNanos()),
+                TimeUnit.NANOSECONDS.toSeconds(config.getWarmupNanos())));
+
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            executor.execute(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    long intendedStartNanos;
+                    if (intervalNanos > 0) {
+                        intendedStartNanos = startNanos + ticket.getAndIncrement() * intervalNanos;
+                        if (intendedStartNanos >= endNanos) {
+                            return;
+                        }
+                        waitUntil(intendedStartNanos);
+                    } else {
+                        intendedStartNanos = System.nanoTime();
+                        if (intendedStartNanos >= endNanos) {
+                            return;
+                        }
+                    }
+                    boolean measured = intendedStartNanos >= measurementStartNanos;
+                    long invocationStartNanos = System.nanoTime();
+                    try {
+                        task.execute(worker);
+                        if (measured) {
+                            result.recordSuccess(intendedStartNanos, invocationStartNanos, System.nanoTime());
+                        }
+                    } catch (Exception | AssertionError e) {
+                        if (measured) {
+                            result.recordError();
+                        }
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Invocation of " + name + " failed.", e);
+                        }
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        MeasurementListener listener = measurementListener;
+        if (listener != null) {
+            waitUntil(measurementStartNanos);
+            listener.measurementStarted(name);
+        }
+        long timeoutNanos = endNanos - System.nanoTime() + TimeUnit.SECONDS.toNanos(TERMINATION_GRACE_SECONDS);
+        if (!executor.awaitTermination(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            LOG.warn("Workers of " + name + " did not finish in time. Interrupting the remaining workers.");
+            executor.shutdownNow();
+        }
+        result.setMeasuredNanos(config.getDurationNanos());
+        if (listener != null) {
+            listener.measurementEnded(name);
+        }
+        return result;
+    }
+
+    /**
+     * Whether the running load is past its warm-up. Tasks that time sub-steps of an invocation into their own
+     * {@link LoadTestResult} use this to keep warm-up samples out of those results.
+     *
+     * @return True while the measurement period of the current run is in progress.
+     */
+    public boolean isMeasuring() {
+
+        long now = System.nanoTime();
+        return now >= measurementStartNanos && now < measurementEndNanos;
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
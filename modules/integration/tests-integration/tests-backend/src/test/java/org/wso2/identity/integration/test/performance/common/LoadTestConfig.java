@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load profile of a performance test, resolved from system properties.
+ * All properties are prefixed with {@code perf.} so they can be passed straight from the maven command line,
+ * e.g. {@code mvn install -Pperformance -Dperf.concurrency=50 -Dperf.rate=400}.
+ */
+public class LoadTestConfig {
+
+    public static final String PROPERTY_PREFIX = "perf.";
+    public static final String CONCURRENCY = "concurrency";
+    public static final String RATE = "rate";
+    public static final String WARMUP_SECONDS = "warmup.seconds";
+    public static final String DURATION_SECONDS = "duration.seconds";
+    public static final String MAX_ERROR_RATIO = "max.error.ratio";
+    public static final String REPORT_DIR = "report.dir";
+
+    private static final int DEFAULT_CONCURRENCY = 20;
+    private static final int DEFAULT_RATE = 0;
+    private static final int DEFAULT_WARMUP_SECONDS = 10;
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+    private static final double DEFAULT_MAX_ERROR_RATIO = 0.01;
+    private static final String DEFAULT_REPORT_DIR = "performance-reports";
+
+    private final int concurrency;
+    private final int rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final double maxErrorRatio;
+
+    public LoadTestConfig(int concurrency, int rate, int warmupSeconds, int durationSeconds, double maxErrorRatio) {
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be at least one, but was " + concurrency);
+        }
+        this.concurrency = concurrency;
+        this.rate = Math.max(rate, 0);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Math.max(warmupSeconds, 0));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Math.max(durationSeconds, 1));
+        this.maxErrorRatio = maxErrorRatio;
+    }
+
+    /**
+     * Build the load profile from the {@code perf.*} system properties, falling back to the defaults.
+     *
+     * @return Load profile.
+     */
+    public static LoadTestConfig fromSystemProperties() {
+
+        return new LoadTestConfig(getInt(CONCURRENCY, DEFAULT_CONCURRENCY), getInt(RATE, DEFAULT_RATE),
+                getInt(WARMUP_SECONDS, DEFAULT_WARMUP_SECONDS), getInt(DURATION_SECONDS, DEFAULT_DURATION_SECONDS),
+                getDouble(MAX_ERROR_RATIO, DEFAULT_MAX_ERROR_RATIO));
+    }
+
+    /**
+     * Number of concurrent workers (virtual users).
+     *
+     * @return Worker count.
+     */
+    public int getConcurrency() {
+
+        return concurrency;
+    }
+
+    /**
+     * Target arrival rate in requests per second across all workers. Zero runs the workers back to back,
+     * i.e. a pure closed-loop load where each worker issues the next request as soon as the previous one returns.
+     *
+     * @return Target arrival rate.
+     */
+    public int getRate() {
+
+        return rate;
+    }
+
+    public long getWarmupNanos() {
+
+        return warmupNanos;
+    }
+
+    public long getDurationNanos() {
+
+        return durationNanos;
+    }
+
+    public double getMaxErrorRatio() {
+
+        return maxErrorRatio;
+    }
+
+    /**
+     * Read an integer valued {@code perf.*} property.
+     *
+     * @param key          Property key without the {@code perf.} prefix.
+     * @param defaultValue Value to use if the property is not set.
+     * @return Property value.
+     */
+    public static int getInt(String key, int defaultValue) {
+
+        String value = getString(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Read a double valued {@code perf.*} property.
+     *
+     * @param key          Property key without the {@code perf.} prefix.
+     * @param defaultValue Value to use if the property is not set.
+     * @return Property value.
+     */
+    public static double getDouble(String key, double defaultValue) {
+
+        String value = getString(key, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Read a boolean valued {@code perf.*} property.
+     *
+     * @param key          Property key without the {@code perf.} prefix.
+     * @param defaultValue Value to use if the property is not set.
+     * @return Property value.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Read a comma separated {@code perf.*} property.
+     *
+     * @param key           Property key without the {@code perf.} prefix.
+     * @param defaultValues Values to use if the property is not set.
+     * @return Trimmed, non empty values of the property.
+     */
+    public static List<String> getList(String key, String... defaultValues) {
+
+        String value = getString(key, null);
+        if (value == null) {
+            return Arrays.asList(defaultValues);
+        }
+        List<String> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (StringUtils.isNotBlank(item)) {
+                values.add(item.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Read a {@code perf.*} property.
+     *
+     * @param key          Property key without the {@code perf.} prefix.
+     * @param defaultValue Value to use if the property is not set.
+     * @return Property value.
+     */
+    public static String getString(String key, String defaultValue) {
+
+        String value = System.getProperty(PROPERTY_PREFIX + key);
+        return StringUtils.isBlank(value) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Directory the reports are written to. Relative paths resolve against the surefire working directory,
+     * which is the module's target directory.
+     *
+     * @return Report directory.
+     */
+    public static String getReportDirectory() {
+
+        return getString(REPORT_DIR, DEFAULT_REPORT_DIR);
+    }
+}
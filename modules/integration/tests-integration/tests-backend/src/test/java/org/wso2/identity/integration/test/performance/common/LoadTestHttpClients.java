@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP clients for load generation. All clients created from the same connection manager share its pool, so TLS
+ * handshakes are paid once per connection instead of once per request.
+ */
+public final class LoadTestHttpClients {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10000;
+    private static final int SOCKET_TIMEOUT_MILLIS = 60000;
+    private static final long IDLE_CONNECTION_TIMEOUT_SECONDS = 30;
+
+    private LoadTestHttpClients() {
+
+    }
+
+    /**
+     * Create a connection manager sized for the given number of concurrent workers.
+     *
+     * @param maxConnections Maximum number of pooled connections, both in total and per route.
+     * @return Connection manager.
+     */
+    public static PoolingHttpClientConnectionManager createConnectionManager(int maxConnections) {
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                IDLE_CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return connectionManager;
+    }
+
+    /**
+     * Create a client without cookie handling for stateless calls such as token, introspection or REST API requests.
+     *
+     * @param connectionManager Shared connection manager.
+     * @return Http client. Closing it does not close the shared connection manager.
+     */
+    public static CloseableHttpClient createStatelessClient(PoolingHttpClientConnectionManager connectionManager) {
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(getRequestConfig())
+                .disableCookieManagement()
+                .disableRedirectHandling()
+                .build();
+    }
+
+    /**
+     * Create a client that keeps a browser session in the given cookie store. Redirects are not followed so that
+     * the flows can pick the sessionDataKey, authorization code or SAML response out of each hop.
+     *
+     * @param connectionManager Shared connection manager.
+     * @param cookieStore       Cookie store of the simulated user agent.
+     * @return Http client. Closing it does not close the shared connection manager.
+     */
+    public static CloseableHttpClient createSessionClient(PoolingHttpClientConnectionManager connectionManager,
+                                                          CookieStore cookieStore) {
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(getRequestConfig())
+                .setDefaultCookieStore(cookieStore)
+                .disableRedirectHandling()
+                .build();
+    }
+
+    private static RequestConfig getRequestConfig() {
+
+        return RequestConfig.custom()
+                .setCookieSpec(CookieSpecs.STANDARD)
+                .setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+                .setConnectionRequestTimeout(CONNECT_TIMEOUT_MILLIS)
+                .setSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes load test results to the log and to the report directory.
+ * <p>
+ * For every report a {@code <report>.csv} summary is written with one row per operation, together with a
+ * {@code <report>-<operation>.hgrm} file per operation holding the full response time percentile distribution in
+ * milliseconds. The hgrm files can be plotted with the HdrHistogram plotter to compare runs.
+ */
+public final class LoadTestReporter {
+
+    private static final Log LOG = LogFactory.getLog(LoadTestReporter.class);
+    private static final String CSV_HEADER = "operation,success,errors,throughput_per_sec,p50_ms,p90_ms,p99_ms," +
+            "p999_ms,max_ms,service_p99_ms";
+    private static final String LOG_ROW_FORMAT = "%-36s %10s %8s %12s %10s %10s %10s %10s %10s";
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestReporter() {
+
+    }
+
+    /**
+     * Log the results and write the report files.
+     *
+     * @param reportName Name of the report, used as the file name prefix.
+     * @param results    Results to report.
+     * @throws IOException If an error occurred while writing the report files.
+     */
+    public static void report(String reportName, List<LoadTestResult> results) throws IOException {
+
+        StringBuilder table = new StringBuilder("Performance report: ").append(reportName).append('\n');
+        table.append(String.format(Locale.ENGLISH, LOG_ROW_FORMAT, "operation", "success", "errors", "req/s",
+                "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)")).append('\n');
+        for (LoadTestResult result : results) {
+            table.append(String.format(Locale.ENGLISH, LOG_ROW_FORMAT, result.getName(), result.getSuccessCount(),
+                    result.getErrorCount(), format(result.getThroughput()), format(result.getPercentileMillis(50)),
+                    format(result.getPercentileMillis(90)), format(result.getPercentileMillis(99)),
+                    format(result.getPercentileMillis(99.9)), format(result.getMaxMillis()))).append('\n');
+        }
+        LOG.info(table.toString());
+
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+
+        try (PrintStream csv = new PrintStream(new FileOutputStream(new File(reportDirectory, reportName + ".csv")),
+                false, StandardCharsets.UTF_8.name())) {
+            csv.println(CSV_HEADER);
+            for (LoadTestResult result : results) {
+                csv.println(String.join(",", result.getName(), String.valueOf(result.getSuccessCount()),
+                        String.valueOf(result.getErrorCount()), format(result.getThroughput()),
+                        format(result.getPercentileMillis(50)), format(result.getPercentileMillis(90)),
+                        format(result.getPercentileMillis(99)), format(result.getPercentileMillis(99.9)),
+                        format(result.getMaxMillis()),
+                        format(result.getServiceTime().getValueAtPercentile(99) / MICROS_PER_MILLI)));
+            }
+        }
+
+        for (LoadTestResult result : results) {
+            File distributionFile = new File(reportDirectory, reportName + "-" + toFileName(result.getName()) +
+                    ".hgrm");
+            try (PrintStream distribution = new PrintStream(new FileOutputStream(distributionFile), false,
+                    StandardCharsets.UTF_8.name())) {
+                result.getResponseTime().outputPercentileDistribution(distribution, MICROS_PER_MILLI);
+            }
+        }
+        LOG.info("Performance report " + reportName + " written to " + reportDirectory.getAbsolutePath());
+    }
+
+    private static String format(double value) {
+
+        return String.format(Locale.ENGLISH, "%.2f", value);
+    }
+
+    private static String toFileName(String operationName) {
+
+        return operationName.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
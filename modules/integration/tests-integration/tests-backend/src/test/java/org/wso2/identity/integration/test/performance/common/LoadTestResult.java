@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and throughput of a single measured operation. Latencies are kept in microseconds in HdrHistograms so
+ * that the tail percentiles stay accurate regardless of the sample count.
+ * <p>
+ * Two histograms are kept. The response time is measured from the moment the request was scheduled to be sent,
+ * so queueing behind a slow request is not hidden when a target arrival rate is used (coordinated omission).
+ * The service time is measured from the moment the request was actually sent.
+ */
+public class LoadTestResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String name;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLong firstRecordedNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastRecordedNanos = new AtomicLong(Long.MIN_VALUE);
+    private volatile long measuredNanos;
+
+    public LoadTestResult(String name) {
+
+        this.name = name;
+    }
+
+    /**
+     * Record a successful invocation.
+     *
+     * @param intendedStartNanos Time the invocation was scheduled to start.
+     * @param startNanos         Time the invocation actually started.
+     * @param endNanos           Time the invocation completed.
+     */
+    public void recordSuccess(long intendedStartNanos, long startNanos, long endNanos) {
+
+        responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+        serviceTime.recordValue(toMicros(endNanos - startNanos));
+        firstRecordedNanos.accumulateAndGet(intendedStartNanos, Math::min);
+        lastRecordedNanos.accumulateAndGet(endNanos, Math::max);
+    }
+
+    /**
+     * Record a failed invocation. Failures are counted but kept out of the latency histograms.
+     */
+    public void recordError() {
+
+        errors.increment();
+    }
+
+    /**
+     * Set the wall clock length of the measurement window used to derive the throughput. If not set, the span
+     * between the first and the last recorded invocation is used.
+     *
+     * @param measuredNanos Length of the measurement window.
+     */
+    public void setMeasuredNanos(long measuredNanos) {
+
+        this.measuredNanos = measuredNanos;
+    }
+
+    /**
+     * Get the wall clock length of the measurement window.
+     *
+     * @return Length of the measurement window, or 0 if it was not set.
+     */
+    public long getMeasuredNanos() {
+
+        return measuredNanos;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public Histogram getResponseTime() {
+
+        return responseTime;
+    }
+
+    public Histogram getServiceTime() {
+
+        return serviceTime;
+    }
+
+    public long getSuccessCount() {
+
+        return responseTime.getTotalCount();
+    }
+
+    public long getErrorCount() {
+
+        return errors.sum();
+    }
+
+    public double getErrorRatio() {
+
+        long total = getSuccessCount() + getErrorCount();
+        return total == 0 ? 0 : (double) getErrorCount() / total;
+    }
+
+    /**
+     * Successful invocations per second over the measurement window.
+     *
+     * @return Throughput.
+     */
+    public double getThroughput() {
+
+        long window = measuredNanos;
+        if (window <= 0) {
+            window = lastRecordedNanos.get() - firstRecordedNanos.get();
+        }
+        if (window <= 0) {
+            return 0;
+        }
+        return getSuccessCount() / (window / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Response time percentile in milliseconds.
+     *
+     * @param percentile Percentile, e.g. 99.9.
+     * @return Latency in milliseconds.
+     */
+    public double getPercentileMillis(double percentile) {
+
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double getMaxMillis() {
+
+        return responseTime.getMaxValue() / 1000.0;
+    }
+
+    private static long toMicros(long nanos) {
+
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1), HIGHEST_TRACKABLE_MICROS);
+    }
+}
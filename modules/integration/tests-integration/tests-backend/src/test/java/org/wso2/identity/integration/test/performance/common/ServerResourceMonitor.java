@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Samples the resource usage of the server over JMX at a fixed interval while a long running load is applied, and
+ * detects sustained growth of the usage, which points at a leak.
+ * <p>
+ * The samples are split into windows of equal duration. The first window is left out, as caches and pools fill up
+ * while the server warms up. Within every other window the lowest value of a resource is taken as its floor, since
+ * a resource that is only held for the duration of requests comes back down between them while a leaked resource
+ * does not. The growth of a resource is sustained when its floor does not drop from one window to the next and grew
+ * by more than the allowed limit from the first to the last window.
+ */
+public class ServerResourceMonitor {
+
+    private static final Log LOG = LogFactory.getLog(ServerResourceMonitor.class);
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final int MIN_WINDOWS = 3;
+
+    private final JmxServerStatistics serverStatistics;
+    private final long sampleIntervalMillis;
+    private final List<Sample> samples = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private long startNanos;
+
+    /**
+     * Create a monitor.
+     *
+     * @param serverStatistics     Reader of the resource usage of the server.
+     * @param sampleIntervalMillis Interval between two samples.
+     */
+    public ServerResourceMonitor(JmxServerStatistics serverStatistics, long sampleIntervalMillis) {
+
+        this.serverStatistics = serverStatistics;
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+
+    /**
+     * Start sampling. Samples of an earlier run are discarded.
+     */
+    public synchronized void start() {
+
+        samples.clear();
+        startNanos = System.nanoTime();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "perf-resource-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::sample, 0, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop sampling, after taking a last sample.
+     *
+     * @throws InterruptedException If interrupted while waiting for a running sample.
+     */
+    public void stop() throws InterruptedException {
+
+        ScheduledExecutorService runningExecutor;
+        synchronized (this) {
+            runningExecutor = executor;
+            executor = null;
+        }
+        if (runningExecutor == null) {
+            return;
+        }
+        runningExecutor.shutdown();
+        runningExecutor.awaitTermination(sampleIntervalMillis, TimeUnit.MILLISECONDS);
+        runningExecutor.shutdownNow();
+        sample();
+    }
+
+    /**
+     * Find the resources with sustained growth.
+     *
+     * @param windows                 Number of windows the samples are split into, including the warm-up window.
+     * @param maxHeapGrowthMb         Allowed growth of the heap after garbage collection, in MB.
+     * @param maxThreadGrowth         Allowed growth of the live threads.
+     * @param maxFileDescriptorGrowth Allowed growth of the open file descriptors.
+     * @param maxCacheGrowth          Allowed growth of the entries of a cache, or a negative value to not check
+     *                                caches.
+     * @return Description of every resource with sustained growth. Empty if there was none, or if there were too few
+     * samples to tell.
+     */
+    public synchronized List<String> findSustainedGrowth(int windows, long maxHeapGrowthMb, long maxThreadGrowth,
+                                                         long maxFileDescriptorGrowth, long maxCacheGrowth) {
+
+        List<String> growth = new ArrayList<>();
+        if (windows < MIN_WINDOWS) {
+            throw new IllegalArgumentException("At least " + MIN_WINDOWS + " windows are needed, but was " + windows);
+        }
+        checkGrowth(growth, "heap_after_gc_bytes", windows, JmxServerStatistics.ResourceUsage::getHeapAfterGcBytes,
+                maxHeapGrowthMb * BYTES_PER_MB);
+        checkGrowth(growth, "threads", windows, JmxServerStatistics.ResourceUsage::getThreadCount, maxThreadGrowth);
+        checkGrowth(growth, "open_file_descriptors", windows,
+                JmxServerStatistics.ResourceUsage::getOpenFileDescriptors, maxFileDescriptorGrowth);
+        if (maxCacheGrowth >= 0) {
+            Set<String> caches = new TreeSet<>();
+            for (Sample sample : samples) {
+                caches.addAll(sample.usage.getCacheEntries().keySet());
+            }
+            for (String cache : caches) {
+                checkGrowth(growth, "cache_entries " + cache, windows,
+                        usage -> usage.getCacheEntries().getOrDefault(cache, 0L), maxCacheGrowth);
+            }
+        }
+        return growth;
+    }
+
+    /**
+     * Write the samples to {@code <reportName>-resources.csv} in the report directory, one line per sample with the
+     * seconds since the start, the heap after garbage collection, the live threads, the open file descriptors and
+     * the entries of all caches.
+     *
+     * @param reportName Name of the report.
+     * @throws IOException If the report could not be written.
+     */
+    public synchronized void writeReport(String reportName) throws IOException {
+
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                reportName + "-resources.csv")), false, StandardCharsets.UTF_8.name())) {
+            report.println("elapsed_s,heap_after_gc_mb,threads,open_fds,cache_entries");
+            for (Sample sample : samples) {
+                long cacheEntries = 0;
+                for (long entries : sample.usage.getCacheEntries().values()) {
+                    cacheEntries += entries;
+                }
+                report.println(String.format(Locale.ENGLISH, "%d,%.1f,%d,%d,%d",
+                        TimeUnit.NANOSECONDS.toSeconds(sample.elapsedNanos),
+                        (double) sample.usage.getHeapAfterGcBytes() / BYTES_PER_MB, sample.usage.getThreadCount(),
+                        sample.usage.getOpenFileDescriptors(), cacheEntries));
+            }
+        }
+    }
+
+    private void sample() {
+
+        try {
+            JmxServerStatistics.ResourceUsage usage = serverStatistics.readResourceUsage();
+            synchronized (this) {
+                addSample(System.nanoTime() - startNanos, usage);
+            }
+        } catch (IOException e) {
+            // A missed sample only widens the gap between two samples.
+            LOG.warn("Unable to sample the resource usage of the server.", e);
+        }
+    }
+
+    /**
+     * Add a sample taken at the given time since the start.
+     *
+     * @param elapsedNanos Time since the start of the sampling.
+     * @param usage        Resource usage of the server.
+     */
+    synchronized void addSample(long elapsedNanos, JmxServerStatistics.ResourceUsage usage) {
+
+        samples.add(new Sample(elapsedNanos, usage));
+    }
+
+    private void checkGrowth(List<String> growth, String resource, int windows,
+                             ToLongFunction<JmxServerStatistics.ResourceUsage> value, long maxGrowth) {
+
+        if (samples.isEmpty()) {
+            return;
+        }
+        long spanNanos = samples.get(samples.size() - 1).elapsedNanos + 1;
+        long[] floors = new long[windows];
+        boolean[] sampled = new boolean[windows];
+        for (Sample sample : samples) {
+            int window = (int) Math.min(windows - 1, sample.elapsedNanos * windows / spanNanos);
+            long current = value.applyAsLong(sample.usage);
+            if (current < 0) {
+                // The resource is not reported by the server.
+                return;
+            }
+            if (!sampled[window] || current < floors[window]) {
+                floors[window] = current;
+                sampled[window] = true;
+            }
+        }
+
+        List<Long> windowFloors = new ArrayList<>();
+        for (int window = 1; window < windows; window++) {
+            if (sampled[window]) {
+                windowFloors.add(floors[window]);
+            }
+        }
+        if (windowFloors.size() < MIN_WINDOWS - 1) {
+            return;
+        }
+        for (int i = 1; i < windowFloors.size(); i++) {
+            if (windowFloors.get(i) < windowFloors.get(i - 1)) {
+                return;
+            }
+        }
+        long totalGrowth = windowFloors.get(windowFloors.size() - 1) - windowFloors.get(0);
+        if (totalGrowth > maxGrowth) {
+            growth.add(String.format(Locale.ENGLISH,
+                    "%s grew from %d to %d without dropping in any window (allowed growth %d)", resource,
+                    windowFloors.get(0), windowFloors.get(windowFloors.size() - 1), maxGrowth));
+            LOG.error("Sustained growth of " + resource + ". Floors per window after the warm-up: " + windowFloors);
+        }
+    }
+
+    private static class Sample {
+
+        private final long elapsedNanos;
+        private final JmxServerStatistics.ResourceUsage usage;
+
+        Sample(long elapsedNanos, JmxServerStatistics.ResourceUsage usage) {
+
+            this.elapsedNanos = elapsedNanos;
+            this.usage = usage;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Tests the detection of sustained growth by {@link ServerResourceMonitor} on synthetic series of samples. No
+ * server is needed.
+ */
+public class ServerResourceMonitorTestCase {
+
+    private static final int SAMPLES = 60;
+    private static final int WINDOWS = 4;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final long MAX_HEAP_GROWTH_MB = 10;
+    private static final long MAX_THREAD_GROWTH = 5;
+    private static final long MAX_FILE_DESCRIPTOR_GROWTH = 5;
+    private static final long MAX_CACHE_GROWTH = 100;
+
+    @Test(groups = "wso2.is", description = "Report nothing for flat series whose values only rise during requests.")
+    public void testFlatSeries() {
+
+        // Every third sample is taken while requests hold resources, the usage comes back down after them.
+        ServerResourceMonitor monitor = createMonitor(i -> (i % 3 == 0 ? 400 : 100) * BYTES_PER_MB,
+                i -> i % 3 == 0 ? 250 : 200, i -> i % 3 == 0 ? 900 : 300, i -> 1000);
+
+        Assert.assertEquals(findSustainedGrowth(monitor, MAX_CACHE_GROWTH), Collections.emptyList());
+    }
+
+    @Test(groups = "wso2.is", description = "Report every resource whose floor keeps growing past the limit.")
+    public void testGrowingSeries() {
+
+        ServerResourceMonitor monitor = createMonitor(i -> (100 + i) * BYTES_PER_MB, i -> 200 + i, i -> 300 + i,
+                i -> 1000 + 10L * i);
+
+        List<String> growth = findSustainedGrowth(monitor, MAX_CACHE_GROWTH);
+        Assert.assertEquals(growth.size(), 4, "Unexpected growth " + growth);
+        Assert.assertTrue(growth.get(0).startsWith("heap_after_gc_bytes"), growth.get(0));
+        Assert.assertTrue(growth.get(1).startsWith("threads"), growth.get(1));
+        Assert.assertTrue(growth.get(2).startsWith("open_file_descriptors"), growth.get(2));
+        Assert.assertTrue(growth.get(3).startsWith("cache_entries perf-cache"), growth.get(3));
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the growth on the floors of the windows after the warm-up.")
+    public void testWindowFloors() {
+
+        // The threads rise by up to 30 within the windows after the warm-up, but their floors only grow by 2.
+        ServerResourceMonitor monitor = createMonitor(i -> 100 * BYTES_PER_MB,
+                i -> i % 15 == 0 ? 200 + i / 15 : 200 + i / 15 + i % 15 * 2, i -> 300, i -> 1000);
+
+        Assert.assertEquals(findSustainedGrowth(monitor, MAX_CACHE_GROWTH), Collections.emptyList());
+    }
+
+    @Test(groups = "wso2.is", description = "Leave out the growth during the warm-up window.")
+    public void testWarmUpWindow() {
+
+        // Caches and pools fill up during the first window and stay full after it.
+        ServerResourceMonitor monitor = createMonitor(i -> Math.min(i, 14) * 50 * BYTES_PER_MB,
+                i -> 100 + Math.min(i, 14) * 10, i -> 300, i -> Math.min(i, 14) * 1000L);
+
+        Assert.assertEquals(findSustainedGrowth(monitor, MAX_CACHE_GROWTH), Collections.emptyList());
+    }
+
+    @Test(groups = "wso2.is", description = "Report nothing when a floor drops from one window to the next.")
+    public void testDroppingFloor() {
+
+        // The heap grows past the limit overall, but the floor of the third window is below the one of the second.
+        ServerResourceMonitor monitor = createMonitor(i -> (i < 30 ? 100 + i : i < 45 ? 90 : 200) * BYTES_PER_MB,
+                i -> 200, i -> 300, i -> 1000);
+
+        Assert.assertEquals(findSustainedGrowth(monitor, MAX_CACHE_GROWTH), Collections.emptyList());
+    }
+
+    @Test(groups = "wso2.is", description = "Skip the resources the server does not report and unchecked caches.")
+    public void testUnreportedResources() {
+
+        ServerResourceMonitor monitor = createMonitor(i -> 100 * BYTES_PER_MB, i -> 200, i -> -1,
+                i -> 1000 + 10L * i);
+
+        Assert.assertEquals(findSustainedGrowth(monitor, -1), Collections.emptyList());
+    }
+
+    @Test(groups = "wso2.is", description = "Report nothing when too few windows were sampled to tell.")
+    public void testTooFewSamples() {
+
+        ServerResourceMonitor monitor = new ServerResourceMonitor(null, 1000);
+        Assert.assertEquals(findSustainedGrowth(monitor, MAX_CACHE_GROWTH), Collections.emptyList());
+
+        // Only the warm-up window and the last window are sampled.
+        monitor.addSample(0, usage(100 * BYTES_PER_MB, 200, 300, 1000));
+        monitor.addSample(TimeUnit.SECONDS.toNanos(SAMPLES), usage(500 * BYTES_PER_MB, 400, 600, 5000));
+        Assert.assertEquals(findSustainedGrowth(monitor, MAX_CACHE_GROWTH), Collections.emptyList());
+    }
+
+    @Test(groups = "wso2.is", description = "Reject fewer windows than the warm-up and two windows to compare.",
+            expectedExceptions = IllegalArgumentException.class)
+    public void testTooFewWindows() {
+
+        createMonitor(i -> 0, i -> 0, i -> 0, i -> 0).findSustainedGrowth(2, MAX_HEAP_GROWTH_MB, MAX_THREAD_GROWTH,
+                MAX_FILE_DESCRIPTOR_GROWTH, MAX_CACHE_GROWTH);
+    }
+
+    /**
+     * Create a monitor with one sample per second for a minute.
+     */
+    private static ServerResourceMonitor createMonitor(IntToLongFunction heapAfterGcBytes, IntToLongFunction threads,
+                                                       IntToLongFunction openFileDescriptors,
+                                                       IntToLongFunction cacheEntries) {
+
+        ServerResourceMonitor monitor = new ServerResourceMonitor(null, 1000);
+        for (int i = 0; i < SAMPLES; i++) {
+            monitor.addSample(TimeUnit.SECONDS.toNanos(i), usage(heapAfterGcBytes.applyAsLong(i),
+                    (int) threads.applyAsLong(i), openFileDescriptors.applyAsLong(i), cacheEntries.applyAsLong(i)));
+        }
+        return monitor;
+    }
+
+    private static JmxServerStatistics.ResourceUsage usage(long heapAfterGcBytes, int threads,
+                                                           long openFileDescriptors, long cacheEntries) {
+
+        return new JmxServerStatistics.ResourceUsage(heapAfterGcBytes, threads, openFileDescriptors,
+                Collections.singletonMap("perf-cache", cacheEntries));
+    }
+
+    private static List<String> findSustainedGrowth(ServerResourceMonitor monitor, long maxCacheGrowth) {
+
+        return monitor.findSustainedGrowth(WINDOWS, MAX_HEAP_GROWTH_MB, MAX_THREAD_GROWTH, MAX_FILE_DESCRIPTOR_GROWTH,
+                maxCacheGrowth);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes a {@link JmxServerStatistics} snapshot at the start and at the end of the measurement period of every run,
+ * and writes the server side counters of the runs next to the latency report. Set it as the measurement listener of
+ * the {@link LoadGenerator}. Runs the snapshots could not be taken for are left out of the report.
+ */
+public class ServerStatisticsRecorder implements LoadGenerator.MeasurementListener {
+
+    private static final Log LOG = LogFactory.getLog(ServerStatisticsRecorder.class);
+
+    private final JmxServerStatistics serverStatistics;
+    private final Map<String, JmxServerStatistics.Snapshot> startSnapshots = new ConcurrentHashMap<>();
+    private final Map<String, JmxServerStatistics.Snapshot> endSnapshots = new ConcurrentHashMap<>();
+
+    public ServerStatisticsRecorder(JmxServerStatistics serverStatistics) {
+
+        this.serverStatistics = serverStatistics;
+    }
+
+    @Override
+    public void measurementStarted(String name) {
+
+        endSnapshots.remove(name);
+        JmxServerStatistics.Snapshot snapshot = takeSnapshot(name);
+        if (snapshot != null) {
+            startSnapshots.put(name, snapshot);
+        } else {
+            startSnapshots.remove(name);
+        }
+    }
+
+    @Override
+    public void measurementEnded(String name) {
+
+        if (!startSnapshots.containsKey(name)) {
+            return;
+        }
+        JmxServerStatistics.Snapshot snapshot = takeSnapshot(name);
+        if (snapshot != null) {
+            endSnapshots.put(name, snapshot);
+        }
+    }
+
+    /**
+     * Write the server side counters of the recorded runs to {@code <reportName>-server.txt} in the report
+     * directory: one line per run with the JDBC statements, the time spent executing them and the heap allocation in
+     * total and per invocation, and the HTTP requests with their average server side processing time, followed by
+     * one line per accessed cache with its hits, misses and hit ratio.
+     *
+     * @param reportName Name of the report.
+     * @param results    Results of the runs, in the order they are reported.
+     * @throws IOException If the report could not be written.
+     */
+    public void writeReport(String reportName, List<LoadTestResult> results) throws IOException {
+
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                reportName + "-server.txt")), false, StandardCharsets.UTF_8.name())) {
+            for (LoadTestResult result : results) {
+                JmxServerStatistics.Snapshot start = startSnapshots.get(result.getName());
+                JmxServerStatistics.Snapshot end = endSnapshots.get(result.getName());
+                if (start == null || end == null) {
+                    continue;
+                }
+                long invocations = Math.max(1, result.getSuccessCount() + result.getErrorCount());
+                long statements = end.getStatementsSince(start);
+                long statementMillis = end.getStatementMillisSince(start);
+                long allocatedBytes = end.getAllocatedBytesSince(start);
+                long requests = end.getRequestsSince(start);
+                long requestMillis = end.getRequestProcessingMillisSince(start);
+                report.println(String.format(Locale.ENGLISH, "%s throughput=%.2f statements=%d statements/op=%.2f " +
+                                "statement_ms=%d statement_ms/op=%.2f allocated_mb=%.1f allocated_kb/op=%.1f " +
+                                "requests=%d server_ms/request=%.2f",
+                        result.getName(), result.getThroughput(), statements, (double) statements / invocations,
+                        statementMillis, (double) statementMillis / invocations,
+                        allocatedBytes / (1024.0 * 1024.0), allocatedBytes / 1024.0 / invocations,
+                        requests, (double) requestMillis / Math.max(1, requests)));
+                for (Map.Entry<String, JmxServerStatistics.CacheCounts> cache :
+                        end.getCacheCountsSince(start).entrySet()) {
+                    report.println(String.format(Locale.ENGLISH, "  %s hits=%d misses=%d hit_ratio=%.4f",
+                            cache.getKey(), cache.getValue().getHits(), cache.getValue().getMisses(),
+                            cache.getValue().getHitRatio()));
+                }
+            }
+        }
+    }
+
+    private JmxServerStatistics.Snapshot takeSnapshot(String name) {
+
+        try {
+            return serverStatistics.snapshot();
+        } catch (IOException e) {
+            LOG.warn("Unable to read the server statistics for " + name + ". The run is reported without them.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.database;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.h2.tools.Server;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.carbon.integration.common.utils.mgt.ServerConfigurationManager;
+import org.wso2.identity.integration.common.utils.ISIntegrationTest;
+import org.wso2.identity.integration.test.util.Utils;
+
+import java.io.File;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moves the server of the external database suite from the embedded H2 databases to the databases given by the
+ * {@code IDENTITY_DATABASE_URL} and {@code SHARED_DATABASE_URL} environment variables, which surefire sets from the
+ * {@code is.tests.db.*} properties. The {@code external-db} profile points them to an H2 TCP server by default.
+ * <p>
+ * With the default properties the databases are served by an H2 TCP server started here over the database
+ * directory of the server, so the shipped schema and data are reused and the server reaches its databases over the
+ * network like it would reach PostgreSQL or MySQL. When the properties point to another database, that database
+ * has to be provisioned with the Identity Server scripts beforehand and no TCP server is started.
+ */
+public class ExternalDatabaseInitializerTestCase extends ISIntegrationTest {
+
+    private static final Log log = LogFactory.getLog(ExternalDatabaseInitializerTestCase.class);
+    private static final String IDENTITY_DATABASE_URL = "IDENTITY_DATABASE_URL";
+    private static final Pattern LOCAL_H2_TCP_URL = Pattern.compile("^jdbc:h2:tcp://localhost:(\\d+)/.*");
+
+    private ServerConfigurationManager serverConfigurationManager;
+    private Server h2TcpServer;
+
+    @Test(groups = "wso2.is", description = "Restart the server against the external databases.")
+    public void testSwitchToExternalDatabase() throws Exception {
+
+        super.init(TestUserMode.SUPER_TENANT_ADMIN);
+
+        String carbonHome = Utils.getResidentCarbonHome();
+        String identityDatabaseUrl = System.getenv(IDENTITY_DATABASE_URL);
+        Matcher matcher = identityDatabaseUrl == null ? null : LOCAL_H2_TCP_URL.matcher(identityDatabaseUrl);
+        if (matcher != null && matcher.matches()) {
+            // The embedded databases are opened lazily by the TCP server, after the restart below has released them.
+            String databaseDirectory = carbonHome + File.separator + "repository" + File.separator + "database";
+            h2TcpServer = Server.createTcpServer("-tcpPort", matcher.group(1), "-baseDir", databaseDirectory,
+                    "-ifExists").start();
+            log.info("Started the H2 TCP server at " + h2TcpServer.getURL() + " over " + databaseDirectory);
+        } else {
+            log.info("Using the external database at " + identityDatabaseUrl);
+        }
+
+        File defaultTomlFile = getDeploymentTomlFile(carbonHome);
+        File configuredTomlFile = new File(getISResourceLocation() + File.separator + "performance" +
+                File.separator + "external_db.toml");
+        serverConfigurationManager = new ServerConfigurationManager(isServer);
+        serverConfigurationManager.applyConfigurationWithoutRestart(configuredTomlFile, defaultTomlFile, true);
+        serverConfigurationManager.restartGracefully();
+    }
+
+    @AfterTest(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            if (serverConfigurationManager != null) {
+                serverConfigurationManager.restoreToLastConfiguration(true);
+            }
+        } finally {
+            if (h2TcpServer != null) {
+                h2TcpServer.stop();
+            }
+        }
+    }
+}
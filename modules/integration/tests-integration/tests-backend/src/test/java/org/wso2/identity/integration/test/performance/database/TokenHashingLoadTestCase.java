@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.database;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.json.simple.JSONObject;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the cost of the token persistence modes, so token hashing can be enabled knowing what it costs in
+ * capacity. The modes are plain text tokens, tokens and secrets hashed with SHA-256 or SHA-512, and tokens encrypted
+ * with the encryption and decryption persistence processor, selected with
+ * {@code -Dperf.token.hashing.modes=plain,sha256,sha512,encrypted}. The server is restarted with each mode, with a
+ * new access token issued on every token request, so every issue inserts a row, and the applications are created
+ * again, as their secrets are only hashed when they are created.
+ * <p>
+ * Token issue, refresh, introspection and revocation are measured with each mode. The server report gives the JDBC
+ * statements and the time spent executing them per request. The database report,
+ * {@code token-hashing-database.txt}, gives the average size of the token columns of the rows written with each mode,
+ * and the plan the database chooses to look up a token by its hash, which shows whether the lookup hits an index.
+ * The database is read over the {@code IDENTITY_DATABASE_*} environment variables the server uses, so the test runs
+ * in the external database suite, where the database is reachable from the tests.
+ */
+public class TokenHashingLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "token-hashing";
+    private static final String MODES = "token.hashing.modes";
+    private static final String PLAIN = "plain";
+    private static final String SHA256 = "sha256";
+    private static final String SHA512 = "sha512";
+    private static final String ENCRYPTED = "encrypted";
+    private static final String ENCRYPTION_PERSISTENCE_PROCESSOR =
+            "org.wso2.carbon.identity.oauth.tokenprocessor.EncryptionDecryptionPersistenceProcessor";
+    private static final String IDENTITY_DATABASE_DRIVER = "IDENTITY_DATABASE_DRIVER";
+    private static final String IDENTITY_DATABASE_URL = "IDENTITY_DATABASE_URL";
+    private static final String IDENTITY_DATABASE_USERNAME = "IDENTITY_DATABASE_USERNAME";
+    private static final String IDENTITY_DATABASE_PASSWORD = "IDENTITY_DATABASE_PASSWORD";
+    private static final String TOKEN_COLUMN_SIZES_QUERY = "SELECT COUNT(*), AVG(LENGTH(T.ACCESS_TOKEN)), " +
+            "AVG(LENGTH(T.REFRESH_TOKEN)), AVG(LENGTH(T.ACCESS_TOKEN_HASH)), AVG(LENGTH(T.REFRESH_TOKEN_HASH)), " +
+            "MAX(T.ACCESS_TOKEN_HASH) FROM IDN_OAUTH2_ACCESS_TOKEN T JOIN IDN_OAUTH_CONSUMER_APPS A " +
+            "ON T.CONSUMER_KEY_ID = A.ID WHERE A.CONSUMER_KEY IN (%s)";
+    private static final String TOKEN_LOOKUP_PLAN_QUERY =
+            "EXPLAIN SELECT TOKEN_ID FROM IDN_OAUTH2_ACCESS_TOKEN WHERE ACCESS_TOKEN_HASH = '%s'";
+
+    private final List<String> databaseReport = new ArrayList<>();
+    private String[] refreshTokens;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        refreshTokens = new String[loadTestConfig.getConcurrency()];
+        recordServerStatistics();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME);
+            writeDatabaseReport();
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token operations with each token persistence mode.")
+    public void testTokenPersistenceModes() throws Exception {
+
+        String baseToml = readConfiguration("token_hashing.toml");
+        for (String mode : LoadTestConfig.getList(MODES, PLAIN, SHA256, SHA512, ENCRYPTED)) {
+            log.info("Measuring the token persistence mode " + mode + ".");
+            applyConfigurationAndRestart(baseToml, getModeConfiguration(mode));
+
+            // Applications created with another mode can not authenticate once the secrets are hashed.
+            for (LoadTestApplication application : applications) {
+                deleteApp(application.getId());
+            }
+            applications.clear();
+            Arrays.fill(refreshTokens, null);
+            provisionApplications("perf-token-hashing-" + mode + "-app", Arrays.asList(
+                    OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER,
+                    OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS,
+                    OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN), loadTestConfig.getConcurrency());
+
+            runTokenOperations("_" + mode);
+            recordDatabaseStatistics(mode);
+        }
+    }
+
+    /**
+     * Measure the token operations. Every worker has an application of its own, so the tokens a worker renews are
+     * not revoked by the other workers.
+     */
+    private void runTokenOperations(String suffix) throws Exception {
+
+        runLoad("issue" + suffix, worker -> issueToken(getApplication(worker)));
+
+        List<String> accessTokens = new ArrayList<>();
+        for (LoadTestApplication application : applications) {
+            accessTokens.add(issueToken(application));
+        }
+        runLoad("introspect" + suffix, worker -> {
+            JSONObject introspection = introspectToken(accessTokens.get(
+                    ThreadLocalRandom.current().nextInt(accessTokens.size())));
+            if (!Boolean.TRUE.equals(introspection.get("active"))) {
+                throw new IOException("Introspected token is not active.");
+            }
+        });
+
+        runLoad("refresh" + suffix, this::refreshToken);
+
+        LoadTestResult revocation = new LoadTestResult("revoke" + suffix);
+        revocation.setMeasuredNanos(loadTestConfig.getDurationNanos());
+        runLoad("issue_and_revoke" + suffix, worker -> {
+            LoadTestApplication application = getApplication(worker);
+            String accessToken = issueToken(application);
+
+            boolean measured = loadGenerator.isMeasuring();
+            long startNanos = System.nanoTime();
+            try {
+                revokeToken(application, accessToken);
+            } catch (Exception e) {
+                if (measured) {
+                    revocation.recordError();
+                }
+                throw e;
+            }
+            if (measured) {
+                revocation.recordSuccess(startNanos, startNanos, System.nanoTime());
+            }
+        });
+        results.add(revocation);
+    }
+
+    private String issueToken(LoadTestApplication application) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        JSONObject tokenResponse = requestToken(application, parameters);
+        assertAccessToken(tokenResponse);
+        return (String) tokenResponse.get(OAuth2Constant.ACCESS_TOKEN);
+    }
+
+    /**
+     * Refresh the latest token of the worker. The first token of a worker, and the token after a failed refresh, is
+     * obtained with the password grant within the same invocation.
+     */
+    private void refreshToken(int worker) throws Exception {
+
+        LoadTestApplication application = getApplication(worker);
+        String refreshToken = refreshTokens[worker];
+        refreshTokens[worker] = null;
+        if (refreshToken == null) {
+            refreshToken = (String) requestPasswordGrantToken(application).get(OAuth2Constant.REFRESH_TOKEN);
+            if (refreshToken == null) {
+                throw new IOException("Refresh token not found in the password grant response.");
+            }
+        }
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN));
+        parameters.add(new BasicNameValuePair(OAuth2Constant.REFRESH_TOKEN, refreshToken));
+        JSONObject tokenResponse = requestToken(application, parameters);
+        assertAccessToken(tokenResponse);
+        refreshTokens[worker] = (String) tokenResponse.get(OAuth2Constant.REFRESH_TOKEN);
+    }
+
+    /**
+     * Read the average size of the token columns of the rows written with the mode, and the plan of a token lookup
+     * by hash. Databases without an {@code EXPLAIN} statement only get the column sizes.
+     */
+    private void recordDatabaseStatistics(String mode) {
+
+        String url = System.getenv(IDENTITY_DATABASE_URL);
+        if (url == null) {
+            log.warn("Not reading the token rows, as " + IDENTITY_DATABASE_URL + " is not set.");
+            return;
+        }
+        StringJoiner placeholders = new StringJoiner(",");
+        for (int i = 0; i < applications.size(); i++) {
+            placeholders.add("?");
+        }
+        try {
+            String driver = System.getenv(IDENTITY_DATABASE_DRIVER);
+            if (driver != null) {
+                Class.forName(driver);
+            }
+            try (Connection connection = DriverManager.getConnection(url,
+                    System.getenv(IDENTITY_DATABASE_USERNAME), System.getenv(IDENTITY_DATABASE_PASSWORD));
+                 PreparedStatement statement = connection.prepareStatement(
+                         String.format(TOKEN_COLUMN_SIZES_QUERY, placeholders))) {
+                for (int i = 0; i < applications.size(); i++) {
+                    statement.setString(i + 1, applications.get(i).getClientId());
+                }
+                String tokenHash;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    databaseReport.add(String.format(Locale.ENGLISH, "%s rows=%d avg_access_token_chars=%.1f " +
+                                    "avg_refresh_token_chars=%.1f avg_access_token_hash_chars=%.1f " +
+                                    "avg_refresh_token_hash_chars=%.1f", mode, resultSet.getLong(1),
+                            resultSet.getDouble(2), resultSet.getDouble(3), resultSet.getDouble(4),
+                            resultSet.getDouble(5)));
+                    tokenHash = resultSet.getString(6);
+                }
+                if (tokenHash != null) {
+                    databaseReport.add(mode + " token_lookup_plan=" + explainTokenLookup(connection, tokenHash));
+                }
+            }
+        } catch (ClassNotFoundException | SQLException e) {
+            log.warn("Unable to read the token rows written with the token persistence mode " + mode + ".", e);
+        }
+    }
+
+    private String explainTokenLookup(Connection connection, String tokenHash) {
+
+        StringJoiner plan = new StringJoiner(" | ");
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format(TOKEN_LOOKUP_PLAN_QUERY,
+                     tokenHash.replace("'", "''")))) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                List<String> row = new ArrayList<>();
+                for (int i = 1; i <= columns; i++) {
+                    row.add(resultSet.getString(i));
+                }
+                plan.add(String.join(" ", row).replaceAll("\\s+", " ").trim());
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to explain the token lookup.", e);
+            return "unavailable";
+        }
+        return plan.toString();
+    }
+
+    private void writeDatabaseReport() throws IOException {
+
+        if (databaseReport.isEmpty()) {
+            return;
+        }
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                REPORT_NAME + "-database.txt")), false, StandardCharsets.UTF_8.name())) {
+            for (String line : databaseReport) {
+                report.println(line);
+            }
+        }
+    }
+
+    private static String getModeConfiguration(String mode) {
+
+        Map<String, String> oauth = new LinkedHashMap<>();
+        oauth.put("prompt_consent", "false");
+        switch (mode) {
+            case PLAIN:
+            case ENCRYPTED:
+                // The tokens are looked up by their hash, which is written with the default algorithm.
+                break;
+            case SHA256:
+                oauth.put("hash_tokens_and_secrets", "true");
+                oauth.put("hash_token_algorithm", "\"SHA-256\"");
+                break;
+            case SHA512:
+                oauth.put("hash_tokens_and_secrets", "true");
+                oauth.put("hash_token_algorithm", "\"SHA-512\"");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown token persistence mode: " + mode + ". Available modes: " +
+                        String.join(", ", Arrays.asList(PLAIN, SHA256, SHA512, ENCRYPTED)));
+        }
+
+        StringBuilder toml = new StringBuilder(String.format("%n[oauth]%n"));
+        for (Map.Entry<String, String> entry : oauth.entrySet()) {
+            toml.append(entry.getKey()).append(" = ").append(entry.getValue()).append(String.format("%n"));
+        }
+        toml.append(String.format("%n[oauth.token_renewal]%nrenew_access_token_per_request = true%n"));
+        if (ENCRYPTED.equals(mode)) {
+            toml.append(String.format("%n[oauth.extensions]%ntoken_persistence_processor = \"%s\"%n",
+                    ENCRYPTION_PERSISTENCE_PROCESSOR));
+        }
+        return toml.toString();
+    }
+}
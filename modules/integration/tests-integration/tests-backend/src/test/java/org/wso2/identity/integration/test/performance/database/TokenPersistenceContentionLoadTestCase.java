@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.database;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.json.simple.JSONObject;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadGenerator;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the token persistence layer of the token endpoint under concurrent load against the database of the
+ * external database suite. The server runs with the configurations the token persistence functional tests cover one
+ * at a time: hashed tokens and secrets, and a new access token on every request with the previous one revoked, so
+ * every token request inserts a token and most of them also update the active token of the same application and
+ * user.
+ * <p>
+ * Each grant is first measured on its own, so the server report gives its JDBC statements and statement time per
+ * request. All grants are then measured together, with the workers spread across the grants, to expose lock waits
+ * between them. Every worker has an application of its own, so the revocations stay within the flows of the worker.
+ */
+public class TokenPersistenceContentionLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "token-persistence-contention";
+    private static final String ALL_GRANTS = "all_grants";
+    private static final String CONCURRENT_SUFFIX = "_concurrent";
+
+    private final Map<String, LoadGenerator.LoadTask> grants = new LinkedHashMap<>();
+    private String[] refreshTokens;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        applyConfigurationAndRestart(readConfiguration("token_persistence_contention.toml"));
+
+        provisionApplications("perf-token-persistence-app", Arrays.asList(
+                OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE, OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS, OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN),
+                loadTestConfig.getConcurrency());
+        recordServerStatistics();
+        refreshTokens = new String[loadTestConfig.getConcurrency()];
+
+        List<NameValuePair> clientCredentialsParameters = new ArrayList<>();
+        clientCredentialsParameters.add(new BasicNameValuePair("grant_type",
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        grants.put(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS,
+                worker -> assertAccessToken(requestToken(getApplication(worker), clientCredentialsParameters)));
+        grants.put(OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER,
+                worker -> assertAccessToken(requestPasswordGrantToken(getApplication(worker))));
+        grants.put(OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN, this::refreshToken);
+        grants.put(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE, worker -> {
+            LoadTestApplication application = getApplication(worker);
+            String codeVerifier = getPKCECodeVerifier();
+            String code = requestAuthorizationCode(getNewSessionClient(worker), application, codeVerifier);
+            assertAccessToken(requestAuthorizationCodeGrantToken(application, code, codeVerifier));
+        });
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token persistence of every grant on its own.")
+    public void testGrantsInIsolation() throws Exception {
+
+        for (Map.Entry<String, LoadGenerator.LoadTask> grant : grants.entrySet()) {
+            runLoad(grant.getKey(), grant.getValue());
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token persistence of all grants running together.",
+            dependsOnMethods = "testGrantsInIsolation", alwaysRun = true)
+    public void testGrantsConcurrently() throws Exception {
+
+        List<String> grantTypes = new ArrayList<>(grants.keySet());
+        Map<String, LoadTestResult> grantResults = new LinkedHashMap<>();
+        for (String grantType : grantTypes) {
+            LoadTestResult grantResult = new LoadTestResult(grantType + CONCURRENT_SUFFIX);
+            grantResult.setMeasuredNanos(loadTestConfig.getDurationNanos());
+            grantResults.put(grantType, grantResult);
+        }
+
+        runLoad(ALL_GRANTS + CONCURRENT_SUFFIX, worker -> {
+            String grantType = grantTypes.get(worker % grantTypes.size());
+            LoadTestResult grantResult = grantResults.get(grantType);
+            boolean measured = loadGenerator.isMeasuring();
+            long startNanos = System.nanoTime();
+            try {
+                grants.get(grantType).execute(worker);
+            } catch (Exception | AssertionError e) {
+                if (measured) {
+                    grantResult.recordError();
+                }
+                throw e;
+            }
+            if (measured) {
+                grantResult.recordSuccess(startNanos, startNanos, System.nanoTime());
+            }
+        });
+        results.addAll(grantResults.values());
+    }
+
+    /**
+     * Refresh the latest token of the worker. The first token of a worker, and the token after a failed refresh, is
+     * obtained with the password grant within the same invocation.
+     */
+    private void refreshToken(int worker) throws Exception {
+
+        LoadTestApplication application = getApplication(worker);
+        String refreshToken = refreshTokens[worker];
+        refreshTokens[worker] = null;
+        if (refreshToken == null) {
+            refreshToken = (String) requestPasswordGrantToken(application).get(OAuth2Constant.REFRESH_TOKEN);
+            if (refreshToken == null) {
+                throw new IOException("Refresh token not found in the password grant response.");
+            }
+        }
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN));
+        parameters.add(new BasicNameValuePair(OAuth2Constant.REFRESH_TOKEN, refreshToken));
+        JSONObject tokenResponse = requestToken(application, parameters);
+        assertAccessToken(tokenResponse);
+        refreshTokens[worker] = (String) tokenResponse.get(OAuth2Constant.REFRESH_TOKEN);
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.federation;
+
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.common.clients.usermgt.remote.RemoteUserStoreManagerServiceClient;
+import org.wso2.identity.integration.test.base.MockOIDCIdentityProvider;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationPatchModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationSequence;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationSequence.TypeEnum;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationStep;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.Authenticator;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.FederatedAuthenticatorRequest;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.FederatedAuthenticatorRequest.FederatedAuthenticator;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.IdentityProviderPOSTRequest;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.Property;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.ProvisioningRequest;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.ProvisioningRequest.JustInTimeProvisioning;
+import org.wso2.identity.integration.test.restclients.IdpMgtRestClient;
+import org.wso2.identity.integration.test.utils.DataExtractUtil;
+import org.wso2.identity.integration.test.utils.IdentityConstants;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.LOAD_MODE_SUBJECT_PREFIX;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_AUTHORIZE_ENDPOINT;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_CLIENT_ID;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_CLIENT_SECRET;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_TOKEN_ENDPOINT;
+
+/**
+ * Drives federated logins through the server against the mock OIDC identity provider in its load mode, with the
+ * federated users provisioned just in time. Every login goes from the authorize endpoint of the server to the mock
+ * identity provider, back to commonauth, where the server exchanges the code at the token endpoint of the mock
+ * identity provider, validates the ID token and provisions or updates the user, and through the remaining redirects
+ * of the server to the authorization code.
+ * <p>
+ * The number of federated users is set with {@code -Dperf.federation.users}. The logins cycle through them, so the
+ * first logins of the first run provision new users and the rest update the provisioned ones. The ID tokens are
+ * either signed in advance or signed by the mock identity provider for every login, selected with
+ * {@code -Dperf.federation.token.modes=pre_signed,per_request}, and every mode is measured with each token endpoint
+ * delay of {@code -Dperf.federation.upstream.delays.millis=0,200}, which simulates the latency of a remote identity
+ * provider.
+ * <p>
+ * Besides the complete login, every run reports the time of each login spent waiting on the upstream identity
+ * provider under the {@code _upstream} name, which is the authorize redirect of the mock identity provider and the
+ * time the mock identity provider took to answer the token request of the server, and the rest of the login time
+ * under the {@code _local} name. The {@code _callback_local} name covers the local part of the commonauth callback
+ * alone, which holds the ID token validation and the just in time provisioning.
+ */
+public class FederatedOIDCLoginLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "federated-oidc-login";
+    private static final String USERS = "federation.users";
+    private static final String TOKEN_MODES = "federation.token.modes";
+    private static final String UPSTREAM_DELAYS = "federation.upstream.delays.millis";
+    private static final String MOCK_THREADS = "federation.mock.threads";
+    private static final String PRE_SIGNED = "pre_signed";
+    private static final String PER_REQUEST = "per_request";
+    private static final String IDP_NAME = "perf-federated-oidc-idp";
+    private static final String OIDC_AUTHENTICATOR_NAME = "OpenIDConnectAuthenticator";
+    private static final String ENCODED_OIDC_AUTHENTICATOR_ID = "T3BlbklEQ29ubmVjdEF1dGhlbnRpY2F0b3I";
+    private static final String MOCK_IDP_ORIGIN = "https://localhost:8089/";
+    private static final long TOKEN_REQUEST_TIMEOUT_MILLIS = 1000;
+    private static final int MAX_REDIRECTS = 10;
+
+    private MockOIDCIdentityProvider mockIdP;
+    private IdpMgtRestClient idpMgtRestClient;
+    private String idpId;
+    private LoadTestApplication federatedApplication;
+    private int federatedUsers;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        federatedUsers = LoadTestConfig.getInt(USERS, 5000);
+        mockIdP = new MockOIDCIdentityProvider();
+        mockIdP.startForLoad(LoadTestConfig.getInt(MOCK_THREADS, Math.max(200, loadTestConfig.getConcurrency())));
+
+        idpMgtRestClient = new IdpMgtRestClient(serverURL, tenantInfo);
+        idpId = idpMgtRestClient.createIdentityProvider(getFederatedIdentityProvider());
+        federatedApplication = provisionApplication("perf-federated-oidc-app",
+                Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE));
+        updateApplication(federatedApplication.getId(), new ApplicationPatchModel()
+                .authenticationSequence(new AuthenticationSequence()
+                        .type(TypeEnum.USER_DEFINED)
+                        .addStepsItem(new AuthenticationStep()
+                                .id(1)
+                                .addOptionsItem(new Authenticator()
+                                        .idp(IDP_NAME)
+                                        .authenticator(OIDC_AUTHENTICATOR_NAME)))));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            if (federatedApplication != null) {
+                deleteApp(federatedApplication.getId());
+            }
+            if (idpId != null) {
+                idpMgtRestClient.deleteIdp(idpId);
+            }
+            deleteProvisionedUsers();
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            if (idpMgtRestClient != null) {
+                idpMgtRestClient.closeHttpClient();
+            }
+            if (mockIdP != null) {
+                mockIdP.stop();
+            }
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure federated OIDC logins with just in time provisioning.")
+    public void testFederatedLogins() throws Exception {
+
+        for (String tokenMode : LoadTestConfig.getList(TOKEN_MODES, PRE_SIGNED)) {
+            if (!PRE_SIGNED.equals(tokenMode) && !PER_REQUEST.equals(tokenMode)) {
+                throw new IllegalArgumentException("Unknown token mode: " + tokenMode + ". Available modes: " +
+                        PRE_SIGNED + ", " + PER_REQUEST);
+            }
+            mockIdP.enableLoadMode(federatedUsers, PRE_SIGNED.equals(tokenMode));
+            for (String delay : LoadTestConfig.getList(UPSTREAM_DELAYS, "0", "200")) {
+                mockIdP.setTokenEndpointDelay(Integer.parseInt(delay));
+                log.info("Measuring federated logins with " + tokenMode + " ID tokens and an upstream token " +
+                        "endpoint delay of " + delay + " ms.");
+                runFederatedLoginLoad("federated_login_" + tokenMode + "_upstream_" + delay + "ms");
+            }
+        }
+    }
+
+    private void runFederatedLoginLoad(String name) throws InterruptedException {
+
+        LoadTestResult upstream = new LoadTestResult(name + "_upstream");
+        LoadTestResult local = new LoadTestResult(name + "_local");
+        LoadTestResult callbackLocal = new LoadTestResult(name + "_callback_local");
+        for (LoadTestResult result : Arrays.asList(upstream, local, callbackLocal)) {
+            result.setMeasuredNanos(loadTestConfig.getDurationNanos());
+        }
+
+        LoadTestResult logins = runLoad(name, worker -> {
+            boolean measured = loadGenerator.isMeasuring();
+            long[] phases = federatedLogin(getNewSessionClient(worker));
+            if (measured) {
+                long startNanos = phases[0];
+                long upstreamNanos = phases[1] + phases[2];
+                upstream.recordSuccess(startNanos, startNanos, startNanos + upstreamNanos);
+                // The upstream token time is taken at millisecond precision, so the local parts are kept positive.
+                local.recordSuccess(startNanos, startNanos, startNanos + Math.max(0, phases[4] - upstreamNanos));
+                callbackLocal.recordSuccess(startNanos, startNanos, startNanos + Math.max(0, phases[3] - phases[2]));
+            }
+        });
+        results.add(upstream);
+        results.add(local);
+        results.add(callbackLocal);
+        log.info(String.format(Locale.ENGLISH, "%s: %.1f logins/s, mean upstream %.1f ms, mean local %.1f ms, " +
+                        "p99 login %.1f ms.", name, logins.getThroughput(),
+                upstream.getResponseTime().getMean() / 1000.0, local.getResponseTime().getMean() / 1000.0,
+                logins.getPercentileMillis(99.0)));
+    }
+
+    /**
+     * Run a federated login up to the authorization code and time its phases.
+     *
+     * @return The start of the login, the upstream authorize redirect, the upstream token request, the commonauth
+     * callback including the upstream token request, and the complete login, all but the first in nanoseconds.
+     */
+    private long[] federatedLogin(CloseableHttpClient sessionClient) throws Exception {
+
+        long startNanos = System.nanoTime();
+        String location = getForLocation(sessionClient, new URIBuilder(authorizeEndpoint)
+                .addParameter(OAuth2Constant.OAUTH2_RESPONSE_TYPE, OAuth2Constant.OAUTH2_GRANT_TYPE_CODE)
+                .addParameter(OAuth2Constant.OAUTH2_CLIENT_ID, federatedApplication.getClientId())
+                .addParameter(OAuth2Constant.OAUTH2_REDIRECT_URI, LOAD_TEST_CALLBACK_URL)
+                .addParameter(OAuth2Constant.OAUTH2_SCOPE, OAuth2Constant.OAUTH2_SCOPE_OPENID)
+                .build().toString());
+        if (!location.startsWith(MOCK_IDP_ORIGIN)) {
+            throw new IOException("Not redirected to the upstream identity provider: " + location);
+        }
+
+        long upstreamAuthorizeStartNanos = System.nanoTime();
+        location = getForLocation(sessionClient, location);
+        long callbackStartNanos = System.nanoTime();
+        String upstreamCode = DataExtractUtil.getParamFromURIString(location, OAuth2Constant.AUTHORIZATION_CODE_NAME);
+        if (upstreamCode == null) {
+            throw new IOException("Upstream authorization code not found in the redirect: " + location);
+        }
+
+        location = getForLocation(sessionClient, location);
+        long callbackEndNanos = System.nanoTime();
+        int upstreamTokenMillis = mockIdP.awaitTokenRequestMillis(upstreamCode, TOKEN_REQUEST_TIMEOUT_MILLIS);
+        if (upstreamTokenMillis < 0) {
+            throw new IOException("The server did not request a token from the upstream identity provider.");
+        }
+
+        for (int hop = 0; !location.startsWith(LOAD_TEST_CALLBACK_URL); hop++) {
+            if (hop == MAX_REDIRECTS) {
+                throw new IOException("Federated login did not complete within " + MAX_REDIRECTS + " redirects.");
+            }
+            location = getForLocation(sessionClient, location);
+        }
+        long endNanos = System.nanoTime();
+        if (DataExtractUtil.getParamFromURIString(location, OAuth2Constant.AUTHORIZATION_CODE_NAME) == null) {
+            throw new IOException("Authorization code not found in the redirect: " + location);
+        }
+
+        return new long[]{startNanos, callbackStartNanos - upstreamAuthorizeStartNanos,
+                TimeUnit.MILLISECONDS.toNanos(upstreamTokenMillis), callbackEndNanos - callbackStartNanos,
+                endNanos - startNanos};
+    }
+
+    private IdentityProviderPOSTRequest getFederatedIdentityProvider() {
+
+        FederatedAuthenticator authenticator = new FederatedAuthenticator()
+                .authenticatorId(ENCODED_OIDC_AUTHENTICATOR_ID)
+                .name(OIDC_AUTHENTICATOR_NAME)
+                .isEnabled(true)
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.IDP_NAME).value(IDP_NAME))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.CLIENT_ID)
+                        .value(MOCK_IDP_CLIENT_ID))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.CLIENT_SECRET)
+                        .value(MOCK_IDP_CLIENT_SECRET))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.OAUTH2_AUTHZ_URL)
+                        .value(MOCK_IDP_AUTHORIZE_ENDPOINT))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.OAUTH2_TOKEN_URL)
+                        .value(MOCK_IDP_TOKEN_ENDPOINT))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.CALLBACK_URL)
+                        .value(commonAuthEndpoint));
+
+        return new IdentityProviderPOSTRequest()
+                .name(IDP_NAME)
+                .federatedAuthenticators(new FederatedAuthenticatorRequest()
+                        .defaultAuthenticatorId(ENCODED_OIDC_AUTHENTICATOR_ID)
+                        .addAuthenticator(authenticator))
+                .provisioning(new ProvisioningRequest()
+                        .jit(new JustInTimeProvisioning()
+                                .isEnabled(true)
+                                .scheme(JustInTimeProvisioning.SchemeEnum.PROVISION_SILENTLY)
+                                .userstore("PRIMARY")));
+    }
+
+    private void deleteProvisionedUsers() throws Exception {
+
+        RemoteUserStoreManagerServiceClient userStoreManagerServiceClient =
+                new RemoteUserStoreManagerServiceClient(backendURL, sessionCookie);
+        String[] userNames = userStoreManagerServiceClient.listUsers(LOAD_MODE_SUBJECT_PREFIX + "*", federatedUsers);
+        if (userNames == null) {
+            return;
+        }
+        for (String userName : userNames) {
+            userStoreManagerServiceClient.deleteUser(userName);
+        }
+        log.info("Deleted " + userNames.length + " just in time provisioned users.");
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.logging;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the token endpoint latency with the shipped synchronous logging setup against the async logging profile
+ * enabled with {@code [logging] profile = "async"}. The same grants are measured before and after restarting the
+ * server with the async profile, and both runs are written to the same report.
+ * <p>
+ * The password grant authenticates the user on every request, so it also covers the audit log written on login.
+ */
+public class AsyncLoggingLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "logging-profile";
+    private static final String SYNC_SUFFIX = "_sync_logging";
+    private static final String ASYNC_SUFFIX = "_async_logging";
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        provisionApplications("perf-logging-app", Arrays.asList(
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS, OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token endpoint with the synchronous logging setup.")
+    public void testSyncLogging() throws Exception {
+
+        runGrants(SYNC_SUFFIX);
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the token endpoint with the async logging profile.",
+            dependsOnMethods = "testSyncLogging", alwaysRun = true)
+    public void testAsyncLogging() throws Exception {
+
+        applyConfigurationAndRestart(readConfiguration("logging_async.toml"));
+
+        runGrants(ASYNC_SUFFIX);
+    }
+
+    private void runGrants(String suffix) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS + suffix,
+                worker -> assertAccessToken(requestToken(getApplication(worker), parameters)));
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER + suffix,
+                worker -> assertAccessToken(requestPasswordGrantToken(getApplication(worker))));
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.notification;
+
+import com.icegreen.greenmail.user.MessageDeliveryHandler;
+import com.icegreen.greenmail.user.UserManager;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.common.clients.usermgt.remote.RemoteUserStoreManagerServiceClient;
+import org.wso2.identity.integration.test.base.MockSMSProvider;
+import org.wso2.identity.integration.test.performance.common.FixedCountRunner;
+import org.wso2.identity.integration.test.performance.common.LoadGenerator;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationPatchModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationSequence;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationStep;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.Authenticator;
+import org.wso2.identity.integration.test.rest.api.server.identity.governance.v1.dto.ConnectorsPatchReq;
+import org.wso2.identity.integration.test.rest.api.server.identity.governance.v1.dto.PropertyReq;
+import org.wso2.identity.integration.test.rest.api.server.notification.sender.v1.model.Properties;
+import org.wso2.identity.integration.test.rest.api.server.notification.sender.v1.model.SMSSender;
+import org.wso2.identity.integration.test.rest.api.user.common.model.Email;
+import org.wso2.identity.integration.test.rest.api.user.common.model.PhoneNumbers;
+import org.wso2.identity.integration.test.rest.api.user.common.model.UserObject;
+import org.wso2.identity.integration.test.restclients.IdentityGovernanceRestClient;
+import org.wso2.identity.integration.test.restclients.NotificationSenderRestClient;
+import org.wso2.identity.integration.test.restclients.SCIM2RestClient;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.CommonConstants;
+import org.wso2.identity.integration.test.utils.DataExtractUtil;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends bursts of requests that make the server send notifications, to show how the email and SMS output adapters
+ * of the server cope when thousands of notifications are due at once. The flows are password recovery and self
+ * registration, which send an email, and passwordless SMS OTP logins, which send an SMS, selected with
+ * {@code -Dperf.notification.flows=password_recovery,self_registration,sms_otp_login}. Every burst sends
+ * {@code -Dperf.notification.burst} requests as fast as the workers can.
+ * <p>
+ * The emails are received by GreenMail and the SMS by the {@link MockSMSProvider}, both instrumented to record the
+ * delivery latency of every notification, counted from the moment the triggering request was sent, and the backlog
+ * of notifications triggered but not delivered yet. Every burst is repeated with the sinks answering after each delay
+ * of {@code -Dperf.notification.sink.delay.millis=0,1000}, which simulates a slow SMTP server or SMS provider. When the
+ * request latency grows with the delay, the notifications are dispatched on the request threads.
+ * <p>
+ * The report gives the request latency of every burst, the delivery latency and throughput of its notifications
+ * under the {@code _delivery} name, and for the SMS OTP logins the latency of the request that triggers the SMS
+ * under the {@code _otp_request} name. The backlog over time is written to {@code notification-burst-backlog.csv}.
+ */
+public class NotificationBurstLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "notification-burst";
+    private static final String FLOWS = "notification.flows";
+    private static final String BURST = "notification.burst";
+    private static final String SINK_DELAYS = "notification.sink.delay.millis";
+    private static final String USERS = "notification.users";
+    private static final String DELIVERY_TIMEOUT = "notification.delivery.timeout.seconds";
+    private static final String OTP_TIMEOUT = "notification.otp.timeout.seconds";
+    private static final String PASSWORD_RECOVERY = "password_recovery";
+    private static final String SELF_REGISTRATION = "self_registration";
+    private static final String SMS_OTP_LOGIN = "sms_otp_login";
+    private static final String RECOVERY_ENDPOINT = "https://localhost:" + CommonConstants.IS_DEFAULT_HTTPS_PORT +
+            "/api/identity/recovery/v0.9/recover-password?type=email&notify=true";
+    private static final String SELF_REGISTRATION_ENDPOINT = "https://localhost:" +
+            CommonConstants.IS_DEFAULT_HTTPS_PORT + "/api/identity/user/v1.0/me";
+    private static final String CATEGORY_ACCOUNT_MANAGEMENT = "QWNjb3VudCBNYW5hZ2VtZW50";
+    private static final String CONNECTOR_ACCOUNT_RECOVERY = "YWNjb3VudC1yZWNvdmVyeQ";
+    private static final String CATEGORY_USER_ONBOARDING = "VXNlciBPbmJvYXJkaW5n";
+    private static final String CONNECTOR_SELF_SIGN_UP = "c2VsZi1zaWduLXVw";
+    private static final String PASSWORD_RECOVERY_PROPERTY = "Recovery.Notification.Password.emailLink.Enable";
+    private static final String SELF_REGISTRATION_PROPERTY = "SelfRegistration.Enable";
+    private static final String SMS_SENDER_REQUEST_FORMAT = "{\"content\": {{body}}, \"to\": {{mobile}} }";
+    private static final String SMS_OTP_AUTHENTICATOR = "sms-otp-authenticator";
+    private static final String SMTP_USER = "admin";
+    private static final String SMTP_PASSWORD = "admin";
+    private static final String USER_PREFIX = "perfnotifyuser";
+    private static final String OTP_USER_PREFIX = "perfotpuser";
+    private static final String SELF_REGISTRATION_USER_PREFIX = "perfselfreg";
+    private static final String EMAIL_DOMAIN = "@perf.wso2.test";
+    private static final String PASSWORD = "Wso2@perf1";
+    private static final Pattern OTP_PATTERN = Pattern.compile("\\b\\d{6}\\b");
+
+    private final NotificationRecorder recorder = new NotificationRecorder();
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> selfRegisteredUsers = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger recoveryCounter = new AtomicInteger();
+    private final AtomicInteger selfRegistrationCounter = new AtomicInteger();
+    private SCIM2RestClient scim2RestClient;
+    private IdentityGovernanceRestClient identityGovernanceRestClient;
+    private NotificationSenderRestClient notificationSenderRestClient;
+    private MockSMSProvider mockSMSProvider;
+    private GreenMail mailServer;
+    private GreenMail ownMailServer;
+    private MessageDeliveryHandler defaultDeliveryHandler;
+    private LoadTestApplication otpApplication;
+    private String recoveryEndpoint;
+    private String selfRegistrationEndpoint;
+    private String[] recoveryUserNames;
+    private String[] otpUserNames;
+    private String[] otpUserMobiles;
+    private volatile int smtpDelayMillis;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        recoveryEndpoint = getTenantQualifiedURL(RECOVERY_ENDPOINT, tenantInfo.getDomain());
+        selfRegistrationEndpoint = getTenantQualifiedURL(SELF_REGISTRATION_ENDPOINT, tenantInfo.getDomain());
+
+        startMailSink();
+        mockSMSProvider = new MockSMSProvider();
+        mockSMSProvider.setMessageListener(recorder::delivered);
+        mockSMSProvider.start();
+
+        applyConfigurationAndRestart(readConfiguration("notification_burst.toml"));
+
+        identityGovernanceRestClient = new IdentityGovernanceRestClient(serverURL, tenantInfo);
+        updateConnector(CATEGORY_ACCOUNT_MANAGEMENT, CONNECTOR_ACCOUNT_RECOVERY, PASSWORD_RECOVERY_PROPERTY, true);
+        updateConnector(CATEGORY_USER_ONBOARDING, CONNECTOR_SELF_SIGN_UP, SELF_REGISTRATION_PROPERTY, true);
+        notificationSenderRestClient = new NotificationSenderRestClient(serverURL, tenantInfo);
+        notificationSenderRestClient.createSMSProvider(new SMSSender()
+                .provider(MockSMSProvider.SMS_SENDER_PROVIDER_TYPE)
+                .providerURL(MockSMSProvider.SMS_SENDER_URL)
+                .contentType(SMSSender.ContentTypeEnum.JSON)
+                .addPropertiesItem(new Properties().key("body").value(SMS_SENDER_REQUEST_FORMAT)));
+
+        scim2RestClient = new SCIM2RestClient(serverURL, tenantInfo);
+        recoveryUserNames = new String[LoadTestConfig.getInt(USERS, 100)];
+        for (int i = 0; i < recoveryUserNames.length; i++) {
+            recoveryUserNames[i] = USER_PREFIX + i;
+            userIds.add(scim2RestClient.createUser(new UserObject().userName(recoveryUserNames[i]).password(PASSWORD)
+                    .addEmail(new Email().value(recoveryUserNames[i] + EMAIL_DOMAIN))));
+        }
+        // Every worker logs in as a user of its own, so the OTPs of the workers go to different mobiles.
+        otpUserNames = new String[loadTestConfig.getConcurrency()];
+        otpUserMobiles = new String[otpUserNames.length];
+        for (int i = 0; i < otpUserNames.length; i++) {
+            otpUserNames[i] = OTP_USER_PREFIX + i;
+            otpUserMobiles[i] = String.format(Locale.ENGLISH, "+9477%07d", i);
+            userIds.add(scim2RestClient.createUser(new UserObject().userName(otpUserNames[i]).password(PASSWORD)
+                    .addPhoneNumbers(new PhoneNumbers().value(otpUserMobiles[i]).type("mobile"))));
+        }
+
+        otpApplication = provisionApplication("perf-notification-otp-app",
+                Collections.singletonList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE));
+        // Kept with the other applications, so it is deleted when the load test finishes.
+        applications.add(otpApplication);
+        restClient.updateApplication(otpApplication.getId(), new ApplicationPatchModel()
+                .authenticationSequence(new AuthenticationSequence()
+                        .type(AuthenticationSequence.TypeEnum.USER_DEFINED)
+                        .addStepsItem(new AuthenticationStep()
+                                .id(1)
+                                .addOptionsItem(new Authenticator()
+                                        .idp("LOCAL")
+                                        .authenticator(SMS_OTP_AUTHENTICATOR)))
+                        .subjectStepId(1)));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            recorder.writeBacklogReport(REPORT_NAME);
+            updateConnector(CATEGORY_ACCOUNT_MANAGEMENT, CONNECTOR_ACCOUNT_RECOVERY, PASSWORD_RECOVERY_PROPERTY,
+                    false);
+            updateConnector(CATEGORY_USER_ONBOARDING, CONNECTOR_SELF_SIGN_UP, SELF_REGISTRATION_PROPERTY, false);
+            notificationSenderRestClient.deleteSMSProvider();
+            for (String userId : userIds) {
+                scim2RestClient.deleteUser(userId);
+            }
+            // The admin service session does not survive the server restart.
+            RemoteUserStoreManagerServiceClient userStoreManagerServiceClient =
+                    new RemoteUserStoreManagerServiceClient(backendURL, login());
+            for (String userName : selfRegisteredUsers) {
+                userStoreManagerServiceClient.deleteUser(userName);
+            }
+            identityGovernanceRestClient.closeHttpClient();
+            notificationSenderRestClient.closeHttpClient();
+            scim2RestClient.closeHttpClient();
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            if (mockSMSProvider != null) {
+                mockSMSProvider.stop();
+            }
+            stopMailSink();
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the notification dispatch under bursts of triggering requests.")
+    public void testNotificationBursts() throws Exception {
+
+        List<String> flows = LoadTestConfig.getList(FLOWS, PASSWORD_RECOVERY, SELF_REGISTRATION, SMS_OTP_LOGIN);
+        for (String flow : flows) {
+            if (!PASSWORD_RECOVERY.equals(flow) && !SELF_REGISTRATION.equals(flow) && !SMS_OTP_LOGIN.equals(flow)) {
+                throw new IllegalArgumentException("Unknown notification flow: " + flow + ". Available flows: " +
+                        String.join(", ", PASSWORD_RECOVERY, SELF_REGISTRATION, SMS_OTP_LOGIN));
+            }
+        }
+        for (String delay : LoadTestConfig.getList(SINK_DELAYS, "0", "1000")) {
+            smtpDelayMillis = Integer.parseInt(delay);
+            mockSMSProvider.setResponseDelayMillis(smtpDelayMillis);
+            String suffix = "_sink_delay_" + delay + "ms";
+            for (String flow : flows) {
+                log.info("Measuring a burst of " + flow + " with the notification sinks answering after " + delay +
+                        " ms.");
+                runNotificationBurst(flow, suffix);
+            }
+        }
+    }
+
+    private void runNotificationBurst(String flow, String suffix) throws Exception {
+
+        LoadGenerator.LoadTask task;
+        LoadTestResult otpRequests = null;
+        if (PASSWORD_RECOVERY.equals(flow)) {
+            task = worker -> recoverPassword();
+        } else if (SELF_REGISTRATION.equals(flow)) {
+            task = worker -> selfRegister();
+        } else {
+            LoadTestResult otpRequestResult = new LoadTestResult(flow + "_otp_request" + suffix);
+            task = worker -> loginWithSMSOTP(worker, otpRequestResult);
+            otpRequests = otpRequestResult;
+        }
+
+        recorder.start(flow + "_delivery" + suffix);
+        LoadTestResult requests = runBurst(flow + suffix, task);
+        if (otpRequests != null) {
+            results.add(otpRequests);
+        }
+        LoadTestResult deliveries = recorder.finish(TimeUnit.SECONDS.toMillis(
+                LoadTestConfig.getInt(DELIVERY_TIMEOUT, 300)));
+        results.add(deliveries);
+        log.info(String.format(Locale.ENGLISH, "%s%s: %d requests, %d notifications delivered, %d not delivered, " +
+                        "highest backlog %d.", flow, suffix, requests.getSuccessCount(), deliveries.getSuccessCount(),
+                deliveries.getErrorCount(), recorder.getMaxBacklog()));
+        mailServer.purgeEmailFromAllMailboxes();
+
+        Assert.assertTrue(deliveries.getErrorRatio() <= loadTestConfig.getMaxErrorRatio(),
+                String.format("Undelivered ratio %.4f of %s exceeds the allowed %.4f.", deliveries.getErrorRatio(),
+                        deliveries.getName(), loadTestConfig.getMaxErrorRatio()));
+    }
+
+    /**
+     * Run the task the configured number of times, spread across the workers, with every worker starting the next
+     * invocation as soon as the previous one returned, and keep the result for the report.
+     */
+    private LoadTestResult runBurst(String name, LoadGenerator.LoadTask task) throws InterruptedException {
+
+        LoadTestResult result = FixedCountRunner.run(name, LoadTestConfig.getInt(BURST, 10000),
+                loadTestConfig.getConcurrency(), (worker, index) -> task.execute(worker));
+        results.add(result);
+
+        Assert.assertTrue(result.getSuccessCount() > 0, "No successful invocation of " + name + ".");
+        Assert.assertTrue(result.getErrorRatio() <= loadTestConfig.getMaxErrorRatio(),
+                String.format("Error ratio %.4f of %s exceeds the allowed %.4f.", result.getErrorRatio(), name,
+                        loadTestConfig.getMaxErrorRatio()));
+        return result;
+    }
+
+    private void recoverPassword() throws Exception {
+
+        String userName = recoveryUserNames[Math.floorMod(recoveryCounter.getAndIncrement(),
+                recoveryUserNames.length)];
+        JSONObject user = new JSONObject();
+        user.put("username", userName);
+        user.put("realm", "PRIMARY");
+        user.put("tenant-domain", tenantInfo.getDomain());
+        JSONObject request = new JSONObject();
+        request.put("user", user);
+        request.put("properties", new JSONArray());
+
+        String email = userName + EMAIL_DOMAIN;
+        recorder.expect(email);
+        try {
+            postJson(recoveryEndpoint, request, HttpStatus.SC_ACCEPTED);
+        } catch (Exception e) {
+            recorder.cancel(email);
+            throw e;
+        }
+    }
+
+    private void selfRegister() throws Exception {
+
+        String userName = SELF_REGISTRATION_USER_PREFIX + selfRegistrationCounter.getAndIncrement();
+        String email = userName + EMAIL_DOMAIN;
+        JSONArray claims = new JSONArray();
+        claims.add(claim("http://wso2.org/claims/givenname", userName));
+        claims.add(claim("http://wso2.org/claims/lastname", userName));
+        claims.add(claim("http://wso2.org/claims/emailaddress", email));
+        JSONObject user = new JSONObject();
+        user.put("username", userName);
+        user.put("realm", "PRIMARY");
+        user.put("password", PASSWORD);
+        user.put("claims", claims);
+        JSONObject request = new JSONObject();
+        request.put("user", user);
+        request.put("properties", new JSONArray());
+
+        recorder.expect(email);
+        try {
+            postJson(selfRegistrationEndpoint, request, HttpStatus.SC_CREATED);
+        } catch (Exception e) {
+            recorder.cancel(email);
+            throw e;
+        }
+        selfRegisteredUsers.add(userName);
+    }
+
+    /**
+     * Log in to the SMS OTP application as the user of the worker: the authorization request, the identifier post,
+     * which makes the server send the OTP, the OTP post with the OTP received by the SMS sink, and the redirect back
+     * to the authorize endpoint. The identifier post is recorded in the given result.
+     */
+    private void loginWithSMSOTP(int worker, LoadTestResult otpRequests) throws Exception {
+
+        CloseableHttpClient sessionClient = getNewSessionClient(worker);
+        List<NameValuePair> authorizeParameters = new ArrayList<>();
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_RESPONSE_TYPE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CODE));
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_CLIENT_ID,
+                otpApplication.getClientId()));
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_REDIRECT_URI, LOAD_TEST_CALLBACK_URL));
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_SCOPE,
+                OAuth2Constant.OAUTH2_SCOPE_OPENID));
+        String location = postForLocation(sessionClient, authorizeEndpoint, authorizeParameters);
+        String sessionDataKey = DataExtractUtil.getParamFromURIString(location, OAuth2Constant.SESSION_DATA_KEY);
+        if (sessionDataKey == null) {
+            throw new IOException("sessionDataKey not found in the authorize response: " + location);
+        }
+
+        List<NameValuePair> identifierParameters = new ArrayList<>();
+        identifierParameters.add(new BasicNameValuePair("username", otpUserNames[worker]));
+        identifierParameters.add(new BasicNameValuePair(OAuth2Constant.SESSION_DATA_KEY, sessionDataKey));
+        String mobile = otpUserMobiles[worker];
+        recorder.expect(mobile);
+        long startNanos = System.nanoTime();
+        try {
+            postForLocation(sessionClient, commonAuthEndpoint, identifierParameters);
+        } catch (Exception e) {
+            recorder.cancel(mobile);
+            otpRequests.recordError();
+            throw e;
+        }
+        otpRequests.recordSuccess(startNanos, startNanos, System.nanoTime());
+
+        String message = recorder.awaitMessage(mobile, TimeUnit.SECONDS.toMillis(
+                LoadTestConfig.getInt(OTP_TIMEOUT, 30)));
+        if (message == null) {
+            throw new IOException("No OTP was sent to " + mobile + ".");
+        }
+        Matcher otp = OTP_PATTERN.matcher(message);
+        if (!otp.find()) {
+            throw new IOException("No OTP found in the SMS: " + message);
+        }
+
+        List<NameValuePair> otpParameters = new ArrayList<>();
+        otpParameters.add(new BasicNameValuePair("OTPcode", otp.group()));
+        otpParameters.add(new BasicNameValuePair(OAuth2Constant.SESSION_DATA_KEY, sessionDataKey));
+        location = postForLocation(sessionClient, commonAuthEndpoint, otpParameters);
+        location = getForLocation(sessionClient, location);
+        if (DataExtractUtil.getParamFromURIString(location, OAuth2Constant.AUTHORIZATION_CODE_NAME) == null) {
+            throw new IOException("Authorization code not found in the redirect: " + location);
+        }
+    }
+
+    private void postJson(String url, JSONObject body, int expectedStatus) throws IOException {
+
+        HttpPost request = new HttpPost(url);
+        request.setHeader(OAuth2Constant.AUTHORIZATION_HEADER, "Basic " + getBase64EncodedString(
+                tenantInfo.getTenantAdmin().getUserName(), tenantInfo.getTenantAdmin().getPassword()));
+        request.setEntity(new StringEntity(body.toJSONString(), ContentType.APPLICATION_JSON));
+        try (CloseableHttpResponse response = loadClient.execute(request)) {
+            String responseBody = EntityUtils.toString(response.getEntity());
+            if (response.getStatusLine().getStatusCode() != expectedStatus) {
+                throw new IOException("Request to " + url + " failed with status " +
+                        response.getStatusLine().getStatusCode() + ": " + responseBody);
+            }
+        }
+    }
+
+    private static JSONObject claim(String uri, String value) {
+
+        JSONObject claim = new JSONObject();
+        claim.put("uri", uri);
+        claim.put("value", value);
+        return claim;
+    }
+
+    /**
+     * Instrument the mail server of the suite, or start one if the suite has none. Every received email is recorded
+     * as delivered to each of its recipients, after the configured delay, which holds up the SMTP session of the
+     * server like a slow SMTP server would. The emails are then stored by the default delivery handler of GreenMail,
+     * which is put back by {@link #stopMailSink()}.
+     */
+    private void startMailSink() {
+
+        mailServer = Utils.getMailServer();
+        if (mailServer == null) {
+            ownMailServer = new GreenMail(ServerSetupTest.SMTP);
+            ownMailServer.setUser(SMTP_USER, SMTP_PASSWORD);
+            ownMailServer.start();
+            mailServer = ownMailServer;
+        }
+        UserManager userManager = mailServer.getUserManager();
+        defaultDeliveryHandler = userManager.getMessageDeliveryHandler();
+        MessageDeliveryHandler deliveryHandler = defaultDeliveryHandler;
+        userManager.setMessageDeliveryHandler((message, mailAddress) -> {
+            int delayMillis = smtpDelayMillis;
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            recorder.delivered(mailAddress.getEmail(), null);
+            return deliveryHandler.handle(message, mailAddress);
+        });
+    }
+
+    /**
+     * Put back the default delivery handler of the mail server of the suite, or stop the mail server started for
+     * the load test.
+     */
+    private void stopMailSink() {
+
+        smtpDelayMillis = 0;
+        if (ownMailServer != null) {
+            ownMailServer.stop();
+        } else if (mailServer != null && defaultDeliveryHandler != null) {
+            mailServer.getUserManager().setMessageDeliveryHandler(defaultDeliveryHandler);
+        }
+    }
+
+    private void updateConnector(String categoryId, String connectorId, String property, boolean enable)
+            throws IOException {
+
+        ConnectorsPatchReq connectorsPatchReq = new ConnectorsPatchReq();
+        connectorsPatchReq.setOperation(ConnectorsPatchReq.OperationEnum.UPDATE);
+        PropertyReq propertyReq = new PropertyReq();
+        propertyReq.setName(property);
+        propertyReq.setValue(String.valueOf(enable));
+        connectorsPatchReq.addProperties(propertyReq);
+        identityGovernanceRestClient.updateConnectors(categoryId, connectorId, connectorsPatchReq);
+    }
+}
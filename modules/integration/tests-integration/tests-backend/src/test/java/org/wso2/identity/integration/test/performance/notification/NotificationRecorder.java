@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.notification;
+
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the delivery of the notifications the server sends to the mail and SMS sinks of the tests. A notification
+ * is expected for a recipient right before the request that triggers it is sent, and delivered when the sink
+ * receives it, so the delivery latency covers the dispatch by the server: the output adapter queue, the rendering of
+ * the template and the transfer to the sink.
+ * <p>
+ * While a run is recorded, the backlog, which is the number of notifications triggered but not yet delivered, is
+ * sampled every second. Notifications of recipients nothing was expected for are not counted.
+ */
+public class NotificationRecorder {
+
+    private static final long BACKLOG_SAMPLE_INTERVAL_MILLIS = 1000;
+    private static final long DELIVERY_POLL_INTERVAL_MILLIS = 100;
+
+    private final Map<String, Deque<Long>> pendingByRecipient = new ConcurrentHashMap<>();
+    private final Map<String, BlockingQueue<String>> messagesByRecipient = new ConcurrentHashMap<>();
+    private final AtomicLong triggered = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong maxBacklog = new AtomicLong();
+    private final List<String> backlogSamples = new ArrayList<>();
+    private volatile LoadTestResult deliveries;
+    private ScheduledExecutorService executor;
+    private String runName;
+    private long startNanos;
+
+    /**
+     * Start recording a run. The deliveries are recorded in a result with the given name.
+     *
+     * @param name Name of the run.
+     */
+    public synchronized void start(String name) {
+
+        pendingByRecipient.clear();
+        messagesByRecipient.clear();
+        triggered.set(0);
+        delivered.set(0);
+        maxBacklog.set(0);
+        deliveries = new LoadTestResult(name);
+        runName = name;
+        startNanos = System.nanoTime();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "perf-notification-backlog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::sampleBacklog, 0, BACKLOG_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expect a notification for the recipient. Messages of the recipient received earlier and not taken are
+     * discarded.
+     *
+     * @param recipient Email address or mobile number.
+     */
+    public void expect(String recipient) {
+
+        String key = normalize(recipient);
+        BlockingQueue<String> messages = messagesByRecipient.get(key);
+        if (messages != null) {
+            messages.clear();
+        }
+        pendingByRecipient.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).addLast(System.nanoTime());
+        triggered.incrementAndGet();
+    }
+
+    /**
+     * Withdraw the last expected notification of the recipient, when the request that should have triggered it
+     * failed.
+     *
+     * @param recipient Email address or mobile number.
+     */
+    public void cancel(String recipient) {
+
+        Deque<Long> pending = pendingByRecipient.get(normalize(recipient));
+        if (pending != null && pending.pollLast() != null) {
+            triggered.decrementAndGet();
+        }
+    }
+
+    /**
+     * Record a notification received by a sink. Called by the sinks, on their own threads.
+     *
+     * @param recipient Email address or mobile number.
+     * @param content   Content of the notification, kept for {@link #awaitMessage(String, long)}, or null if it is
+     *                  not needed.
+     */
+    public void delivered(String recipient, String content) {
+
+        long nowNanos = System.nanoTime();
+        String key = normalize(recipient);
+        Deque<Long> pending = pendingByRecipient.get(key);
+        Long expectedNanos = pending == null ? null : pending.pollFirst();
+        if (expectedNanos == null) {
+            return;
+        }
+        deliveries.recordSuccess(expectedNanos, expectedNanos, nowNanos);
+        delivered.incrementAndGet();
+        if (content != null) {
+            messagesByRecipient.computeIfAbsent(key, k -> new LinkedBlockingQueue<>()).add(content);
+        }
+    }
+
+    /**
+     * Wait for the next notification of the recipient.
+     *
+     * @param recipient     Email address or mobile number.
+     * @param timeoutMillis Time to wait.
+     * @return Content of the notification, or null if none arrived in time.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public String awaitMessage(String recipient, long timeoutMillis) throws InterruptedException {
+
+        return messagesByRecipient.computeIfAbsent(normalize(recipient), k -> new LinkedBlockingQueue<>())
+                .poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wait until every expected notification was delivered, or the timeout passed, and stop recording. Notifications
+     * that were not delivered in time are recorded as errors.
+     *
+     * @param timeoutMillis Time to wait for the outstanding notifications.
+     * @return Deliveries of the run.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public synchronized LoadTestResult finish(long timeoutMillis) throws InterruptedException {
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (delivered.get() < triggered.get() && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(DELIVERY_POLL_INTERVAL_MILLIS);
+        }
+        executor.shutdownNow();
+        executor.awaitTermination(BACKLOG_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        sampleBacklog();
+        for (long i = delivered.get(); i < triggered.get(); i++) {
+            deliveries.recordError();
+        }
+        // Notifications arriving after the run are not counted.
+        pendingByRecipient.clear();
+        return deliveries;
+    }
+
+    /**
+     * Write the backlog samples of all runs to {@code <reportName>-backlog.csv} in the report directory, one line
+     * per sample with the run, the seconds since the start of the run, and the notifications triggered, delivered
+     * and outstanding.
+     *
+     * @param reportName Name of the report.
+     * @throws IOException If the report could not be written.
+     */
+    public void writeBacklogReport(String reportName) throws IOException {
+
+        List<String> samples;
+        synchronized (backlogSamples) {
+            samples = new ArrayList<>(backlogSamples);
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                reportName + "-backlog.csv")), false, StandardCharsets.UTF_8.name())) {
+            report.println("run,elapsed_s,triggered,delivered,backlog");
+            for (String sample : samples) {
+                report.println(sample);
+            }
+        }
+    }
+
+    /**
+     * Highest backlog sampled in the current run.
+     *
+     * @return Highest number of outstanding notifications.
+     */
+    public long getMaxBacklog() {
+
+        return maxBacklog.get();
+    }
+
+    private void sampleBacklog() {
+
+        long currentTriggered = triggered.get();
+        long currentDelivered = delivered.get();
+        maxBacklog.accumulateAndGet(currentTriggered - currentDelivered, Math::max);
+        synchronized (backlogSamples) {
+            backlogSamples.add(String.format(Locale.ENGLISH, "%s,%d,%d,%d,%d", runName,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos), currentTriggered,
+                    currentDelivered, currentTriggered - currentDelivered));
+        }
+    }
+
+    private static String normalize(String recipient) {
+
+        return recipient.trim().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.oauth2;
+
+/**
+ * OAuth2 application provisioned for a load test.
+ */
+public class LoadTestApplication {
+
+    private final String id;
+    private final String clientId;
+    private final String clientSecret;
+
+    public LoadTestApplication(String id, String clientId, String clientSecret) {
+
+        this.id = id;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+    }
+
+    public String getId() {
+
+        return id;
+    }
+
+    public String getClientId() {
+
+        return clientId;
+    }
+
+    public String getClientSecret() {
+
+        return clientSecret;
+    }
+}
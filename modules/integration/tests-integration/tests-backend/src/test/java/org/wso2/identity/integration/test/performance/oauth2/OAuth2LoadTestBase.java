@@ -0,0 +1,680 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.oauth2;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.testng.Assert;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.carbon.integration.common.utils.mgt.ServerConfigurationManager;
+import org.wso2.identity.integration.test.oauth2.OAuth2ServiceAbstractIntegrationTest;
+import org.wso2.identity.integration.test.performance.common.JmxServerStatistics;
+import org.wso2.identity.integration.test.performance.common.LoadGenerator;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestHttpClients;
+import org.wso2.identity.integration.test.performance.common.LoadTestReporter;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.common.ServerStatisticsRecorder;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.OpenIDConnectConfiguration;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.DataExtractUtil;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+import org.wso2.identity.integration.test.utils.OAuth2Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Base class of the OAuth2 load tests. Provisions the applications the load is spread across, drives the load
+ * through a pooled HTTP client and writes the report once the class completes.
+ */
+public class OAuth2LoadTestBase extends OAuth2ServiceAbstractIntegrationTest {
+
+    protected static final String LOAD_TEST_CALLBACK_URL = "https://localhost/perf/callback";
+    protected static final String APPLICATION_COUNT = "apps";
+    private static final int DEFAULT_APPLICATION_COUNT = 5;
+    private static final String CODE_CHALLENGE = "code_challenge";
+    private static final String CODE_CHALLENGE_METHOD = "code_challenge_method";
+    private static final String CODE_CHALLENGE_METHOD_S256 = "S256";
+    private static final String CODE_VERIFIER = "code_verifier";
+    private static final int DEFAULT_HTTPS_PORT = 9443;
+
+    protected LoadTestConfig loadTestConfig;
+    protected LoadGenerator loadGenerator;
+    protected PoolingHttpClientConnectionManager connectionManager;
+    protected CloseableHttpClient loadClient;
+    protected String tokenEndpoint;
+    protected String authorizeEndpoint;
+    protected String commonAuthEndpoint;
+    protected String introspectionEndpoint;
+    protected String revocationEndpoint;
+    protected String loginUserName;
+    protected String loginPassword;
+    protected final List<LoadTestApplication> applications = new ArrayList<>();
+    protected final List<LoadTestResult> results = Collections.synchronizedList(new ArrayList<>());
+    private CookieStore[] cookieStores;
+    private CloseableHttpClient[] sessionClients;
+    private ServerStatisticsRecorder serverStatisticsRecorder;
+    private ServerConfigurationManager serverConfigurationManager;
+    private final Set<File> backedUpFiles = new HashSet<>();
+
+    /**
+     * Initialize the clients and the load profile.
+     *
+     * @param userMode User mode the applications are provisioned and the flows are executed in.
+     * @throws Exception If an error occurred while initializing.
+     */
+    protected void initLoadTest(TestUserMode userMode) throws Exception {
+
+        super.init(userMode);
+        loadTestConfig = LoadTestConfig.fromSystemProperties();
+        loadGenerator = new LoadGenerator(loadTestConfig);
+        connectionManager = LoadTestHttpClients.createConnectionManager(loadTestConfig.getConcurrency() * 2);
+        loadClient = LoadTestHttpClients.createStatelessClient(connectionManager);
+        // Created up front, as the workers pick up their session clients concurrently.
+        int concurrency = loadTestConfig.getConcurrency();
+        cookieStores = new CookieStore[concurrency];
+        sessionClients = new CloseableHttpClient[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            cookieStores[i] = new BasicCookieStore();
+            sessionClients[i] = LoadTestHttpClients.createSessionClient(connectionManager, cookieStores[i]);
+        }
+
+        String tenantDomain = tenantInfo.getDomain();
+        tokenEndpoint = getTenantQualifiedURL(OAuth2Constant.ACCESS_TOKEN_ENDPOINT, tenantDomain);
+        authorizeEndpoint = getTenantQualifiedURL(OAuth2Constant.AUTHORIZE_ENDPOINT_URL, tenantDomain);
+        commonAuthEndpoint = getTenantQualifiedURL(OAuth2Constant.COMMON_AUTH_URL, tenantDomain);
+        introspectionEndpoint = getTenantQualifiedURL(OAuth2Constant.INTRO_SPEC_ENDPOINT, tenantDomain);
+        revocationEndpoint = getTenantQualifiedURL(OAuth2Constant.TOKEN_REVOKE_ENDPOINT, tenantDomain);
+        loginUserName = userInfo.getUserName();
+        loginPassword = userInfo.getPassword();
+    }
+
+    /**
+     * Provision the applications the load is spread across. The number of applications is taken from the
+     * {@code perf.apps} property.
+     *
+     * @param namePrefix Prefix of the application names.
+     * @param grantTypes Grant types allowed for the applications.
+     * @throws Exception If an error occurred while creating an application.
+     */
+    protected void provisionApplications(String namePrefix, List<String> grantTypes) throws Exception {
+
+        provisionApplications(namePrefix, grantTypes, DEFAULT_APPLICATION_COUNT);
+    }
+
+    /**
+     * Provision the applications the load is spread across. The number of applications is taken from the
+     * {@code perf.apps} property, with a default suited to the test.
+     *
+     * @param namePrefix   Prefix of the application names.
+     * @param grantTypes   Grant types allowed for the applications.
+     * @param defaultCount Number of applications if the property is not set.
+     * @throws Exception If an error occurred while creating an application.
+     */
+    protected void provisionApplications(String namePrefix, List<String> grantTypes, int defaultCount)
+            throws Exception {
+
+        int count = LoadTestConfig.getInt(APPLICATION_COUNT, defaultCount);
+        for (int i = 0; i < count; i++) {
+            applications.add(provisionApplication(namePrefix + "-" + i, grantTypes));
+        }
+        log.info("Provisioned " + count + " applications for the load test.");
+    }
+
+    /**
+     * Provision a single application with the load test callback URL. The application is not part of the
+     * applications the load is spread across and has to be deleted by the caller.
+     *
+     * @param name       Application name.
+     * @param grantTypes Grant types allowed for the application.
+     * @return Provisioned application.
+     * @throws Exception If an error occurred while creating the application.
+     */
+    protected LoadTestApplication provisionApplication(String name, List<String> grantTypes) throws Exception {
+
+        String applicationId = OAuth2Util.createOIDCApplication(restClient, name, grantTypes, LOAD_TEST_CALLBACK_URL);
+        OpenIDConnectConfiguration oidcConfig = restClient.getOIDCInboundDetails(applicationId);
+        return new LoadTestApplication(applicationId, oidcConfig.getClientId(), oidcConfig.getClientSecret());
+    }
+
+    /**
+     * Application a worker sends its requests on behalf of. Workers are spread evenly across the applications.
+     *
+     * @param worker Worker index.
+     * @return Application of the worker.
+     */
+    protected LoadTestApplication getApplication(int worker) {
+
+        return applications.get(worker % applications.size());
+    }
+
+    /**
+     * Run the task with the configured load profile, keep the result for the report and assert that the error
+     * ratio stays within the configured limit.
+     *
+     * @param name Name of the measured operation.
+     * @param task Task to run.
+     * @return Result of the run.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    protected LoadTestResult runLoad(String name, LoadGenerator.LoadTask task) throws InterruptedException {
+
+        return runLoad(name, task, loadTestConfig.getMaxErrorRatio());
+    }
+
+    /**
+     * Run the task with the configured load profile, keep the result for the report and assert that the error
+     * ratio stays within the given limit. Used when errors are expected, such as when faults are injected.
+     *
+     * @param name          Name of the measured operation.
+     * @param task          Task to run.
+     * @param maxErrorRatio Highest error ratio the run may have.
+     * @return Result of the run.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    protected LoadTestResult runLoad(String name, LoadGenerator.LoadTask task, double maxErrorRatio)
+            throws InterruptedException {
+
+        LoadTestResult result = loadGenerator.run(name, task);
+        results.add(result);
+        Assert.assertTrue(result.getSuccessCount() > 0, "No successful invocation of " + name + ".");
+        Assert.assertTrue(result.getErrorRatio() <= maxErrorRatio,
+                String.format("Error ratio %.4f of %s exceeds the allowed %.4f.", result.getErrorRatio(), name,
+                        maxErrorRatio));
+        return result;
+    }
+
+    /**
+     * Run the authorization code flow with PKCE for every invocation. The complete flow is reported under the flow
+     * name and the token exchange alone under the token exchange name.
+     *
+     * @param flowName          Name of the complete flow in the report.
+     * @param tokenExchangeName Name of the token exchange in the report.
+     * @param maxErrorRatio     Highest error ratio the flow may have.
+     * @return Result of the token exchange.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    protected LoadTestResult runAuthorizationCodeLoad(String flowName, String tokenExchangeName,
+                                                      double maxErrorRatio) throws InterruptedException {
+
+        LoadTestResult tokenExchange = new LoadTestResult(tokenExchangeName);
+        tokenExchange.setMeasuredNanos(loadTestConfig.getDurationNanos());
+
+        runLoad(flowName, worker -> {
+            LoadTestApplication application = getApplication(worker);
+            String codeVerifier = getPKCECodeVerifier();
+            String code = requestAuthorizationCode(getNewSessionClient(worker), application, codeVerifier);
+
+            boolean measured = loadGenerator.isMeasuring();
+            long startNanos = System.nanoTime();
+            try {
+                assertAccessToken(requestAuthorizationCodeGrantToken(application, code, codeVerifier));
+            } catch (Exception e) {
+                if (measured) {
+                    tokenExchange.recordError();
+                }
+                throw e;
+            }
+            if (measured) {
+                tokenExchange.recordSuccess(startNanos, startNanos, System.nanoTime());
+            }
+        }, maxErrorRatio);
+        results.add(tokenExchange);
+        return tokenExchange;
+    }
+
+    /**
+     * Read the server statistics over JMX at the start and at the end of the measurement period of every following
+     * run. The statistics are written to {@code <reportName>-server.txt} when the load test finishes. The server has
+     * to be started with the JMX connector enabled.
+     *
+     * @throws MalformedURLException If the server URL is invalid.
+     */
+    protected void recordServerStatistics() throws MalformedURLException {
+
+        serverStatisticsRecorder = new ServerStatisticsRecorder(createServerStatistics());
+        loadGenerator.setMeasurementListener(serverStatisticsRecorder);
+    }
+
+    /**
+     * Create a reader of the server statistics over JMX, authenticated as the super tenant admin.
+     *
+     * @return Server statistics reader.
+     * @throws MalformedURLException If the server URL is invalid.
+     */
+    protected JmxServerStatistics createServerStatistics() throws MalformedURLException {
+
+        return new JmxServerStatistics(new URL(serverURL).getPort() - DEFAULT_HTTPS_PORT,
+                isServer.getSuperTenant().getTenantAdmin().getUserName(),
+                isServer.getSuperTenant().getTenantAdmin().getPassword());
+    }
+
+    /**
+     * Read a configuration of the performance test resources.
+     *
+     * @param fileName Name of the TOML file.
+     * @return Content of the file.
+     * @throws IOException If the file could not be read.
+     */
+    protected String readConfiguration(String fileName) throws IOException {
+
+        File tomlFile = new File(getISResourceLocation() + File.separator + "performance" + File.separator +
+                fileName);
+        return new String(Files.readAllBytes(tomlFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replace the deployment.toml of the server with the given configuration and restart the server.
+     *
+     * @param toml Configuration to apply.
+     * @throws Exception If the configuration could not be applied or the server did not restart.
+     * @see #applyConfigurationAndRestart(String, String)
+     */
+    protected void applyConfigurationAndRestart(String toml) throws Exception {
+
+        applyConfigurationAndRestart(toml, "");
+    }
+
+    /**
+     * Replace the deployment.toml of the server with the base configuration followed by the variant and restart the
+     * server. The deployment.toml is backed up by the first configuration applied by the test only, so the original
+     * configuration is the one {@link #restoreConfiguration(boolean)} brings back.
+     *
+     * @param baseToml    Configuration shared by all the variants of the test.
+     * @param variantToml Configuration of the variant, appended to the base configuration.
+     * @throws Exception If the configuration could not be applied or the server did not restart.
+     */
+    protected void applyConfigurationAndRestart(String baseToml, String variantToml) throws Exception {
+
+        File defaultTomlFile = getDeploymentTomlFile(Utils.getResidentCarbonHome());
+        Path configuredTomlFile = Files.createTempFile("perf-deployment", ".toml");
+        try {
+            Files.write(configuredTomlFile, (baseToml + variantToml).getBytes(StandardCharsets.UTF_8));
+            applyFileWithoutRestart(configuredTomlFile.toFile(), defaultTomlFile);
+        } finally {
+            Files.deleteIfExists(configuredTomlFile);
+        }
+        getServerConfigurationManager().restartGracefully();
+    }
+
+    /**
+     * Replace a file of the server with the given file, without restarting the server. The file of the server is
+     * backed up the first time it is replaced, to be brought back by {@link #restoreConfiguration(boolean)}.
+     *
+     * @param sourceFile File to copy.
+     * @param targetFile File of the server to replace.
+     * @throws Exception If the file could not be replaced.
+     */
+    protected void applyFileWithoutRestart(File sourceFile, File targetFile) throws Exception {
+
+        boolean backup = !backedUpFiles.contains(targetFile);
+        getServerConfigurationManager().applyConfigurationWithoutRestart(sourceFile, targetFile, backup);
+        backedUpFiles.add(targetFile);
+    }
+
+    /**
+     * Bring back the files the server had before they were first replaced by
+     * {@link #applyConfigurationAndRestart(String, String)} or {@link #applyFileWithoutRestart(File, File)}. Nothing
+     * is done if no file was replaced.
+     *
+     * @param restart Whether to restart the server with the restored configuration.
+     * @throws Exception If the configuration could not be restored or the server did not restart.
+     */
+    protected void restoreConfiguration(boolean restart) throws Exception {
+
+        if (!backedUpFiles.isEmpty()) {
+            getServerConfigurationManager().restoreToLastConfiguration(restart);
+            backedUpFiles.clear();
+        }
+    }
+
+    protected ServerConfigurationManager getServerConfigurationManager() throws Exception {
+
+        if (serverConfigurationManager == null) {
+            serverConfigurationManager = new ServerConfigurationManager(isServer);
+        }
+        return serverConfigurationManager;
+    }
+
+    /**
+     * Client with a browser session of its own for the worker. The cookies of the previous session of the worker
+     * are cleared, so every invocation goes through a fresh login.
+     *
+     * @param worker Worker index.
+     * @return Session client of the worker.
+     */
+    protected CloseableHttpClient getNewSessionClient(int worker) {
+
+        cookieStores[worker].clear();
+        return sessionClients[worker];
+    }
+
+    /**
+     * Write the reports, delete the provisioned applications and release the clients.
+     *
+     * @param reportName Name of the report.
+     * @throws Exception If an error occurred while cleaning up.
+     */
+    protected void finishLoadTest(String reportName) throws Exception {
+
+        try {
+            if (!results.isEmpty()) {
+                LoadTestReporter.report(reportName, results);
+                if (serverStatisticsRecorder != null) {
+                    synchronized (results) {
+                        serverStatisticsRecorder.writeReport(reportName, results);
+                    }
+                }
+            }
+            for (LoadTestApplication application : applications) {
+                deleteApp(application.getId());
+            }
+            applications.clear();
+        } finally {
+            if (sessionClients != null) {
+                for (CloseableHttpClient sessionClient : sessionClients) {
+                    sessionClient.close();
+                }
+            }
+            loadClient.close();
+            connectionManager.close();
+            restClient.closeHttpClient();
+        }
+    }
+
+    /**
+     * Send a token request authenticated with the client credentials of the application.
+     *
+     * @param application Application the token is requested for.
+     * @param parameters  Grant specific request parameters.
+     * @return Parsed token response.
+     * @throws Exception If the request failed or the token endpoint did not respond with 200 OK.
+     */
+    protected JSONObject requestToken(LoadTestApplication application, List<NameValuePair> parameters)
+            throws Exception {
+
+        HttpPost request = new HttpPost(tokenEndpoint);
+        request.setHeader(OAuth2Constant.AUTHORIZATION_HEADER, "Basic " +
+                getBase64EncodedString(application.getClientId(), application.getClientSecret()));
+        request.setEntity(new UrlEncodedFormEntity(parameters, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse response = loadClient.execute(request)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new IOException("Token request failed with status " +
+                        response.getStatusLine().getStatusCode() + ": " + body);
+            }
+            return (JSONObject) new JSONParser().parse(body);
+        }
+    }
+
+    /**
+     * Introspect a token, authenticated as the admin of the tenant.
+     *
+     * @param token Token to introspect.
+     * @return Parsed introspection response.
+     * @throws Exception If the request failed or the introspection endpoint did not respond with 200 OK.
+     */
+    protected JSONObject introspectToken(String token) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("token", token));
+        HttpPost request = new HttpPost(introspectionEndpoint);
+        request.setHeader(OAuth2Constant.AUTHORIZATION_HEADER, "Basic " + getBase64EncodedString(
+                tenantInfo.getTenantAdmin().getUserName(), tenantInfo.getTenantAdmin().getPassword()));
+        request.setEntity(new UrlEncodedFormEntity(parameters, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse response = loadClient.execute(request)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new IOException("Introspection request failed with status " +
+                        response.getStatusLine().getStatusCode() + ": " + body);
+            }
+            return (JSONObject) new JSONParser().parse(body);
+        }
+    }
+
+    /**
+     * Revoke an access token, authenticated with the client credentials of the application it was issued to.
+     *
+     * @param application Application the token was issued to.
+     * @param token       Access token to revoke.
+     * @throws Exception If the request failed or the revocation endpoint did not respond with 200 OK.
+     */
+    protected void revokeToken(LoadTestApplication application, String token) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("token", token));
+        parameters.add(new BasicNameValuePair("token_type_hint", OAuth2Constant.ACCESS_TOKEN));
+        HttpPost request = new HttpPost(revocationEndpoint);
+        request.setHeader(OAuth2Constant.AUTHORIZATION_HEADER, "Basic " +
+                getBase64EncodedString(application.getClientId(), application.getClientSecret()));
+        request.setEntity(new UrlEncodedFormEntity(parameters, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse response = loadClient.execute(request)) {
+            EntityUtils.consume(response.getEntity());
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new IOException("Revocation request failed with status " +
+                        response.getStatusLine().getStatusCode());
+            }
+        }
+    }
+
+    /**
+     * Fail the invocation if the token response does not carry an access token.
+     *
+     * @param tokenResponse Parsed token response.
+     * @throws IOException If the access token is missing.
+     */
+    protected static void assertAccessToken(JSONObject tokenResponse) throws IOException {
+
+        if (tokenResponse.get(OAuth2Constant.ACCESS_TOKEN) == null) {
+            throw new IOException("Access token not found in the token response.");
+        }
+    }
+
+    /**
+     * Request a token with the resource owner password grant for the login user.
+     *
+     * @param application Application the token is requested for.
+     * @return Parsed token response.
+     * @throws Exception If the request failed.
+     */
+    protected JSONObject requestPasswordGrantToken(LoadTestApplication application) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER));
+        parameters.add(new BasicNameValuePair("username", loginUserName));
+        parameters.add(new BasicNameValuePair("password", loginPassword));
+        parameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_SCOPE, OAuth2Constant.OAUTH2_SCOPE_OPENID));
+        return requestToken(application, parameters);
+    }
+
+    /**
+     * Run the browser part of the authorization code flow with PKCE for the login user: the authorization request,
+     * the login form post and the redirect back to the authorize endpoint. Consent is skipped for the provisioned
+     * applications, so the last hop redirects to the callback URL with the code.
+     *
+     * @param sessionClient Client holding the browser session of the worker.
+     * @param application   Application the code is requested for.
+     * @param codeVerifier  PKCE code verifier.
+     * @return Authorization code.
+     * @throws Exception If any hop of the flow failed.
+     */
+    protected String requestAuthorizationCode(CloseableHttpClient sessionClient, LoadTestApplication application,
+                                              String codeVerifier) throws Exception {
+
+        return requestAuthorizationCode(sessionClient, application, codeVerifier, Collections.emptyList());
+    }
+
+    /**
+     * Run the browser part of the authorization code flow with PKCE for the login user, with additional parameters
+     * in the authorization request, such as {@code acr_values}.
+     *
+     * @param sessionClient        Client holding the browser session of the worker.
+     * @param application          Application the code is requested for.
+     * @param codeVerifier         PKCE code verifier.
+     * @param additionalParameters Additional parameters of the authorization request.
+     * @return Authorization code.
+     * @throws Exception If any hop of the flow failed.
+     */
+    protected String requestAuthorizationCode(CloseableHttpClient sessionClient, LoadTestApplication application,
+                                              String codeVerifier, List<NameValuePair> additionalParameters)
+            throws Exception {
+
+        List<NameValuePair> authorizeParameters = new ArrayList<>(additionalParameters);
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_RESPONSE_TYPE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CODE));
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_CLIENT_ID, application.getClientId()));
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_REDIRECT_URI, LOAD_TEST_CALLBACK_URL));
+        authorizeParameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_SCOPE,
+                OAuth2Constant.OAUTH2_SCOPE_OPENID));
+        authorizeParameters.add(new BasicNameValuePair(CODE_CHALLENGE, getPKCECodeChallenge(codeVerifier)));
+        authorizeParameters.add(new BasicNameValuePair(CODE_CHALLENGE_METHOD, CODE_CHALLENGE_METHOD_S256));
+        String location = postForLocation(sessionClient, authorizeEndpoint, authorizeParameters);
+        String sessionDataKey = DataExtractUtil.getParamFromURIString(location, OAuth2Constant.SESSION_DATA_KEY);
+        if (sessionDataKey == null) {
+            throw new IOException("sessionDataKey not found in the authorize response: " + location);
+        }
+
+        List<NameValuePair> loginParameters = new ArrayList<>();
+        loginParameters.add(new BasicNameValuePair("username", loginUserName));
+        loginParameters.add(new BasicNameValuePair("password", loginPassword));
+        loginParameters.add(new BasicNameValuePair(OAuth2Constant.SESSION_DATA_KEY, sessionDataKey));
+        location = postForLocation(sessionClient, commonAuthEndpoint, loginParameters);
+
+        location = getForLocation(sessionClient, location);
+        String code = DataExtractUtil.getParamFromURIString(location, OAuth2Constant.AUTHORIZATION_CODE_NAME);
+        if (code == null) {
+            throw new IOException("Authorization code not found in the redirect: " + location);
+        }
+        return code;
+    }
+
+    /**
+     * Exchange an authorization code obtained with PKCE for tokens.
+     *
+     * @param application  Application the code was issued to.
+     * @param code         Authorization code.
+     * @param codeVerifier PKCE code verifier the code challenge was derived from.
+     * @return Parsed token response.
+     * @throws Exception If the request failed.
+     */
+    protected JSONObject requestAuthorizationCodeGrantToken(LoadTestApplication application, String code,
+                                                            String codeVerifier) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE));
+        parameters.add(new BasicNameValuePair(OAuth2Constant.AUTHORIZATION_CODE_NAME, code));
+        parameters.add(new BasicNameValuePair(OAuth2Constant.OAUTH2_REDIRECT_URI, LOAD_TEST_CALLBACK_URL));
+        parameters.add(new BasicNameValuePair(CODE_VERIFIER, codeVerifier));
+        return requestToken(application, parameters);
+    }
+
+    /**
+     * Generate a PKCE code verifier.
+     *
+     * @return Code verifier.
+     */
+    protected static String getPKCECodeVerifier() {
+
+        return (UUID.randomUUID() + UUID.randomUUID().toString()).replaceAll("-", "");
+    }
+
+    private static String getPKCECodeChallenge(String codeVerifier) throws NoSuchAlgorithmException {
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(codeVerifier.getBytes(StandardCharsets.US_ASCII));
+        return new String(Base64.encodeBase64URLSafe(hash), StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Post a form and return the redirect location of the response.
+     *
+     * @param client     Client to send the request with.
+     * @param url        URL to post to.
+     * @param parameters Form parameters.
+     * @return Redirect location.
+     * @throws IOException If the request failed or the response was not a redirect.
+     */
+    protected String postForLocation(CloseableHttpClient client, String url, List<NameValuePair> parameters)
+            throws IOException {
+
+        HttpPost request = new HttpPost(url);
+        request.setHeader("User-Agent", OAuth2Constant.USER_AGENT);
+        request.setEntity(new UrlEncodedFormEntity(parameters, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse response = client.execute(request)) {
+            return getLocation(response, url);
+        }
+    }
+
+    /**
+     * Send a GET request and return the redirect location of the response.
+     *
+     * @param client Client to send the request with.
+     * @param url    URL to get.
+     * @return Redirect location.
+     * @throws IOException If the request failed or the response was not a redirect.
+     */
+    protected String getForLocation(CloseableHttpClient client, String url) throws IOException {
+
+        HttpGet request = new HttpGet(url);
+        request.setHeader("User-Agent", OAuth2Constant.USER_AGENT);
+        try (CloseableHttpResponse response = client.execute(request)) {
+            return getLocation(response, url);
+        }
+    }
+
+    private static String getLocation(HttpResponse response, String url) throws IOException {
+
+        EntityUtils.consume(response.getEntity());
+        Header location = response.getFirstHeader(OAuth2Constant.HTTP_RESPONSE_HEADER_LOCATION);
+        if (location == null) {
+            throw new IOException("No redirect from " + url + ". Status: " +
+                    response.getStatusLine().getStatusCode());
+        }
+        return location.getValue();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.oauth2;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.json.simple.JSONObject;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test of the /oauth2/token endpoint. Each grant type is driven on its own with the configured load profile so
+ * that the latency percentiles and throughput in the report can be attributed to a single grant.
+ * <p>
+ * Grants can be selected with {@code -Dperf.oauth2.grants=client_credentials,password}. The authorization code grant
+ * runs the complete browser flow for every invocation and reports the token exchange separately from the flow.
+ */
+public class OAuth2TokenEndpointLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "oauth2-token-endpoint";
+    private static final String GRANTS = "oauth2.grants";
+    private static final String AUTHORIZATION_CODE_PKCE = "authorization_code_pkce";
+    private static final String AUTHORIZATION_CODE_FLOW = "authorization_code_pkce_flow";
+
+    private List<String> enabledGrants;
+    private String[] refreshTokens;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        enabledGrants = LoadTestConfig.getList(GRANTS, OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER, OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE);
+        provisionApplications("perf-token-app", Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS, OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN));
+        refreshTokens = new String[loadTestConfig.getConcurrency()];
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        finishLoadTest(REPORT_NAME);
+    }
+
+    @Test(groups = "wso2.is", description = "Load test the client credentials grant.")
+    public void testClientCredentialsGrant() throws Exception {
+
+        skipIfDisabled(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS);
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS,
+                worker -> assertAccessToken(requestToken(getApplication(worker), parameters)));
+    }
+
+    @Test(groups = "wso2.is", description = "Load test the resource owner password grant.",
+            dependsOnMethods = "testClientCredentialsGrant", alwaysRun = true)
+    public void testPasswordGrant() throws Exception {
+
+        skipIfDisabled(OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER);
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER,
+                worker -> assertAccessToken(requestPasswordGrantToken(getApplication(worker))));
+    }
+
+    @Test(groups = "wso2.is", description = "Load test the refresh token grant.",
+            dependsOnMethods = "testPasswordGrant", alwaysRun = true)
+    public void testRefreshTokenGrant() throws Exception {
+
+        skipIfDisabled(OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN);
+        // Every worker keeps its own refresh token chain so that token renewal never races between workers.
+        for (int worker = 0; worker < refreshTokens.length; worker++) {
+            refreshTokens[worker] = getRefreshToken(requestPasswordGrantToken(getApplication(worker)));
+        }
+
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN, worker -> {
+            List<NameValuePair> parameters = new ArrayList<>();
+            parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN));
+            parameters.add(new BasicNameValuePair(OAuth2Constant.REFRESH_TOKEN, refreshTokens[worker]));
+            JSONObject tokenResponse = requestToken(getApplication(worker), parameters);
+            assertAccessToken(tokenResponse);
+            refreshTokens[worker] = getRefreshToken(tokenResponse);
+        });
+    }
+
+    @Test(groups = "wso2.is", description = "Load test the authorization code grant with PKCE.",
+            dependsOnMethods = "testRefreshTokenGrant", alwaysRun = true)
+    public void testAuthorizationCodeGrantWithPKCE() throws Exception {
+
+        skipIfDisabled(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE);
+        runAuthorizationCodeLoad(AUTHORIZATION_CODE_FLOW, AUTHORIZATION_CODE_PKCE, loadTestConfig.getMaxErrorRatio());
+    }
+
+    private void skipIfDisabled(String grantType) {
+
+        if (!enabledGrants.contains(grantType)) {
+            throw new SkipException(grantType + " grant is not enabled for this run.");
+        }
+    }
+
+    private static String getRefreshToken(JSONObject tokenResponse) throws IOException {
+
+        Object refreshToken = tokenResponse.get(OAuth2Constant.REFRESH_TOKEN);
+        if (refreshToken == null) {
+            throw new IOException("Refresh token not found in the token response.");
+        }
+        return refreshToken.toString();
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.oauth2;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AccessTokenConfiguration;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.OpenIDConnectConfiguration;
+import org.wso2.identity.integration.test.utils.CommonConstants;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads the introspection and JWKS endpoints the way API gateways and resource servers do: every gateway request
+ * introspects the token it carries and every resource server fetches the JWKS to validate JWT tokens.
+ * <p>
+ * Opaque and JWT access tokens are introspected while active and after they were revoked, and while the tokens are
+ * being revoked and reissued, which invalidates the cached tokens. The runs are repeated with the OAuth cache enabled
+ * and disabled, selected with {@code -Dperf.introspection.oauth.cache=enabled,disabled}, for the super tenant and a
+ * tenant. The share of the introspections that first revoke and reissue the token of the worker is set with
+ * {@code -Dperf.introspection.revocation.ratio}.
+ * <p>
+ * The report gives the latency seen by the client, and the server report gives the server side processing time per
+ * request and the hit ratio of the OAuth cache for every run.
+ */
+public class TokenIntrospectionLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "token-introspection";
+    private static final String OAUTH_CACHE_MODES = "introspection.oauth.cache";
+    private static final String REVOCATION_RATIO = "introspection.revocation.ratio";
+    private static final String OAUTH_CACHE_ENABLED = "enabled";
+    private static final String OAUTH_CACHE_DISABLED = "disabled";
+    private static final String OPAQUE = "opaque";
+    private static final String JWT = "JWT";
+    private static final String JWKS_ENDPOINT = "https://localhost:" + CommonConstants.IS_DEFAULT_HTTPS_PORT +
+            "/oauth2/jwks";
+    private static final long TOKEN_EXPIRY_SECONDS = 7200L;
+
+    private final TestUserMode userMode;
+    private final Map<String, TokenSet> tokenSets = new LinkedHashMap<>();
+    private String jwksEndpoint;
+
+    @DataProvider(name = "configProvider")
+    public static Object[][] configProvider() {
+
+        return new Object[][]{{TestUserMode.SUPER_TENANT_ADMIN}, {TestUserMode.TENANT_ADMIN}};
+    }
+
+    @Factory(dataProvider = "configProvider")
+    public TokenIntrospectionLoadTestCase(TestUserMode userMode) {
+
+        this.userMode = userMode;
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(userMode);
+        jwksEndpoint = getTenantQualifiedURL(JWKS_ENDPOINT, tenantInfo.getDomain());
+
+        List<String> grantTypes = Collections.singletonList(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS);
+        provisionApplications("perf-introspection-opaque-app", grantTypes);
+        tokenSets.put(OPAQUE, new TokenSet(new ArrayList<>(applications)));
+        List<LoadTestApplication> jwtApplications = new ArrayList<>();
+        for (int i = 0; i < tokenSets.get(OPAQUE).applications.size(); i++) {
+            LoadTestApplication application = provisionApplication("perf-introspection-jwt-app-" + i, grantTypes);
+            OpenIDConnectConfiguration oidcConfig = restClient.getOIDCInboundDetails(application.getId());
+            AccessTokenConfiguration accessTokenConfig = new AccessTokenConfiguration().type(JWT);
+            accessTokenConfig.setUserAccessTokenExpiryInSeconds(TOKEN_EXPIRY_SECONDS);
+            accessTokenConfig.setApplicationAccessTokenExpiryInSeconds(TOKEN_EXPIRY_SECONDS);
+            oidcConfig.setAccessToken(accessTokenConfig);
+            restClient.updateInboundDetailsOfApplication(application.getId(), oidcConfig, "oidc");
+            // Kept with the other applications, so they are deleted when the load test finishes.
+            applications.add(application);
+            jwtApplications.add(application);
+        }
+        tokenSets.put(JWT, new TokenSet(jwtApplications));
+        recordServerStatistics();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME + "-" + tenantInfo.getDomain());
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure introspection and JWKS with each OAuth cache mode.")
+    public void testIntrospection() throws Exception {
+
+        String baseToml = readConfiguration("token_introspection.toml");
+        for (String oauthCacheMode : LoadTestConfig.getList(OAUTH_CACHE_MODES, OAUTH_CACHE_ENABLED,
+                OAUTH_CACHE_DISABLED)) {
+            if (!OAUTH_CACHE_ENABLED.equals(oauthCacheMode) && !OAUTH_CACHE_DISABLED.equals(oauthCacheMode)) {
+                throw new IllegalArgumentException("Unknown OAuth cache mode: " + oauthCacheMode + ". Available " +
+                        "modes: " + OAUTH_CACHE_ENABLED + ", " + OAUTH_CACHE_DISABLED);
+            }
+            applyConfigurationAndRestart(baseToml, OAUTH_CACHE_DISABLED.equals(oauthCacheMode) ?
+                    String.format("%n[cache.oauth_cache]%nenable = false%n") : "");
+
+            runIntrospection("_oauth_cache_" + oauthCacheMode);
+        }
+    }
+
+    private void runIntrospection(String suffix) throws Exception {
+
+        runLoad("jwks" + suffix, worker -> getJWKS());
+        for (Map.Entry<String, TokenSet> tokenSet : tokenSets.entrySet()) {
+            String tokenType = tokenSet.getKey().toLowerCase();
+            TokenSet tokens = tokenSet.getValue();
+            tokens.issueTokens();
+            runLoad("introspect_" + tokenType + "_active" + suffix,
+                    worker -> assertActive(introspectToken(tokens.getActiveToken()), true));
+            runLoad("introspect_" + tokenType + "_revoked" + suffix,
+                    worker -> assertActive(introspectToken(tokens.getRevokedToken()), false));
+            runRevocationLoad("introspect_" + tokenType + "_during_revocation" + suffix, tokens);
+        }
+    }
+
+    /**
+     * Introspect the token of the worker, revoking and reissuing it first for the configured share of the
+     * invocations. The complete invocations are reported under the given name and the introspections alone under
+     * the name with the {@code _introspection} suffix. The token of an application is shared by the workers of the
+     * application, so an introspection may find it revoked by another worker.
+     */
+    private void runRevocationLoad(String name, TokenSet tokens) throws InterruptedException {
+
+        double revocationRatio = LoadTestConfig.getDouble(REVOCATION_RATIO, 0.1);
+        LoadTestResult introspection = new LoadTestResult(name + "_introspection");
+        introspection.setMeasuredNanos(loadTestConfig.getDurationNanos());
+
+        runLoad(name, worker -> {
+            int applicationIndex = worker % tokens.applications.size();
+            String token = tokens.activeTokens.get(applicationIndex);
+            if (ThreadLocalRandom.current().nextDouble() < revocationRatio) {
+                LoadTestApplication application = tokens.applications.get(applicationIndex);
+                revokeToken(application, token);
+                token = tokens.issueToken(application);
+                tokens.activeTokens.set(applicationIndex, token);
+            }
+
+            boolean measured = loadGenerator.isMeasuring();
+            long startNanos = System.nanoTime();
+            try {
+                if (introspectToken(token).get("active") == null) {
+                    throw new IOException("Introspection response does not state whether the token is active.");
+                }
+            } catch (Exception e) {
+                if (measured) {
+                    introspection.recordError();
+                }
+                throw e;
+            }
+            if (measured) {
+                introspection.recordSuccess(startNanos, startNanos, System.nanoTime());
+            }
+        });
+        results.add(introspection);
+    }
+
+    private void getJWKS() throws Exception {
+
+        HttpGet request = new HttpGet(jwksEndpoint);
+        try (CloseableHttpResponse response = loadClient.execute(request)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new IOException("JWKS request failed with status " +
+                        response.getStatusLine().getStatusCode() + ": " + body);
+            }
+            if (((JSONObject) new JSONParser().parse(body)).get("keys") == null) {
+                throw new IOException("Keys not found in the JWKS response.");
+            }
+        }
+    }
+
+    private static void assertActive(JSONObject introspection, boolean expected) throws IOException {
+
+        if (!Boolean.valueOf(expected).equals(introspection.get("active"))) {
+            throw new IOException("Introspected token is expected to be " + (expected ? "active" : "inactive") +
+                    " but the response was: " + introspection.toJSONString());
+        }
+    }
+
+    /**
+     * Active and revoked tokens of the applications issuing one token type, one of each per application.
+     */
+    private class TokenSet {
+
+        private final List<LoadTestApplication> applications;
+        private final List<String> activeTokens = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> revokedTokens = new ArrayList<>();
+
+        TokenSet(List<LoadTestApplication> applications) {
+
+            this.applications = applications;
+        }
+
+        /**
+         * Issue and revoke a token for every application, then issue the active one. Revoking the earlier token
+         * makes sure the active token is a new one for opaque tokens, which are otherwise reused until they expire.
+         */
+        void issueTokens() throws Exception {
+
+            activeTokens.clear();
+            revokedTokens.clear();
+            for (LoadTestApplication application : applications) {
+                String revokedToken = issueToken(application);
+                revokeToken(application, revokedToken);
+                revokedTokens.add(revokedToken);
+                activeTokens.add(issueToken(application));
+            }
+        }
+
+        String issueToken(LoadTestApplication application) throws Exception {
+
+            List<NameValuePair> parameters = new ArrayList<>();
+            parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+            JSONObject tokenResponse = requestToken(application, parameters);
+            assertAccessToken(tokenResponse);
+            return (String) tokenResponse.get(OAuth2Constant.ACCESS_TOKEN);
+        }
+
+        String getActiveToken() {
+
+            return activeTokens.get(ThreadLocalRandom.current().nextInt(activeTokens.size()));
+        }
+
+        String getRevokedToken() {
+
+            return revokedTokens.get(ThreadLocalRandom.current().nextInt(revokedTokens.size()));
+        }
+    }
+}
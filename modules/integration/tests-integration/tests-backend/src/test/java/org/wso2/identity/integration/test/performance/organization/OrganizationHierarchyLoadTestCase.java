@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.organization;
+
+import org.apache.commons.io.FileUtils;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.FixedCountRunner;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.user.common.model.Email;
+import org.wso2.identity.integration.test.rest.api.user.common.model.Name;
+import org.wso2.identity.integration.test.rest.api.user.common.model.UserObject;
+import org.wso2.identity.integration.test.restclients.OrgDiscoveryConfigRestClient;
+import org.wso2.identity.integration.test.restclients.OrgMgtRestClient;
+import org.wso2.identity.integration.test.restclients.SCIM2RestClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures organization management on a wide and deep organization hierarchy, so slowdowns that depend on the depth
+ * of an organization show up in the report.
+ * <p>
+ * The hierarchy is built level by level, creating the organizations of a level in parallel, and the creation of
+ * every level is reported as {@code org_create_depth_<depth>}. Then, for every depth, the organization switch grant
+ * ({@code organization_switch_depth_<depth>}) and the creation of users in the organizations of the depth
+ * ({@code sub_org_user_create_depth_<depth>}) are measured. Finally, email domains are mapped to the first level
+ * organizations and the discovery lookups of the mapped domains are measured.
+ * <p>
+ * The shape of the hierarchy is set with {@code -Dperf.org.depth=5} and {@code -Dperf.org.width=4}, the number of
+ * child organizations of every organization, and the organizations created in parallel with
+ * {@code -Dperf.org.concurrency=8}. Everything created is deleted once the class completes.
+ */
+public class OrganizationHierarchyLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "org-hierarchy";
+    private static final String DEPTH = "org.depth";
+    private static final String WIDTH = "org.width";
+    private static final String CONCURRENCY = "org.concurrency";
+    private static final String AUTHORIZED_APIS_FILE = "org_hierarchy_authorized_apis.json";
+    private static final String EMAIL_DOMAIN = "emailDomain";
+    private static final String EMAIL_DOMAIN_SUFFIX = ".perf.example.com";
+    private static final String USER_PASSWORD = "PerfOrgUser@123";
+    private static final String ENABLE_EMAIL_DOMAIN_DISCOVERY =
+            "{\"properties\":[{\"key\":\"emailDomain.enable\",\"value\":\"true\"}]}";
+
+    private OrgMgtRestClient orgMgtRestClient;
+    private SCIM2RestClient scim2RestClient;
+    private OrgDiscoveryConfigRestClient orgDiscoveryConfigRestClient;
+    private volatile String m2mToken;
+    private int concurrency;
+    private boolean discoveryConfigAdded;
+    // Organizations of every depth, starting from the first level below the root organization.
+    private final List<List<String>> levels = new ArrayList<>();
+    private final Map<String, String> parentOrgIds = new ConcurrentHashMap<>();
+    private final Map<String, String> switchedTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> subOrgUserOrgIds = new ConcurrentHashMap<>();
+    private final List<String> emailDomains = new ArrayList<>();
+    private final AtomicInteger nextUserIndex = new AtomicInteger();
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        concurrency = LoadTestConfig.getInt(CONCURRENCY, 8);
+        String authorizedAPIs = FileUtils.readFileToString(new File(getISResourceLocation() + File.separator +
+                "performance" + File.separator + AUTHORIZED_APIS_FILE), StandardCharsets.UTF_8);
+        orgMgtRestClient = new OrgMgtRestClient(isServer, tenantInfo, serverURL, new JSONObject(authorizedAPIs));
+        scim2RestClient = new SCIM2RestClient(serverURL, tenantInfo);
+        orgDiscoveryConfigRestClient = new OrgDiscoveryConfigRestClient(serverURL, tenantInfo);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            if (discoveryConfigAdded) {
+                orgDiscoveryConfigRestClient.deleteOrganizationDiscoveryConfig();
+            }
+            refreshTokens();
+            runInParallel("sub_org_user_delete", new ArrayList<>(subOrgUserOrgIds.keySet()), userId ->
+                    scim2RestClient.deleteSubOrgUser(userId, getSwitchedToken(subOrgUserOrgIds.get(userId))));
+            // Organizations can only be deleted once their child organizations are deleted.
+            for (int depth = levels.size(); depth > 1; depth--) {
+                runInParallel("org_delete_depth_" + depth, levels.get(depth - 1), orgId ->
+                        orgMgtRestClient.deleteSubOrganization(orgId, parentOrgIds.get(orgId)));
+            }
+            if (!levels.isEmpty()) {
+                runInParallel("org_delete_depth_1", levels.get(0), orgId -> orgMgtRestClient.deleteOrganization(orgId));
+            }
+        } finally {
+            orgDiscoveryConfigRestClient.closeHttpClient();
+            scim2RestClient.closeHttpClient();
+            orgMgtRestClient.closeHttpClient();
+            finishLoadTest(REPORT_NAME);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Build the organization hierarchy and measure the creation throughput.")
+    public void testBuildHierarchy() throws Exception {
+
+        int depth = LoadTestConfig.getInt(DEPTH, 5);
+        int width = LoadTestConfig.getInt(WIDTH, 4);
+        List<String> parents = Collections.singletonList(null);
+        for (int level = 1; level <= depth; level++) {
+            refreshTokens();
+            List<String> organizations = Collections.synchronizedList(new ArrayList<>());
+            List<String[]> children = new ArrayList<>();
+            for (String parent : parents) {
+                for (int i = 0; i < width; i++) {
+                    children.add(new String[]{parent, "perf-org-" + level + "-" + children.size()});
+                }
+            }
+            results.add(runInParallel("org_create_depth_" + level, children, child -> {
+                String parentOrgId = child[0];
+                String orgId = parentOrgId == null ? orgMgtRestClient.addOrganization(child[1]) :
+                        orgMgtRestClient.addSubOrganization(child[1], parentOrgId, getSwitchedToken(parentOrgId));
+                organizations.add(orgId);
+                if (parentOrgId != null) {
+                    parentOrgIds.put(orgId, parentOrgId);
+                }
+            }));
+            levels.add(new ArrayList<>(organizations));
+            log.info("Created " + organizations.size() + " organizations at depth " + level + ".");
+            Assert.assertFalse(organizations.isEmpty(), "No organization was created at depth " + level + ".");
+            parents = levels.get(level - 1);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the organization switch grant at each depth.",
+            dependsOnMethods = "testBuildHierarchy")
+    public void testOrganizationSwitchByDepth() throws Exception {
+
+        for (int depth = 1; depth <= levels.size(); depth++) {
+            refreshTokens();
+            List<String> organizations = levels.get(depth - 1);
+            runLoad("organization_switch_depth_" + depth, worker -> orgMgtRestClient.switchM2MToken(
+                    organizations.get(ThreadLocalRandom.current().nextInt(organizations.size())), m2mToken));
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the user creation in the organizations of each depth.",
+            dependsOnMethods = "testBuildHierarchy")
+    public void testSubOrgUserCreationByDepth() throws Exception {
+
+        for (int depth = 1; depth <= levels.size(); depth++) {
+            refreshTokens();
+            List<String> organizations = levels.get(depth - 1);
+            // The switched tokens are obtained up front, so only the user creation is measured.
+            runInParallel("organization_switch_warm_up_depth_" + depth, organizations, this::getSwitchedToken);
+            runLoad("sub_org_user_create_depth_" + depth, worker -> {
+                String orgId = organizations.get(ThreadLocalRandom.current().nextInt(organizations.size()));
+                String userName = "perforguser" + nextUserIndex.getAndIncrement();
+                UserObject user = new UserObject()
+                        .userName(userName)
+                        .password(USER_PASSWORD)
+                        .name(new Name().givenName(userName).familyName("PerfOrg"));
+                user.addEmail(new Email().value(userName + "@perf.example.com"));
+                subOrgUserOrgIds.put(scim2RestClient.createSubOrgUser(user, getSwitchedToken(orgId)), orgId);
+            });
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the discovery lookups of the first level organizations.",
+            dependsOnMethods = "testBuildHierarchy")
+    public void testDiscoveryLookups() throws Exception {
+
+        orgDiscoveryConfigRestClient.addOrganizationDiscoveryConfig(ENABLE_EMAIL_DOMAIN_DISCOVERY);
+        discoveryConfigAdded = true;
+        List<String> organizations = levels.get(0);
+        for (int i = 0; i < organizations.size(); i++) {
+            String emailDomain = "perf-org-" + i + EMAIL_DOMAIN_SUFFIX;
+            orgDiscoveryConfigRestClient.mapDiscoveryAttributes(organizations.get(i),
+                    "{\"attributes\":[{\"type\":\"" + EMAIL_DOMAIN + "\",\"values\":[\"" + emailDomain + "\"]}]}");
+            emailDomains.add(emailDomain);
+        }
+
+        runLoad("discovery_attributes_of_org", worker -> orgDiscoveryConfigRestClient.getDiscoveryAttributes(
+                organizations.get(ThreadLocalRandom.current().nextInt(organizations.size()))));
+        runLoad("discovery_check_mapped_domain", worker -> {
+            if (orgDiscoveryConfigRestClient.isDiscoveryAttributeAvailable(EMAIL_DOMAIN,
+                    emailDomains.get(ThreadLocalRandom.current().nextInt(emailDomains.size())))) {
+                throw new IOException("Mapped email domain reported as available.");
+            }
+        });
+    }
+
+    private String getSwitchedToken(String orgId) throws Exception {
+
+        String switchedToken = switchedTokens.get(orgId);
+        if (switchedToken == null) {
+            switchedToken = orgMgtRestClient.switchM2MToken(orgId, m2mToken);
+            switchedTokens.put(orgId, switchedToken);
+        }
+        return switchedToken;
+    }
+
+    /**
+     * Obtain a new M2M token and drop the tokens switched with the previous one. Called at the start of every
+     * phase, so a long running test never uses a token that expired in an earlier phase.
+     *
+     * @throws Exception If the token could not be obtained.
+     */
+    private void refreshTokens() throws Exception {
+
+        m2mToken = orgMgtRestClient.getM2MAccessToken();
+        switchedTokens.clear();
+    }
+
+    /**
+     * Run the task for every item with the configured concurrency.
+     *
+     * @param name  Name of the result.
+     * @param items Items to run the task for.
+     * @param task  Task to run.
+     * @return Latencies of the invocations of the task.
+     * @throws InterruptedException If interrupted while waiting for the tasks.
+     */
+    private <T> LoadTestResult runInParallel(String name, List<T> items, ItemTask<T> task)
+            throws InterruptedException {
+
+        return FixedCountRunner.run(name, items.size(), concurrency, (worker, index) -> task.run(items.get(index)));
+    }
+
+    /**
+     * Operation run for one item of a list.
+     */
+    private interface ItemTask<T> {
+
+        void run(T item) throws Exception;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.profile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Validates the sizing profiles selected with {@code [performance] profile} in deployment.toml. The grants are
+ * measured with the current configuration and then after restarting the server with each selected profile, and all
+ * runs are written to the same report.
+ * <p>
+ * Before measuring a profile, every value the profile sets in infer.json is looked up in the rendered configuration,
+ * to make sure the profile was applied: the connectors and executors in catalina-server.xml, the pool options in
+ * master-datasources.xml and the cache capacities in identity.xml. The profile configurations enable the shared
+ * executor, as the connectors ignore their own thread counts once it is enabled.
+ * <p>
+ * Profiles can be selected with {@code -Dperf.deployment.profiles=small,large}.
+ */
+public class DeploymentProfileLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "deployment-profile";
+    private static final String PROFILES = "deployment.profiles";
+    private static final String CURRENT_CONFIGURATION = "current";
+    private static final String PROFILE_KEY = "performance.profile";
+    private static final String TRANSPORT_PREFIX = "transport.";
+    private static final String DATABASE_PREFIX = "database.";
+    private static final String CACHE_PREFIX = "cache.";
+    private static final String POOL_OPTIONS = ".pool_options.";
+    private static final String CAPACITY = ".capacity";
+    private static final Map<String, String> DATASOURCE_NAMES = new HashMap<>();
+    private static final Map<String, String> EXECUTOR_ATTRIBUTES = new HashMap<>();
+
+    static {
+        DATASOURCE_NAMES.put("identity_db", "WSO2_IDENTITY_DB");
+        DATASOURCE_NAMES.put("shared_db", "WSO2_SHARED_DB");
+        EXECUTOR_ATTRIBUTES.put("max_threads", "maxThreads");
+        EXECUTOR_ATTRIBUTES.put("min_spare_threads", "minSpareThreads");
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        provisionApplications("perf-profile-app", Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS, OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the grants with the current configuration.")
+    public void testCurrentConfiguration() throws Exception {
+
+        runGrants(CURRENT_CONFIGURATION);
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the grants with each deployment profile.",
+            dependsOnMethods = "testCurrentConfiguration", alwaysRun = true)
+    public void testDeploymentProfiles() throws Exception {
+
+        String carbonHome = Utils.getResidentCarbonHome();
+        JSONObject profiles = new JSONObject(FileUtils.readFileToString(new File(carbonHome + File.separator +
+                "repository" + File.separator + "resources" + File.separator + "conf" + File.separator +
+                "infer.json"), StandardCharsets.UTF_8)).getJSONObject(PROFILE_KEY);
+        for (String profile : LoadTestConfig.getList(PROFILES, "small", "medium", "large")) {
+            if (!profiles.has(profile)) {
+                throw new IllegalArgumentException("Unknown deployment profile: " + profile + ". Available profiles: " +
+                        profiles.keySet());
+            }
+            applyConfigurationAndRestart(readConfiguration("performance_profile_" + profile + ".toml"));
+            assertProfileRendered(profile, profiles.getJSONObject(profile), carbonHome);
+
+            runGrants(profile);
+        }
+    }
+
+    /**
+     * Check that every value of the profile was rendered into the configuration files of the server.
+     *
+     * @param profile    Name of the profile.
+     * @param values     Values the profile sets, by deployment.toml key.
+     * @param carbonHome Carbon home of the server.
+     * @throws Exception If a configuration file could not be read.
+     */
+    private void assertProfileRendered(String profile, JSONObject values, String carbonHome) throws Exception {
+
+        String conf = carbonHome + File.separator + "repository" + File.separator + "conf" + File.separator;
+        Document catalinaServer = parse(conf + "tomcat" + File.separator + "catalina-server.xml");
+        Document dataSources = parse(conf + "datasources" + File.separator + "master-datasources.xml");
+        Document identity = parse(conf + "identity" + File.separator + "identity.xml");
+
+        Assert.assertFalse(values.isEmpty(), "The " + profile + " deployment profile sets no values.");
+        for (String key : values.keySet()) {
+            String expected = String.valueOf(values.get(key));
+            String rendered;
+            if (key.startsWith(TRANSPORT_PREFIX)) {
+                rendered = getRenderedTransportValue(catalinaServer, key.substring(TRANSPORT_PREFIX.length()));
+            } else if (key.startsWith(DATABASE_PREFIX) && key.contains(POOL_OPTIONS)) {
+                String database = key.substring(DATABASE_PREFIX.length(), key.indexOf(POOL_OPTIONS));
+                rendered = getRenderedPoolOption(dataSources, DATASOURCE_NAMES.get(database),
+                        key.substring(key.indexOf(POOL_OPTIONS) + POOL_OPTIONS.length()));
+            } else if (key.startsWith(CACHE_PREFIX) && key.endsWith(CAPACITY)) {
+                Element cache = findElement(identity, "Cache", "name",
+                        toCacheName(key.substring(CACHE_PREFIX.length(), key.length() - CAPACITY.length())));
+                rendered = cache == null ? null : cache.getAttribute("capacity");
+            } else {
+                throw new IllegalStateException("No rendered configuration is known for " + key + " of the " +
+                        profile + " deployment profile.");
+            }
+            Assert.assertEquals(rendered, expected, "The " + profile + " deployment profile was not applied to " +
+                    key + ".");
+        }
+    }
+
+    /**
+     * Get the rendered value of a transport key, such as {@code http.properties.acceptCount} or
+     * {@code executor.max_threads}.
+     */
+    private static String getRenderedTransportValue(Document catalinaServer, String key) {
+
+        String[] parts = key.split("\\.");
+        if (parts.length == 3 && "properties".equals(parts[1])) {
+            Element connector = getConnector(catalinaServer, "https".equals(parts[0]));
+            return connector == null || !connector.hasAttribute(parts[2]) ? null : connector.getAttribute(parts[2]);
+        }
+        String executorName = "executor".equals(parts[0]) ? "tomcatThreadPool" :
+                "api".equals(parts[0]) && parts.length == 3 ? "apiThreadPool" : null;
+        String attribute = EXECUTOR_ATTRIBUTES.get(parts[parts.length - 1]);
+        if (executorName == null || attribute == null) {
+            throw new IllegalStateException("No rendered configuration is known for transport." + key + ".");
+        }
+        Element executor = findElement(catalinaServer, "Executor", "name", executorName);
+        return executor == null ? null : executor.getAttribute(attribute);
+    }
+
+    /**
+     * Get the http connector, which has no TLS configuration, or the https connector, which is the first connector
+     * with one. The API connector follows the https connector.
+     */
+    private static Element getConnector(Document catalinaServer, boolean https) {
+
+        NodeList connectors = catalinaServer.getElementsByTagName("Connector");
+        for (int i = 0; i < connectors.getLength(); i++) {
+            Element connector = (Element) connectors.item(i);
+            if (connector.getElementsByTagName("SSLHostConfig").getLength() > 0 == https) {
+                return connector;
+            }
+        }
+        return null;
+    }
+
+    private static String getRenderedPoolOption(Document dataSources, String dataSourceName, String option) {
+
+        NodeList dataSourceElements = dataSources.getElementsByTagName("datasource");
+        for (int i = 0; i < dataSourceElements.getLength(); i++) {
+            Element dataSource = (Element) dataSourceElements.item(i);
+            NodeList names = dataSource.getElementsByTagName("name");
+            if (names.getLength() > 0 && names.item(0).getTextContent().trim().equals(dataSourceName)) {
+                NodeList values = dataSource.getElementsByTagName(option);
+                return values.getLength() == 0 ? null : values.item(0).getTextContent().trim();
+            }
+        }
+        return null;
+    }
+
+    private static Element findElement(Document document, String tagName, String attribute, String value) {
+
+        NodeList elements = document.getElementsByTagName(tagName);
+        for (int i = 0; i < elements.getLength(); i++) {
+            Element element = (Element) elements.item(i);
+            if (value.equals(element.getAttribute(attribute))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convert a cache key of deployment.toml, such as {@code oauth_session_data_cache}, to the name of the cache in
+     * identity.xml, such as {@code OAuthSessionDataCache}.
+     */
+    private static String toCacheName(String key) {
+
+        StringBuilder name = new StringBuilder();
+        for (String word : key.split("_")) {
+            name.append("oauth".equals(word) ? "OAuth" : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+        }
+        return name.toString();
+    }
+
+    private static Document parse(String path) throws Exception {
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        return factory.newDocumentBuilder().parse(new File(path));
+    }
+
+    private void runGrants(String profile) throws Exception {
+
+        String suffix = "_" + profile;
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS + suffix,
+                worker -> assertAccessToken(requestToken(getApplication(worker), parameters)));
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_RESOURCE_OWNER + suffix,
+                worker -> assertAccessToken(requestPasswordGrantToken(getApplication(worker))));
+        runAuthorizationCodeLoad("authorization_code_pkce_flow" + suffix, "authorization_code_pkce" + suffix,
+                loadTestConfig.getMaxErrorRatio());
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.scim2;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.FixedCountRunner;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.restclients.SCIM2RestClient;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures SCIM2 user provisioning through the {@code /scim2/Bulk} endpoint and the user listing as the user
+ * population grows.
+ * <p>
+ * The bulk throughput is measured first: the same number of users is created with each batch size, and the latency
+ * of the bulk requests is reported as {@code bulk_create_batch_<size>}, while the users created per second for each
+ * batch size are written to {@code scim2-scale-bulk.txt} in the report directory. The population is then grown to
+ * each step with the largest batch size, and at every step the first page, a page at a deep offset and filtered
+ * pages, including a filter on several attributes, are measured with {@code _<population>} appended to the name.
+ * <p>
+ * The users are named {@code perfscim2user<n>}, and deleted through the bulk endpoint once the class completes. The
+ * population steps are set with {@code -Dperf.scim2.populations=10000,50000,100000}, the batch sizes with
+ * {@code -Dperf.scim2.bulk.sizes=10,100,500}, the users created with each batch size with
+ * {@code -Dperf.scim2.bulk.users=5000} and the concurrent bulk requests with {@code -Dperf.scim2.bulk.concurrency=4}.
+ * Batch sizes must not exceed the maximum bulk operations of the server.
+ */
+public class SCIM2ScaleLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "scim2-scale";
+    private static final String POPULATIONS = "scim2.populations";
+    private static final String BULK_SIZES = "scim2.bulk.sizes";
+    private static final String BULK_USERS = "scim2.bulk.users";
+    private static final String BULK_CONCURRENCY = "scim2.bulk.concurrency";
+    private static final String PAGE_SIZE = "scim2.page.size";
+    private static final String BULK_REQUEST_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:BulkRequest";
+    private static final String USER_SCHEMA = "urn:ietf:params:scim:schemas:core:2.0:User";
+    private static final String USER_NAME_PREFIX = "perfscim2user";
+    private static final String USER_PASSWORD = "PerfScim2@123";
+    private static final String USERS_PATH = "/Users";
+    private static final int GIVEN_NAMES = 1000;
+    private static final int FAMILY_NAMES = 100;
+    private static final String LISTED_ATTRIBUTES = "userName,name.familyName";
+
+    private SCIM2RestClient scim2RestClient;
+    private final List<String> userIds = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> bulkSummaries = new ArrayList<>();
+    private int nextUserIndex;
+    private int bulkConcurrency;
+    private int pageSize;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        scim2RestClient = new SCIM2RestClient(serverURL, tenantInfo);
+        bulkConcurrency = LoadTestConfig.getInt(BULK_CONCURRENCY, 4);
+        pageSize = LoadTestConfig.getInt(PAGE_SIZE, 50);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            writeBulkReport();
+            List<String> createdUserIds;
+            synchronized (userIds) {
+                createdUserIds = new ArrayList<>(userIds);
+            }
+            log.info("Deleting the " + createdUserIds.size() + " users of the load test.");
+            runBulk("bulk_delete", createdUserIds.size(), getLargestBatchSize(),
+                    (offset, size) -> getDeleteOperations(createdUserIds.subList(offset, offset + size)));
+            scim2RestClient.closeHttpClient();
+        } finally {
+            finishLoadTest(REPORT_NAME);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the bulk user creation throughput with each batch size.")
+    public void testBulkThroughput() throws Exception {
+
+        int users = LoadTestConfig.getInt(BULK_USERS, 5000);
+        for (String batchSize : LoadTestConfig.getList(BULK_SIZES, "10", "100", "500")) {
+            provisionUsers(users, Integer.parseInt(batchSize), "bulk_create_batch_" + batchSize);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure listing, filtering and paginating the users as they grow.",
+            dependsOnMethods = "testBulkThroughput", alwaysRun = true)
+    public void testPopulationGrowth() throws Exception {
+
+        for (String step : LoadTestConfig.getList(POPULATIONS, "10000", "50000", "100000")) {
+            int population = Integer.parseInt(step);
+            if (userIds.size() < population) {
+                provisionUsers(population - userIds.size(), getLargestBatchSize(), "bulk_create_to_" + population);
+            }
+            log.info("Measuring the user listing with " + userIds.size() + " users.");
+            runListings("_" + population);
+        }
+    }
+
+    private void runListings(String suffix) throws Exception {
+
+        int population = userIds.size();
+        runLoad("list_first_page" + suffix, worker -> assertUsersListed(
+                scim2RestClient.listUsers(1, pageSize, null, LISTED_ATTRIBUTES)));
+        // Pages in the last tenth of the users, which the user store has to skip the other users to reach.
+        int deepOffset = Math.max(1, population - population / 10);
+        runLoad("list_deep_offset" + suffix, worker -> assertUsersListed(scim2RestClient.listUsers(
+                deepOffset + ThreadLocalRandom.current().nextInt(Math.max(1, population - deepOffset - pageSize)),
+                pageSize, null, LISTED_ATTRIBUTES)));
+        runLoad("filter_user_name_eq" + suffix, worker -> assertUsersListed(scim2RestClient.listUsers(1, pageSize,
+                "userName eq " + getUserName(ThreadLocalRandom.current().nextInt(nextUserIndex)),
+                LISTED_ATTRIBUTES)));
+        runLoad("filter_user_name_sw_and_family_name_eq" + suffix, worker -> assertUsersListed(
+                scim2RestClient.listUsers(1, pageSize, "userName sw " + USER_NAME_PREFIX +
+                                " and name.familyName eq " + getFamilyName(ThreadLocalRandom.current().nextInt()),
+                        LISTED_ATTRIBUTES)));
+        runLoad("filter_user_name_ew_and_given_name_eq" + suffix, worker -> {
+            int index = ThreadLocalRandom.current().nextInt(nextUserIndex);
+            String userName = getUserName(index);
+            assertUsersListed(scim2RestClient.listUsers(1, pageSize, "userName ew " +
+                    userName.substring(userName.length() - 4) + " and name.givenName eq " + getGivenName(index),
+                    LISTED_ATTRIBUTES));
+        });
+    }
+
+    /**
+     * Create users through the bulk endpoint and report the latency of the bulk requests under the given name.
+     *
+     * @param count     Number of users to create.
+     * @param batchSize Users created with each bulk request.
+     * @param name      Name of the bulk requests in the report.
+     * @throws Exception If the bulk requests could not be completed.
+     */
+    private void provisionUsers(int count, int batchSize, String name) throws Exception {
+
+        int firstUserIndex = nextUserIndex;
+        nextUserIndex += count;
+        int usersBefore = userIds.size();
+        LoadTestResult result = runBulk(name, count, batchSize,
+                (offset, size) -> getCreateOperations(firstUserIndex + offset, size));
+        results.add(result);
+        long elapsedNanos = result.getMeasuredNanos();
+
+        int createdUsers = userIds.size() - usersBefore;
+        double usersPerSecond = createdUsers / (elapsedNanos / 1_000_000_000.0);
+        String summary = String.format(Locale.ENGLISH, "%s batch_size=%d users=%d seconds=%.1f users/s=%.1f " +
+                        "batch_p50_ms=%.1f batch_p99_ms=%.1f", name, batchSize, createdUsers, elapsedNanos / 1e9,
+                usersPerSecond, result.getPercentileMillis(50), result.getPercentileMillis(99));
+        log.info(summary);
+        bulkSummaries.add(summary);
+        Assert.assertTrue(result.getErrorRatio() <= loadTestConfig.getMaxErrorRatio(),
+                String.format("Error ratio %.4f of %s exceeds the allowed %.4f.", result.getErrorRatio(), name,
+                        loadTestConfig.getMaxErrorRatio()));
+    }
+
+    /**
+     * Send the bulk requests with the configured concurrency, and record each of them in the result.
+     *
+     * @param name       Name of the result.
+     * @param count      Number of operations.
+     * @param batchSize  Operations sent with each bulk request.
+     * @param operations Builds the operations of a bulk request from its offset and size.
+     * @return Latencies of the bulk requests, with the time taken to complete all of them as the measured time.
+     * @throws InterruptedException If interrupted while waiting for the bulk requests.
+     */
+    private LoadTestResult runBulk(String name, int count, int batchSize, BulkOperations operations)
+            throws InterruptedException {
+
+        return FixedCountRunner.run(name, (count + batchSize - 1) / batchSize, bulkConcurrency, (worker, batch) -> {
+            int offset = batch * batchSize;
+            sendBulkRequest(operations.build(offset, Math.min(batchSize, count - offset)));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sendBulkRequest(JSONArray operations) throws Exception {
+
+        JSONArray schemas = new JSONArray();
+        schemas.add(BULK_REQUEST_SCHEMA);
+        JSONObject bulkRequest = new JSONObject();
+        bulkRequest.put("schemas", schemas);
+        bulkRequest.put("Operations", operations);
+
+        JSONObject bulkResponse = scim2RestClient.sendBulkRequest(bulkRequest.toJSONString());
+        JSONArray operationResponses = (JSONArray) bulkResponse.get("Operations");
+        if (operationResponses == null) {
+            throw new IOException("Bulk request failed: " + bulkResponse.toJSONString());
+        }
+        int failedOperations = 0;
+        for (Object operationResponse : operationResponses) {
+            JSONObject operation = (JSONObject) operationResponse;
+            int status = getStatusCode(operation.get("status"));
+            if ("POST".equals(operation.get("method")) && status == 201) {
+                String location = (String) operation.get("location");
+                userIds.add(location.substring(location.lastIndexOf('/') + 1));
+            } else if (status >= 300) {
+                failedOperations++;
+            }
+        }
+        if (failedOperations > 0) {
+            throw new IOException(failedOperations + " of " + operations.size() + " bulk operations failed.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONArray getCreateOperations(int firstUserIndex, int size) {
+
+        JSONArray operations = new JSONArray();
+        for (int index = firstUserIndex; index < firstUserIndex + size; index++) {
+            JSONArray schemas = new JSONArray();
+            schemas.add(USER_SCHEMA);
+            JSONObject name = new JSONObject();
+            name.put("givenName", getGivenName(index));
+            name.put("familyName", getFamilyName(index));
+            JSONObject email = new JSONObject();
+            email.put("primary", true);
+            email.put("type", "work");
+            email.put("value", getUserName(index) + "@perf.example.com");
+            JSONArray emails = new JSONArray();
+            emails.add(email);
+
+            JSONObject user = new JSONObject();
+            user.put("schemas", schemas);
+            user.put("userName", getUserName(index));
+            user.put("password", USER_PASSWORD);
+            user.put("name", name);
+            user.put("emails", emails);
+
+            JSONObject operation = new JSONObject();
+            operation.put("method", "POST");
+            operation.put("path", USERS_PATH);
+            operation.put("bulkId", "user" + index);
+            operation.put("data", user);
+            operations.add(operation);
+        }
+        return operations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONArray getDeleteOperations(List<String> userIds) {
+
+        JSONArray operations = new JSONArray();
+        for (String userId : userIds) {
+            JSONObject operation = new JSONObject();
+            operation.put("method", "DELETE");
+            operation.put("path", USERS_PATH + "/" + userId);
+            operations.add(operation);
+        }
+        return operations;
+    }
+
+    private static int getStatusCode(Object status) {
+
+        // The status is an object with the code, or the code itself with older servers.
+        if (status instanceof JSONObject) {
+            status = ((JSONObject) status).get("code");
+        }
+        return status == null ? 0 : Integer.parseInt(status.toString());
+    }
+
+    private static void assertUsersListed(JSONObject listResponse) throws IOException {
+
+        JSONArray resources = (JSONArray) listResponse.get("Resources");
+        if (listResponse.get("totalResults") == null || resources == null || resources.isEmpty()) {
+            throw new IOException("No users listed: " + listResponse.toJSONString());
+        }
+    }
+
+    private int getLargestBatchSize() {
+
+        int largestBatchSize = 1;
+        for (String batchSize : LoadTestConfig.getList(BULK_SIZES, "10", "100", "500")) {
+            largestBatchSize = Math.max(largestBatchSize, Integer.parseInt(batchSize));
+        }
+        return largestBatchSize;
+    }
+
+    private static String getUserName(int index) {
+
+        return String.format(Locale.ENGLISH, "%s%07d", USER_NAME_PREFIX, index);
+    }
+
+    private static String getGivenName(int index) {
+
+        return "Given" + Math.floorMod(index, GIVEN_NAMES);
+    }
+
+    private static String getFamilyName(int index) {
+
+        return "Family" + Math.floorMod(index, FAMILY_NAMES);
+    }
+
+    private void writeBulkReport() throws IOException {
+
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IllegalStateException("Unable to create the report directory " +
+                    reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                REPORT_NAME + "-bulk.txt")), false, StandardCharsets.UTF_8.name())) {
+            for (String summary : bulkSummaries) {
+                report.println(summary);
+            }
+        }
+    }
+
+    /**
+     * Builds the operations of a bulk request.
+     */
+    private interface BulkOperations {
+
+        JSONArray build(int offset, int size);
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.soak;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.performance.common.LoadGenerator;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.common.ServerResourceMonitor;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AdvancedApplicationConfiguration;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.InboundProtocols;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SAML2Configuration;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SAML2ServiceProvider;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SAMLResponseSigning;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.SingleSignOnProfile;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.CommonConstants;
+import org.wso2.identity.integration.test.utils.DataExtractUtil;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cycles the login, token, refresh, revoke and logout flows of the OAuth2 and SAML SSO tests for hours, while the
+ * heap after garbage collection, the threads, the open file descriptors and the cache entries of the server are
+ * sampled over JMX. The run fails on sustained growth of any of them, and on out of memory or file descriptor
+ * exhaustion errors in the server log, so slow leaks that no functional test runs long enough to notice are caught.
+ * <p>
+ * Workers alternate between two cycles. The OAuth2 cycle logs in with the authorization code flow with PKCE,
+ * refreshes the token, revokes the refreshed access token and logs out with OIDC RP initiated logout. The SAML cycle
+ * logs in with IdP initiated SSO and logs out with IdP initiated single logout. Every cycle starts with a new
+ * browser session.
+ * <p>
+ * The duration is set with {@code -Dperf.soak.duration.minutes}, the sampling interval with
+ * {@code -Dperf.soak.sample.seconds} and the number of windows the growth is checked over with
+ * {@code -Dperf.soak.windows}. The allowed growth is set with {@code -Dperf.soak.max.heap.growth.mb},
+ * {@code -Dperf.soak.max.thread.growth}, {@code -Dperf.soak.max.fd.growth} and {@code -Dperf.soak.max.cache.growth}.
+ * The cache check is off by default, as cache entries that expire are still counted.
+ */
+public class SoakLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "soak";
+    private static final String SOAK_CYCLE = "soak_cycle";
+    private static final String OAUTH2_CYCLE = "oauth2_cycle";
+    private static final String SAML_CYCLE = "saml_cycle";
+    private static final String DURATION_MINUTES = "soak.duration.minutes";
+    private static final String SAMPLE_SECONDS = "soak.sample.seconds";
+    private static final String WINDOWS = "soak.windows";
+    private static final String MAX_HEAP_GROWTH_MB = "soak.max.heap.growth.mb";
+    private static final String MAX_THREAD_GROWTH = "soak.max.thread.growth";
+    private static final String MAX_FD_GROWTH = "soak.max.fd.growth";
+    private static final String MAX_CACHE_GROWTH = "soak.max.cache.growth";
+    private static final int DEFAULT_DURATION_MINUTES = 240;
+    private static final int DEFAULT_SAMPLE_SECONDS = 30;
+    private static final int DEFAULT_WINDOWS = 5;
+    private static final int DEFAULT_APPLICATION_COUNT = 10;
+    private static final String OIDC_LOGOUT_ENDPOINT = "https://localhost:" + CommonConstants.IS_DEFAULT_HTTPS_PORT +
+            "/oidc/logout";
+    private static final String SAML_SSO_ENDPOINT = "https://localhost:" + CommonConstants.IS_DEFAULT_HTTPS_PORT +
+            "/samlsso";
+    private static final String SAML_ACS_URL = "https://localhost/perf/saml/acs";
+    private static final String SAML_RESPONSE = "SAMLResponse";
+    private static final String ERROR_PAGE = "retry.do";
+    private static final List<String> FATAL_LOG_ERRORS = Arrays.asList("java.lang.OutOfMemoryError",
+            "Too many open files");
+
+    private final List<String> samlApplicationIds = new ArrayList<>();
+    private final List<String> samlIssuers = new ArrayList<>();
+    private ServerResourceMonitor resourceMonitor;
+    private String oidcLogoutEndpoint;
+    private String samlSSOEndpoint;
+    private File serverLog;
+    private long serverLogOffset;
+    private int[] cycles;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        applyConfigurationAndRestart(readConfiguration("soak.toml"));
+
+        // The soak runs for the soak duration instead of the duration of the other load tests.
+        loadTestConfig = new LoadTestConfig(loadTestConfig.getConcurrency(), loadTestConfig.getRate(),
+                (int) TimeUnit.NANOSECONDS.toSeconds(loadTestConfig.getWarmupNanos()),
+                (int) TimeUnit.MINUTES.toSeconds(LoadTestConfig.getInt(DURATION_MINUTES, DEFAULT_DURATION_MINUTES)),
+                loadTestConfig.getMaxErrorRatio());
+        loadGenerator = new LoadGenerator(loadTestConfig);
+        cycles = new int[loadTestConfig.getConcurrency()];
+
+        provisionApplications("perf-soak-app", Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE,
+                OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN), DEFAULT_APPLICATION_COUNT);
+        for (int i = 0; i < applications.size(); i++) {
+            String issuer = "perf-soak-saml-app-" + i;
+            samlApplicationIds.add(restClient.createApplication(getSAMLApplication(issuer)));
+            samlIssuers.add(issuer);
+        }
+        oidcLogoutEndpoint = getTenantQualifiedURL(OIDC_LOGOUT_ENDPOINT, tenantInfo.getDomain());
+        samlSSOEndpoint = getTenantQualifiedURL(SAML_SSO_ENDPOINT, tenantInfo.getDomain());
+
+        recordServerStatistics();
+        resourceMonitor = new ServerResourceMonitor(createServerStatistics(),
+                TimeUnit.SECONDS.toMillis(LoadTestConfig.getInt(SAMPLE_SECONDS, DEFAULT_SAMPLE_SECONDS)));
+        serverLog = new File(Utils.getResidentCarbonHome() + File.separator + "repository" + File.separator +
+                "logs" + File.separator + "wso2carbon.log");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            for (String samlApplicationId : samlApplicationIds) {
+                deleteApp(samlApplicationId);
+            }
+            finishLoadTest(REPORT_NAME);
+        } finally {
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Cycle the login and logout flows for hours and check for leaks.")
+    public void testSoak() throws Exception {
+
+        LoadTestResult oauth2Cycle = new LoadTestResult(OAUTH2_CYCLE);
+        LoadTestResult samlCycle = new LoadTestResult(SAML_CYCLE);
+        oauth2Cycle.setMeasuredNanos(loadTestConfig.getDurationNanos());
+        samlCycle.setMeasuredNanos(loadTestConfig.getDurationNanos());
+
+        serverLogOffset = serverLog.length();
+        resourceMonitor.start();
+        try {
+            runLoad(SOAK_CYCLE, worker -> {
+                boolean oauth2 = cycles[worker]++ % 2 == 0;
+                LoadTestResult cycleResult = oauth2 ? oauth2Cycle : samlCycle;
+                boolean measured = loadGenerator.isMeasuring();
+                long startNanos = System.nanoTime();
+                try {
+                    if (oauth2) {
+                        runOAuth2Cycle(worker);
+                    } else {
+                        runSAMLCycle(worker);
+                    }
+                } catch (Exception | AssertionError e) {
+                    if (measured) {
+                        cycleResult.recordError();
+                    }
+                    throw e;
+                }
+                if (measured) {
+                    cycleResult.recordSuccess(startNanos, startNanos, System.nanoTime());
+                }
+            });
+        } finally {
+            resourceMonitor.stop();
+            resourceMonitor.writeReport(REPORT_NAME);
+            results.add(oauth2Cycle);
+            results.add(samlCycle);
+        }
+
+        List<String> fatalErrors = findFatalServerErrors();
+        Assert.assertTrue(fatalErrors.isEmpty(), "The server logged fatal errors during the soak: " + fatalErrors);
+        List<String> growth = resourceMonitor.findSustainedGrowth(LoadTestConfig.getInt(WINDOWS, DEFAULT_WINDOWS),
+                LoadTestConfig.getInt(MAX_HEAP_GROWTH_MB, 128), LoadTestConfig.getInt(MAX_THREAD_GROWTH, 20),
+                LoadTestConfig.getInt(MAX_FD_GROWTH, 50), LoadTestConfig.getInt(MAX_CACHE_GROWTH, -1));
+        Assert.assertTrue(growth.isEmpty(), "Sustained resource growth during the soak: " + growth);
+    }
+
+    /**
+     * Log in with the authorization code flow, refresh the token, revoke the refreshed access token and log out.
+     */
+    private void runOAuth2Cycle(int worker) throws Exception {
+
+        LoadTestApplication application = getApplication(worker);
+        CloseableHttpClient sessionClient = getNewSessionClient(worker);
+        String codeVerifier = getPKCECodeVerifier();
+        String code = requestAuthorizationCode(sessionClient, application, codeVerifier);
+        JSONObject tokenResponse = requestAuthorizationCodeGrantToken(application, code, codeVerifier);
+        assertAccessToken(tokenResponse);
+        String idToken = (String) tokenResponse.get(OAuth2Constant.ID_TOKEN);
+        String refreshToken = (String) tokenResponse.get(OAuth2Constant.REFRESH_TOKEN);
+        if (idToken == null || refreshToken == null) {
+            throw new IOException("ID token or refresh token not found in the token response.");
+        }
+
+        List<NameValuePair> refreshParameters = new ArrayList<>();
+        refreshParameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_REFRESH_TOKEN));
+        refreshParameters.add(new BasicNameValuePair(OAuth2Constant.REFRESH_TOKEN, refreshToken));
+        JSONObject refreshResponse = requestToken(application, refreshParameters);
+        assertAccessToken(refreshResponse);
+        revokeToken(application, (String) refreshResponse.get(OAuth2Constant.ACCESS_TOKEN));
+
+        String logoutUrl = new URIBuilder(oidcLogoutEndpoint)
+                .addParameter("id_token_hint", idToken)
+                .addParameter("post_logout_redirect_uri", LOAD_TEST_CALLBACK_URL)
+                .build().toString();
+        String location = getForLocation(sessionClient, logoutUrl);
+        if (!location.startsWith(LOAD_TEST_CALLBACK_URL)) {
+            // The logout consent page was shown.
+            List<NameValuePair> consentParameters = new ArrayList<>();
+            consentParameters.add(new BasicNameValuePair("consent", "approve"));
+            location = postForLocation(sessionClient, logoutUrl, consentParameters);
+        }
+        if (!location.startsWith(LOAD_TEST_CALLBACK_URL)) {
+            throw new IOException("Logout did not redirect to the post logout redirect URI: " + location);
+        }
+    }
+
+    /**
+     * Log in to one of the SAML applications with IdP initiated SSO and log out with IdP initiated single logout.
+     */
+    private void runSAMLCycle(int worker) throws Exception {
+
+        CloseableHttpClient sessionClient = getNewSessionClient(worker);
+        String issuer = samlIssuers.get(cycles[worker] / 2 % samlIssuers.size());
+        String location = getForLocation(sessionClient, samlSSOEndpoint + "?spEntityID=" + issuer);
+        String sessionDataKey = DataExtractUtil.getParamFromURIString(location, OAuth2Constant.SESSION_DATA_KEY);
+        if (sessionDataKey == null) {
+            throw new IOException("sessionDataKey not found in the SSO response: " + location);
+        }
+
+        List<NameValuePair> loginParameters = new ArrayList<>();
+        loginParameters.add(new BasicNameValuePair("username", loginUserName));
+        loginParameters.add(new BasicNameValuePair("password", loginPassword));
+        loginParameters.add(new BasicNameValuePair(OAuth2Constant.SESSION_DATA_KEY, sessionDataKey));
+        location = postForLocation(sessionClient, commonAuthEndpoint, loginParameters);
+        assertPageContains(sessionClient, location, SAML_RESPONSE);
+
+        HttpGet logoutRequest = new HttpGet(samlSSOEndpoint + "?slo=true");
+        logoutRequest.setHeader("User-Agent", OAuth2Constant.USER_AGENT);
+        try (CloseableHttpResponse response = sessionClient.execute(logoutRequest)) {
+            EntityUtils.consume(response.getEntity());
+            int status = response.getStatusLine().getStatusCode();
+            String redirect = response.getFirstHeader(OAuth2Constant.HTTP_RESPONSE_HEADER_LOCATION) != null ?
+                    response.getFirstHeader(OAuth2Constant.HTTP_RESPONSE_HEADER_LOCATION).getValue() : "";
+            if (status >= HttpStatus.SC_BAD_REQUEST || redirect.contains(ERROR_PAGE)) {
+                throw new IOException("Single logout failed with status " + status + " " + redirect);
+            }
+        }
+    }
+
+    private static void assertPageContains(CloseableHttpClient sessionClient, String url, String content)
+            throws IOException {
+
+        HttpGet request = new HttpGet(url);
+        request.setHeader("User-Agent", OAuth2Constant.USER_AGENT);
+        try (CloseableHttpResponse response = sessionClient.execute(request)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || !body.contains(content)) {
+                throw new IOException(content + " not found in the response from " + url + ". Status: " +
+                        response.getStatusLine().getStatusCode());
+            }
+        }
+    }
+
+    /**
+     * Lines of the server log written since the soak started that report running out of heap or file descriptors.
+     * The whole log is read if it was rotated in between.
+     */
+    private List<String> findFatalServerErrors() throws IOException {
+
+        List<String> fatalErrors = new ArrayList<>();
+        if (!serverLog.isFile()) {
+            log.warn("Server log " + serverLog.getAbsolutePath() + " not found. Fatal errors are not checked.");
+            return fatalErrors;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(serverLog, "r")) {
+            file.seek(serverLogOffset <= file.length() ? serverLogOffset : 0);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(
+                    file.getChannel()), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                for (String fatalError : FATAL_LOG_ERRORS) {
+                    if (line.contains(fatalError)) {
+                        fatalErrors.add(line);
+                    }
+                }
+            }
+        }
+        return fatalErrors;
+    }
+
+    private static ApplicationModel getSAMLApplication(String issuer) {
+
+        SAML2ServiceProvider serviceProvider = new SAML2ServiceProvider()
+                .issuer(issuer)
+                .addAssertionConsumerUrl(SAML_ACS_URL)
+                .defaultAssertionConsumerUrl(SAML_ACS_URL)
+                .responseSigning(new SAMLResponseSigning().enabled(false))
+                .singleSignOnProfile(new SingleSignOnProfile().enableIdpInitiatedSingleSignOn(true));
+        return new ApplicationModel()
+                .name(issuer)
+                .inboundProtocolConfiguration(new InboundProtocols()
+                        .saml(new SAML2Configuration().manualConfiguration(serviceProvider)))
+                .advancedConfigurations(new AdvancedApplicationConfiguration().skipLoginConsent(true)
+                        .skipLogoutConsent(true));
+    }
+}
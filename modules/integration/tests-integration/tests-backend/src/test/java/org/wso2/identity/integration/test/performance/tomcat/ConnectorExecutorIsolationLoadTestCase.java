@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.tomcat;
+
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.identity.integration.test.base.MockOIDCIdentityProvider;
+import org.wso2.identity.integration.test.performance.common.LoadGenerator;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestHttpClients;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.LoadTestApplication;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationPatchModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationSequence;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationSequence.TypeEnum;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AuthenticationStep;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.Authenticator;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.FederatedAuthenticatorRequest;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.FederatedAuthenticatorRequest.FederatedAuthenticator;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.IdentityProviderPOSTRequest;
+import org.wso2.identity.integration.test.rest.api.server.idp.v1.model.Property;
+import org.wso2.identity.integration.test.restclients.IdpMgtRestClient;
+import org.wso2.identity.integration.test.util.Utils;
+import org.wso2.identity.integration.test.utils.IdentityConstants;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarFile;
+
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_AUTHORIZE_ENDPOINT;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_CLIENT_ID;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_CLIENT_SECRET;
+import static org.wso2.identity.integration.test.base.MockOIDCIdentityProvider.MOCK_IDP_TOKEN_ENDPOINT;
+
+/**
+ * Measures how well the Tomcat executors isolate token issuance and the REST APIs from federated logins that block
+ * on a slow upstream identity provider.
+ * <p>
+ * The server is restarted with a shared executor for the http and https connectors and a separate executor behind
+ * the API connector. Federated logins against a mock OIDC identity provider with a delayed token endpoint then hold
+ * request processing threads while the client credentials grant and a SCIM2 listing are measured next to them. The
+ * executor type is selected with {@code -Dperf.executor.type=platform|virtual}; the virtual thread executor needs the
+ * server to run on JDK 21 or later with a Tomcat that ships {@code StandardVirtualThreadExecutor}, and the test is
+ * skipped otherwise.
+ */
+public class ConnectorExecutorIsolationLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "tomcat-executor-isolation";
+    private static final String EXECUTOR_TYPE = "executor.type";
+    private static final String EXECUTOR_TYPE_PLATFORM = "platform";
+    private static final String EXECUTOR_TYPE_VIRTUAL = "virtual";
+    private static final String BLOCKING_CONCURRENCY = "executor.blocking_concurrency";
+    private static final String UPSTREAM_DELAY = "executor.upstream_delay_ms";
+    private static final int DEFAULT_BLOCKING_CONCURRENCY = 100;
+    private static final int DEFAULT_UPSTREAM_DELAY_MILLIS = 2000;
+    private static final int MAX_REDIRECTS = 10;
+    private static final int DEFAULT_HTTPS_PORT = 9443;
+    // Must match transport.api.port of the applied deployment.toml files.
+    private static final int API_PORT = 9445;
+    private static final String SCIM2_USERS_PATH = "/scim2/Users";
+    private static final String FEDERATED_LOGIN = "federated_login";
+    private static final String IDP_NAME = "perf-slow-upstream-idp";
+    private static final String OIDC_AUTHENTICATOR_NAME = "OpenIDConnectAuthenticator";
+    private static final String ENCODED_OIDC_AUTHENTICATOR_ID = "T3BlbklEQ29ubmVjdEF1dGhlbnRpY2F0b3I";
+    private static final String VIRTUAL_THREAD_EXECUTOR_CLASS =
+            "org/apache/catalina/core/StandardVirtualThreadExecutor.class";
+
+    private MockOIDCIdentityProvider mockIdP;
+    private IdpMgtRestClient idpMgtRestClient;
+    private String idpId;
+    private LoadTestApplication federatedApplication;
+    private LoadGenerator blockingLoadGenerator;
+    private PoolingHttpClientConnectionManager blockingConnectionManager;
+    private CookieStore[] cookieStores;
+    private CloseableHttpClient[] sessionClients;
+    private String httpsScim2UsersEndpoint;
+    private String apiScim2UsersEndpoint;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        String executorType = LoadTestConfig.getString(EXECUTOR_TYPE, EXECUTOR_TYPE_PLATFORM);
+        if (EXECUTOR_TYPE_VIRTUAL.equals(executorType) && getJavaFeatureVersion() < 21) {
+            throw new SkipException("Virtual thread executor requires JDK 21 or later.");
+        }
+
+        if (EXECUTOR_TYPE_VIRTUAL.equals(executorType) && !isVirtualThreadExecutorShipped()) {
+            throw new SkipException("The Tomcat of the server does not ship " + VIRTUAL_THREAD_EXECUTOR_CLASS + ".");
+        }
+
+        super.init(TestUserMode.SUPER_TENANT_ADMIN);
+        applyConfigurationAndRestart(readConfiguration("tomcat_" + executorType + "_executor.toml"));
+        restClient.closeHttpClient();
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        mockIdP = new MockOIDCIdentityProvider();
+        mockIdP.start();
+        mockIdP.setTokenEndpointDelay(LoadTestConfig.getInt(UPSTREAM_DELAY, DEFAULT_UPSTREAM_DELAY_MILLIS));
+        idpMgtRestClient = new IdpMgtRestClient(serverURL, tenantInfo);
+        idpId = idpMgtRestClient.createIdentityProvider(getSlowUpstreamIdentityProvider());
+
+        provisionApplications("perf-executor-app", Arrays.asList(
+                OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        federatedApplication = provisionFederatedApplication();
+
+        int blockingConcurrency = LoadTestConfig.getInt(BLOCKING_CONCURRENCY, DEFAULT_BLOCKING_CONCURRENCY);
+        blockingLoadGenerator = new LoadGenerator(new LoadTestConfig(blockingConcurrency, 0,
+                (int) (loadTestConfig.getWarmupNanos() / 1_000_000_000L),
+                (int) (loadTestConfig.getDurationNanos() / 1_000_000_000L), loadTestConfig.getMaxErrorRatio()));
+        blockingConnectionManager = LoadTestHttpClients.createConnectionManager(blockingConcurrency * 2);
+        cookieStores = new CookieStore[blockingConcurrency];
+        sessionClients = new CloseableHttpClient[blockingConcurrency];
+        for (int i = 0; i < blockingConcurrency; i++) {
+            cookieStores[i] = new BasicCookieStore();
+            sessionClients[i] = LoadTestHttpClients.createSessionClient(blockingConnectionManager, cookieStores[i]);
+        }
+
+        URL httpsURL = new URL(serverURL);
+        int portOffset = httpsURL.getPort() - DEFAULT_HTTPS_PORT;
+        httpsScim2UsersEndpoint = new URIBuilder(serverURL).setPath(SCIM2_USERS_PATH)
+                .addParameter("count", "1").build().toString();
+        apiScim2UsersEndpoint = new URIBuilder(httpsScim2UsersEndpoint).setPort(API_PORT + portOffset).build()
+                .toString();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            if (sessionClients != null) {
+                for (CloseableHttpClient sessionClient : sessionClients) {
+                    sessionClient.close();
+                }
+                blockingConnectionManager.close();
+            }
+            if (federatedApplication != null) {
+                deleteApp(federatedApplication.getId());
+            }
+            if (idpId != null) {
+                idpMgtRestClient.deleteIdp(idpId);
+            }
+            if (loadClient != null) {
+                finishLoadTest(REPORT_NAME);
+            }
+        } finally {
+            if (idpMgtRestClient != null) {
+                idpMgtRestClient.closeHttpClient();
+            }
+            if (mockIdP != null) {
+                mockIdP.stop();
+            }
+            restoreConfiguration(true);
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the client credentials grant without competing load.")
+    public void testTokenIssuanceBaseline() throws Exception {
+
+        runLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS, this::requestClientCredentialsToken);
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the client credentials grant while federated logins block on " +
+            "a slow upstream identity provider.", dependsOnMethods = "testTokenIssuanceBaseline", alwaysRun = true)
+    public void testTokenIssuanceUnderBlockingFederatedLogins() throws Exception {
+
+        runUnderBlockingLoad(OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS + "_with_blocking_logins",
+                this::requestClientCredentialsToken);
+    }
+
+    @Test(groups = "wso2.is", description = "Measure SCIM2 user listing over the https connector while federated " +
+            "logins block on a slow upstream identity provider.",
+            dependsOnMethods = "testTokenIssuanceUnderBlockingFederatedLogins", alwaysRun = true)
+    public void testScim2OnSharedExecutorUnderBlockingFederatedLogins() throws Exception {
+
+        runUnderBlockingLoad("scim2_users_https_connector", worker -> listUsers(httpsScim2UsersEndpoint));
+    }
+
+    @Test(groups = "wso2.is", description = "Measure SCIM2 user listing over the API connector while federated " +
+            "logins block on a slow upstream identity provider.",
+            dependsOnMethods = "testScim2OnSharedExecutorUnderBlockingFederatedLogins", alwaysRun = true)
+    public void testScim2OnApiExecutorUnderBlockingFederatedLogins() throws Exception {
+
+        runUnderBlockingLoad("scim2_users_api_connector", worker -> listUsers(apiScim2UsersEndpoint));
+    }
+
+    /**
+     * Run the measured task while the federated logins run with the same load profile in the background. The logins
+     * are reported next to the measured operation but do not fail the test, since timing out is the behaviour the
+     * executor configuration is expected to prevent for the measured operation only.
+     */
+    private void runUnderBlockingLoad(String name, LoadGenerator.LoadTask task) throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LoadTestResult> blockingResult = executor.submit(
+                    () -> blockingLoadGenerator.run(FEDERATED_LOGIN + "_during_" + name, this::federatedLogin));
+            runLoad(name, task);
+            results.add(blockingResult.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void requestClientCredentialsToken(int worker) throws Exception {
+
+        List<NameValuePair> parameters = new ArrayList<>();
+        parameters.add(new BasicNameValuePair("grant_type", OAuth2Constant.OAUTH2_GRANT_TYPE_CLIENT_CREDENTIALS));
+        assertAccessToken(requestToken(getApplication(worker), parameters));
+    }
+
+    private void listUsers(String endpoint) throws IOException {
+
+        HttpGet request = new HttpGet(endpoint);
+        request.setHeader(OAuth2Constant.AUTHORIZATION_HEADER, "Basic " +
+                getBase64EncodedString(userInfo.getUserName(), userInfo.getPassword()));
+        try (CloseableHttpResponse response = loadClient.execute(request)) {
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new IOException("SCIM2 request failed with status " +
+                        response.getStatusLine().getStatusCode() + ": " + body);
+            }
+        }
+    }
+
+    /**
+     * Run the authorization code flow of the federated application up to the authorization code. The server
+     * redirects to the mock identity provider, which redirects back to commonauth, where the server calls the delayed
+     * token endpoint of the mock identity provider while holding the request processing thread.
+     */
+    private void federatedLogin(int worker) throws Exception {
+
+        cookieStores[worker].clear();
+        String location = new URIBuilder(authorizeEndpoint)
+                .addParameter(OAuth2Constant.OAUTH2_RESPONSE_TYPE, OAuth2Constant.OAUTH2_GRANT_TYPE_CODE)
+                .addParameter(OAuth2Constant.OAUTH2_CLIENT_ID, federatedApplication.getClientId())
+                .addParameter(OAuth2Constant.OAUTH2_REDIRECT_URI, LOAD_TEST_CALLBACK_URL)
+                .addParameter(OAuth2Constant.OAUTH2_SCOPE, OAuth2Constant.OAUTH2_SCOPE_OPENID)
+                .build().toString();
+        for (int hop = 0; hop < MAX_REDIRECTS; hop++) {
+            HttpGet request = new HttpGet(location);
+            request.setHeader("User-Agent", OAuth2Constant.USER_AGENT);
+            try (CloseableHttpResponse response = sessionClients[worker].execute(request)) {
+                EntityUtils.consume(response.getEntity());
+                Header locationHeader = response.getFirstHeader(OAuth2Constant.HTTP_RESPONSE_HEADER_LOCATION);
+                if (locationHeader == null) {
+                    throw new IOException("No redirect from " + location + ". Status: " +
+                            response.getStatusLine().getStatusCode());
+                }
+                location = locationHeader.getValue();
+            }
+            if (location.startsWith(LOAD_TEST_CALLBACK_URL)) {
+                if (!location.contains(OAuth2Constant.AUTHORIZATION_CODE_NAME + "=")) {
+                    throw new IOException("Authorization code not found in the redirect: " + location);
+                }
+                return;
+            }
+        }
+        throw new IOException("Federated login did not complete within " + MAX_REDIRECTS + " redirects.");
+    }
+
+    private LoadTestApplication provisionFederatedApplication() throws Exception {
+
+        LoadTestApplication application = provisionApplication("perf-executor-federated-app",
+                Arrays.asList(OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE));
+        updateApplication(application.getId(), new ApplicationPatchModel()
+                .authenticationSequence(new AuthenticationSequence()
+                        .type(TypeEnum.USER_DEFINED)
+                        .addStepsItem(new AuthenticationStep()
+                                .id(1)
+                                .addOptionsItem(new Authenticator()
+                                        .idp(IDP_NAME)
+                                        .authenticator(OIDC_AUTHENTICATOR_NAME)))));
+        return application;
+    }
+
+    private IdentityProviderPOSTRequest getSlowUpstreamIdentityProvider() {
+
+        FederatedAuthenticator authenticator = new FederatedAuthenticator()
+                .authenticatorId(ENCODED_OIDC_AUTHENTICATOR_ID)
+                .name(OIDC_AUTHENTICATOR_NAME)
+                .isEnabled(true)
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.IDP_NAME).value(IDP_NAME))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.CLIENT_ID)
+                        .value(MOCK_IDP_CLIENT_ID))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.CLIENT_SECRET)
+                        .value(MOCK_IDP_CLIENT_SECRET))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.OAUTH2_AUTHZ_URL)
+                        .value(MOCK_IDP_AUTHORIZE_ENDPOINT))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.OAUTH2_TOKEN_URL)
+                        .value(MOCK_IDP_TOKEN_ENDPOINT))
+                .addProperty(new Property().key(IdentityConstants.Authenticator.OIDC.CALLBACK_URL)
+                        .value(commonAuthEndpoint));
+
+        return new IdentityProviderPOSTRequest()
+                .name(IDP_NAME)
+                .federatedAuthenticators(new FederatedAuthenticatorRequest()
+                        .defaultAuthenticatorId(ENCODED_OIDC_AUTHENTICATOR_ID)
+                        .addAuthenticator(authenticator));
+    }
+
+    /**
+     * Whether a Tomcat bundle of the server contains the virtual thread executor the virtual executor type renders
+     * into catalina-server.xml.
+     */
+    private static boolean isVirtualThreadExecutorShipped() throws IOException {
+
+        File[] tomcatBundles = new File(Utils.getResidentCarbonHome() + File.separator + "repository" +
+                File.separator + "components" + File.separator + "plugins").listFiles(
+                (directory, name) -> name.startsWith("tomcat") && name.endsWith(".jar"));
+        if (tomcatBundles == null) {
+            return false;
+        }
+        for (File tomcatBundle : tomcatBundles) {
+            try (JarFile jarFile = new JarFile(tomcatBundle)) {
+                if (jarFile.getEntry(VIRTUAL_THREAD_EXECUTOR_CLASS) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int getJavaFeatureVersion() {
+
+        String specificationVersion = System.getProperty("java.specification.version");
+        if (specificationVersion.startsWith("1.")) {
+            specificationVersion = specificationVersion.substring(2);
+        }
+        return Integer.parseInt(specificationVersion.split("\\.")[0]);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.userstore;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Generates a large directory for the embedded LDAP server as an LDIF file, written one entry at a time so the
+ * directory does not have to fit in the heap. The users are spread across leaf groups of a fixed size, and the groups
+ * are nested in a tree: every group of a level has the given number of groups of the level below as members, up to
+ * the given depth or until a single group is left.
+ * <p>
+ * Users and groups are named by their index, and the unique ID of a user, kept in the {@code scimId} attribute, is
+ * derived from its name, so the tests can address any user without looking it up. All users have the same password.
+ */
+public class LDAPDirectoryFixture {
+
+    public static final String PARTITION_SUFFIX = "dc=WSO2,dc=ORG";
+    public static final String USER_SEARCH_BASE = "ou=Users," + PARTITION_SUFFIX;
+    public static final String GROUP_SEARCH_BASE = "ou=Groups," + PARTITION_SUFFIX;
+    public static final String USER_PREFIX = "perfldapuser";
+    public static final String GROUP_PREFIX = "perfldapgroup";
+    public static final String PASSWORD = "Wso2@perf1";
+
+    private final int userCount;
+    private final int usersPerGroup;
+    private final int fanOut;
+    private final int depth;
+    private final int levelCount;
+    private final String hashedPassword;
+    private int groupCount;
+
+    /**
+     * Create a fixture.
+     *
+     * @param userCount     Number of users.
+     * @param usersPerGroup Number of users of every leaf group.
+     * @param fanOut        Number of member groups of every group above the leaves.
+     * @param depth         Number of group levels, including the leaves.
+     */
+    public LDAPDirectoryFixture(int userCount, int usersPerGroup, int fanOut, int depth) {
+
+        if (userCount < 1 || usersPerGroup < 1 || fanOut < 2 || depth < 1) {
+            throw new IllegalArgumentException("Invalid directory shape: " + userCount + " users, " + usersPerGroup +
+                    " users per group, fan-out " + fanOut + ", depth " + depth);
+        }
+        this.userCount = userCount;
+        this.usersPerGroup = usersPerGroup;
+        this.fanOut = fanOut;
+        this.depth = depth;
+        int levels = 1;
+        for (int groups = (userCount + usersPerGroup - 1) / usersPerGroup; levels < depth && groups > 1; levels++) {
+            groups = (groups + fanOut - 1) / fanOut;
+        }
+        this.levelCount = levels;
+        this.hashedPassword = hash(PASSWORD);
+    }
+
+    /**
+     * Write the users and groups to an LDIF file, parents before children. The organizational units of the partition
+     * are not written, as the embedded server creates them.
+     *
+     * @param ldifFile File to write.
+     * @return Number of entries written.
+     * @throws IOException If the file could not be written.
+     */
+    public long writeLdif(File ldifFile) throws IOException {
+
+        long entries = 0;
+        groupCount = 0;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(ldifFile),
+                StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("version: 1\n\n");
+            for (int i = 0; i < userCount; i++) {
+                writeUser(writer, i);
+                entries++;
+            }
+
+            int groupsOfLevel = (userCount + usersPerGroup - 1) / usersPerGroup;
+            for (int group = 0; group < groupsOfLevel; group++) {
+                writeGroupHeader(writer, 0, group);
+                int end = Math.min(userCount, (group + 1) * usersPerGroup);
+                for (int user = group * usersPerGroup; user < end; user++) {
+                    writer.write("member: " + getUserDn(user) + "\n");
+                }
+                writer.write("\n");
+                entries++;
+                groupCount++;
+            }
+            for (int level = 1; level < depth && groupsOfLevel > 1; level++) {
+                int membersOfLevel = groupsOfLevel;
+                groupsOfLevel = (membersOfLevel + fanOut - 1) / fanOut;
+                for (int group = 0; group < groupsOfLevel; group++) {
+                    writeGroupHeader(writer, level, group);
+                    int end = Math.min(membersOfLevel, (group + 1) * fanOut);
+                    for (int member = group * fanOut; member < end; member++) {
+                        writer.write("member: " + getGroupDn(level - 1, member) + "\n");
+                    }
+                    writer.write("\n");
+                    entries++;
+                    groupCount++;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Number of groups written by the last {@link #writeLdif(File)}.
+     *
+     * @return Number of groups.
+     */
+    public int getGroupCount() {
+
+        return groupCount;
+    }
+
+    public int getUserCount() {
+
+        return userCount;
+    }
+
+    /**
+     * Number of group levels written, including the leaves. Less than the given depth when the groups of a level
+     * already fit in a single group.
+     *
+     * @return Number of group levels.
+     */
+    public int getLevelCount() {
+
+        return levelCount;
+    }
+
+    /**
+     * Names of the groups the user is a member of, directly or through nesting, from its leaf group up to the group
+     * of the top level.
+     *
+     * @param user Index of the user.
+     * @return Group names, one per level.
+     */
+    public String[] getGroupNamesOfUser(int user) {
+
+        String[] groupNames = new String[levelCount];
+        int group = user / usersPerGroup;
+        for (int level = 0; level < levelCount; level++) {
+            groupNames[level] = getGroupName(level, group);
+            group /= fanOut;
+        }
+        return groupNames;
+    }
+
+    public static String getUserName(int index) {
+
+        return USER_PREFIX + index;
+    }
+
+    public static String getUserId(int index) {
+
+        return UUID.nameUUIDFromBytes(getUserName(index).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    public static String getGroupName(int level, int index) {
+
+        return GROUP_PREFIX + "-" + level + "-" + index;
+    }
+
+    private void writeUser(Writer writer, int index) throws IOException {
+
+        String userName = getUserName(index);
+        writer.write("dn: " + getUserDn(index) + "\n");
+        writer.write("objectClass: top\n");
+        writer.write("objectClass: person\n");
+        writer.write("objectClass: organizationalPerson\n");
+        writer.write("objectClass: inetOrgPerson\n");
+        writer.write("objectClass: identityPerson\n");
+        writer.write("objectClass: wso2Person\n");
+        writer.write("objectClass: scimPerson\n");
+        writer.write("uid: " + userName + "\n");
+        writer.write("cn: " + userName + "\n");
+        writer.write("sn: Last" + index + "\n");
+        writer.write("givenName: First" + index + "\n");
+        writer.write("mail: " + userName + "@perf.wso2.test\n");
+        writer.write("scimId: " + getUserId(index) + "\n");
+        writer.write("userPassword: " + hashedPassword + "\n\n");
+    }
+
+    private static void writeGroupHeader(Writer writer, int level, int index) throws IOException {
+
+        writer.write("dn: " + getGroupDn(level, index) + "\n");
+        writer.write("objectClass: top\n");
+        writer.write("objectClass: groupOfNames\n");
+        writer.write("cn: " + getGroupName(level, index) + "\n");
+    }
+
+    private static String getUserDn(int index) {
+
+        return "uid=" + getUserName(index) + "," + USER_SEARCH_BASE;
+    }
+
+    private static String getGroupDn(int level, int index) {
+
+        return "cn=" + getGroupName(level, index) + "," + GROUP_SEARCH_BASE;
+    }
+
+    /**
+     * Hash the password the way the embedded server stores the admin password, which the server verifies on bind.
+     */
+    private static String hash(String password) {
+
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA");
+            return "{SHA}" + Base64.getEncoder().encodeToString(messageDigest.digest(
+                    password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA is not supported by the JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.userstore;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.carbon.identity.test.integration.service.stub.AuthenticationResultDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.ClaimValue;
+import org.wso2.carbon.identity.test.integration.service.stub.UserDTO;
+import org.wso2.carbon.identity.user.store.configuration.stub.dto.PropertyDTO;
+import org.wso2.identity.integration.common.clients.user.store.config.UserStoreConfigAdminServiceClient;
+import org.wso2.identity.integration.common.clients.usermgt.uuid.UUIDUserStoreManagerServiceClient;
+import org.wso2.identity.integration.common.utils.UserStoreConfigUtils;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.utils.ExternalLDAPServer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the LDAP user store scales with the size of the directory and the nesting of its groups. For every
+ * directory size and group depth an embedded LDAP server is started with a directory of that many users, generated by
+ * the {@link LDAPDirectoryFixture} and streamed into the partition as LDIF, with the users in groups that are nested
+ * that many levels deep. For every connection pool setting a read only LDAP user store is added on that directory and
+ * four loads are run against random users through the UUID user store manager service: authentication,
+ * {@code getRoleListOfUserWithID}, claim reads and paged user listing. A role list only succeeds when it has the leaf
+ * group of the user and every group above it. The UUID user store manager service has to be deployed, which the
+ * {@code UUIDUserManagerInitializerTestCase} of the suite does.
+ * <p>
+ * The sizes are set with {@code -Dperf.ldap.sizes=10000,100000,500000}, the group depths with
+ * {@code -Dperf.ldap.group.depth=1,5} and the shape of the groups with {@code -Dperf.ldap.group.size} and
+ * {@code -Dperf.ldap.group.fanout}. The connection pool settings are set with
+ * {@code -Dperf.ldap.pool.settings=no_pool,pool}: {@code no_pool} disables connection pooling of the user store and
+ * {@code pool} enables it. Any other setting enables pooling and adds the user store properties of
+ * {@code -Dperf.ldap.pool.properties.<setting>=Name=value;Name=value}, so for example the connection and read
+ * timeouts can be compared. The sizes of the JNDI connection pool are system properties of the
+ * server JVM and apply to all settings.
+ * <p>
+ * Besides the usual report, the throughput and latency of every operation by directory size and group depth are
+ * written to {@code ldap-user-store-scale-curve.csv}. The depth is the number of group levels the directory has,
+ * which is less than the requested depth when the groups of a level already fit in a single group.
+ */
+public class LDAPUserStoreScaleLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "ldap-user-store-scale";
+    private static final String SIZES = "ldap.sizes";
+    private static final String GROUP_SIZE = "ldap.group.size";
+    private static final String GROUP_FAN_OUT = "ldap.group.fanout";
+    private static final String GROUP_DEPTHS = "ldap.group.depth";
+    private static final String PAGE_SIZE = "ldap.page.size";
+    private static final String LDAP_PORT = "ldap.port";
+    private static final String POOL_SETTINGS = "ldap.pool.settings";
+    private static final String POOL_PROPERTIES = "ldap.pool.properties.";
+    private static final String NO_POOL = "no_pool";
+    private static final String POOL = "pool";
+    private static final String WORKING_DIRECTORY = "ldapScaleWorkingDirectory";
+    private static final String READ_ONLY_LDAP_USER_STORE_CLASS =
+            "org.wso2.carbon.user.core.ldap.UniqueIDReadOnlyLDAPUserStoreManager";
+    private static final String CONNECTION_POOLING_ENABLED = "ConnectionPoolingEnabled";
+    private static final String DOMAIN_PREFIX = "PERFLDAP";
+    private static final String DEFAULT_PROFILE = "default";
+    private static final String SUCCESS = "SUCCESS";
+    private static final String[] CLAIMS = {"http://wso2.org/claims/emailaddress", "http://wso2.org/claims/givenname",
+            "http://wso2.org/claims/lastname"};
+    private static final String[] OPERATIONS = {"authenticate", "role_list", "claims", "list_users"};
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+
+    private final UserStoreConfigUtils userStoreConfigUtils = new UserStoreConfigUtils();
+    private final List<String> curve = new ArrayList<>();
+    private UserStoreConfigAdminServiceClient userStoreConfigAdminServiceClient;
+    private UUIDUserStoreManagerServiceClient[] userStoreClients;
+    private ExternalLDAPServer ldapServer;
+    private String domain;
+    private int domainCount;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        userStoreConfigAdminServiceClient = new UserStoreConfigAdminServiceClient(backendURL, sessionCookie);
+        // Axis2 stubs are not thread safe, so every worker gets its own.
+        userStoreClients = new UUIDUserStoreManagerServiceClient[loadTestConfig.getConcurrency()];
+        for (int i = 0; i < userStoreClients.length; i++) {
+            userStoreClients[i] = new UUIDUserStoreManagerServiceClient(backendURL, sessionCookie);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        try {
+            finishLoadTest(REPORT_NAME);
+            writeCurve();
+        } finally {
+            deleteUserStore();
+            stopLDAPServer();
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the LDAP user store operations by directory size and group depth.")
+    public void testDirectorySizes() throws Exception {
+
+        List<String> sizes = LoadTestConfig.getList(SIZES, "10000", "100000", "500000");
+        List<String> depths = LoadTestConfig.getList(GROUP_DEPTHS, "1", "5");
+        List<String> settings = LoadTestConfig.getList(POOL_SETTINGS, NO_POOL, POOL);
+        for (String size : sizes) {
+            for (String depth : depths) {
+                LDAPDirectoryFixture fixture = new LDAPDirectoryFixture(Integer.parseInt(size),
+                        LoadTestConfig.getInt(GROUP_SIZE, 100), LoadTestConfig.getInt(GROUP_FAN_OUT, 10),
+                        Integer.parseInt(depth));
+                startLDAPServer(fixture);
+                try {
+                    for (String setting : settings) {
+                        addUserStore(setting);
+                        try {
+                            log.info("Measuring the LDAP user store with " + size + " users in " +
+                                    fixture.getLevelCount() + " group levels and the connection pool setting " +
+                                    setting + " in the user store " + domain + ".");
+                            measure(fixture, setting.toLowerCase(Locale.ENGLISH));
+                        } finally {
+                            deleteUserStore();
+                        }
+                    }
+                } finally {
+                    stopLDAPServer();
+                }
+            }
+        }
+    }
+
+    private void measure(LDAPDirectoryFixture fixture, String setting) throws Exception {
+
+        int userCount = fixture.getUserCount();
+        int groupDepth = fixture.getLevelCount();
+        String runName = userCount + "_depth" + groupDepth + "_" + setting;
+        int pageSize = Math.min(userCount, LoadTestConfig.getInt(PAGE_SIZE, 100));
+        String userDomain = domain;
+
+        List<LoadTestResult> runResults = new ArrayList<>();
+        runResults.add(runLoad(OPERATIONS[0] + "_" + runName, worker -> {
+            int user = ThreadLocalRandom.current().nextInt(userCount);
+            AuthenticationResultDTO result = userStoreClients[worker].authenticateWithIDUserId(
+                    LDAPDirectoryFixture.getUserId(user), userDomain, LDAPDirectoryFixture.PASSWORD);
+            if (result == null || !SUCCESS.equals(result.getAuthenticationStatus())) {
+                throw new IOException("Authentication failed with status " +
+                        (result != null ? result.getAuthenticationStatus() : null));
+            }
+        }));
+        runResults.add(runLoad(OPERATIONS[1] + "_" + runName, worker -> {
+            int user = ThreadLocalRandom.current().nextInt(userCount);
+            String[] roles = userStoreClients[worker].getRoleListOfUserWithID(LDAPDirectoryFixture.getUserId(user));
+            // The parent groups are only in the role list when the user store resolves the nested groups.
+            for (String groupName : fixture.getGroupNamesOfUser(user)) {
+                if (roles == null || !containsRole(roles, groupName)) {
+                    throw new IOException("Group " + groupName + " missing from the roles of " +
+                            LDAPDirectoryFixture.getUserName(user));
+                }
+            }
+        }));
+        runResults.add(runLoad(OPERATIONS[2] + "_" + runName, worker -> {
+            int user = ThreadLocalRandom.current().nextInt(userCount);
+            ClaimValue[] claims = userStoreClients[worker].getUserClaimValuesWithID(
+                    LDAPDirectoryFixture.getUserId(user), CLAIMS, DEFAULT_PROFILE);
+            if (claims == null || claims.length == 0) {
+                throw new IOException("No claims of " + LDAPDirectoryFixture.getUserName(user));
+            }
+        }));
+        runResults.add(runLoad(OPERATIONS[3] + "_" + runName, worker -> {
+            int offset = 1 + ThreadLocalRandom.current().nextInt(userCount - pageSize + 1);
+            UserDTO[] users = userStoreClients[worker].listUsersWithID(userDomain + "/" +
+                    LDAPDirectoryFixture.USER_PREFIX + "*", pageSize, offset);
+            if (users == null || users.length == 0) {
+                throw new IOException("Empty page at offset " + offset);
+            }
+        }));
+
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            LoadTestResult result = runResults.get(i);
+            curve.add(String.format(Locale.ENGLISH, "%d,%d,%s,%s,%.2f,%.2f,%.2f,%.4f", userCount, groupDepth,
+                    setting, OPERATIONS[i], result.getThroughput(),
+                    result.getPercentileMillis(P50), result.getPercentileMillis(P99), result.getErrorRatio()));
+            log.info(curve.get(curve.size() - 1));
+        }
+    }
+
+    /**
+     * Start an embedded LDAP server in a working directory of its own and load the directory of the fixture into
+     * it. The attributes the user store searches by are indexed, as they would be in a production directory.
+     */
+    private void startLDAPServer(LDAPDirectoryFixture fixture) throws Exception {
+
+        File workingDirectory = new File(WORKING_DIRECTORY, String.valueOf(fixture.getUserCount()));
+        if (workingDirectory.exists()) {
+            FileUtils.deleteDirectory(workingDirectory);
+        }
+        if (!workingDirectory.mkdirs()) {
+            throw new IOException("Unable to create the LDAP working directory " + workingDirectory.getAbsolutePath());
+        }
+        ldapServer = new ExternalLDAPServer(workingDirectory.getPath(), getISResourceLocation() + File.separator +
+                "is-default-schema.zip", getLDAPPort());
+        ldapServer.addIndexedAttribute("member");
+        ldapServer.addIndexedAttribute("scimId");
+        ldapServer.init();
+        ldapServer.startServer(true);
+
+        File ldifFile = new File(workingDirectory, "directory.ldif");
+        long startNanos = System.nanoTime();
+        long entries = fixture.writeLdif(ldifFile);
+        long importStartNanos = System.nanoTime();
+        ldapServer.importLdif(ldifFile);
+        long endNanos = System.nanoTime();
+        log.info(String.format(Locale.ENGLISH, "Loaded %d users and %d groups into the embedded LDAP server: " +
+                        "LDIF written in %d s, imported in %d s (%.0f entries/s).", fixture.getUserCount(),
+                fixture.getGroupCount(), TimeUnit.NANOSECONDS.toSeconds(importStartNanos - startNanos),
+                TimeUnit.NANOSECONDS.toSeconds(endNanos - importStartNanos),
+                entries * 1e9 / Math.max(1, endNanos - importStartNanos)));
+        FileUtils.deleteQuietly(ldifFile);
+    }
+
+    private void stopLDAPServer() throws Exception {
+
+        if (ldapServer != null) {
+            ldapServer.shutdown();
+            ldapServer = null;
+        }
+    }
+
+    private void addUserStore(String setting) throws Exception {
+
+        Map<String, String> properties = getLDAPUserStoreProperties();
+        properties.put(CONNECTION_POOLING_ENABLED, String.valueOf(!NO_POOL.equalsIgnoreCase(setting)));
+        if (!NO_POOL.equalsIgnoreCase(setting) && !POOL.equalsIgnoreCase(setting)) {
+            String settingProperties = LoadTestConfig.getString(POOL_PROPERTIES + setting, "");
+            for (String property : settingProperties.split(";")) {
+                int separator = property.indexOf('=');
+                if (separator > 0) {
+                    properties.put(property.substring(0, separator).trim(), property.substring(separator + 1).trim());
+                }
+            }
+        }
+
+        List<PropertyDTO> propertyDTOs = new ArrayList<>();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            PropertyDTO propertyDTO = new PropertyDTO();
+            propertyDTO.setName(property.getKey());
+            propertyDTO.setValue(property.getValue());
+            propertyDTOs.add(propertyDTO);
+        }
+
+        domain = DOMAIN_PREFIX + (++domainCount);
+        userStoreConfigAdminServiceClient.addUserStore(userStoreConfigAdminServiceClient.createUserStoreDTO(
+                READ_ONLY_LDAP_USER_STORE_CLASS, domain, propertyDTOs.toArray(new PropertyDTO[0])));
+        if (!userStoreConfigUtils.waitForUserStoreDeployment(userStoreConfigAdminServiceClient, domain)) {
+            throw new IOException("User store " + domain + " was not deployed.");
+        }
+    }
+
+    private void deleteUserStore() throws Exception {
+
+        if (domain != null) {
+            userStoreConfigAdminServiceClient.deleteUserStore(domain);
+            userStoreConfigUtils.waitForUserStoreUnDeployment(userStoreConfigAdminServiceClient, domain);
+            domain = null;
+        }
+    }
+
+    /**
+     * Properties of a read only LDAP user store on the embedded server. The roles cache is disabled, so every
+     * role list reaches the directory.
+     */
+    private Map<String, String> getLDAPUserStoreProperties() {
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("ConnectionURL", "ldap://localhost:" + getLDAPPort());
+        properties.put("ConnectionName", "uid=admin,ou=system");
+        properties.put("ConnectionPassword", "admin");
+        properties.put("LDAPConnectionTimeout", "5000");
+        properties.put("Disabled", "false");
+        properties.put("UserSearchBase", LDAPDirectoryFixture.USER_SEARCH_BASE);
+        properties.put("UserEntryObjectClass", "identityPerson");
+        properties.put("UserNameAttribute", "uid");
+        properties.put("UserNameListFilter", "(objectClass=person)");
+        properties.put("UserNameSearchFilter", "(&(objectClass=person)(uid=?))");
+        properties.put("UserIDAttribute", "scimId");
+        properties.put("UserIDSearchFilter", "(&(objectClass=person)(scimId=?))");
+        properties.put("UserDNPattern", "uid={0}," + LDAPDirectoryFixture.USER_SEARCH_BASE);
+        properties.put("ReadGroups", "true");
+        properties.put("GroupSearchBase", LDAPDirectoryFixture.GROUP_SEARCH_BASE);
+        properties.put("GroupEntryObjectClass", "groupOfNames");
+        properties.put("GroupNameAttribute", "cn");
+        properties.put("GroupNameListFilter", "(objectClass=groupOfNames)");
+        properties.put("GroupNameSearchFilter", "(&(objectClass=groupOfNames)(cn=?))");
+        properties.put("MembershipAttribute", "member");
+        properties.put("BackLinksEnabled", "false");
+        properties.put("UserRolesCacheEnabled", "false");
+        properties.put("SCIMEnabled", "false");
+        properties.put("MaxUserNameListLength", "1000");
+        properties.put("MaxRoleNameListLength", "1000");
+        return properties;
+    }
+
+    private static boolean containsRole(String[] roles, String groupName) {
+
+        for (String role : roles) {
+            if (role != null && (role.equalsIgnoreCase(groupName) || role.toLowerCase(Locale.ENGLISH)
+                    .endsWith("/" + groupName.toLowerCase(Locale.ENGLISH)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getLDAPPort() {
+
+        return LoadTestConfig.getInt(LDAP_PORT, 10820);
+    }
+
+    private void writeCurve() throws IOException {
+
+        if (curve.isEmpty()) {
+            return;
+        }
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                REPORT_NAME + "-curve.csv")), false, StandardCharsets.UTF_8.name())) {
+            report.println("users,group_depth,setting,operation,throughput,p50_ms,p99_ms,error_ratio");
+            for (String line : curve) {
+                report.println(line);
+            }
+        }
+    }
+}
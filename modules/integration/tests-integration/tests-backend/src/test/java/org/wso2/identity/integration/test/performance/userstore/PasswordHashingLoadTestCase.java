@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.performance.userstore;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.automation.engine.context.TestUserMode;
+import org.wso2.carbon.identity.test.integration.service.stub.AuthenticationResultDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.ClaimValue;
+import org.wso2.carbon.identity.user.store.configuration.stub.dto.PropertyDTO;
+import org.wso2.identity.integration.common.clients.user.store.config.UserStoreConfigAdminServiceClient;
+import org.wso2.identity.integration.common.clients.usermgt.uuid.UUIDUserStoreManagerServiceClient;
+import org.wso2.identity.integration.common.utils.UserStoreConfigUtils;
+import org.wso2.identity.integration.test.performance.common.LoadTestConfig;
+import org.wso2.identity.integration.test.performance.common.LoadTestResult;
+import org.wso2.identity.integration.test.performance.oauth2.OAuth2LoadTestBase;
+import org.wso2.identity.integration.test.utils.OAuth2Constant;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures what the password hashing of the user store costs in login capacity. For every hashing setting a JDBC
+ * user store is added with that setting, users are added to it and two loads are run against them: user store
+ * authentication through {@code authenticateWithIDUserId} of the UUID user store manager service, and the complete
+ * browser login of the authorization code flow. The UUID user store manager service has to be deployed, which the
+ * {@code UUIDUserManagerInitializerTestCase} of the suite does.
+ * <p>
+ * Secondary user stores are used instead of reconfiguring the primary user store, as passwords are only hashed with
+ * the configured digest when they are set, so changing the digest of the primary user store would lock out the
+ * admin user the tests run as.
+ * <p>
+ * The settings are set with {@code -Dperf.hash.settings=SHA-256,PBKDF2-10000,PBKDF2-100000,PBKDF2-310000}. A
+ * {@code PBKDF2-<iterations>} setting uses PBKDF2 with HMAC SHA-256 at the given iteration count. Any other setting
+ * is used as the digest of the user store as is, so hash providers such as bcrypt or Argon2 are measured when they
+ * are installed, with the hash provider properties taken from {@code -Dperf.hash.properties.<setting>}. A setting
+ * that is neither PBKDF2 nor a message digest of the JDK is skipped when the server cannot hash the password of the
+ * first user with it, as its hash provider is not installed. Any other failure fails the test, and so does a run
+ * that measures no setting. Besides the usual report, the logins per second per core and the 99th percentile latency
+ * of every setting are written to {@code password-hashing-per-core.txt}, with the cores taken from
+ * {@code -Dperf.server.cores}, by default the cores of this host.
+ */
+public class PasswordHashingLoadTestCase extends OAuth2LoadTestBase {
+
+    private static final String REPORT_NAME = "password-hashing";
+    private static final String SETTINGS = "hash.settings";
+    private static final String HASH_PROPERTIES = "hash.properties.";
+    private static final String SERVER_CORES = "server.cores";
+    private static final String PBKDF2 = "PBKDF2";
+    private static final String PBKDF2_PROPERTIES =
+            "{pbkdf2.iteration.count:%d, pbkdf2.dkLength:256, pbkdf2.prf:PBKDF2WithHmacSHA256}";
+    private static final String JDBC_USER_STORE_CLASS = "org.wso2.carbon.user.core.jdbc.UniqueIDJDBCUserStoreManager";
+    private static final String PASSWORD_DIGEST = "PasswordDigest";
+    private static final String HASH_ALGORITHM_PROPERTIES = "Hash.Algorithm.Properties";
+    private static final String DOMAIN_PREFIX = "PERFHASH";
+    private static final String USER_PREFIX = "perfhashuser";
+    private static final String PASSWORD = "Wso2@perf1";
+    private static final String SUCCESS = "SUCCESS";
+    private static final double P99 = 99.0;
+
+    private final UserStoreConfigUtils userStoreConfigUtils = new UserStoreConfigUtils();
+    private final List<String> domains = new ArrayList<>();
+    private final List<String> summary = new ArrayList<>();
+    private UserStoreConfigAdminServiceClient userStoreConfigAdminServiceClient;
+    private UUIDUserStoreManagerServiceClient[] userStoreClients;
+    private String adminUserName;
+    private String adminPassword;
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        initLoadTest(TestUserMode.SUPER_TENANT_ADMIN);
+        userStoreConfigAdminServiceClient = new UserStoreConfigAdminServiceClient(backendURL, sessionCookie);
+        // Axis2 stubs are not thread safe, so every worker gets its own.
+        userStoreClients = new UUIDUserStoreManagerServiceClient[loadTestConfig.getConcurrency()];
+        for (int i = 0; i < userStoreClients.length; i++) {
+            userStoreClients[i] = new UUIDUserStoreManagerServiceClient(backendURL, sessionCookie);
+        }
+        provisionApplications("perf-password-hashing-app", Arrays.asList(
+                OAuth2Constant.OAUTH2_GRANT_TYPE_AUTHORIZATION_CODE));
+        adminUserName = loginUserName;
+        adminPassword = loginPassword;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void atEnd() throws Exception {
+
+        loginUserName = adminUserName;
+        loginPassword = adminPassword;
+        try {
+            finishLoadTest(REPORT_NAME);
+            writeSummary();
+        } finally {
+            for (String domain : domains) {
+                userStoreConfigAdminServiceClient.deleteUserStore(domain);
+            }
+        }
+    }
+
+    @Test(groups = "wso2.is", description = "Measure the login throughput with every password hashing setting.")
+    public void testPasswordHashingSettings() throws Exception {
+
+        List<String> settings = LoadTestConfig.getList(SETTINGS, "SHA-256", "PBKDF2-10000", "PBKDF2-100000",
+                "PBKDF2-310000");
+        for (String setting : settings) {
+            String domain = DOMAIN_PREFIX + (domains.size() + 1);
+            addUserStore(domain, setting);
+            String[] userIds = new String[userStoreClients.length];
+            try {
+                userIds[0] = addUser(domain, 0);
+            } catch (Exception e) {
+                if (isBuiltInDigest(getDigest(setting))) {
+                    throw e;
+                }
+                log.warn("Skipping the password hashing setting " + setting + " as the server could not hash a " +
+                        "password with it.", e);
+                continue;
+            }
+            addUsers(domain, userIds);
+            log.info("Measuring the password hashing setting " + setting + " in the user store " + domain + ".");
+            String settingName = setting.toLowerCase(Locale.ENGLISH).replace('-', '_');
+
+            LoadTestResult authentication = runLoad("authenticate_" + settingName, worker -> {
+                AuthenticationResultDTO result = userStoreClients[worker].authenticateWithIDUserId(
+                        userIds[worker], domain, PASSWORD);
+                if (result == null || !SUCCESS.equals(result.getAuthenticationStatus())) {
+                    throw new IOException("Authentication failed with status " +
+                            (result != null ? result.getAuthenticationStatus() : null));
+                }
+            });
+
+            loginUserName = domain + "/" + USER_PREFIX + 0;
+            loginPassword = PASSWORD;
+            try {
+                runAuthorizationCodeLoad("browser_login_" + settingName, "authorization_code_" + settingName,
+                        loadTestConfig.getMaxErrorRatio());
+            } finally {
+                loginUserName = adminUserName;
+                loginPassword = adminPassword;
+            }
+            LoadTestResult browserLoginFlow = getResult("browser_login_" + settingName);
+            summary.add(String.format(Locale.ENGLISH, "%s authenticate/s/core=%.2f authenticate_p99_ms=%.2f " +
+                            "browser_login/s/core=%.2f browser_login_p99_ms=%.2f", setting,
+                    authentication.getThroughput() / getServerCores(), authentication.getPercentileMillis(P99),
+                    browserLoginFlow.getThroughput() / getServerCores(), browserLoginFlow.getPercentileMillis(P99)));
+            log.info(summary.get(summary.size() - 1));
+        }
+        Assert.assertFalse(summary.isEmpty(), "None of the password hashing settings " + settings +
+                " was measured.");
+    }
+
+    /**
+     * Add a JDBC user store with its own H2 database that hashes passwords with the given setting.
+     */
+    private void addUserStore(String domain, String setting) throws Exception {
+
+        String digest = getDigest(setting);
+        String hashProperties = LoadTestConfig.getString(HASH_PROPERTIES + setting, null);
+        if (PBKDF2.equals(digest)) {
+            hashProperties = String.format(Locale.ENGLISH, PBKDF2_PROPERTIES,
+                    Integer.parseInt(setting.substring(PBKDF2.length() + 1)));
+        }
+
+        List<PropertyDTO> properties = new ArrayList<>();
+        for (PropertyDTO property : userStoreConfigUtils.getJDBCUserStoreProperties(
+                "PERF_HASH_" + domain + "_DB")) {
+            if (PASSWORD_DIGEST.equals(property.getName())) {
+                property.setValue(digest);
+            }
+            properties.add(property);
+        }
+        if (hashProperties != null) {
+            PropertyDTO hashAlgorithmProperties = new PropertyDTO();
+            hashAlgorithmProperties.setName(HASH_ALGORITHM_PROPERTIES);
+            hashAlgorithmProperties.setValue(hashProperties);
+            properties.add(hashAlgorithmProperties);
+        }
+
+        userStoreConfigAdminServiceClient.addUserStore(userStoreConfigAdminServiceClient.createUserStoreDTO(
+                JDBC_USER_STORE_CLASS, domain, properties.toArray(new PropertyDTO[0])));
+        domains.add(domain);
+        if (!userStoreConfigUtils.waitForUserStoreDeployment(userStoreConfigAdminServiceClient, domain)) {
+            throw new IOException("User store " + domain + " was not deployed.");
+        }
+    }
+
+    /**
+     * Digest of the user store for the setting.
+     */
+    private static String getDigest(String setting) {
+
+        if (setting.toUpperCase(Locale.ENGLISH).startsWith(PBKDF2 + "-")) {
+            return PBKDF2;
+        }
+        return setting;
+    }
+
+    /**
+     * Whether the server can always hash with the digest, so a failure to hash with it is an error rather than a
+     * missing hash provider. PBKDF2 is shipped with the server, and the user store uses the message digests of the
+     * JDK as they are.
+     */
+    private static boolean isBuiltInDigest(String digest) {
+
+        if (PBKDF2.equals(digest)) {
+            return true;
+        }
+        try {
+            MessageDigest.getInstance(digest);
+            return true;
+        } catch (NoSuchAlgorithmException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Add a user whose password is hashed with the setting of the user store.
+     */
+    private String addUser(String domain, int index) throws Exception {
+
+        return userStoreClients[0].addUserWithID(domain + "/" + USER_PREFIX + index, PASSWORD, new String[0],
+                new ClaimValue[0], null).getUserID();
+    }
+
+    /**
+     * Add a user for every other worker, so the workers do not authenticate the same user, and check that the first
+     * one can authenticate.
+     */
+    private void addUsers(String domain, String[] userIds) throws Exception {
+
+        for (int i = 1; i < userIds.length; i++) {
+            userIds[i] = addUser(domain, i);
+        }
+        AuthenticationResultDTO result = userStoreClients[0].authenticateWithIDUserId(userIds[0], domain, PASSWORD);
+        if (result == null || !SUCCESS.equals(result.getAuthenticationStatus())) {
+            throw new IOException("Users of " + domain + " can not authenticate.");
+        }
+    }
+
+    private LoadTestResult getResult(String name) {
+
+        synchronized (results) {
+            for (LoadTestResult result : results) {
+                if (name.equals(result.getName())) {
+                    return result;
+                }
+            }
+        }
+        throw new IllegalStateException("No result of " + name);
+    }
+
+    private static int getServerCores() {
+
+        return LoadTestConfig.getInt(SERVER_CORES, Runtime.getRuntime().availableProcessors());
+    }
+
+    private void writeSummary() throws IOException {
+
+        if (summary.isEmpty()) {
+            return;
+        }
+        File reportDirectory = new File(LoadTestConfig.getReportDirectory());
+        if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+            throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+        }
+        try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory,
+                REPORT_NAME + "-per-core.txt")), false, StandardCharsets.UTF_8.name())) {
+            report.println("cores=" + getServerCores());
+            for (String line : summary) {
+                report.println(line);
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import io.restassured.config.EncoderConfig;
 import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -65,7 +66,6 @@ import java.util.jar.JarFile;
 import java.util.stream.Collectors;
 import javax.xml.xpath.XPathExpressionException;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.hamcrest.core.StringContains.containsString;
@@ -133,6 +133,20 @@ public class RESTTestBase extends ISIntegrationTest {
         RestAssured.basePath = StringUtils.EMPTY;
     }
 
+    /**
+     * Start a request specification. When test classes run in parallel, the base path of this test is set on the
+     * request itself since {@link RestAssured#basePath} is shared by every test running in the JVM.
+     *
+     * @return request specification
+     */
+    protected RequestSpecification given() {
+
+        if (isParallelExecution()) {
+            return RestAssured.given().basePath(basePath);
+        }
+        return RestAssured.given();
+    }
+
     /**
      * Read the Swagger Definition from the .jar file in the "api" webapp
      *
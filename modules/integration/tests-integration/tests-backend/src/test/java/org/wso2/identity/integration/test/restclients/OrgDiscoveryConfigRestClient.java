@@ -23,6 +23,8 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.http.Header;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
 import org.testng.Assert;
 import org.wso2.carbon.automation.engine.context.beans.Tenant;
 import org.wso2.identity.integration.common.utils.ISIntegrationTest;
@@ -40,6 +42,7 @@ public class OrgDiscoveryConfigRestClient extends RestBaseClient {
     private static final String ORGANIZATION_CONFIG_PATH = "/organization-configs";
     private static final String ORGANIZATIONS_PATH = "/organizations";
     private static final String DISCOVERY_PATH = "/discovery";
+    private static final String CHECK_DISCOVERY_PATH = "/check-discovery";
 
     private final String username;
     private final String password;
@@ -101,6 +104,45 @@ public class OrgDiscoveryConfigRestClient extends RestBaseClient {
         }
     }
 
+    /**
+     * Get the discovery attributes mapped to an organization.
+     *
+     * @param orgId Organization ID.
+     * @return Discovery attributes of the organization.
+     * @throws Exception If an error occurred while getting the discovery attributes.
+     */
+    public JSONObject getDiscoveryAttributes(String orgId) throws Exception {
+
+        String endpointUrl = serverBasePath + ORGANIZATIONS_PATH + PATH_SEPARATOR + orgId + DISCOVERY_PATH;
+        try (CloseableHttpResponse httpResponse = getResponseOfHttpGet(endpointUrl, getHeaders())) {
+            Assert.assertEquals(httpResponse.getStatusLine().getStatusCode(), HttpServletResponse.SC_OK,
+                    "Failed to get discovery attributes.");
+            return getJSONObject(EntityUtils.toString(httpResponse.getEntity()));
+        }
+    }
+
+    /**
+     * Check whether a discovery attribute value is still available to be mapped to an organization.
+     *
+     * @param type  Discovery attribute type, such as emailDomain.
+     * @param value Discovery attribute value.
+     * @return True if the value is not mapped to any organization.
+     * @throws Exception If an error occurred while checking the discovery attribute.
+     */
+    public boolean isDiscoveryAttributeAvailable(String type, String value) throws Exception {
+
+        JSONObject requestBody = new JSONObject();
+        requestBody.put("type", type);
+        requestBody.put("value", value);
+        try (CloseableHttpResponse httpResponse = getResponseOfHttpPost(serverBasePath + ORGANIZATIONS_PATH +
+                CHECK_DISCOVERY_PATH, requestBody.toJSONString(), getHeaders())) {
+            Assert.assertEquals(httpResponse.getStatusLine().getStatusCode(), HttpServletResponse.SC_OK,
+                    "Failed to check discovery attribute.");
+            return Boolean.TRUE.equals(getJSONObject(EntityUtils.toString(httpResponse.getEntity()))
+                    .get("available"));
+        }
+    }
+
     public void closeHttpClient() throws IOException {
 
         client.close();
@@ -84,8 +84,8 @@ public class OrgMgtRestClient extends RestBaseClient {
     private final String authenticatingCredential;
 
     private String b2bAppId;
-    private String b2bAppClientId;
-    private String b2bAppClientSecret;
+    private volatile String b2bAppClientId;
+    private volatile String b2bAppClientSecret;
 
     public OrgMgtRestClient(AutomationContext context, Tenant tenantInfo, String baseUrl, JSONObject authorizedAPIs)
             throws Exception {
@@ -136,10 +136,24 @@ public class OrgMgtRestClient extends RestBaseClient {
      */
     public String addSubOrganization(String orgName, String parentOrgId) throws Exception {
 
-        String m2mToken = switchM2MToken(parentOrgId);
+        return addSubOrganization(orgName, parentOrgId, switchM2MToken(parentOrgId));
+    }
+
+    /**
+     * Add an organization within another organization, using a switched M2M token of the parent organization that
+     * was obtained earlier. Used when several organizations are added to the same parent.
+     *
+     * @param orgName          Name of the sub-organization.
+     * @param parentOrgId      ID of the parent organization.
+     * @param switchedM2MToken Switched M2M token for the parent organization.
+     * @return ID of the created sub-organization.
+     * @throws Exception If an error occurs while creating the sub-organization.
+     */
+    public String addSubOrganization(String orgName, String parentOrgId, String switchedM2MToken) throws Exception {
+
         String body = buildOrgCreationRequestBody(orgName, parentOrgId);
         try (CloseableHttpResponse response = getResponseOfHttpPost(subOrganizationManagementApiBasePath, body,
-                getHeadersWithBearerToken(m2mToken))) {
+                getHeadersWithBearerToken(switchedM2MToken))) {
             String[] locationElements = response.getHeaders(LOCATION_HEADER)[0].toString().split(PATH_SEPARATOR);
             return locationElements[locationElements.length - 1];
         }
@@ -186,12 +200,10 @@ public class OrgMgtRestClient extends RestBaseClient {
      */
     public String getM2MAccessToken() throws Exception {
 
-        OpenIDConnectConfiguration openIDConnectConfiguration =
-                oAuth2RestClient.getOIDCInboundDetails(b2bAppId);
-
+        loadB2BAppCredentials();
         URI tokenEndpoint = new URI(getTenantQualifiedURL(OAuth2Constant.ACCESS_TOKEN_ENDPOINT,
                 tenantInfo.getDomain()));
-        TokenRequest request = getTokenRequest(tokenEndpoint, openIDConnectConfiguration);
+        TokenRequest request = getTokenRequest(tokenEndpoint);
         HTTPResponse tokenHTTPResp = request.toHTTPRequest().send();
         TokenResponse tokenResponse = TokenResponse.parse(tokenHTTPResp);
         AccessTokenResponse accessTokenResponse = tokenResponse.toSuccessResponse();
@@ -208,9 +220,23 @@ public class OrgMgtRestClient extends RestBaseClient {
      */
     public String switchM2MToken(String organizationID) throws Exception {
 
+        return switchM2MToken(organizationID, getM2MAccessToken());
+    }
+
+    /**
+     * Retrieve a switched M2M token for the given organization, switching an M2M token that was obtained earlier.
+     *
+     * @param organizationID ID of the organization.
+     * @param m2mToken       M2M access token of the B2B application.
+     * @return Switched M2M token for the given organization.
+     * @throws Exception If an error occurs while switching the M2M token.
+     */
+    public String switchM2MToken(String organizationID, String m2mToken) throws Exception {
+
+        loadB2BAppCredentials();
         List<NameValuePair> urlParameters = new ArrayList<>();
         urlParameters.add(new BasicNameValuePair(OAuth2Constant.GRANT_TYPE_NAME, "organization_switch"));
-        urlParameters.add(new BasicNameValuePair("token", getM2MAccessToken()));
+        urlParameters.add(new BasicNameValuePair("token", m2mToken));
         urlParameters.add(new BasicNameValuePair("scope", "SYSTEM"));
         urlParameters.add(new BasicNameValuePair("switching_organization", organizationID));
 
@@ -313,11 +339,18 @@ public class OrgMgtRestClient extends RestBaseClient {
         return organization.toString();
     }
 
-    private TokenRequest getTokenRequest(URI tokenEndpoint,
-                                         OpenIDConnectConfiguration openIDConnectConfiguration) {
+    private synchronized void loadB2BAppCredentials() throws Exception {
+
+        // The credentials of the B2B application do not change, so they are read only once.
+        if (b2bAppClientSecret == null) {
+            OpenIDConnectConfiguration openIDConnectConfiguration = oAuth2RestClient.getOIDCInboundDetails(b2bAppId);
+            b2bAppClientId = openIDConnectConfiguration.getClientId();
+            b2bAppClientSecret = openIDConnectConfiguration.getClientSecret();
+        }
+    }
+
+    private TokenRequest getTokenRequest(URI tokenEndpoint) {
 
-        b2bAppClientId = openIDConnectConfiguration.getClientId();
-        b2bAppClientSecret = openIDConnectConfiguration.getClientSecret();
         ClientID clientID = new ClientID(b2bAppClientId);
         Secret clientSecret = new Secret(b2bAppClientSecret);
         ClientAuthentication clientAuth = new ClientSecretBasic(clientID, clientSecret);
@@ -38,12 +38,15 @@ import org.wso2.identity.integration.test.utils.OAuth2Constant;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 
 public class SCIM2RestClient extends RestBaseClient {
 
     private static final String SCIM2_USERS_ENDPOINT = "scim2/Users";
     private static final String SCIM2_ROLES_ENDPOINT = "scim2/Roles";
     private static final String SCIM2_GROUPS_ENDPOINT = "scim2/Groups";
+    private static final String SCIM2_BULK_ENDPOINT = "scim2/Bulk";
     private static final String SCIM2_SEARCH_PATH = "/.search";
     private static final String SCIM_JSON_CONTENT_TYPE = "application/scim+json";
     private static final String ROLE_SEARCH_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:SearchRequest";
@@ -51,6 +54,10 @@ public class SCIM2RestClient extends RestBaseClient {
     private static final String SCIM_SCHEMA_EXTENSION_ENTERPRISE = "scimSchemaExtensionEnterprise";
     private static final String DISPLAY_NAME_ATTRIBUTE = "displayName";
     private static final String ATTRIBUTES_PART = "?attributes=";
+    private static final String START_INDEX_PART = "?startIndex=";
+    private static final String COUNT_PART = "&count=";
+    private static final String FILTER_PART = "&filter=";
+    private static final String ATTRIBUTES_QUERY_PART = "&attributes=";
     private static final String EQ_OP = "eq";
     private final String serverUrl;
     private final String tenantDomain;
@@ -169,6 +176,48 @@ public class SCIM2RestClient extends RestBaseClient {
         }
     }
 
+    /**
+     * List a page of users, optionally matching a filter. The response is returned as is, so it has to be checked by
+     * the caller.
+     *
+     * @param startIndex 1-based index of the first user of the page.
+     * @param count      Maximum number of users in the page.
+     * @param filter     SCIM filter the users should match, or null to list all users.
+     * @param attributes Requested user attributes, or null for the default attributes.
+     * @return JSONObject of the HTTP response.
+     * @throws Exception If an error occurred while listing the users.
+     */
+    public JSONObject listUsers(int startIndex, int count, String filter, String attributes) throws Exception {
+
+        StringBuilder endPointUrl = new StringBuilder(getUsersPath()).append(START_INDEX_PART).append(startIndex)
+                .append(COUNT_PART).append(count);
+        if (StringUtils.isNotEmpty(filter)) {
+            endPointUrl.append(FILTER_PART).append(URLEncoder.encode(filter, StandardCharsets.UTF_8.name()));
+        }
+        if (StringUtils.isNotEmpty(attributes)) {
+            endPointUrl.append(ATTRIBUTES_QUERY_PART).append(attributes);
+        }
+
+        try (CloseableHttpResponse response = getResponseOfHttpGet(endPointUrl.toString(), getHeaders())) {
+            return getJSONObject(EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    /**
+     * Send a bulk request. The server responds with the status of every operation, so the response has to be checked
+     * by the caller.
+     *
+     * @param bulkRequest Json String of the bulk request.
+     * @return JSONObject of the bulk response.
+     * @throws Exception If an error occurred while sending the bulk request.
+     */
+    public JSONObject sendBulkRequest(String bulkRequest) throws Exception {
+
+        try (CloseableHttpResponse response = getResponseOfHttpPost(getBulkPath(), bulkRequest, getHeaders())) {
+            return getJSONObject(EntityUtils.toString(response.getEntity()));
+        }
+    }
+
     /**
      * Delete an existing user.
      *
@@ -349,6 +398,15 @@ public class SCIM2RestClient extends RestBaseClient {
         }
     }
 
+    private String getBulkPath() {
+
+        if (tenantDomain.equals(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
+            return serverUrl + SCIM2_BULK_ENDPOINT;
+        } else {
+            return serverUrl + TENANT_PATH + tenantDomain + PATH_SEPARATOR + SCIM2_BULK_ENDPOINT;
+        }
+    }
+
     private String getSubOrgUsersPath() {
 
         if (tenantDomain.equals(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
@@ -18,13 +18,17 @@ package org.wso2.identity.integration.test.user.mgt.uuid;
 
 import org.testng.Assert;
 import org.wso2.carbon.identity.test.integration.service.stub.AuthenticationResultDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.BatchResultDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.ClaimDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.ClaimValue;
 import org.wso2.carbon.identity.test.integration.service.stub.ConditionDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.LoginIdentifierDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.NewUserDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.PermissionDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.UniqueIDUserClaimSearchEntryDAO;
+import org.wso2.carbon.identity.test.integration.service.stub.UserClaimValuesDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.UserDTO;
+import org.wso2.carbon.identity.test.integration.service.stub.UserPageDTO;
 import org.wso2.carbon.identity.test.integration.service.stub.UserRoleListDTO;
 import org.wso2.carbon.integration.common.admin.client.AuthenticatorClient;
 import org.wso2.carbon.user.core.model.OperationalOperation;
@@ -33,7 +37,9 @@ import org.wso2.identity.integration.common.clients.usermgt.uuid.UUIDUserStoreMa
 import org.wso2.identity.integration.common.utils.ISIntegrationTest;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public abstract class AbstractUUIDUMTestCase extends ISIntegrationTest {
 
@@ -63,6 +69,10 @@ public abstract class AbstractUUIDUMTestCase extends ISIntegrationTest {
 
     private String userId;
 
+    private String batchUsernamePrefix = "uuid-batch-user";
+    private int batchUserCount = 25;
+    private int userCursorPageSize = 7;
+
     protected void init() throws Exception {
 
         super.init();
@@ -482,6 +492,75 @@ public abstract class AbstractUUIDUMTestCase extends ISIntegrationTest {
         return exists;
     }
 
+    public void testBatchOperationsAndUserCursor() throws Exception {
+
+        // A duplicate of an existing user is included to check that a failed entry does not stop the batch.
+        NewUserDTO[] newUsers = new NewUserDTO[batchUserCount + 1];
+        for (int i = 0; i < batchUserCount; i++) {
+            newUsers[i] = new NewUserDTO();
+            newUsers[i].setUserName(batchUsernamePrefix + i);
+            newUsers[i].setCredential(credential1);
+            newUsers[i].setRoleList(new String[0]);
+            newUsers[i].setClaims(new ClaimValue[0]);
+        }
+        newUsers[batchUserCount] = new NewUserDTO();
+        newUsers[batchUserCount].setUserName(user1Username);
+        newUsers[batchUserCount].setCredential(credential1);
+
+        BatchResultDTO[] addResults = userMgtClient.addUsersWithID(newUsers, defaultProfile);
+        Assert.assertEquals(addResults.length, batchUserCount + 1);
+        Assert.assertFalse(addResults[batchUserCount].getSuccess(), "Adding an existing user should fail.");
+        Set<String> batchUserIds = new HashSet<>();
+        for (int i = 0; i < batchUserCount; i++) {
+            Assert.assertTrue(addResults[i].getSuccess(), "Failed to add " + newUsers[i].getUserName() + ": " +
+                    addResults[i].getErrorMessage());
+            batchUserIds.add(addResults[i].getUserID());
+        }
+
+        String lastNameClaim = "http://wso2.org/claims/lastname";
+        UserClaimValuesDTO[] claimUpdates = new UserClaimValuesDTO[batchUserCount];
+        int i = 0;
+        for (String batchUserId : batchUserIds) {
+            ClaimValue lastName = new ClaimValue();
+            lastName.setClaimUri(lastNameClaim);
+            lastName.setClaimValue("batch" + i);
+            claimUpdates[i] = new UserClaimValuesDTO();
+            claimUpdates[i].setUserID(batchUserId);
+            claimUpdates[i].setClaims(new ClaimValue[]{lastName});
+            i++;
+        }
+        for (BatchResultDTO result : userMgtClient.setUsersClaimValuesWithID(claimUpdates, defaultProfile)) {
+            Assert.assertTrue(result.getSuccess(), "Failed to update the claims of " + result.getUserID() + ": " +
+                    result.getErrorMessage());
+        }
+        Assert.assertEquals(userMgtClient.getUserClaimValueWithID(claimUpdates[0].getUserID(), lastNameClaim,
+                defaultProfile), "batch0");
+
+        Set<String> listedUserIds = new HashSet<>();
+        UserPageDTO page = userMgtClient.openUserCursorWithID(batchUsernamePrefix + "*", userCursorPageSize);
+        while (true) {
+            if (page.getUsers() != null) {
+                Assert.assertTrue(page.getUsers().length <= userCursorPageSize);
+                for (UserDTO user : page.getUsers()) {
+                    Assert.assertTrue(listedUserIds.add(user.getUserID()), "User " + user.getUsername() +
+                            " was listed twice.");
+                }
+            }
+            if (page.getCursor() == null) {
+                break;
+            }
+            page = userMgtClient.getNextUserPageWithID(page.getCursor());
+        }
+        Assert.assertEquals(listedUserIds, batchUserIds);
+
+        BatchResultDTO[] deleteResults = userMgtClient.deleteUsersWithID(batchUserIds.toArray(new String[0]));
+        for (BatchResultDTO result : deleteResults) {
+            Assert.assertTrue(result.getSuccess(), "Failed to delete " + result.getUserID() + ": " +
+                    result.getErrorMessage());
+            Assert.assertFalse(userMgtClient.isExistingUserWithID(result.getUserID()));
+        }
+    }
+
     protected boolean nameExists(String[] allNames, String inputName) {
 
         boolean exists = false;
@@ -229,6 +229,12 @@ public class JDBCUUIDUMTestCase extends AbstractUUIDUMTestCase {
         super.testUpdateCredentialByAdminWithID();
     }
 
+    @Test(dependsOnMethods = "testAddUser")
+    public void testBatchOperationsAndUserCursor() throws Exception {
+
+        super.testBatchOperationsAndUserCursor();
+    }
+
     @AfterClass
     public void deInit() throws IOException, AutomationUtilException {
 
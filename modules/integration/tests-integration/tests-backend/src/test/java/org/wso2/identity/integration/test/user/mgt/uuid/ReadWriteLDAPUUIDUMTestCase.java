@@ -222,4 +222,10 @@ public class ReadWriteLDAPUUIDUMTestCase extends AbstractUUIDUMTestCase {
 
         super.testUpdateCredentialByAdminWithID();
     }
+
+    @Test(dependsOnMethods = "testAddUser")
+    public void testBatchOperationsAndUserCursor() throws Exception {
+
+        super.testBatchOperationsAndUserCursor();
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.integration.test.util;
+
+import org.apache.commons.logging.Log;
+import org.wso2.carbon.automation.engine.frameworkutils.FrameworkPathUtil;
+import org.wso2.carbon.automation.extensions.servers.utils.ServerLogReader;
+import org.wso2.carbon.integration.common.utils.mgt.ServerConfigurationManager;
+
+import java.io.File;
+
+/**
+ * Adds or removes the OpenJDK Nashorn dependencies of adaptive authentication with the adaptive script of the
+ * server, for the tests that run the adaptive authentication scripts with Nashorn on Java 15 and later.
+ */
+public class AdaptiveAuthenticationDependencyUtil {
+
+    private static final String ENABLED_MESSAGE = "Adaptive authentication successfully enabled.";
+    private static final String DISABLED_MESSAGE = "Adaptive authentication successfully disabled.";
+    private static final long SCRIPT_TIMEOUT_MILLIS = 60 * 1000;
+
+    private AdaptiveAuthenticationDependencyUtil() {
+
+    }
+
+    /**
+     * Run the adaptive script of the server and restart the server to load or unload the dependencies. A failure of
+     * the script is logged and not thrown, like the tests that enable adaptive authentication before this util
+     * expect.
+     *
+     * @param disable Whether to remove the dependencies instead of adding them.
+     * @param scm     Configuration manager used to restart the server.
+     * @param logger  Log of the calling test.
+     */
+    public static void runAdaptiveAuthenticationDependencyScript(boolean disable, ServerConfigurationManager scm,
+                                                                 Log logger) {
+
+        String targetFolder = System.getProperty("carbon.home");
+        File scriptFolder = new File(FrameworkPathUtil.getSystemResourceLocation() + File.separator);
+        Process tempProcess = null;
+
+        try {
+            String[] command;
+            if (System.getProperty("os.name").toLowerCase().contains("windows")) {
+                logger.info("Operating System is Windows. Executing batch script");
+                if (disable) {
+                    // Restarting before the execution to release the locks on nashorn and asm-util jars in the
+                    // dropins directory.
+                    scm.restartGracefully();
+                    command = new String[]{"cmd", "/c", "adaptive.bat", targetFolder, "DISABLE"};
+                } else {
+                    command = new String[]{"cmd", "/c", "adaptive.bat", targetFolder};
+                }
+            } else {
+                logger.info("Operating system is not windows. Executing shell script");
+                if (disable) {
+                    command = new String[]{"/bin/bash", "adaptive.sh", targetFolder, "DISABLE"};
+                } else {
+                    command = new String[]{"/bin/bash", "adaptive.sh", targetFolder};
+                }
+            }
+            tempProcess = Runtime.getRuntime().exec(command, null, scriptFolder);
+            ServerLogReader errorStreamHandler = new ServerLogReader("errorStream", tempProcess.getErrorStream());
+            ServerLogReader inputStreamHandler = new ServerLogReader("inputStream", tempProcess.getInputStream());
+            inputStreamHandler.start();
+            errorStreamHandler.start();
+            boolean runStatus = waitForMessage(inputStreamHandler, disable ? DISABLED_MESSAGE : ENABLED_MESSAGE);
+            logger.info("Status Message : " + runStatus);
+            scm.restartGracefully();
+        } catch (Exception e) {
+            logger.error("Failed to execute adaptive authentication dependency script", e);
+        } finally {
+            if (tempProcess != null) {
+                tempProcess.destroy();
+            }
+        }
+    }
+
+    private static boolean waitForMessage(ServerLogReader inputStreamHandler, String message)
+            throws InterruptedException {
+
+        long time = System.currentTimeMillis() + SCRIPT_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < time) {
+            if (inputStreamHandler.getOutput().contains(message)) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
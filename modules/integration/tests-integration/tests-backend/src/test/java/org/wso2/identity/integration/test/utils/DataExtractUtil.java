@@ -31,8 +31,12 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,9 +48,20 @@ import static org.wso2.identity.integration.test.utils.OAuth2Constant.AUTH_CODE_
 public class DataExtractUtil {
 
     private static Log log = LogFactory.getLog(DataExtractUtil.class);
+    private static final Pattern INPUT_NAME_KEY = Pattern.compile("name=\"([^\"]+)\"");
+    private static final Set<String> FLOW_INPUTS = new HashSet<>(Arrays.asList(OAuth2Constant.SESSION_DATA_KEY,
+            OAuth2Constant.SESSION_DATA_KEY_CONSENT, "SAMLResponse", "RelayState", "wresult"));
 
     /**
-     * Extract data from http response with the given keywords
+     * Extract data from http response with the given keywords.
+     * <p>
+     * Keys of the form {@code name="sessionDataKey"} that refer to the inputs posted back by the authentication
+     * flows are read with {@link HtmlFormExtractor} in a single pass, so the value does not need to be on the same
+     * line as the name. Other keys are matched line by line.
+     * <p>
+     * Either way the first match in page order is returned. The two only differ when requested inputs share a line:
+     * the line scan returns the one whose key comes first in the map, the single pass the one that comes first in
+     * the line.
      *
      * @param response
      * @param keyPositionMap
@@ -57,9 +72,18 @@ public class DataExtractUtil {
                                                          Map<String, Integer> keyPositionMap)
             throws IOException {
 
-        //todo extracting sessionDataKey using this method required key and value to be in the same line
-        //todo ex. <input type="hidden" name="sessionDataKey"  value='8a433378-6d1f-434b-b574-a143dbb1a508'/>
-        //todo if the jsp page formatted and value moved to the next line this will break. nice to have this fixed
+        Map<String, String> inputKeys = getFlowInputKeys(keyPositionMap);
+        if (inputKeys != null) {
+            Map<String, String> inputValues = HtmlFormExtractor.extractInputValues(response,
+                    inputKeys.keySet().toArray(new String[0]));
+            if (inputValues.isEmpty()) {
+                return null;
+            }
+            Map.Entry<String, String> firstInput = inputValues.entrySet().iterator().next();
+            List<KeyValue> keyValues = new ArrayList<>();
+            keyValues.add(new KeyValue(inputKeys.get(firstInput.getKey()), firstInput.getValue()));
+            return keyValues;
+        }
 
         List<KeyValue> keyValues = new ArrayList<>();
         BufferedReader rd = new BufferedReader(new InputStreamReader(response.getEntity().getContent()));
@@ -74,11 +98,12 @@ public class DataExtractUtil {
                         keyValues.add(keyValue);
                         return keyValues;
                     } else {
-                        String regexString = Pattern.quote(key + " value=\"") + "(.*?)" + Pattern.quote("\"");
-                        Pattern pattern = Pattern.compile(regexString);
-                        Matcher matcher = pattern.matcher(line);
-                        if (matcher.find()) {
-                            KeyValue keyValue = new KeyValue(key, matcher.group(1));
+                        String prefix = key + " value=\"";
+                        int valueStart = line.indexOf(prefix);
+                        int valueEnd = valueStart < 0 ? -1 : line.indexOf('"', valueStart + prefix.length());
+                        if (valueEnd >= 0) {
+                            KeyValue keyValue = new KeyValue(key,
+                                    line.substring(valueStart + prefix.length(), valueEnd));
                             keyValues.add(keyValue);
                             return keyValues;
                         }
@@ -91,6 +116,26 @@ public class DataExtractUtil {
         return null;
     }
 
+    /**
+     * Map the input names of the given keys to the keys, if every key is of the form {@code name="<input>"} and
+     * refers to one of the inputs the authentication flows post back.
+     *
+     * @param keyPositionMap Search keys.
+     * @return Keys by input name, or null if any key has to be matched line by line.
+     */
+    private static Map<String, String> getFlowInputKeys(Map<String, Integer> keyPositionMap) {
+
+        Map<String, String> inputKeys = new LinkedHashMap<>();
+        for (String key : keyPositionMap.keySet()) {
+            Matcher matcher = INPUT_NAME_KEY.matcher(key);
+            if (!matcher.matches() || !FLOW_INPUTS.contains(matcher.group(1))) {
+                return null;
+            }
+            inputKeys.put(matcher.group(1), key);
+        }
+        return inputKeys.isEmpty() ? null : inputKeys;
+    }
+
     /**
      * Extract input values from http response
      *
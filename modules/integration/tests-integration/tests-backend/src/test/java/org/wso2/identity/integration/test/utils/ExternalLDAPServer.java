@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.directory.api.ldap.model.constants.SchemaConstants;
 import org.apache.directory.api.ldap.model.entry.Attribute;
 import org.apache.directory.api.ldap.model.entry.DefaultAttribute;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
 import org.apache.directory.api.ldap.model.entry.DefaultModification;
 import org.apache.directory.api.ldap.model.entry.Entry;
 import org.apache.directory.api.ldap.model.entry.Modification;
@@ -30,6 +31,8 @@ import org.apache.directory.api.ldap.model.entry.ModificationOperation;
 import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.exception.LdapInvalidAttributeValueException;
 import org.apache.directory.api.ldap.model.exception.LdapInvalidDnException;
+import org.apache.directory.api.ldap.model.ldif.LdifEntry;
+import org.apache.directory.api.ldap.model.ldif.LdifReader;
 import org.apache.directory.api.ldap.model.name.Dn;
 import org.apache.directory.api.ldap.model.schema.AttributeType;
 import org.apache.directory.api.ldap.model.schema.LdapComparator;
@@ -80,6 +83,7 @@ public class ExternalLDAPServer {
     private String workingDirectoryPath;
     private String schemaZipFilePath;
     private int serverPort;
+    private final List<String> additionalIndexedAttributes = new ArrayList<>();
 
     public static final String ADMIN_PASSWORD_ALGORITHM = "SHA";
 
@@ -110,6 +114,59 @@ public class ExternalLDAPServer {
         server.stop();
     }
 
+    /**
+     * Stop the server and shut down the directory service, which releases the partition files, so another server
+     * can be started in the same JVM.
+     *
+     * @throws Exception If the directory service could not be shut down.
+     */
+    public void shutdown() throws Exception {
+
+        server.stop();
+        directoryService.shutdown();
+    }
+
+    /**
+     * Index an attribute of the default partition besides the default indexes. Must be called before the server is
+     * started.
+     *
+     * @param attributeName Name or OID of the attribute.
+     */
+    public void addIndexedAttribute(String attributeName) {
+
+        additionalIndexedAttributes.add(attributeName);
+    }
+
+    /**
+     * Add the entries of an LDIF file to the directory through the admin session. The file is read one entry at a
+     * time, so it can be larger than the heap.
+     *
+     * @param ldifFile LDIF file with the entries to add, parents before children.
+     * @return Number of entries added.
+     * @throws Exception If the file could not be read or an entry could not be added.
+     */
+    public long importLdif(File ldifFile) throws Exception {
+
+        CoreSession adminSession = directoryService.getAdminSession();
+        SchemaManager schemaManager = directoryService.getSchemaManager();
+        long count = 0;
+        try (LdifReader ldifReader = new LdifReader(ldifFile)) {
+            for (LdifEntry ldifEntry : ldifReader) {
+                if (!ldifEntry.isEntry()) {
+                    continue;
+                }
+                try {
+                    adminSession.add(new DefaultEntry(schemaManager, ldifEntry.getEntry()));
+                } catch (LdapException e) {
+                    throw new Exception("Could not add entry to partition. DN - " + ldifEntry.getDn(), e);
+                }
+                count++;
+            }
+        }
+        directoryService.sync();
+        return count;
+    }
+
     private void initiateDirectoryService() throws Exception {
 
         directoryService = new DefaultDirectoryService();
@@ -330,6 +387,9 @@ public class ExternalLDAPServer {
             indexedAttrs.add(new JdbmIndex<Entry>("objectClass", true));
             indexedAttrs.add(new JdbmIndex<Entry>("cn", true));
             indexedAttrs.add(new JdbmIndex<Entry>("uid", true));
+            for (String attributeName : additionalIndexedAttributes) {
+                indexedAttrs.add(new JdbmIndex<Entry>(attributeName, true));
+            }
             partition.setIndexedAttributes(indexedAttrs);
 
             return partition;
@@ -39,12 +39,17 @@ import static io.restassured.RestAssured.given;
 import io.restassured.http.ContentType;
 import org.wso2.identity.integration.test.rest.api.common.RESTTestBase;
 import org.wso2.identity.integration.test.restclients.OAuth2RestClient;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.AdvancedApplicationConfiguration;
 import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationListItem;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.ApplicationModel;
+import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.InboundProtocols;
 import org.wso2.identity.integration.test.rest.api.server.application.management.v1.model.OpenIDConnectConfiguration;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -95,6 +100,37 @@ public final class OAuth2Util {
         return applicationId;
     }
 
+    /**
+     * Create an OIDC application with the given name and grant types. Login and logout consent are skipped so that
+     * the authorization code flow can be completed without user interaction.
+     *
+     * @param oAuth2RestClient OAuth2 REST client of the tenant the application is created in.
+     * @param applicationName  Name of the application.
+     * @param grantTypes       Allowed grant types.
+     * @param callbackUrl      Callback URL of the application.
+     * @return Id of the created application.
+     * @throws IOException   If an error occurred while creating the application.
+     * @throws JSONException If an error occurred while creating the request payload.
+     */
+    public static String createOIDCApplication(OAuth2RestClient oAuth2RestClient, String applicationName,
+                                               List<String> grantTypes, String callbackUrl)
+            throws IOException, JSONException {
+
+        OpenIDConnectConfiguration oidcConfig = new OpenIDConnectConfiguration();
+        oidcConfig.setGrantTypes(grantTypes);
+        oidcConfig.setCallbackURLs(Collections.singletonList(callbackUrl));
+
+        InboundProtocols inboundProtocols = new InboundProtocols();
+        inboundProtocols.setOidc(oidcConfig);
+
+        ApplicationModel application = new ApplicationModel();
+        application.setName(applicationName);
+        application.setInboundProtocolConfiguration(inboundProtocols);
+        application.advancedConfigurations(new AdvancedApplicationConfiguration().skipLoginConsent(true)
+                .skipLogoutConsent(true));
+        return oAuth2RestClient.createApplication(application);
+    }
+
     public static String getM2MAccessToken(OAuth2RestClient oAuth2RestClient, String applicationId, URI tokenEndpoint)
             throws Exception {
 
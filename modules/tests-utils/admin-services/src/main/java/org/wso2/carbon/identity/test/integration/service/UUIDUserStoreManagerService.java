@@ -21,15 +21,19 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.identity.test.integration.service.dao.Attribute;
 import org.wso2.carbon.identity.test.integration.service.dao.AuthenticationResultDTO;
+import org.wso2.carbon.identity.test.integration.service.dao.BatchResultDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.ClaimDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.ClaimValue;
 import org.wso2.carbon.identity.test.integration.service.dao.ConditionDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.FailureReasonDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.LoginIdentifierDTO;
+import org.wso2.carbon.identity.test.integration.service.dao.NewUserDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.PermissionDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.UniqueIDUserClaimSearchEntryDAO;
 import org.wso2.carbon.identity.test.integration.service.dao.UserClaimSearchEntryDAO;
+import org.wso2.carbon.identity.test.integration.service.dao.UserClaimValuesDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.UserDTO;
+import org.wso2.carbon.identity.test.integration.service.dao.UserPageDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.UserRoleListDTO;
 import org.wso2.carbon.identity.test.integration.service.dao.UserStoreException;
 import org.wso2.carbon.user.core.Permission;
@@ -51,6 +55,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Admin service to call methods using unique user id. This service currently only used for integration tests.
@@ -59,6 +67,15 @@ public class UUIDUserStoreManagerService {
 
     private static final Log log = LogFactory.getLog(UUIDUserStoreManagerService.class);
     private static final String NULL_REALM_MESSAGE = "UserRealm is null";
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final int MAX_PAGE_SIZE = 10000;
+    private static final int CURSOR_CHUNK_PAGES = 10;
+    private static final int MAX_OPEN_CURSORS = 100;
+    private static final long CURSOR_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final Map<String, UserListCursor> userListCursors = new ConcurrentHashMap<>();
+    // Cursors open or being opened. A slot is reserved before the cursor is added, so the limit holds under
+    // concurrent calls.
+    private static final AtomicInteger openUserListCursors = new AtomicInteger();
 
     public UserDTO addUserWithID(String userName, String credential, String[] roleList, ClaimValue[] claims,
                                  String profileName) throws UserStoreException {
@@ -419,6 +436,215 @@ public class UUIDUserStoreManagerService {
         }
     }
 
+    /**
+     * Add the given users with a single service call. A user that cannot be added does not stop the rest of the
+     * batch; its result carries the error instead.
+     *
+     * @param users       Users to add. At most 10000 per call.
+     * @param profileName Profile name of the claims.
+     * @return Result per user, in the order of the given users.
+     * @throws UserStoreException If the batch is too large or the user store manager is not available.
+     */
+    public BatchResultDTO[] addUsersWithID(NewUserDTO[] users, String profileName) throws UserStoreException {
+
+        if (users == null) {
+            return new BatchResultDTO[0];
+        }
+        validateBatchSize(users.length);
+        AbstractUserStoreManager userStoreManager = getUserStoreManager();
+        BatchResultDTO[] results = new BatchResultDTO[users.length];
+        for (int i = 0; i < users.length; i++) {
+            NewUserDTO user = users[i];
+            try {
+                User addedUser = userStoreManager.addUserWithID(user.getUserName(), user.getCredential(),
+                        user.getRoleList(), convertClaimValueToMap(user.getClaims()), profileName);
+                results[i] = new BatchResultDTO(user.getUserName(), addedUser.getUserID());
+            } catch (org.wso2.carbon.user.core.UserStoreException e) {
+                results[i] = getFailedBatchResult(user.getUserName(), null, e);
+            }
+        }
+        logFailedBatchEntries("addUsersWithID", results);
+        return results;
+    }
+
+    /**
+     * Set the claim values of the given users with a single service call. A user that cannot be updated does not
+     * stop the rest of the batch; its result carries the error instead.
+     *
+     * @param users       Claim values per user. At most 10000 per call.
+     * @param profileName Profile name of the claims.
+     * @return Result per user, in the order of the given users.
+     * @throws UserStoreException If the batch is too large or the user store manager is not available.
+     */
+    public BatchResultDTO[] setUsersClaimValuesWithID(UserClaimValuesDTO[] users, String profileName)
+            throws UserStoreException {
+
+        if (users == null) {
+            return new BatchResultDTO[0];
+        }
+        validateBatchSize(users.length);
+        AbstractUserStoreManager userStoreManager = getUserStoreManager();
+        BatchResultDTO[] results = new BatchResultDTO[users.length];
+        for (int i = 0; i < users.length; i++) {
+            UserClaimValuesDTO user = users[i];
+            try {
+                userStoreManager.setUserClaimValuesWithID(user.getUserID(), convertClaimValueToMap(user.getClaims()),
+                        profileName);
+                results[i] = new BatchResultDTO(null, user.getUserID());
+            } catch (org.wso2.carbon.user.core.UserStoreException e) {
+                results[i] = getFailedBatchResult(null, user.getUserID(), e);
+            }
+        }
+        logFailedBatchEntries("setUsersClaimValuesWithID", results);
+        return results;
+    }
+
+    /**
+     * Delete the given users with a single service call. A user that cannot be deleted does not stop the rest of the
+     * batch; its result carries the error instead.
+     *
+     * @param userIDs IDs of the users to delete. At most 10000 per call.
+     * @return Result per user, in the order of the given user IDs.
+     * @throws UserStoreException If the batch is too large or the user store manager is not available.
+     */
+    public BatchResultDTO[] deleteUsersWithID(String[] userIDs) throws UserStoreException {
+
+        if (userIDs == null) {
+            return new BatchResultDTO[0];
+        }
+        validateBatchSize(userIDs.length);
+        AbstractUserStoreManager userStoreManager = getUserStoreManager();
+        BatchResultDTO[] results = new BatchResultDTO[userIDs.length];
+        for (int i = 0; i < userIDs.length; i++) {
+            try {
+                userStoreManager.deleteUserWithID(userIDs[i]);
+                results[i] = new BatchResultDTO(null, userIDs[i]);
+            } catch (org.wso2.carbon.user.core.UserStoreException e) {
+                results[i] = getFailedBatchResult(null, userIDs[i], e);
+            }
+        }
+        logFailedBatchEntries("deleteUsersWithID", results);
+        return results;
+    }
+
+    /**
+     * Open a cursor over the users matching the filter and get its first page. The position of the cursor is kept by
+     * the service, so the following pages are read with {@link #getNextUserPageWithID(String)} without passing an
+     * offset. Cursors are closed once the last page is read, and discarded after 10 minutes without use.
+     *
+     * @param filter   User name filter.
+     * @param pageSize Number of users per page. At most 10000.
+     * @return First page, with the cursor to read the next page with.
+     * @throws UserStoreException If the page size is invalid, too many cursors are open or the users could not be
+     *                            listed.
+     */
+    public UserPageDTO openUserCursorWithID(String filter, int pageSize) throws UserStoreException {
+
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new UserStoreException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        removeIdleUserListCursors();
+        UserListCursor cursor = new UserListCursor(getTenantId(), filter, pageSize, pageSize * CURSOR_CHUNK_PAGES);
+        if (openUserListCursors.incrementAndGet() > MAX_OPEN_CURSORS) {
+            openUserListCursors.decrementAndGet();
+            throw new UserStoreException("Cannot open more than " + MAX_OPEN_CURSORS + " user cursors.");
+        }
+        String cursorId = UUID.randomUUID().toString();
+        userListCursors.put(cursorId, cursor);
+        return getNextUserPageWithID(cursorId);
+    }
+
+    /**
+     * Get the next page of an open user cursor.
+     *
+     * @param cursorId Cursor returned with the previous page.
+     * @return Next page. Its cursor is null if it is the last page, which may be empty.
+     * @throws UserStoreException If the cursor is unknown or expired, or the users could not be listed.
+     */
+    public UserPageDTO getNextUserPageWithID(String cursorId) throws UserStoreException {
+
+        UserListCursor cursor = cursorId != null ? userListCursors.get(cursorId) : null;
+        if (cursor == null || cursor.getTenantId() != getTenantId()) {
+            throw new UserStoreException("Unknown or expired user cursor: " + cursorId);
+        }
+        try {
+            UserDTO[] users = getUserDTOListFromUser(cursor.nextPage(getUserStoreManager()));
+            if (cursor.hasMore()) {
+                return new UserPageDTO(users, cursorId);
+            }
+            removeUserListCursor(cursorId);
+            return new UserPageDTO(users, null);
+        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            removeUserListCursor(cursorId);
+            log.error("Error while calling the service method.", e);
+            throw new UserStoreException(e.getMessage(), e.getErrorCode(), e.getCause());
+        }
+    }
+
+    /**
+     * Close a user cursor before its last page is read.
+     *
+     * @param cursorId Cursor to close.
+     */
+    public void closeUserCursorWithID(String cursorId) {
+
+        if (cursorId != null) {
+            removeUserListCursor(cursorId);
+        }
+    }
+
+    private void validateBatchSize(int batchSize) throws UserStoreException {
+
+        if (batchSize > MAX_BATCH_SIZE) {
+            throw new UserStoreException("A batch cannot have more than " + MAX_BATCH_SIZE + " entries.");
+        }
+    }
+
+    private BatchResultDTO getFailedBatchResult(String userName, String userID,
+                                                org.wso2.carbon.user.core.UserStoreException e) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Batch entry of user " + (userName != null ? userName : userID) + " failed.", e);
+        }
+        return new BatchResultDTO(userName, userID, e.getErrorCode(), e.getMessage());
+    }
+
+    private void logFailedBatchEntries(String operation, BatchResultDTO[] results) {
+
+        int failed = 0;
+        for (BatchResultDTO result : results) {
+            if (!result.isSuccess()) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.warn(failed + " of " + results.length + " entries failed in " + operation + ".");
+        }
+    }
+
+    private void removeIdleUserListCursors() {
+
+        long idleSince = System.currentTimeMillis() - CURSOR_IDLE_TIMEOUT;
+        for (Map.Entry<String, UserListCursor> entry : userListCursors.entrySet()) {
+            if (entry.getValue().getLastAccessTime() < idleSince) {
+                removeUserListCursor(entry.getKey());
+            }
+        }
+    }
+
+    private void removeUserListCursor(String cursorId) {
+
+        // Only the call that removes the cursor releases its slot.
+        if (userListCursors.remove(cursorId) != null) {
+            openUserListCursors.decrementAndGet();
+        }
+    }
+
+    private int getTenantId() {
+
+        return CarbonContext.getThreadLocalCarbonContext().getTenantId();
+    }
+
     private UserDTO getUserDTO(User user) {
 
         UserDTO userDTO = new UserDTO();
@@ -584,6 +810,9 @@ public class UUIDUserStoreManagerService {
     private Map<String, String> convertClaimValueToMap(ClaimValue[] values) {
 
         Map<String, String> map = new HashMap<>();
+        if (values == null) {
+            return map;
+        }
         for (ClaimValue claimValue : values) {
             map.put(claimValue.getClaimUri(), claimValue.getClaimValue());
         }
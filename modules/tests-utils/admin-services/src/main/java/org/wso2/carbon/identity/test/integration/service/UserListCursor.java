@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.test.integration.service;
+
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+import org.wso2.carbon.user.core.common.User;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Position of a user listing that is read page by page. The user store is read in chunks that are larger than a
+ * page, and the offset of the next chunk is kept here, so a client does not pass offsets and the user store is
+ * called once per chunk instead of once per page.
+ * <p>
+ * The user store API has no paged search that resumes from a position, so every chunk is still an offset listing.
+ * The user store skips all the users before the offset of the chunk, which makes the later chunks of a large user
+ * store slower to read. The cursor only divides the number of those scans by the pages per chunk.
+ */
+class UserListCursor {
+
+    // Offsets of the user store listing start from 1.
+    private static final int FIRST_OFFSET = 1;
+
+    private final int tenantId;
+    private final String filter;
+    private final int pageSize;
+    private final int chunkSize;
+    private final Deque<User> buffer = new ArrayDeque<>();
+    private int nextOffset = FIRST_OFFSET;
+    private boolean exhausted;
+    private volatile long lastAccessTime = System.currentTimeMillis();
+
+    UserListCursor(int tenantId, String filter, int pageSize, int chunkSize) {
+
+        this.tenantId = tenantId;
+        this.filter = filter;
+        this.pageSize = pageSize;
+        this.chunkSize = Math.max(pageSize, chunkSize);
+    }
+
+    int getTenantId() {
+
+        return tenantId;
+    }
+
+    long getLastAccessTime() {
+
+        return lastAccessTime;
+    }
+
+    /**
+     * Read the next page of users.
+     *
+     * @param userStoreManager User store manager of the tenant the cursor was opened in.
+     * @return Users of the page. Empty if all users were read.
+     * @throws UserStoreException If an error occurred while reading the next chunk.
+     */
+    synchronized List<User> nextPage(AbstractUserStoreManager userStoreManager) throws UserStoreException {
+
+        lastAccessTime = System.currentTimeMillis();
+        while (buffer.size() < pageSize && !exhausted) {
+            // An offset listing, so the user store skips the nextOffset - 1 users before the chunk. The user store
+            // may return fewer users than requested when the chunk exceeds its maximum list length, so only an empty
+            // chunk marks the end of the listing.
+            List<User> chunk = userStoreManager.listUsersWithID(filter, chunkSize, nextOffset);
+            if (chunk == null || chunk.isEmpty()) {
+                exhausted = true;
+            } else {
+                buffer.addAll(chunk);
+                nextOffset += chunk.size();
+            }
+        }
+        List<User> page = new ArrayList<>(Math.min(pageSize, buffer.size()));
+        while (page.size() < pageSize && !buffer.isEmpty()) {
+            page.add(buffer.poll());
+        }
+        return page;
+    }
+
+    synchronized boolean hasMore() {
+
+        return !buffer.isEmpty() || !exhausted;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.test.integration.service.dao;
+
+/**
+ * Outcome of a single entry of a batch operation. A failed entry does not stop the rest of the batch.
+ */
+public class BatchResultDTO {
+
+    private String userName;
+    private String userID;
+    private boolean success;
+    private String errorCode;
+    private String errorMessage;
+
+    public BatchResultDTO() {
+
+        super();
+    }
+
+    public BatchResultDTO(String userName, String userID) {
+
+        this.userName = userName;
+        this.userID = userID;
+        this.success = true;
+    }
+
+    public BatchResultDTO(String userName, String userID, String errorCode, String errorMessage) {
+
+        this.userName = userName;
+        this.userID = userID;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    public String getUserName() {
+
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+
+        this.userName = userName;
+    }
+
+    public String getUserID() {
+
+        return userID;
+    }
+
+    public void setUserID(String userID) {
+
+        this.userID = userID;
+    }
+
+    public boolean isSuccess() {
+
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+
+        this.success = success;
+    }
+
+    public String getErrorCode() {
+
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+
+        this.errorCode = errorCode;
+    }
+
+    public String getErrorMessage() {
+
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+
+        this.errorMessage = errorMessage;
+    }
+}
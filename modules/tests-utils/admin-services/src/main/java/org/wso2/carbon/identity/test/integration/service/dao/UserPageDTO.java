@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.test.integration.service.dao;
+
+/**
+ * Page of users returned by a user cursor.
+ */
+public class UserPageDTO {
+
+    private UserDTO[] users;
+    private String cursor;
+
+    public UserPageDTO() {
+
+        super();
+    }
+
+    public UserPageDTO(UserDTO[] users, String cursor) {
+
+        this.users = users;
+        this.cursor = cursor;
+    }
+
+    public UserDTO[] getUsers() {
+
+        return users;
+    }
+
+    public void setUsers(UserDTO[] users) {
+
+        this.users = users;
+    }
+
+    /**
+     * Cursor to fetch the next page with.
+     *
+     * @return Cursor, or null if this is the last page.
+     */
+    public String getCursor() {
+
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.scenarios.sso.test.saml;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.opensaml.common.xml.SAMLConstants;
+import org.opensaml.saml2.core.AuthnRequest;
+import org.opensaml.saml2.core.Response;
+import org.opensaml.saml2.core.StatusCode;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.sso.saml.stub.types.SAMLSSOServiceProviderDTO;
+import org.wso2.identity.scenarios.commons.SAML2SSOTestBase;
+import org.wso2.identity.scenarios.commons.SAMLConfig;
+import org.wso2.identity.scenarios.commons.ScenarioTestBase;
+import org.wso2.identity.scenarios.commons.TestConfig;
+import org.wso2.identity.scenarios.commons.TestUserMode;
+import org.wso2.identity.scenarios.commons.clients.usermgt.remote.RemoteUserStoreManagerServiceClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.wso2.carbon.utils.multitenancy.MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+import static org.wso2.identity.scenarios.commons.util.Constants.DEFAULT_PROFILE_NAME;
+import static org.wso2.identity.scenarios.commons.util.DataExtractUtil.getCookieFromResponse;
+import static org.wso2.identity.scenarios.commons.util.DataExtractUtil.getRedirectUrlFromResponse;
+import static org.wso2.identity.scenarios.commons.util.DataExtractUtil.isConsentRequested;
+import static org.wso2.identity.scenarios.commons.util.IdentityScenarioUtil.sendGetRequest;
+import static org.wso2.identity.scenarios.commons.util.SSOUtil.sendPOSTConsentMessage;
+import static org.wso2.identity.scenarios.commons.util.SSOUtil.sendRedirectRequest;
+
+/**
+ * Load driver for SAML2 web SSO that exercises the signature and encryption work of the identity server.
+ * <p>
+ * For every combination of a signing algorithm and an assertion encryption algorithm, a set of service providers
+ * is created that validate the signature of the requests, sign the responses and the assertions with the signing
+ * algorithm and encrypt the assertions with the encryption algorithm. Every worker thread has its own user and
+ * repeatedly signs in to the first k service providers with signed AuthnRequests, k going round from one to the
+ * number of service providers, and then ends the session with an IdP initiated single logout. The back channel
+ * logout requests the identity server sends to the session participants are received by a local HTTP server, so the
+ * time until all of them arrive is measured as the logout fan-out.
+ * <p>
+ * The latency percentiles are written to {@code saml-sso-load.txt} in the report directory: the login with
+ * credentials and the SSO to the further service providers per algorithm combination, and the logout and the logout
+ * fan-out per algorithm combination and number of session participants. The load is configured with system
+ * properties, for example:
+ * <pre>
+ * -Dsaml.load.threads=8 -Dsaml.load.iterations=100 -Dsaml.load.sp.count=4
+ * -Dsaml.load.signing.algorithms=rsa-sha256,rsa-sha512 -Dsaml.load.encryption.algorithms=none,aes256-cbc
+ * -Dsaml.load.binding=redirect -Dsaml.load.slo.receiver.host=localhost
+ * </pre>
+ * The identity server must be able to reach the logout receiver at {@code saml.load.slo.receiver.host}. An algorithm
+ * combination fails if none of its iterations succeeded, or if more than {@code saml.load.max.error.ratio} (0.01 by
+ * default) of them failed.
+ */
+public class SAMLSSOLoadTestCase extends ScenarioTestBase {
+
+    private static final Log log = LogFactory.getLog(SAMLSSOLoadTestCase.class);
+    private static final String SP_CONFIG_FILE = "sso-saml-load-app.xml";
+    private static final String USER_AGENT = "Apache-HttpClient/4.2.5 (java 1.5)";
+    private static final String USER_NAME_PREFIX = "samlloaduser";
+    private static final String USER_PASSWORD = "Samlload#123";
+    private static final String NO_ENCRYPTION = "none";
+    private static final String SLO_PATH = "/slo";
+    private static final String REPORT_FILE = "saml-sso-load.txt";
+    private static final Pattern SAML_REQUEST_PARAM = Pattern.compile("(?:^|&)SAMLRequest=([^&]*)");
+    private static final Pattern NAME_ID = Pattern.compile("<(?:\\w+:)?NameID[^>]*>([^<]+)</");
+
+    // Java signature algorithm, XML signature algorithm and XML digest algorithm of each signing algorithm.
+    private static final Map<String, String[]> SIGNING_ALGORITHMS = new HashMap<>();
+    private static final Map<String, String> ENCRYPTION_ALGORITHMS = new HashMap<>();
+
+    static {
+        SIGNING_ALGORITHMS.put("rsa-sha1", new String[]{"SHA1withRSA",
+                "http://www.w3.org/2000/09/xmldsig#rsa-sha1", "http://www.w3.org/2000/09/xmldsig#sha1"});
+        SIGNING_ALGORITHMS.put("rsa-sha256", new String[]{"SHA256withRSA",
+                "http://www.w3.org/2001/04/xmldsig-more#rsa-sha256", "http://www.w3.org/2001/04/xmlenc#sha256"});
+        SIGNING_ALGORITHMS.put("rsa-sha512", new String[]{"SHA512withRSA",
+                "http://www.w3.org/2001/04/xmldsig-more#rsa-sha512", "http://www.w3.org/2001/04/xmlenc#sha512"});
+        ENCRYPTION_ALGORITHMS.put("aes128-cbc", "http://www.w3.org/2001/04/xmlenc#aes128-cbc");
+        ENCRYPTION_ALGORITHMS.put("aes256-cbc", "http://www.w3.org/2001/04/xmlenc#aes256-cbc");
+        ENCRYPTION_ALGORITHMS.put("aes128-gcm", "http://www.w3.org/2009/xmlenc11#aes128-gcm");
+        ENCRYPTION_ALGORITHMS.put("aes256-gcm", "http://www.w3.org/2009/xmlenc11#aes256-gcm");
+    }
+
+    private final int threads = Integer.getInteger("saml.load.threads", 8);
+    private final int iterations = Integer.getInteger("saml.load.iterations", 100);
+    private final int warmUpIterations = Integer.getInteger("saml.load.warmup.iterations", 2);
+    private final int serviceProviderCount = Integer.getInteger("saml.load.sp.count", 4);
+    private final int sloTimeoutSeconds = Integer.getInteger("saml.load.slo.timeout.seconds", 30);
+    private final double maxErrorRatio = Double.parseDouble(System.getProperty("saml.load.max.error.ratio", "0.01"));
+    private final String httpBinding = "post".equalsIgnoreCase(System.getProperty("saml.load.binding")) ?
+            SAMLConstants.SAML2_POST_BINDING_URI : SAMLConstants.SAML2_REDIRECT_BINDING_URI;
+
+    private SAML2SSOTestBase saml2SSOTestBase;
+    private RemoteUserStoreManagerServiceClient remoteUSMServiceClient;
+    private HttpServer sloReceiver;
+    private String sloReceiverUrl;
+    private final List<String> userNames = new ArrayList<>();
+    // Logout requests a user is waiting for, by user name.
+    private final Map<String, CountDownLatch> pendingLogouts = new ConcurrentHashMap<>();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    @DataProvider(name = "algorithmProvider")
+    public static Object[][] algorithmProvider() {
+
+        List<Object[]> combinations = new ArrayList<>();
+        for (String signing : getList("saml.load.signing.algorithms", "rsa-sha256,rsa-sha512")) {
+            for (String encryption : getList("saml.load.encryption.algorithms", "none,aes256-cbc")) {
+                Assert.assertTrue(SIGNING_ALGORITHMS.containsKey(signing), "Unknown signing algorithm: " + signing);
+                Assert.assertTrue(NO_ENCRYPTION.equals(encryption) || ENCRYPTION_ALGORITHMS.containsKey(encryption),
+                        "Unknown encryption algorithm: " + encryption);
+                combinations.add(new Object[]{signing, encryption});
+            }
+        }
+        return combinations.toArray(new Object[0][]);
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void testInit() throws Exception {
+
+        super.init();
+        loginAndObtainSessionCookie();
+        this.saml2SSOTestBase = new SAML2SSOTestBase(backendURL, backendServiceURL, sessionCookie, configContext);
+        this.remoteUSMServiceClient = new RemoteUserStoreManagerServiceClient(backendServiceURL, sessionCookie);
+
+        for (int i = 0; i < threads; i++) {
+            String userName = USER_NAME_PREFIX + i;
+            remoteUSMServiceClient.addUser(userName, USER_PASSWORD, null, null, DEFAULT_PROFILE_NAME, false);
+            userNames.add(userName);
+        }
+
+        sloReceiver = HttpServer.create(new InetSocketAddress(Integer.getInteger("saml.load.slo.receiver.port", 0)),
+                0);
+        sloReceiver.createContext(SLO_PATH, this::receiveLogoutRequest);
+        sloReceiver.setExecutor(Executors.newCachedThreadPool());
+        sloReceiver.start();
+        sloReceiverUrl = "http://" + System.getProperty("saml.load.slo.receiver.host", "localhost") + ":" +
+                sloReceiver.getAddress().getPort() + SLO_PATH;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void clear() throws Exception {
+
+        try {
+            for (String userName : userNames) {
+                remoteUSMServiceClient.deleteUser(userName);
+            }
+            recorder.writeReport();
+        } finally {
+            if (sloReceiver != null) {
+                sloReceiver.stop(0);
+            }
+        }
+    }
+
+    @Test(description = "Signed SAML SSO and IdP initiated SLO under load.", dataProvider = "algorithmProvider")
+    public void testSAMLSSOLoad(String signing, String encryption) throws Exception {
+
+        String profile = signing + "_" + encryption;
+        List<SAMLSSOServiceProviderDTO> serviceProviders = new ArrayList<>();
+        List<String> applicationNames = new ArrayList<>();
+        try {
+            for (int i = 0; i < serviceProviderCount; i++) {
+                String applicationName = "saml-load-" + profile + "-" + i;
+                applicationNames.add(saml2SSOTestBase.createServiceProvider(SP_CONFIG_FILE,
+                        getServiceProviderPlaceholders(applicationName, signing, encryption)));
+                SAMLSSOServiceProviderDTO serviceProvider =
+                        saml2SSOTestBase.getSAMLSSOServiceProviderByIssuer(applicationName);
+                Assert.assertNotNull(serviceProvider, "Failed to create the SAML2 application " + applicationName);
+                serviceProviders.add(serviceProvider);
+            }
+
+            log.info("Running the SAML SSO load for " + profile + " with " + threads + " threads.");
+            int failedIterations = 0;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Integer>> workers = new ArrayList<>();
+                for (String userName : userNames) {
+                    workers.add(executor.submit(() -> runWorker(userName, profile, signing, serviceProviders)));
+                }
+                for (Future<Integer> worker : workers) {
+                    failedIterations += worker.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            int totalIterations = userNames.size() * (warmUpIterations + iterations);
+            double errorRatio = (double) failedIterations / totalIterations;
+            Assert.assertTrue(failedIterations < totalIterations, "No SAML SSO load iteration succeeded for " +
+                    profile + ".");
+            Assert.assertTrue(errorRatio <= maxErrorRatio, String.format(Locale.ENGLISH,
+                    "Error ratio %.4f of %s exceeds the allowed %.4f.", errorRatio, profile, maxErrorRatio));
+        } finally {
+            for (String applicationName : applicationNames) {
+                saml2SSOTestBase.deleteServiceProvider(applicationName);
+            }
+        }
+    }
+
+    private Map<String, String> getServiceProviderPlaceholders(String applicationName, String signing,
+                                                               String encryption) {
+
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("applicationName", applicationName);
+        placeholders.put("issuer", applicationName);
+        placeholders.put("assertionConsumerUrl", "http://" + applicationName + "/acs");
+        placeholders.put("sloRequestUrl", sloReceiverUrl);
+        placeholders.put("signingAlgorithm", SIGNING_ALGORITHMS.get(signing)[1]);
+        placeholders.put("digestAlgorithm", SIGNING_ALGORITHMS.get(signing)[2]);
+        placeholders.put("encryptAssertion", String.valueOf(!NO_ENCRYPTION.equals(encryption)));
+        placeholders.put("assertionEncryptionAlgorithm", ENCRYPTION_ALGORITHMS.getOrDefault(encryption,
+                ENCRYPTION_ALGORITHMS.get("aes256-cbc")));
+        return placeholders;
+    }
+
+    /**
+     * Run the iterations of a user.
+     *
+     * @return Number of failed iterations.
+     */
+    private int runWorker(String userName, String profile, String signing,
+                          List<SAMLSSOServiceProviderDTO> serviceProviders) throws IOException {
+
+        String[] algorithms = SIGNING_ALGORITHMS.get(signing);
+        SAMLConfig samlConfig = new SAMLConfig(TestUserMode.SUPER_TENANT_USER, new TestConfig.User(userName,
+                USER_PASSWORD, SUPER_TENANT_DOMAIN_NAME, userName, null, null), TestConfig.ClaimType.NONE,
+                httpBinding, new HashMap<>(), "", algorithms[0], algorithms[1], algorithms[2], true);
+        CookieStore cookieStore = new BasicCookieStore();
+        int failedIterations = 0;
+        try (CloseableHttpClient client = HttpClientBuilder.create()
+                .setDefaultCookieStore(cookieStore)
+                .setDefaultRequestConfig(RequestConfig.custom().setCookieSpec(CookieSpecs.DEFAULT).build())
+                .build()) {
+            for (int iteration = 0; iteration < warmUpIterations + iterations; iteration++) {
+                boolean measured = iteration >= warmUpIterations;
+                int participants = 1 + iteration % serviceProviders.size();
+                cookieStore.clear();
+                try {
+                    for (int i = 0; i < participants; i++) {
+                        long start = System.nanoTime();
+                        signIn(client, samlConfig, serviceProviders.get(i), i == 0);
+                        if (measured) {
+                            recorder.record((i == 0 ? "login_" : "sso_") + profile, System.nanoTime() - start);
+                        }
+                    }
+                    logout(client, userName, participants, profile, measured);
+                } catch (Exception e) {
+                    failedIterations++;
+                    recorder.recordError("failed_iteration_" + profile);
+                    log.warn("SAML SSO load iteration failed for " + userName + " with " + profile + ".", e);
+                }
+            }
+        }
+        return failedIterations;
+    }
+
+    private void signIn(CloseableHttpClient client, SAMLConfig samlConfig, SAMLSSOServiceProviderDTO serviceProvider,
+                        boolean authenticate) throws Exception {
+
+        AuthnRequest authnRequest = saml2SSOTestBase.buildAuthnRequest(serviceProvider, false, false, samlConfig);
+        HttpResponse response = saml2SSOTestBase.sendSAMLAuthenticationRequest(client, authnRequest, samlConfig,
+                serviceProvider, saml2SSOTestBase.getDefaultX509Cred(), USER_AGENT);
+        if (authenticate) {
+            response = saml2SSOTestBase.sendLoginPostMessage(response,
+                    serviceProvider.getDefaultAssertionConsumerUrl(), samlConfig.getArtifact(),
+                    samlConfig.getUser().getUsername(), samlConfig.getUser().getPassword(), client, USER_AGENT);
+            response = handleUserConsent(client, response, serviceProvider);
+            if (StringUtils.isNotBlank(getRedirectUrlFromResponse(response))) {
+                EntityUtils.consume(response.getEntity());
+                response = sendRedirectRequest(response, USER_AGENT,
+                        serviceProvider.getDefaultAssertionConsumerUrl(), client);
+            }
+        }
+        Response samlResponse = saml2SSOTestBase.extractAndProcessSAMLResponse(response);
+        String status = samlResponse.getStatus().getStatusCode().getValue();
+        if (!StatusCode.SUCCESS_URI.equals(status)) {
+            throw new IOException("SAML2 response of " + serviceProvider.getIssuer() + " has the status " + status);
+        }
+    }
+
+    private HttpResponse handleUserConsent(CloseableHttpClient client, HttpResponse response,
+                                           SAMLSSOServiceProviderDTO serviceProvider) throws Exception {
+
+        if (isConsentRequested(response)) {
+            String pastrCookie = getCookieFromResponse(response, "pastr");
+            EntityUtils.consume(response.getEntity());
+            response = sendPOSTConsentMessage(response, saml2SSOTestBase.getCommonauthEndpoint(), USER_AGENT,
+                    serviceProvider.getDefaultAssertionConsumerUrl(), client, pastrCookie);
+        }
+        return response;
+    }
+
+    private void logout(CloseableHttpClient client, String userName, int participants, String profile,
+                        boolean measured) throws Exception {
+
+        CountDownLatch logoutRequests = new CountDownLatch(participants);
+        pendingLogouts.put(userName, logoutRequests);
+        try {
+            long start = System.nanoTime();
+            HttpResponse response = sendGetRequest(client, saml2SSOTestBase.getSamlIdpSloUrl(), null,
+                    new Header[]{new BasicHeader(HttpHeaders.USER_AGENT, USER_AGENT)});
+            int statusCode = response.getStatusLine().getStatusCode();
+            EntityUtils.consume(response.getEntity());
+            if (statusCode >= 400) {
+                throw new IOException("IdP initiated logout failed with the status " + statusCode);
+            }
+            String name = profile + "_participants_" + participants;
+            if (measured) {
+                recorder.record("slo_" + name, System.nanoTime() - start);
+            }
+            if (!logoutRequests.await(sloTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IOException(logoutRequests.getCount() + " of " + participants + " session participants " +
+                        "did not receive a logout request of " + userName);
+            }
+            if (measured) {
+                recorder.record("slo_fanout_" + name, System.nanoTime() - start);
+            }
+        } finally {
+            pendingLogouts.remove(userName);
+        }
+    }
+
+    private void receiveLogoutRequest(HttpExchange exchange) throws IOException {
+
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            InputStream requestBody = exchange.getRequestBody();
+            for (int read = requestBody.read(buffer); read != -1; read = requestBody.read(buffer)) {
+                content.write(buffer, 0, read);
+            }
+            String body = new String(content.toByteArray(), StandardCharsets.UTF_8);
+            Matcher samlRequest = SAML_REQUEST_PARAM.matcher(body);
+            if (samlRequest.find()) {
+                String logoutRequest = new String(Base64.getMimeDecoder().decode(URLDecoder.decode(
+                        samlRequest.group(1), StandardCharsets.UTF_8.name())), StandardCharsets.UTF_8);
+                Matcher nameId = NAME_ID.matcher(logoutRequest);
+                if (nameId.find()) {
+                    CountDownLatch logoutRequests = pendingLogouts.get(
+                            StringUtils.substringBefore(nameId.group(1).trim(), "@"));
+                    if (logoutRequests != null) {
+                        logoutRequests.countDown();
+                    }
+                }
+            }
+            exchange.sendResponseHeaders(200, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static List<String> getList(String property, String defaultValue) {
+
+        List<String> values = new ArrayList<>();
+        for (String value : System.getProperty(property, defaultValue).split(",")) {
+            if (StringUtils.isNotBlank(value)) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Latencies and errors of the measured operations, by operation name.
+     */
+    private static class LatencyRecorder {
+
+        private final Map<String, List<Long>> latencies = Collections.synchronizedMap(new LinkedHashMap<>());
+        private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        void record(String name, long nanos) {
+
+            List<Long> values;
+            synchronized (latencies) {
+                values = latencies.computeIfAbsent(name, key -> new ArrayList<>());
+            }
+            synchronized (values) {
+                values.add(nanos);
+            }
+        }
+
+        void recordError(String name) {
+
+            errors.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+        }
+
+        void writeReport() throws IOException {
+
+            File reportDirectory = new File(System.getProperty("saml.load.report.directory", "saml-load-report"));
+            if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs()) {
+                throw new IOException("Unable to create the report directory " + reportDirectory.getAbsolutePath());
+            }
+            try (PrintStream report = new PrintStream(new FileOutputStream(new File(reportDirectory, REPORT_FILE)),
+                    false, StandardCharsets.UTF_8.name())) {
+                synchronized (latencies) {
+                    for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+                        long[] values;
+                        synchronized (entry.getValue()) {
+                            values = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+                        }
+                        Arrays.sort(values);
+                        String line = String.format(Locale.ENGLISH, "%s count=%d p50=%.2fms p90=%.2fms " +
+                                        "p99=%.2fms max=%.2fms", entry.getKey(), values.length,
+                                percentile(values, 50), percentile(values, 90), percentile(values, 99),
+                                percentile(values, 100));
+                        report.println(line);
+                        log.info(line);
+                    }
+                }
+                for (Map.Entry<String, AtomicLong> entry : errors.entrySet()) {
+                    String line = entry.getKey() + " count=" + entry.getValue().get();
+                    report.println(line);
+                    log.warn(line);
+                }
+            }
+        }
+
+        private static double percentile(long[] sortedValues, double percentile) {
+
+            if (sortedValues.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+            return sortedValues[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -218,6 +218,16 @@ public class SAML2SSOTestBase extends SSOCommonClientForSAML {
         return defaultX509Cred;
     }
 
+    /**
+     * Get the single logout URL of the identity provider.
+     *
+     * @return SAML single logout URL.
+     */
+    public String getSamlIdpSloUrl() {
+
+        return samlIdpSloUrl;
+    }
+
     /**
      * Retrieve the SAML SSO service provider from a service provider.
      *
@@ -145,11 +145,28 @@ public class SSOCommonClientForSAML {
      */
     public String createServiceProvider(String fileName) throws Exception {
 
+        return createServiceProvider(fileName, new HashMap<>());
+    }
+
+    /**
+     * Create service provider from a configuration file with ${name} placeholders, so several service providers
+     * can be created from the same file.
+     *
+     * @param fileName     Service provider configuration file name.
+     * @param placeholders Values of the placeholders in the file, by placeholder name.
+     * @return Service provider name.
+     * @throws Exception If error occurs while creating service provider.
+     */
+    public String createServiceProvider(String fileName, Map<String, String> placeholders) throws Exception {
+
         Path path = Paths.get(System.getProperty(SERVICE_PROVIDERS_LOCATION) + fileName);
         if (!Files.exists(path)) {
             throw new FileNotFoundException("Failed to find file: " + path.toString());
         }
         String fileContent = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+            fileContent = fileContent.replace("${" + placeholder.getKey() + "}", placeholder.getValue());
+        }
 
         return applicationManagementServiceClient.importApplication(fileName, fileContent);
     }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.scenarios.commons.util;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single pass extractor for the values of form inputs, such as sessionDataKey, sessionDataKeyConsent, SAMLResponse,
+ * RelayState or wresult. The page is read as a stream of characters and only input tags are parsed, so attributes may
+ * be in any order, quoted with either quote character and split across lines. Reading stops as soon as all requested
+ * inputs are found.
+ */
+public final class HtmlFormExtractor {
+
+    private static final int EOF = -1;
+    private static final String INPUT_TAG = "input";
+    private static final String NAME_ATTRIBUTE = "name";
+    private static final String VALUE_ATTRIBUTE = "value";
+    private static final Map<String, Character> NAMED_ENTITIES = new HashMap<>();
+
+    static {
+        NAMED_ENTITIES.put("amp", '&');
+        NAMED_ENTITIES.put("lt", '<');
+        NAMED_ENTITIES.put("gt", '>');
+        NAMED_ENTITIES.put("quot", '"');
+        NAMED_ENTITIES.put("apos", '\'');
+    }
+
+    private HtmlFormExtractor() {
+
+    }
+
+    /**
+     * Extract the values of the given inputs from the http response.
+     *
+     * @param response   Http response with an HTML page.
+     * @param inputNames Names of the inputs to extract.
+     * @return Input values by input name, in the order the inputs appear in the page. Inputs not found are left out.
+     * @throws IOException If an error occurred while reading the response.
+     */
+    public static Map<String, String> extractInputValues(HttpResponse response, String... inputNames)
+            throws IOException {
+
+        HttpEntity entity = response.getEntity();
+        Charset charset = ContentType.getOrDefault(entity).getCharset();
+        Reader reader = new BufferedReader(new InputStreamReader(entity.getContent(),
+                charset != null ? charset : StandardCharsets.UTF_8));
+        return extractInputValues(reader, Arrays.asList(inputNames));
+    }
+
+    /**
+     * Extract the values of the given inputs from an HTML page.
+     *
+     * @param reader     Reader of the HTML page. It is not closed.
+     * @param inputNames Names of the inputs to extract. All inputs are extracted if empty.
+     * @return Input values by input name, in the order the inputs appear in the page. Inputs not found are left out.
+     * @throws IOException If an error occurred while reading the page.
+     */
+    public static Map<String, String> extractInputValues(Reader reader, Collection<String> inputNames)
+            throws IOException {
+
+        Set<String> remaining = new HashSet<>(inputNames);
+        boolean extractAll = remaining.isEmpty();
+        Map<String, String> inputValues = new LinkedHashMap<>();
+        StringBuilder buffer = new StringBuilder();
+
+        int c = reader.read();
+        while (c != EOF && (extractAll || !remaining.isEmpty())) {
+            if (c != '<') {
+                c = reader.read();
+                continue;
+            }
+            c = readName(reader, reader.read(), buffer);
+            if (buffer.length() == 0 && c == '!') {
+                c = skipComment(reader);
+                continue;
+            }
+            if (!INPUT_TAG.equalsIgnoreCase(buffer.toString())) {
+                continue;
+            }
+            Map<String, String> attributes = new HashMap<>();
+            c = readAttributes(reader, c, attributes, buffer);
+            String name = attributes.get(NAME_ATTRIBUTE);
+            if (name != null && (extractAll || remaining.remove(name)) && !inputValues.containsKey(name)) {
+                String value = attributes.get(VALUE_ATTRIBUTE);
+                inputValues.put(name, value != null ? value : "");
+            }
+        }
+        return inputValues;
+    }
+
+    private static int readName(Reader reader, int c, StringBuilder buffer) throws IOException {
+
+        buffer.setLength(0);
+        while (c != EOF && !Character.isWhitespace(c) && c != '=' && c != '>' && c != '/' && c != '<' && c != '!') {
+            buffer.append((char) c);
+            c = reader.read();
+        }
+        return c;
+    }
+
+    private static int readAttributes(Reader reader, int c, Map<String, String> attributes, StringBuilder buffer)
+            throws IOException {
+
+        while (true) {
+            c = skipWhitespace(reader, c);
+            if (c == EOF || c == '>') {
+                return c == EOF ? EOF : reader.read();
+            }
+            if (c == '/' || c == '<' || c == '!') {
+                c = reader.read();
+                continue;
+            }
+            c = readName(reader, c, buffer);
+            String attributeName = buffer.toString().toLowerCase();
+            c = skipWhitespace(reader, c);
+            if (c != '=') {
+                attributes.put(attributeName, null);
+                continue;
+            }
+            c = skipWhitespace(reader, reader.read());
+            buffer.setLength(0);
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                c = reader.read();
+                while (c != EOF && c != quote) {
+                    buffer.append((char) c);
+                    c = reader.read();
+                }
+                c = reader.read();
+            } else {
+                while (c != EOF && !Character.isWhitespace(c) && c != '>') {
+                    buffer.append((char) c);
+                    c = reader.read();
+                }
+            }
+            attributes.put(attributeName, decodeEntities(buffer));
+        }
+    }
+
+    private static int skipWhitespace(Reader reader, int c) throws IOException {
+
+        while (c != EOF && Character.isWhitespace(c)) {
+            c = reader.read();
+        }
+        return c;
+    }
+
+    private static int skipComment(Reader reader) throws IOException {
+
+        // Declarations such as <!DOCTYPE html> end at the first '>', comments only at "-->".
+        int c = reader.read();
+        if (c != '-' || (c = reader.read()) != '-') {
+            while (c != EOF && c != '>') {
+                c = reader.read();
+            }
+            return c == EOF ? EOF : reader.read();
+        }
+        int dashes = 0;
+        while ((c = reader.read()) != EOF) {
+            if (c == '>' && dashes >= 2) {
+                return reader.read();
+            }
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+        return EOF;
+    }
+
+    private static String decodeEntities(CharSequence value) {
+
+        int ampersand = indexOf(value, '&', 0);
+        if (ampersand < 0) {
+            return value.toString();
+        }
+        StringBuilder decoded = new StringBuilder(value.length());
+        decoded.append(value, 0, ampersand);
+        int i = ampersand;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            int semicolon = c == '&' ? indexOf(value, ';', i) : -1;
+            String replacement = semicolon > i ? decodeEntity(value.subSequence(i + 1, semicolon).toString()) : null;
+            if (replacement != null) {
+                decoded.append(replacement);
+                i = semicolon + 1;
+            } else {
+                decoded.append(c);
+                i++;
+            }
+        }
+        return decoded.toString();
+    }
+
+    private static String decodeEntity(String entity) {
+
+        if (entity.startsWith("#")) {
+            try {
+                int codePoint = entity.startsWith("#x") || entity.startsWith("#X") ?
+                        Integer.parseInt(entity.substring(2), 16) : Integer.parseInt(entity.substring(1));
+                return new String(Character.toChars(codePoint));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        Character character = NAMED_ENTITIES.get(entity);
+        return character != null ? String.valueOf(character) : null;
+    }
+
+    private static int indexOf(CharSequence value, char c, int from) {
+
+        for (int i = from; i < value.length(); i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.scenarios.commons.util;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the parsing of the form inputs by {@link HtmlFormExtractor} and its use by {@link DataExtractUtil}. No server
+ * is needed.
+ */
+public class HtmlFormExtractorTestCase {
+
+    @Test(groups = "wso2.is", description = "Extract an input whose attributes are split across lines.")
+    public void testAttributesSplitAcrossLines() throws IOException {
+
+        String page = "<form method=\"post\">\n" +
+                "    <input type=\"hidden\"\n" +
+                "           name=\"sessionDataKey\"\n" +
+                "           value=\"8a433378-6d1f-434b-b574-a143dbb1a508\"/>\n" +
+                "</form>";
+
+        Assert.assertEquals(extract(page, "sessionDataKey").get("sessionDataKey"),
+                "8a433378-6d1f-434b-b574-a143dbb1a508");
+    }
+
+    @Test(groups = "wso2.is", description = "Extract inputs quoted with single quotes or not quoted at all.")
+    public void testQuoteStyles() throws IOException {
+
+        String page = "<INPUT value='single' NAME='RelayState'><input name=wresult value=unquoted>";
+
+        Map<String, String> inputValues = extract(page, "RelayState", "wresult");
+        Assert.assertEquals(inputValues.get("RelayState"), "single");
+        Assert.assertEquals(inputValues.get("wresult"), "unquoted");
+    }
+
+    @Test(groups = "wso2.is", description = "Skip inputs that are commented out.")
+    public void testComments() throws IOException {
+
+        String page = "<!DOCTYPE html>\n" +
+                "<!-- <input name=\"sessionDataKey\" value=\"commented\"> -- still a comment -->\n" +
+                "<input name=\"sessionDataKey\" value=\"actual\">";
+
+        Assert.assertEquals(extract(page, "sessionDataKey").get("sessionDataKey"), "actual");
+    }
+
+    @Test(groups = "wso2.is", description = "Decode the entities of the attribute values.")
+    public void testEntityDecoding() throws IOException {
+
+        String page = "<input name=\"SAMLResponse\" value=\"a&amp;b&lt;c&gt;&quot;d&quot;&#39;e&#x27;&unknown;\">";
+
+        Assert.assertEquals(extract(page, "SAMLResponse").get("SAMLResponse"), "a&b<c>\"d\"'e'&unknown;");
+    }
+
+    @Test(groups = "wso2.is", description = "Return the inputs in page order and leave out the missing ones.")
+    public void testPageOrder() throws IOException {
+
+        String page = "<input name=\"sessionDataKeyConsent\" value=\"consent\">" +
+                "<input name=\"sessionDataKey\" value=\"first\">" +
+                "<input name=\"sessionDataKey\" value=\"second\">";
+
+        Map<String, String> inputValues = extract(page, "sessionDataKey", "sessionDataKeyConsent", "RelayState");
+        Assert.assertEquals(inputValues.keySet(), Arrays.asList("sessionDataKeyConsent", "sessionDataKey"));
+        Assert.assertEquals(inputValues.get("sessionDataKey"), "first");
+    }
+
+    @Test(groups = "wso2.is", description = "Stop reading once all the requested inputs are found.")
+    public void testEarlyStop() throws IOException {
+
+        String rest = "<input name=\"RelayState\" value=\"unread\"></form>";
+        StringReader reader = new StringReader("<form><input name=\"sessionDataKey\" value=\"key\">\n" + rest);
+
+        Map<String, String> inputValues = HtmlFormExtractor.extractInputValues(reader,
+                Collections.singletonList("sessionDataKey"));
+        Assert.assertEquals(inputValues.get("sessionDataKey"), "key");
+        Assert.assertEquals(IOUtils.toString(reader), rest, "The page was read past the requested input.");
+    }
+
+    @Test(groups = "wso2.is", description = "Extract a flow input split across lines from a response.")
+    public void testFlowInputFromResponse() throws IOException {
+
+        String page = "<form>\n" +
+                "    <input type=\"hidden\" name=\"RelayState\" value=\"relay\">\n" +
+                "    <input type=\"hidden\" name=\"sessionDataKey\"\n" +
+                "           value=\"8a433378-6d1f-434b-b574-a143dbb1a508\"/>\n" +
+                "</form>";
+        Map<String, Integer> keyPositionMap = new HashMap<>();
+        keyPositionMap.put("name=\"sessionDataKey\"", 1);
+
+        List<DataExtractUtil.KeyValue> keyValues = DataExtractUtil.extractDataFromResponse(createResponse(page),
+                keyPositionMap);
+        Assert.assertNotNull(keyValues, "The sessionDataKey was not found.");
+        Assert.assertEquals(keyValues.get(0).getKey(), "name=\"sessionDataKey\"");
+        Assert.assertEquals(keyValues.get(0).getValue(), "8a433378-6d1f-434b-b574-a143dbb1a508");
+    }
+
+    @Test(groups = "wso2.is", description = "Match keys other than the flow inputs line by line.")
+    public void testOtherKeysFromResponse() throws IOException {
+
+        String page = "<form>\n<input type=\"hidden\" name=\"custom\" value=\"value\">\n</form>";
+        Map<String, Integer> keyPositionMap = new HashMap<>();
+        keyPositionMap.put("name=\"custom\"", 1);
+
+        List<DataExtractUtil.KeyValue> keyValues = DataExtractUtil.extractDataFromResponse(createResponse(page),
+                keyPositionMap);
+        Assert.assertNotNull(keyValues, "The custom input was not found.");
+        Assert.assertEquals(keyValues.get(0).getValue(), "value");
+    }
+
+    private static HttpResponse createResponse(String page) {
+
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        response.setEntity(new StringEntity(page, ContentType.TEXT_HTML));
+        return response;
+    }
+
+    private static Map<String, String> extract(String page, String... inputNames) throws IOException {
+
+        return HtmlFormExtractor.extractInputValues(new StringReader(page), Arrays.asList(inputNames));
+    }
+}